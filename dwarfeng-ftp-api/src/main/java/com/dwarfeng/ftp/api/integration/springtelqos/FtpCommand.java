@@ -17,10 +17,6 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nullable;
 import java.io.File;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -405,9 +401,7 @@ public class FtpCommand extends CliCommand {
         File localFile = parseUploadFile(localPath);
         FtpFileLocation fileLocation = parseRemoteFileLocation(remoteFilePath);
 
-        try (InputStream in = Files.newInputStream(localFile.toPath())) {
-            ftpQosService.storeFileByStream(handlerName, fileLocation, in);
-        }
+        ftpQosService.storeFileFromPath(handlerName, fileLocation, localFile.toPath());
 
         context.sendMessage("上传成功!");
         context.sendMessage("处理器名称: " + normalizeHandlerNameForOutput(handlerName));
@@ -423,11 +417,7 @@ public class FtpCommand extends CliCommand {
         File localFile = parseDownloadFile(localPath);
         FtpFileLocation fileLocation = parseRemoteFileLocation(remoteFilePath);
 
-        try (OutputStream out = Files.newOutputStream(
-                localFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
-        )) {
-            ftpQosService.retrieveFileByStream(handlerName, fileLocation, out);
-        }
+        ftpQosService.retrieveFileToPath(handlerName, fileLocation, localFile.toPath());
 
         context.sendMessage("下载成功!");
         context.sendMessage("处理器名称: " + normalizeHandlerNameForOutput(handlerName));
@@ -513,6 +503,9 @@ public class FtpCommand extends CliCommand {
         context.sendMessage("  name: " + ftpFile.getName());
         context.sendMessage("  type: " + formatFileType(ftpFile.getType()));
         context.sendMessage("  size: " + ftpFile.getSize());
+        context.sendMessage("  modifiedTime: " + ftpFile.getModifiedTime());
+        context.sendMessage("  permission: " + ftpFile.getPermission());
+        context.sendMessage("  uniqueId: " + ftpFile.getUniqueId());
     }
 
     private void handleRenameFile(CommandExecutor.Context context, CommandLine cmd) throws Exception {
@@ -0,0 +1,271 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.sdk.util.FtpConfigUtil;
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.handler.AsyncFtpHandler;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步 FTP 处理器实现。
+ *
+ * <p>
+ * 该实现将 {@link FtpHandler} 的操作提交到 {@link FtpAsyncExecutor} 中执行，
+ * 取消以及超时时中止传输的行为见 {@link FtpAsyncExecutor}。
+ *
+ * <p>
+ * 如果指定了启用的 {@link NioTransferEngine}，基于本地文件路径的传输由 NIO 传输引擎执行，
+ * 不占用 {@link FtpAsyncExecutor} 的线程。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class AsyncFtpHandlerImpl implements AsyncFtpHandler {
+
+    private final FtpHandler handler;
+    private final FtpAsyncExecutor executor;
+    private final NioTransferEngine engine;
+    private final long timeout;
+
+    public AsyncFtpHandlerImpl(@Nonnull FtpHandler handler, @Nonnull FtpAsyncExecutor executor) {
+        this(handler, executor, null, executor.getDefaultTimeout());
+    }
+
+    public AsyncFtpHandlerImpl(@Nonnull FtpHandler handler, @Nonnull FtpAsyncExecutor executor, long timeout) {
+        this(handler, executor, null, timeout);
+    }
+
+    public AsyncFtpHandlerImpl(
+            @Nonnull FtpHandler handler, @Nonnull FtpAsyncExecutor executor, @Nullable NioTransferEngine engine
+    ) {
+        this(handler, executor, engine, executor.getDefaultTimeout());
+    }
+
+    public AsyncFtpHandlerImpl(
+            @Nonnull FtpHandler handler, @Nonnull FtpAsyncExecutor executor, @Nullable NioTransferEngine engine,
+            long timeout
+    ) {
+        FtpConfigUtil.checkAsyncOperationTimeout(timeout);
+        this.handler = handler;
+        this.executor = executor;
+        this.engine = engine;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public AsyncFtpHandler withTimeout(long timeout) {
+        return new AsyncFtpHandlerImpl(handler, executor, engine, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsFile(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.existsFile(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFile(@Nonnull FtpFileLocation fileLocation, @Nonnull byte[] content) {
+        return submit(() -> {
+            handler.storeFile(fileLocation, content);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieveFile(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.retrieveFile(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFileByStream(@Nonnull FtpFileLocation fileLocation, @Nonnull InputStream in) {
+        return submit(() -> {
+            handler.storeFileByStream(fileLocation, in);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveFileByStream(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull OutputStream out
+    ) {
+        return submit(() -> {
+            handler.retrieveFileByStream(fileLocation, out);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFile(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> {
+            handler.deleteFile(fileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> removeDirectory(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> {
+            handler.removeDirectory(fileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<FtpFile[]> listFiles(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.listFiles(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<String[]> listFileNames(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.listFileNames(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> openInputStream(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.openInputStream(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<OutputStream> openOutputStream(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.openOutputStream(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> renameFile(
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    ) {
+        return submit(() -> {
+            handler.renameFile(oldFileLocation, neoFileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> clearDirectory(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> {
+            handler.clearDirectory(fileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> copyFile(
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    ) {
+        return submit(() -> {
+            handler.copyFile(oldFileLocation, neoFileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<FtpFile> descFile(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.descFile(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> moveFile(
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    ) {
+        return submit(() -> {
+            handler.moveFile(oldFileLocation, neoFileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> ensureDirectories(@Nonnull List<FtpFileLocation> fileLocations) {
+        return submit(() -> {
+            handler.ensureDirectories(fileLocations);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> visitFiles(@Nonnull FtpFileLocation fileLocation, @Nonnull FtpFileVisitor visitor) {
+        return submit(() -> {
+            handler.visitFiles(fileLocation, visitor);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFileFromPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path) {
+        if (isEngineEnabled()) {
+            return engine.storeFileFromPath(fileLocation, path, timeout);
+        }
+        return submit(() -> {
+            handler.storeFileFromPath(fileLocation, path);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveFileToPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path) {
+        if (isEngineEnabled()) {
+            return engine.retrieveFileToPath(fileLocation, path, timeout);
+        }
+        return submit(() -> {
+            handler.retrieveFileToPath(fileLocation, path);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<ByteBuffer> retrieveFileAsByteBuffer(
+            @Nonnull FtpFileLocation fileLocation, boolean direct
+    ) {
+        return submit(() -> handler.retrieveFileAsByteBuffer(fileLocation, direct));
+    }
+
+    @Override
+    public CompletableFuture<FtpFileContent> retrieveFileContent(@Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> handler.retrieveFileContent(fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFileFromChannel(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    ) {
+        return submit(() -> {
+            handler.storeFileFromChannel(fileLocation, fileChannel);
+            return null;
+        });
+    }
+
+    private boolean isEngineEnabled() {
+        return Objects.nonNull(engine) && engine.isEnabled();
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> operation) {
+        return executor.submit(operation, timeout);
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncFtpHandlerImpl{" +
+                "handler=" + handler +
+                ", executor=" + executor +
+                ", engine=" + engine +
+                ", timeout=" + timeout +
+                '}';
+    }
+}
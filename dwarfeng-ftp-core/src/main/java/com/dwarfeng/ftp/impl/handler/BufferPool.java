@@ -0,0 +1,406 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.BufferPoolMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓冲区池。
+ *
+ * <p>
+ * 处理器的传输、复制以及流操作使用的缓冲区均从该池中借出，使用完毕后归还，供后续的操作复用，
+ * 因此稳定运行时，传输过程中不会分配新的缓冲区。
+ *
+ * <p>
+ * 缓冲区分为堆内存缓冲区与直接内存缓冲区，每种缓冲区按照容量分为若干个大小级别，
+ * 级别的容量为 {@link #MIN_CLASS_SIZE} 至 {@link #MAX_CLASS_SIZE} 之间的 2 的幂。<br>
+ * 借出的缓冲区的容量为不小于请求容量的最小级别的容量；请求的容量超过 {@link #MAX_CLASS_SIZE} 时，
+ * 缓冲区被直接分配，且在归还时被丢弃。
+ *
+ * <p>
+ * 空闲的缓冲区首先被放入线程本地缓存，同一个线程再次借出相同级别的缓冲区时无需竞争锁；
+ * 线程本地缓存只缓存容量不超过 {@link #SEGMENT_SIZE} 的缓冲区，且每个级别只缓存一个。<br>
+ * 线程本地缓存已满的缓冲区被放入全局空闲列表，全局空闲列表中空闲的缓冲区的总容量不超过指定的上限，
+ * 超出上限的缓冲区在归还时被丢弃。
+ *
+ * <p>
+ * 日志的 DEBUG 级别启用时，缓冲区池会检测泄漏：借出的缓冲区在归还之前被垃圾回收时，
+ * 缓冲区池会输出借出该缓冲区时的调用栈。
+ *
+ * <p>
+ * 该类是线程安全的，除了处理器内部使用之外，也供扩展模块复用，例如响应式处理器的传输缓冲区。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public final class BufferPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BufferPool.class);
+
+    /**
+     * 最小级别的容量，单位为字节。
+     */
+    static final int MIN_CLASS_SIZE = 4 * 1024;
+
+    /**
+     * 最大级别的容量，单位为字节。
+     */
+    static final int MAX_CLASS_SIZE = 1024 * 1024;
+
+    /**
+     * 分段的大小，单位为字节。
+     *
+     * <p>
+     * 数据连接的读写以及复制临时存储的内存层均以分段为单位借出缓冲区。
+     */
+    static final int SEGMENT_SIZE = 64 * 1024;
+
+    private static final int MIN_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_CLASS_SIZE) - MIN_CLASS_SHIFT + 1;
+    private static final int THREAD_LOCAL_CLASS_COUNT =
+            Integer.numberOfTrailingZeros(SEGMENT_SIZE) - MIN_CLASS_SHIFT + 1;
+
+    private final long maxIdleBytes;
+    private final boolean leakDetectionEnabled;
+
+    private final Deque<ByteBuffer>[] heapIdleBuffers;
+    private final Deque<ByteBuffer>[] directIdleBuffers;
+    private long idleBytes = 0;
+    private int idleCount = 0;
+
+    private final ThreadLocal<ThreadCache> threadCache;
+    private final AtomicInteger generation = new AtomicInteger(0);
+
+    private final LongAdder threadLocalHitCount = new LongAdder();
+    private final LongAdder globalHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+
+    private final ReferenceQueue<ByteBuffer> leakQueue = new ReferenceQueue<>();
+
+    /**
+     * 以缓冲区的身份哈希码为键的泄漏记录。
+     *
+     * <p>
+     * 归还缓冲区时只需查找身份哈希码相同的少数记录；记录只弱引用缓冲区，因此不能以缓冲区本身为键。
+     */
+    private final ConcurrentMap<Integer, List<LeakRecord>> leakRecords = new ConcurrentHashMap<>();
+
+    /**
+     * 构造器。
+     *
+     * <p>
+     * 是否检测泄漏在构造时根据日志的 DEBUG 级别是否启用确定。
+     *
+     * @param maxIdleBytes 全局空闲列表中空闲的缓冲区的最大总容量，单位为字节。
+     */
+    public BufferPool(long maxIdleBytes) {
+        this(maxIdleBytes, LOGGER.isDebugEnabled());
+    }
+
+    /**
+     * 构造器。
+     *
+     * @param maxIdleBytes         全局空闲列表中空闲的缓冲区的最大总容量，单位为字节。
+     * @param leakDetectionEnabled 是否检测泄漏。
+     */
+    @SuppressWarnings("unchecked")
+    BufferPool(long maxIdleBytes, boolean leakDetectionEnabled) {
+        this.maxIdleBytes = maxIdleBytes;
+        this.leakDetectionEnabled = leakDetectionEnabled;
+        this.heapIdleBuffers = new Deque[CLASS_COUNT];
+        this.directIdleBuffers = new Deque[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            heapIdleBuffers[i] = new ArrayDeque<>();
+            directIdleBuffers[i] = new ArrayDeque<>();
+        }
+        this.threadCache = ThreadLocal.withInitial(() -> new ThreadCache(generation.get()));
+    }
+
+    /**
+     * 借出分段。
+     *
+     * @param direct 是否借出直接内存缓冲区。
+     * @return 借出的分段。
+     * @see #acquire(int, boolean)
+     */
+    ByteBuffer acquireSegment(boolean direct) {
+        return acquire(SEGMENT_SIZE, direct);
+    }
+
+    /**
+     * 借出缓冲区。
+     *
+     * <p>
+     * 借出的缓冲区处于清空状态，容量不小于请求的容量；堆内存缓冲区的数组偏移量为 0，
+     * 因此可以直接使用 {@link ByteBuffer#array()} 作为字节数组。<br>
+     * 缓冲区使用完毕后必须调用 {@link #release(ByteBuffer)} 归还。
+     *
+     * @param capacity 请求的容量。
+     * @param direct   是否借出直接内存缓冲区。
+     * @return 借出的缓冲区。
+     */
+    public ByteBuffer acquire(int capacity, boolean direct) {
+        if (leakDetectionEnabled) {
+            reportLeaks();
+        }
+        int sizeClass = sizeClassOf(capacity);
+        ByteBuffer buffer = null;
+        if (sizeClass >= 0) {
+            buffer = pollThreadCache(sizeClass, direct);
+            if (Objects.nonNull(buffer)) {
+                threadLocalHitCount.increment();
+            } else {
+                buffer = pollIdleBuffers(sizeClass, direct);
+                if (Objects.nonNull(buffer)) {
+                    globalHitCount.increment();
+                }
+            }
+        }
+        if (Objects.isNull(buffer)) {
+            missCount.increment();
+            int allocateCapacity = allocationCapacityOf(capacity);
+            buffer = direct ? ByteBuffer.allocateDirect(allocateCapacity) : ByteBuffer.allocate(allocateCapacity);
+        } else {
+            buffer.clear();
+        }
+        if (leakDetectionEnabled) {
+            addLeakRecord(new LeakRecord(buffer, leakQueue));
+        }
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区。
+     *
+     * @param buffer 归还的缓冲区，必须是从该池中借出的缓冲区，且归还后不得再被使用。
+     */
+    public void release(ByteBuffer buffer) {
+        if (leakDetectionEnabled) {
+            forgetLeakRecord(buffer);
+        }
+        int capacity = buffer.capacity();
+        // 容量不是级别的容量的缓冲区是直接分配的，直接丢弃。
+        if (capacity < MIN_CLASS_SIZE || capacity > MAX_CLASS_SIZE || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int sizeClass = sizeClassOf(capacity);
+        if (offerThreadCache(sizeClass, buffer)) {
+            return;
+        }
+        offerIdleBuffers(sizeClass, buffer);
+    }
+
+    /**
+     * 获取请求指定的容量时，借出的缓冲区的容量。
+     *
+     * @param capacity 请求的容量。
+     * @return 借出的缓冲区的容量。
+     */
+    static int allocationCapacityOf(int capacity) {
+        int sizeClass = sizeClassOf(capacity);
+        return sizeClass >= 0 ? MIN_CLASS_SIZE << sizeClass : capacity;
+    }
+
+    private static int sizeClassOf(int capacity) {
+        if (capacity > MAX_CLASS_SIZE) {
+            return -1;
+        }
+        if (capacity <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_CLASS_SHIFT;
+    }
+
+    private ByteBuffer pollThreadCache(int sizeClass, boolean direct) {
+        if (sizeClass >= THREAD_LOCAL_CLASS_COUNT) {
+            return null;
+        }
+        ThreadCache cache = currentThreadCache();
+        ByteBuffer[] buffers = direct ? cache.directBuffers : cache.heapBuffers;
+        ByteBuffer buffer = buffers[sizeClass];
+        buffers[sizeClass] = null;
+        return buffer;
+    }
+
+    private boolean offerThreadCache(int sizeClass, ByteBuffer buffer) {
+        if (sizeClass >= THREAD_LOCAL_CLASS_COUNT) {
+            return false;
+        }
+        ThreadCache cache = currentThreadCache();
+        ByteBuffer[] buffers = buffer.isDirect() ? cache.directBuffers : cache.heapBuffers;
+        if (Objects.nonNull(buffers[sizeClass])) {
+            return false;
+        }
+        buffers[sizeClass] = buffer;
+        return true;
+    }
+
+    private ThreadCache currentThreadCache() {
+        ThreadCache cache = threadCache.get();
+        // 缓冲区池被清空后，丢弃线程本地缓存中的缓冲区。
+        int currentGeneration = generation.get();
+        if (cache.generation != currentGeneration) {
+            cache = new ThreadCache(currentGeneration);
+            threadCache.set(cache);
+        }
+        return cache;
+    }
+
+    private synchronized ByteBuffer pollIdleBuffers(int sizeClass, boolean direct) {
+        ByteBuffer buffer = (direct ? directIdleBuffers : heapIdleBuffers)[sizeClass].pollFirst();
+        if (Objects.nonNull(buffer)) {
+            idleBytes -= buffer.capacity();
+            idleCount--;
+        }
+        return buffer;
+    }
+
+    private synchronized void offerIdleBuffers(int sizeClass, ByteBuffer buffer) {
+        if (idleBytes + buffer.capacity() > maxIdleBytes) {
+            return;
+        }
+        (buffer.isDirect() ? directIdleBuffers : heapIdleBuffers)[sizeClass].offerFirst(buffer);
+        idleBytes += buffer.capacity();
+        idleCount++;
+    }
+
+    private void addLeakRecord(LeakRecord record) {
+        leakRecords.compute(record.identityHash, (k, records) -> {
+            if (Objects.isNull(records)) {
+                records = new ArrayList<>(1);
+            }
+            records.add(record);
+            return records;
+        });
+    }
+
+    private void forgetLeakRecord(ByteBuffer buffer) {
+        leakRecords.computeIfPresent(System.identityHashCode(buffer), (k, records) -> {
+            for (int i = 0; i < records.size(); i++) {
+                LeakRecord record = records.get(i);
+                if (record.get() == buffer) {
+                    records.remove(i);
+                    record.clear();
+                    break;
+                }
+            }
+            return records.isEmpty() ? null : records;
+        });
+    }
+
+    private boolean removeLeakRecord(LeakRecord record) {
+        boolean[] removedFlag = new boolean[1];
+        leakRecords.computeIfPresent(record.identityHash, (k, records) -> {
+            removedFlag[0] = records.remove(record);
+            return records.isEmpty() ? null : records;
+        });
+        return removedFlag[0];
+    }
+
+    private void reportLeaks() {
+        Reference<? extends ByteBuffer> reference;
+        while (Objects.nonNull(reference = leakQueue.poll())) {
+            LeakRecord record = (LeakRecord) reference;
+            if (!removeLeakRecord(record)) {
+                continue;
+            }
+            leakCount.increment();
+            LOGGER.warn("检测到缓冲区泄漏, 缓冲区在归还之前被垃圾回收, 借出缓冲区时的调用栈如下: ", record.trace);
+        }
+    }
+
+    /**
+     * 丢弃所有空闲的缓冲区。
+     *
+     * <p>
+     * 其它线程的线程本地缓存中的缓冲区在这些线程下一次访问缓冲区池时被丢弃。
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        synchronized (this) {
+            for (int i = 0; i < CLASS_COUNT; i++) {
+                heapIdleBuffers[i].clear();
+                directIdleBuffers[i].clear();
+            }
+            idleBytes = 0;
+            idleCount = 0;
+        }
+        if (leakDetectionEnabled) {
+            reportLeaks();
+        }
+    }
+
+    /**
+     * 获取缓冲区池的指标。
+     *
+     * @return 缓冲区池的指标。
+     */
+    public BufferPoolMetrics getMetrics() {
+        long currentIdleBytes;
+        int currentIdleCount;
+        synchronized (this) {
+            currentIdleBytes = idleBytes;
+            currentIdleCount = idleCount;
+        }
+        long currentThreadLocalHitCount = threadLocalHitCount.sum();
+        return new BufferPoolMetrics(
+                maxIdleBytes, currentIdleBytes, currentIdleCount,
+                currentThreadLocalHitCount + globalHitCount.sum(), currentThreadLocalHitCount, missCount.sum(),
+                leakDetectionEnabled, leakCount.sum()
+        );
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BufferPool{" +
+                "maxIdleBytes=" + maxIdleBytes +
+                ", leakDetectionEnabled=" + leakDetectionEnabled +
+                ", idleBytes=" + idleBytes +
+                ", idleCount=" + idleCount +
+                '}';
+    }
+
+    /**
+     * 线程本地缓存。
+     */
+    private static final class ThreadCache {
+
+        private final int generation;
+        private final ByteBuffer[] heapBuffers = new ByteBuffer[THREAD_LOCAL_CLASS_COUNT];
+        private final ByteBuffer[] directBuffers = new ByteBuffer[THREAD_LOCAL_CLASS_COUNT];
+
+        private ThreadCache(int generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * 泄漏记录，弱引用借出的缓冲区，并记录借出缓冲区时的调用栈。
+     */
+    private static final class LeakRecord extends WeakReference<ByteBuffer> {
+
+        private final int identityHash;
+        private final Throwable trace;
+
+        private LeakRecord(ByteBuffer buffer, ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.identityHash = System.identityHashCode(buffer);
+            this.trace = new Throwable("缓冲区的借出位置");
+        }
+    }
+}
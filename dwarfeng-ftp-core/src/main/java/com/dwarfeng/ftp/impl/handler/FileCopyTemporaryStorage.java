@@ -0,0 +1,592 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 文件复制临时存储。
+ *
+ * <p>
+ * 经由客户端中转复制文件时，源文件的内容先写入临时存储，再从临时存储中读出并写入目标文件。<br>
+ * 临时存储由内存层与文件层组成：数据优先写入内存层，内存层写满后，剩余数据写入文件层；
+ * 读取时，先读出内存层的数据，再读出文件层的数据。
+ *
+ * <p>
+ * 内存层与文件层的实现方式均可以选择，
+ * 参见 {@link FtpConfig#getFileCopyMemoryBufferType()} 以及 {@link FtpConfig#getFileCopyFileBufferType()}。
+ *
+ * <p>
+ * 临时存储只能按照如下的顺序使用：打开输出流并写入全部数据，关闭输出流；打开输入流并读出数据，关闭输入流；
+ * 最后调用 {@link #dispose()} 释放资源。无论复制是否成功，都必须调用 {@link #dispose()}。
+ *
+ * <p>
+ * 该类不是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 1.2.0
+ */
+final class FileCopyTemporaryStorage {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileCopyTemporaryStorage.class);
+
+    /**
+     * 以内存映射的方式读取文件层时，每次映射的最大长度。
+     */
+    private static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final MemoryTier memoryTier;
+    private final FileTier fileTier;
+
+    FileCopyTemporaryStorage(
+            int memoryBufferSize, int memoryBufferType, int fileBufferType, BufferPool bufferPool,
+            TemporarySpool temporarySpool
+    ) {
+        this.memoryTier = new SegmentedMemoryTier(
+                memoryBufferSize, memoryBufferType == FtpConfig.Builder.FILE_COPY_MEMORY_BUFFER_TYPE_DIRECT, bufferPool
+        );
+        switch (fileBufferType) {
+            case FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_CHANNEL:
+                this.fileTier = new ChannelFileTier(temporarySpool, bufferPool);
+                break;
+            case FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_MAPPED:
+                this.fileTier = new MappedFileTier(temporarySpool, bufferPool);
+                break;
+            default:
+                this.fileTier = new StreamFileTier(temporarySpool);
+                break;
+        }
+    }
+
+    public OutputStream openOutputStream() {
+        return new FileCopyTemporaryStorageOutputStream();
+    }
+
+    public InputStream openInputStream() {
+        return new FileCopyTemporaryStorageInputStream();
+    }
+
+    public void dispose() {
+        // 释放内存层。
+        memoryTier.dispose();
+        // 释放文件层，临时文件会被归还给临时文件池。
+        fileTier.dispose();
+    }
+
+    @Override
+    public String toString() {
+        return "FileCopyTemporaryStorage{" +
+                "memoryTier=" + memoryTier +
+                ", fileTier=" + fileTier +
+                '}';
+    }
+
+    private class FileCopyTemporaryStorageOutputStream extends OutputStream {
+
+        private boolean closedFlag = false;
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+            // 特殊值判断：如果 len 为 0，则直接返回。
+            if (len == 0) {
+                return;
+            }
+            // 优先写入内存层，内存层写满后，剩余数据写入文件层。
+            int memoryLength = memoryTier.write(b, off, len);
+            if (memoryLength < len) {
+                fileTier.write(b, off + memoryLength, len - memoryLength);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closedFlag) {
+                return;
+            }
+            closedFlag = true;
+            // 将文件层中暂存的数据全部写出。
+            try {
+                fileTier.finishWrite();
+            } catch (Exception e) {
+                LOGGER.debug("关闭文件缓冲区输出流时发生异常, 将抛出异常...");
+                throw new IOException("关闭文件缓冲区输出流时发生异常", e);
+            }
+        }
+    }
+
+    private class FileCopyTemporaryStorageInputStream extends InputStream {
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, memoryTier.remaining() + fileTier.remaining());
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            // 特殊值判断：如果 len 为 0，则直接返回。
+            if (len == 0) {
+                return 0;
+            }
+            // 先读出内存层的数据，内存层读完后，再读出文件层的数据。
+            int memoryLength = memoryTier.read(b, off, len);
+            if (memoryLength >= 0) {
+                return memoryLength;
+            }
+            return fileTier.read(b, off, len);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int length = read(b, 0, 1);
+            return length < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                fileTier.finishRead();
+            } catch (Exception e) {
+                LOGGER.debug("关闭文件缓冲区输入流时发生异常, 将抛出异常...");
+                throw new IOException("关闭文件缓冲区输入流时发生异常", e);
+            }
+        }
+    }
+
+    /**
+     * 内存层。
+     */
+    private interface MemoryTier {
+
+        /**
+         * 写入数据，直到内存层写满。
+         *
+         * @return 实际写入的长度，内存层已满时返回 0。
+         */
+        int write(byte[] b, int off, int len);
+
+        /**
+         * 读出数据。
+         *
+         * @return 实际读出的长度，内存层中的数据已经读完时返回 -1。
+         */
+        int read(byte[] b, int off, int len);
+
+        long remaining();
+
+        void dispose();
+    }
+
+    /**
+     * 分段内存层，由按需从缓冲区池中借出的堆内存分段或者直接内存分段组成。
+     */
+    private static final class SegmentedMemoryTier implements MemoryTier {
+
+        private final int capacity;
+        private final boolean direct;
+        private final BufferPool bufferPool;
+        private final List<ByteBuffer> segments = new ArrayList<>();
+
+        private int writeLength = 0;
+        private int readLength = 0;
+        private int readSegmentIndex = 0;
+        private boolean readingFlag = false;
+
+        private SegmentedMemoryTier(int capacity, boolean direct, BufferPool bufferPool) {
+            this.capacity = capacity;
+            this.direct = direct;
+            this.bufferPool = bufferPool;
+        }
+
+        @Override
+        public int write(byte[] b, int off, int len) {
+            int length = Math.min(len, capacity - writeLength);
+            int written = 0;
+            while (written < length) {
+                // 最后一个分段写满时，借出新的分段。
+                ByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+                if (Objects.isNull(segment) || !segment.hasRemaining()) {
+                    segment = bufferPool.acquireSegment(direct);
+                    segments.add(segment);
+                }
+                int segmentLength = Math.min(length - written, segment.remaining());
+                segment.put(b, off + written, segmentLength);
+                written += segmentLength;
+            }
+            writeLength += length;
+            return length;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (readLength >= writeLength) {
+                return -1;
+            }
+            // 第一次读取时，将所有分段切换为读模式。
+            if (!readingFlag) {
+                for (ByteBuffer segment : segments) {
+                    segment.flip();
+                }
+                readingFlag = true;
+            }
+            ByteBuffer segment = segments.get(readSegmentIndex);
+            while (!segment.hasRemaining()) {
+                segment = segments.get(++readSegmentIndex);
+            }
+            int length = Math.min(len, segment.remaining());
+            segment.get(b, off, length);
+            readLength += length;
+            return length;
+        }
+
+        @Override
+        public long remaining() {
+            return writeLength - readLength;
+        }
+
+        @Override
+        public void dispose() {
+            for (ByteBuffer segment : segments) {
+                bufferPool.release(segment);
+            }
+            segments.clear();
+            writeLength = 0;
+            readLength = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "SegmentedMemoryTier{" +
+                    "capacity=" + capacity +
+                    ", direct=" + direct +
+                    ", segmentCount=" + segments.size() +
+                    ", writeLength=" + writeLength +
+                    ", readLength=" + readLength +
+                    '}';
+        }
+    }
+
+    /**
+     * 文件层。
+     *
+     * <p>
+     * 临时文件在第一次写入时才从临时文件池中借出，因此内存层足以容纳的复制不会占用临时文件。
+     */
+    private abstract static class FileTier {
+
+        protected final TemporarySpool temporarySpool;
+
+        protected TemporarySpool.SpoolFile spoolFile = null;
+        protected long writeLength = 0;
+        protected long readLength = 0;
+
+        protected FileTier(TemporarySpool temporarySpool) {
+            this.temporarySpool = temporarySpool;
+        }
+
+        protected TemporarySpool.SpoolFile acquireSpoolFile() throws IOException {
+            if (Objects.isNull(spoolFile)) {
+                spoolFile = temporarySpool.lease();
+            }
+            return spoolFile;
+        }
+
+        public abstract void write(byte[] b, int off, int len) throws IOException;
+
+        public abstract void finishWrite() throws IOException;
+
+        public abstract int read(byte[] b, int off, int len) throws IOException;
+
+        public abstract void finishRead() throws IOException;
+
+        public long remaining() {
+            return writeLength - readLength;
+        }
+
+        /**
+         * 释放文件层。
+         *
+         * <p>
+         * 子类需要在关闭所有的流以及通道之后调用该方法，以归还临时文件。
+         */
+        public void dispose() {
+            if (Objects.nonNull(spoolFile)) {
+                returnSpoolFile(spoolFile);
+                spoolFile = null;
+            }
+        }
+
+        /**
+         * 将临时文件归还给临时文件池。
+         *
+         * <p>
+         * 默认将临时文件放回池中复用；临时文件可能仍被映射到内存中的子类应当重写该方法，丢弃临时文件。
+         *
+         * @param spoolFile 归还的临时文件。
+         */
+        protected void returnSpoolFile(TemporarySpool.SpoolFile spoolFile) {
+            temporarySpool.release(spoolFile);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{" +
+                    "spoolFile=" + spoolFile +
+                    ", writeLength=" + writeLength +
+                    ", readLength=" + readLength +
+                    '}';
+        }
+    }
+
+    /**
+     * 流文件层，直接使用文件流读写临时文件。
+     */
+    private static final class StreamFileTier extends FileTier {
+
+        private OutputStream out;
+        private InputStream in;
+
+        private StreamFileTier(TemporarySpool temporarySpool) {
+            super(temporarySpool);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (Objects.isNull(out)) {
+                out = Files.newOutputStream(
+                        acquireSpoolFile().getFile().toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING
+                );
+            }
+            out.write(b, off, len);
+            writeLength += len;
+            spoolFile.recordWritten(len);
+        }
+
+        @Override
+        public void finishWrite() throws IOException {
+            if (Objects.isNull(out)) {
+                return;
+            }
+            OutputStream closing = out;
+            out = null;
+            closing.close();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (Objects.isNull(spoolFile)) {
+                return -1;
+            }
+            if (Objects.isNull(in)) {
+                in = Files.newInputStream(spoolFile.getFile().toPath(), StandardOpenOption.READ);
+            }
+            int length = in.read(b, off, len);
+            if (length > 0) {
+                readLength += length;
+            }
+            return length;
+        }
+
+        @Override
+        public void finishRead() throws IOException {
+            if (Objects.isNull(in)) {
+                return;
+            }
+            InputStream closing = in;
+            in = null;
+            closing.close();
+        }
+
+        @Override
+        public void dispose() {
+            closeQuietly(out);
+            closeQuietly(in);
+            out = null;
+            in = null;
+            super.dispose();
+        }
+    }
+
+    /**
+     * 通道文件层，经由直接内存暂存区批量读写临时文件的文件通道。
+     *
+     * <p>
+     * 写入的数据先被复制到暂存区，暂存区写满后一次性写入文件通道，
+     * 从而将大量的小块写入合并为少量的大块写入；读取时同理。
+     */
+    private static class ChannelFileTier extends FileTier {
+
+        private final BufferPool bufferPool;
+
+        protected FileChannel channel;
+        private ByteBuffer stagingBuffer;
+        private boolean stagingReadFlag = false;
+
+        private ChannelFileTier(TemporarySpool temporarySpool, BufferPool bufferPool) {
+            super(temporarySpool);
+            this.bufferPool = bufferPool;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (Objects.isNull(channel)) {
+                channel = FileChannel.open(
+                        acquireSpoolFile().getFile().toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE
+                );
+                channel.truncate(0);
+                stagingBuffer = bufferPool.acquireSegment(true);
+            }
+            int written = 0;
+            while (written < len) {
+                if (!stagingBuffer.hasRemaining()) {
+                    flushStagingBuffer();
+                }
+                int length = Math.min(len - written, stagingBuffer.remaining());
+                stagingBuffer.put(b, off + written, length);
+                written += length;
+            }
+            writeLength += len;
+            spoolFile.recordWritten(len);
+        }
+
+        @Override
+        public void finishWrite() throws IOException {
+            if (Objects.isNull(channel)) {
+                return;
+            }
+            flushStagingBuffer();
+        }
+
+        private void flushStagingBuffer() throws IOException {
+            stagingBuffer.flip();
+            while (stagingBuffer.hasRemaining()) {
+                channel.write(stagingBuffer);
+            }
+            stagingBuffer.clear();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (Objects.isNull(channel) || readLength >= writeLength) {
+                return -1;
+            }
+            // 第一次读取时，将暂存区切换为读模式，此时暂存区中没有待读取的数据。
+            if (!stagingReadFlag) {
+                stagingBuffer.clear().flip();
+                stagingReadFlag = true;
+            }
+            // 暂存区读完时，从文件通道中读取数据，直到暂存区写满或者到达文件末尾。
+            if (!stagingBuffer.hasRemaining()) {
+                stagingBuffer.clear();
+                long position = readLength;
+                while (stagingBuffer.hasRemaining()) {
+                    int length = channel.read(stagingBuffer, position);
+                    if (length <= 0) {
+                        break;
+                    }
+                    position += length;
+                }
+                stagingBuffer.flip();
+            }
+            int length = Math.min(len, stagingBuffer.remaining());
+            stagingBuffer.get(b, off, length);
+            readLength += length;
+            return length;
+        }
+
+        @Override
+        public void finishRead() {
+        }
+
+        @Override
+        public void dispose() {
+            closeQuietly(channel);
+            channel = null;
+            if (Objects.nonNull(stagingBuffer)) {
+                bufferPool.release(stagingBuffer);
+                stagingBuffer = null;
+            }
+            super.dispose();
+        }
+    }
+
+    /**
+     * 内存映射文件层，写入方式与通道文件层相同，以内存映射的方式读取临时文件。
+     *
+     * <p>
+     * 映射的区域在被垃圾回收之前不会被解除映射，因此被映射过的临时文件不会被放回临时文件池复用，而是直接被删除。
+     * 在 Windows 系统中，被映射的文件无法被删除，临时文件可能无法被及时删除，因此该文件层适用于类 Unix 系统。
+     */
+    private static final class MappedFileTier extends ChannelFileTier {
+
+        private MappedByteBuffer mappedBuffer;
+        private long mappedLength = 0;
+
+        private MappedFileTier(TemporarySpool temporarySpool, BufferPool bufferPool) {
+            super(temporarySpool, bufferPool);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (Objects.isNull(channel) || readLength >= writeLength) {
+                return -1;
+            }
+            // 当前映射的区域读完时，映射下一个区域。
+            if (Objects.isNull(mappedBuffer) || !mappedBuffer.hasRemaining()) {
+                long size = Math.min(MAPPED_WINDOW_SIZE, writeLength - mappedLength);
+                mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, mappedLength, size);
+                mappedLength += size;
+            }
+            int length = Math.min(len, mappedBuffer.remaining());
+            mappedBuffer.get(b, off, length);
+            readLength += length;
+            return length;
+        }
+
+        @Override
+        protected void returnSpoolFile(TemporarySpool.SpoolFile spoolFile) {
+            // 映射的区域在被垃圾回收之前不会被解除映射，截断被映射的文件会导致访问映射区域的线程崩溃，因此丢弃临时文件。
+            if (mappedLength > 0) {
+                temporarySpool.discard(spoolFile);
+            } else {
+                super.returnSpoolFile(spoolFile);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            mappedBuffer = null;
+            super.dispose();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (Objects.isNull(closeable)) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOGGER.warn("关闭文件缓冲区时发生异常, 异常信息如下: ", e);
+        }
+    }
+}
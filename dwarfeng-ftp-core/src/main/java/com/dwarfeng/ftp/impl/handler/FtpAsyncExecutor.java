@@ -0,0 +1,196 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.sdk.util.FtpConfigUtil;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
+import java.util.Date;
+import java.util.concurrent.*;
+
+/**
+ * FTP 异步执行器。
+ *
+ * <p>
+ * 该执行器在有界的线程池中执行 FTP 操作，并以 {@link CompletableFuture} 的形式返回结果，
+ * 供 {@link AsyncFtpHandlerImpl} 以及 {@link com.dwarfeng.ftp.impl.service.AsyncFtpQosServiceImpl} 共用。<br>
+ * 线程池的线程以及队列全部被占用时，新提交的操作返回的 {@link CompletableFuture} 立即以
+ * {@link RejectedExecutionException} 失败。
+ *
+ * <p>
+ * 操作返回的 {@link CompletableFuture} 在操作结束之前完成时，例如被取消，或者超时以 {@link TimeoutException} 失败，
+ * 执行器中止正在进行的操作：在操作借出的所有会话上发送 ABOR 指令并关闭连接，正在进行的传输立即以异常结束，
+ * 操作不会被重试或者断点续传，会话再次被借出时自动重新连接。<br>
+ * 尚未开始执行的操作被取消之后，不会再被执行。
+ *
+ * <p>
+ * 中止只对 {@link FtpHandlerImpl} 借出的会话生效，且只能通过执行器返回的 {@link CompletableFuture} 触发，
+ * 取消由其派生的 {@link CompletableFuture} 不会中止操作。<br>
+ * 等待会话池或者内存预算的操作被中止之后，执行线程仍然会等待到获得会话或者内存，或者等待超时，随后立即结束。
+ *
+ * <p>
+ * 操作返回的结果为 {@link Closeable}（例如 {@link java.io.InputStream}）时，如果 {@link CompletableFuture}
+ * 已经被取消或者超时，结果无法交付给调用者，执行器会关闭结果，以归还其持有的会话。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpAsyncExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtpAsyncExecutor.class);
+
+    /**
+     * 线程池的线程在空闲该时间之后自动退出，单位为毫秒。
+     */
+    private static final long KEEP_ALIVE_TIME = 60000L;
+
+    private final ThreadPoolTaskScheduler scheduler;
+    private final ThreadPoolExecutor executor;
+    private final long defaultTimeout;
+
+    public FtpAsyncExecutor(@Nonnull ThreadPoolTaskScheduler scheduler, @Nonnull FtpConfig config) {
+        this(
+                scheduler, config.getAsyncExecutorPoolSize(), config.getAsyncExecutorQueueCapacity(),
+                config.getAsyncOperationTimeout()
+        );
+    }
+
+    public FtpAsyncExecutor(
+            @Nonnull ThreadPoolTaskScheduler scheduler, int poolSize, int queueCapacity, long defaultTimeout
+    ) {
+        FtpConfigUtil.checkAsyncExecutorPoolSize(poolSize);
+        FtpConfigUtil.checkAsyncExecutorQueueCapacity(queueCapacity);
+        FtpConfigUtil.checkAsyncOperationTimeout(defaultTimeout);
+        this.scheduler = scheduler;
+        this.defaultTimeout = defaultTimeout;
+
+        // 队列容量为 0 时，使用直接交付的队列，线程全部被占用时立即拒绝。
+        BlockingQueue<Runnable> queue;
+        if (queueCapacity == 0) {
+            queue = new SynchronousQueue<>();
+        } else {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ftp-async-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS, queue, threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 以默认的超时时间提交操作。
+     *
+     * @param operation 提交的操作。
+     * @param <T>       操作结果的类型。
+     * @return 操作结果的 {@link CompletableFuture}。
+     * @see #submit(Callable, long)
+     */
+    public <T> CompletableFuture<T> submit(@Nonnull Callable<T> operation) {
+        return submit(operation, defaultTimeout);
+    }
+
+    /**
+     * 以指定的超时时间提交操作。
+     *
+     * @param operation 提交的操作。
+     * @param timeout   超时时间，单位为毫秒，从提交操作时开始计算，为 0 表示不超时。
+     * @param <T>       操作结果的类型。
+     * @return 操作结果的 {@link CompletableFuture}。
+     */
+    public <T> CompletableFuture<T> submit(@Nonnull Callable<T> operation, long timeout) {
+        FtpConfigUtil.checkAsyncOperationTimeout(timeout);
+        TransferAbortToken token = new TransferAbortToken();
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        // CompletableFuture 在操作结束之前完成时，中止操作；操作已经结束时，中止不产生任何效果。
+        future.whenComplete((result, throwable) -> {
+            if (token.abort()) {
+                LOGGER.debug("异步操作在结束之前被取消或者超时, 已中止正在进行的操作");
+            }
+        });
+
+        try {
+            executor.execute(() -> runOperation(operation, token, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        if (timeout > 0) {
+            ScheduledFuture<?> timeoutFuture = scheduler.schedule(
+                    () -> future.completeExceptionally(new TimeoutException("异步操作超时: " + timeout + " ms")),
+                    new Date(System.currentTimeMillis() + timeout)
+            );
+            future.whenComplete((result, throwable) -> timeoutFuture.cancel(false));
+        }
+        return future;
+    }
+
+    private <T> void runOperation(Callable<T> operation, TransferAbortToken token, CompletableFuture<T> future) {
+        // 尚未开始执行的操作已经被取消或者超时，不再执行。
+        if (future.isDone()) {
+            return;
+        }
+        T result;
+        try {
+            result = TransferAbortToken.callWith(token, operation);
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            return;
+        } finally {
+            token.finish();
+        }
+        if (!future.complete(result) && result instanceof Closeable) {
+            closeUndeliveredResult((Closeable) result);
+        }
+    }
+
+    private void closeUndeliveredResult(Closeable result) {
+        try {
+            result.close();
+        } catch (Exception e) {
+            LOGGER.warn("关闭无法交付的异步操作结果时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    /**
+     * 获取默认的超时时间。
+     *
+     * @return 默认的超时时间，单位为毫秒，为 0 表示不超时。
+     */
+    public long getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    /**
+     * 关闭执行器。
+     *
+     * <p>
+     * 关闭之后，执行器不再接受新的操作，已经提交的操作会继续执行。
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "FtpAsyncExecutor{" +
+                "poolSize=" + executor.getMaximumPoolSize() +
+                ", activeCount=" + executor.getActiveCount() +
+                ", queueSize=" + executor.getQueue().size() +
+                ", defaultTimeout=" + defaultTimeout +
+                '}';
+    }
+}
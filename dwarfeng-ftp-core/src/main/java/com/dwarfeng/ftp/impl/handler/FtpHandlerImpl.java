@@ -2,32 +2,56 @@ package com.dwarfeng.ftp.impl.handler;
 
 import com.dwarfeng.ftp.sdk.util.Constants;
 import com.dwarfeng.ftp.sdk.util.FtpFileLocationUtil;
+import com.dwarfeng.ftp.stack.bean.dto.BufferPoolMetrics;
 import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.bean.dto.MemoryBudgetMetrics;
+import com.dwarfeng.ftp.stack.bean.dto.TemporarySpoolMetrics;
+import com.dwarfeng.ftp.stack.bean.dto.TransferResumeMetrics;
 import com.dwarfeng.ftp.stack.exception.*;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
 import com.dwarfeng.ftp.stack.handler.FtpHandler;
 import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
 import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
 import com.dwarfeng.subgrade.sdk.interceptor.analyse.BehaviorAnalyse;
 import com.dwarfeng.subgrade.sdk.interceptor.analyse.SkipRecord;
 import com.dwarfeng.subgrade.stack.exception.HandlerException;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPCmd;
+import org.apache.commons.net.ftp.FTPConnectionClosedException;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.commons.net.ftp.FTPReply;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
-import java.net.InetAddress;
-import java.nio.file.Files;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * FTP 处理器实现。
@@ -36,12 +60,54 @@ import java.util.concurrent.locks.ReentrantLock;
  * 该处理器实现基于 Apache Commons Net 的 FTPClient 实现。
  *
  * <p>
+ * 该处理器内部维护一个会话池，每个会话持有一个 FTPClient，对应一条与 FTP 服务器之间的控制连接。<br>
+ * 会话池的大小由 {@link FtpConfig#getSessionPoolMaxTotal()} 等参数决定。
+ *
+ * <p>
  * 该实现是线程安全的，包括 {@link #openInputStream(String[], String)} 和 {@link #openOutputStream(String[], String)}
  * 方法。<br>
  * 除了 {@link #openInputStream(String[], String)} 和 {@link #openOutputStream(String[], String)} 方法以外，
- * 其它方法在调用时会自动加锁，其它线程调用处理器的任何方法都会被阻塞，直到该方法执行完毕。<br>
- * {@link #openInputStream(String[], String)} 和 {@link #openOutputStream(String[], String)} 在调用时会加锁，
- * 但返回结果后不会解锁，直到调用者关闭流或者流被关闭时才会解锁，在这段时间内，其它线程调用处理器的任何方法都会被阻塞。
+ * 其它方法在调用时会从会话池中借出一个会话，并在方法执行完毕后归还；会话池耗尽时，调用线程会被阻塞，
+ * 直到有会话被归还，或者等待超时。<br>
+ * {@link #openInputStream(String[], String)} 和 {@link #openOutputStream(String[], String)} 在调用时会借出会话，
+ * 但返回结果后不会归还，直到调用者关闭流或者流被关闭时才会归还。<br>
+ * 当会话池的最大会话数为 1 时，该处理器的行为与旧版本的单连接处理器一致：在流被关闭之前，
+ * 其它线程调用处理器的任何方法都会被阻塞。
+ *
+ * <p>
+ * 启用目录列表缓存时（见 {@link FtpConfig#getListingCacheTimeToLive()}），{@link #listFiles(String[])}
+ * 的结果会被缓存，此后在存活时间内，{@link #listFiles(String[])}、{@link #listFileNames(String[])}、
+ * {@link #existsFile(String[], String)} 以及 {@link #descFile(String[], String)} 方法直接从缓存中返回结果，
+ * 无需借出会话。<br>
+ * 处理器自身对目录的修改会使相关目录的列表立即失效，其它客户端对服务器的修改只能等待缓存过期。
+ *
+ * <p>
+ * 经由临时存储复制文件时使用的临时文件由临时文件池管理，处理器在启动时以及定期清理已经终止的进程遗留的临时文件，
+ * 临时文件池的指标可以通过 {@link #getTemporarySpoolMetrics()} 方法获取。
+ *
+ * <p>
+ * 以字节数组的形式存储或获取文件时，文件内容占用的内存需要同时从处理器级别以及进程级别的内存预算中预留，
+ * 内存预算耗尽时，调用线程会被阻塞，直到有内存被释放，或者等待超时。<br>
+ * 内存预算的指标可以通过 {@link #getMemoryBudgetMetrics()} 以及 {@link #getGlobalMemoryBudgetMetrics()} 方法获取。
+ *
+ * <p>
+ * 传输、复制以及流操作使用的缓冲区从处理器内的缓冲区池中借出，使用完毕后归还，稳定运行时传输过程中不会分配新的缓冲区，
+ * 缓冲区池的指标可以通过 {@link #getBufferPoolMetrics()} 方法获取。
+ *
+ * <p>
+ * 启用分段下载时（见 {@link FtpConfig#getSegmentedDownloadSegmentCount()}），
+ * {@link #retrieveFileToPath(String[], String, Path)} 将较大的文件切分为多个分段，在多个会话上并行下载。<br>
+ * 额外的会话以不等待的方式从会话池中借出，因此分段下载不会因为会话池耗尽而阻塞。
+ *
+ * <p>
+ * 启用断点续传时（见 {@link FtpConfig#getUploadResumeMaxAttempts()}），以本地文件、字节数组或者文件通道存储文件期间连接中断，
+ * 处理器会重新连接，并从服务器上已经写入的位置继续上传，断点续传的指标可以通过 {@link #getTransferResumeMetrics()} 方法获取。<br>
+ * 同样地，启用下载的断点续传时（见 {@link FtpConfig#getDownloadResumeMaxAttempts()}），以流的方式获取文件期间连接中断，
+ * 处理器会重新连接，并从已经交付给调用者的位置继续下载。
+ *
+ * <p>
+ * 在 {@link FtpAsyncExecutor} 中执行的操作可以被其它线程中止，中止时，处理器在操作借出的所有会话上发送 ABOR 指令并关闭连接，
+ * 此后该操作不再重新连接，也不再重试或者断点续传。
  *
  * @author DwArFeng
  * @since 1.0.0
@@ -50,17 +116,171 @@ public class FtpHandlerImpl implements FtpHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FtpHandlerImpl.class);
 
+    /**
+     * 进程内所有处理器共享的内存预算。
+     *
+     * <p>
+     * 初始时不限制，处理器启动时根据 {@link FtpConfig#getGlobalMemoryBudget()} 限制其上限。
+     */
+    private static final MemoryBudget GLOBAL_MEMORY_BUDGET = new MemoryBudget(0);
+
     private static final String ROOT_PATH = "/";
     private static final char PATH_SEPARATOR = '/';
 
+    /**
+     * 单文件探测模式：使用 MLST 指令。
+     */
+    private static final int PROBE_MODE_MLST = 0;
+
+    /**
+     * 单文件探测模式：使用 SIZE 指令。
+     */
+    private static final int PROBE_MODE_SIZE = 1;
+
+    /**
+     * 单文件探测模式：列出目录。
+     */
+    private static final int PROBE_MODE_LIST = 2;
+
+    private static final String CURRENT_DIRECTORY_NAME = ".";
+    private static final String PARENT_DIRECTORY_NAME = "..";
+
+    private static final String MLSX_FACT_TYPE = "type";
+    private static final String MLSX_FACT_PERM = "perm";
+    private static final String MLSX_FACT_UNIQUE = "unique";
+    private static final String MLSX_TYPE_CDIR = "cdir";
+    private static final String MLSX_TYPE_PDIR = "pdir";
+
+    /**
+     * 获取到内存中的文件内容的最大大小。
+     *
+     * <p>
+     * 部分虚拟机会在数组中保留头部字，因此数组的最大长度略小于 {@link Integer#MAX_VALUE}。
+     */
+    private static final int MAX_CONTENT_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 文件复制方式：尚未确定。
+     */
+    private static final int COPY_STRATEGY_UNDETERMINED = -1;
+
+    /**
+     * 文件复制方式：使用 SITE CPFR/CPTO 指令在服务器端复制。
+     */
+    private static final int COPY_STRATEGY_SITE = 0;
+
+    /**
+     * 文件复制方式：使用两个会话，在服务器端以 FXP 的方式传输。
+     */
+    private static final int COPY_STRATEGY_FXP = 1;
+
+    /**
+     * 文件复制方式：经由客户端的临时存储中转。
+     */
+    private static final int COPY_STRATEGY_BUFFERED = 2;
+
+    /**
+     * 未指定数据超时时间时，FXP 传输等待服务器应答的最长时间，单位为毫秒。
+     *
+     * <p>
+     * FXP 传输的数据连接位于服务器之间，客户端只能等待控制连接的应答，
+     * 服务器之间无法建立数据连接时，部分服务器永远不会应答，因此等待的时间必须有上限。
+     */
+    private static final int DEFAULT_FXP_REPLY_TIMEOUT = 600000;
+
+    private static final String SITE_COPY_FROM = "CPFR";
+    private static final String SITE_COPY_TO = "CPTO";
+    private static final String SITE_HELP = "HELP";
+
+    private static final Pattern PASSIVE_ADDRESS_PATTERN = Pattern.compile(
+            "(\\d{1,3}),(\\d{1,3}),(\\d{1,3}),(\\d{1,3}),(\\d{1,3}),(\\d{1,3})"
+    );
+
     private final ThreadPoolTaskScheduler scheduler;
 
     private final FtpConfig config;
 
+    /**
+     * 处理器的生命周期锁。
+     *
+     * <p>
+     * 该锁只保护处理器的启动、停止以及会话池的引用，不在 FTP 操作期间持有。
+     */
     private final Lock lock = new ReentrantLock();
 
-    private FTPClient ftpClient = null;
+    /**
+     * 目录失效计数。
+     *
+     * <p>
+     * 每当处理器删除或移动目录时，该计数加一，会话据此判断记录的工作目录是否仍然可信。
+     */
+    private final AtomicLong directoryInvalidationCount = new AtomicLong(0);
+
+    /**
+     * 已知目录缓存。
+     */
+    private final KnownDirectoryCache knownDirectoryCache;
+
+    /**
+     * 目录列表缓存。
+     */
+    private final ListingCache listingCache;
+
+    /**
+     * 临时文件池。
+     */
+    private final TemporarySpool temporarySpool;
+
+    /**
+     * 缓冲区池。
+     */
+    private final BufferPool bufferPool;
+
+    /**
+     * 处理器的内存预算。
+     */
+    private final MemoryBudget memoryBudget;
+
+    /**
+     * 文件复制方式。
+     *
+     * <p>
+     * 在第一次复制文件时确定，此后在处理器的生命周期内保持不变；服务器拒绝当前的复制方式时，降级为下一种复制方式。
+     */
+    private final AtomicInteger copyStrategy = new AtomicInteger(COPY_STRATEGY_UNDETERMINED);
+
+    /**
+     * FXP 传输是否已经成功过。
+     *
+     * <p>
+     * FXP 传输成功之前，传输失败被视为服务器不支持 FXP 传输，复制方式被降级；成功之后，传输失败按照普通的异常处理。
+     */
+    private final AtomicBoolean fxpTransferConfirmed = new AtomicBoolean(false);
+
+    /**
+     * 累计上传中断后断点续传的次数。
+     */
+    private final AtomicLong uploadResumeCount = new AtomicLong(0);
+
+    /**
+     * 累计上传中断后断点续传时，无需重新上传的字节数。
+     */
+    private final AtomicLong uploadResumedBytes = new AtomicLong(0);
+
+    /**
+     * 累计下载中断后断点续传的次数。
+     */
+    private final AtomicLong downloadResumeCount = new AtomicLong(0);
+
+    /**
+     * 累计下载中断后断点续传时，无需重新下载的字节数。
+     */
+    private final AtomicLong downloadResumedBytes = new AtomicLong(0);
+
+    private FtpSessionPool sessionPool = null;
+    private ExecutorService segmentedDownloadExecutor = null;
     private ScheduledFuture<?> noopSendTaskFuture;
+    private ScheduledFuture<?> temporarySpoolCleanTaskFuture;
     private boolean startedFlag = false;
 
     /**
@@ -114,6 +334,33 @@ public class FtpHandlerImpl implements FtpHandler {
     public FtpHandlerImpl(@Nonnull ThreadPoolTaskScheduler scheduler, @Nonnull FtpConfig config) {
         this.scheduler = scheduler;
         this.config = config;
+        this.knownDirectoryCache = new KnownDirectoryCache(config.getKnownDirectoryCacheSize());
+        this.listingCache = new ListingCache(
+                config.getListingCacheTimeToLive(), config.getListingCacheMaxEntries(),
+                config.getListingCacheMaxMemory()
+        );
+        this.temporarySpool = new TemporarySpool(
+                config.getTemporaryFileDirectoryPath(), config.getTemporaryFilePrefix(),
+                config.getTemporaryFileSuffix(), config.getTemporarySpoolMaxIdle()
+        );
+        this.bufferPool = new BufferPool(determineBufferPoolMaxIdleBytes(config));
+        this.memoryBudget = new MemoryBudget(config.getMemoryBudget());
+    }
+
+    private static long determineBufferPoolMaxIdleBytes(FtpConfig config) {
+        // 每次复制最多占用的分段数量：内存层的分段，以及通道文件层与内存映射文件层的暂存区。
+        long segmentCount = (config.getFileCopyMemoryBufferSize() + BufferPool.SEGMENT_SIZE - 1L) /
+                BufferPool.SEGMENT_SIZE;
+        if (config.getFileCopyFileBufferType() != FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_STREAM) {
+            segmentCount++;
+        }
+        // 每次传输最多占用一个分段，以及一个容量为缓冲区大小的缓冲区。
+        long bytesPerSession = (segmentCount + 1) * BufferPool.SEGMENT_SIZE;
+        if (config.getBufferSize() <= BufferPool.MAX_CLASS_SIZE) {
+            bytesPerSession += BufferPool.allocationCapacityOf(config.getBufferSize());
+        }
+        // 每个会话同时最多进行一次操作，因此池中保留会话池最大会话数次操作所需的缓冲区。
+        return bytesPerSession * config.getSessionPoolMaxTotal();
     }
 
     @Override
@@ -138,31 +385,47 @@ public class FtpHandlerImpl implements FtpHandler {
             // 日志记录。
             LOGGER.info("FtpHandler 连接...");
 
-            // 初始化 FTP 客户端。
-            ftpClient = new FTPClient();
-
-            // 设置 FTP 客户端的控制编码。
-            ftpClient.setControlEncoding(config.getServerCharset());
-
-            // 设置 FTP 客户端的缓冲区大小。
-            ftpClient.setBufferSize(config.getBufferSize());
-
-            // 设置 FTP 客户端的数据超时时间。
-            ftpClient.setDataTimeout(Duration.ofMillis(config.getDataTimeout()));
+            // 初始化会话池，并清空上次启动期间缓存的目录以及目录列表。
+            sessionPool = new FtpSessionPool(config);
+            knownDirectoryCache.clear();
+            listingCache.clear();
+            copyStrategy.set(COPY_STRATEGY_UNDETERMINED);
+            fxpTransferConfirmed.set(false);
+
+            // 连接并登录会话池中的最小空闲会话。
+            maintainSessionPool(sessionPool);
+
+            // 限制进程级别的内存预算，多个处理器配置了不同的值时，以最小的正值为准。
+            long globalMemoryBudget = GLOBAL_MEMORY_BUDGET.limitCapacity(config.getGlobalMemoryBudget());
+            if (config.getGlobalMemoryBudget() > 0 && globalMemoryBudget != config.getGlobalMemoryBudget()) {
+                LOGGER.warn(
+                        "进程级别的内存预算已被其它处理器限制为 {} 字节, 本处理器配置的 {} 字节不生效",
+                        globalMemoryBudget, config.getGlobalMemoryBudget()
+                );
+            }
 
-            // 连接并登录。
-            try {
-                connectAndLogin();
-            } catch (Exception e) {
-                LOGGER.warn("FTP 连接失败，将会启用重连机制尝试重新连接", e);
+            // 启用分段下载时，创建下载分段的线程池，线程在空闲一段时间后自动退出。
+            if (config.getSegmentedDownloadSegmentCount() > 1) {
+                CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ftp-segmented-download-");
+                threadFactory.setDaemon(true);
+                segmentedDownloadExecutor = Executors.newCachedThreadPool(threadFactory);
             }
 
             // 添加 noop 周期发送计划。
             this.noopSendTaskFuture = scheduler.scheduleWithFixedDelay(
-                    new NoopSendTask(), new Date(System.currentTimeMillis() + config.getNoopInterval()),
+                    new NoopSendTask(sessionPool),
+                    new Date(System.currentTimeMillis() + config.getNoopInterval()),
                     config.getNoopInterval()
             );
 
+            // 打开临时文件池并清理遗留的临时文件，之后添加临时文件周期清理计划。
+            openTemporarySpool();
+            this.temporarySpoolCleanTaskFuture = scheduler.scheduleWithFixedDelay(
+                    new TemporarySpoolCleanTask(),
+                    new Date(System.currentTimeMillis() + config.getTemporarySpoolCleanInterval()),
+                    config.getTemporarySpoolCleanInterval()
+            );
+
             // 设置状态。
             startedFlag = true;
         } catch (Exception e) {
@@ -187,20 +450,23 @@ public class FtpHandlerImpl implements FtpHandler {
             // 断开连接 noop 发送计划。
             noopSendTaskFuture.cancel(true);
 
-            // FTP 服务器登出，如果遇到异常，则打印异常。
-            try {
-                ftpClient.logout();
-            } catch (Exception e) {
-                LOGGER.error("FTP 登出失败", e);
-            }
+            // 断开临时文件周期清理计划，并关闭临时文件池，正在使用的临时文件会在归还时被删除。
+            temporarySpoolCleanTaskFuture.cancel(false);
+            temporarySpool.close();
+
+            // 关闭会话池，空闲的会话会被立即登出并断开，借出的会话会在归还时登出并断开。
+            sessionPool.close();
 
-            // 关闭连接。
-            if (ftpClient.isConnected()) {
-                ftpClient.disconnect();
+            // 关闭下载分段的线程池，正在下载的分段会继续执行，但是不再接受新的任务。
+            if (Objects.nonNull(segmentedDownloadExecutor)) {
+                segmentedDownloadExecutor.shutdown();
+                segmentedDownloadExecutor = null;
             }
 
-            // 释放 FTP 客户端。
-            ftpClient = null;
+            // 释放会话池，并清空缓存的目录列表，使停止的处理器不再从缓存中返回结果；丢弃空闲的缓冲区。
+            sessionPool = null;
+            listingCache.clear();
+            bufferPool.clear();
 
             // 设置状态。
             startedFlag = false;
@@ -211,6 +477,92 @@ public class FtpHandlerImpl implements FtpHandler {
         }
     }
 
+    private void openTemporarySpool() {
+        // 临时文件目录不可用时，处理器仍然可以启动，临时文件池会在第一次借出临时文件时再次尝试打开。
+        try {
+            temporarySpool.open();
+        } catch (Exception e) {
+            LOGGER.warn("打开临时文件池时发生异常, 将在需要临时文件时再次尝试, 异常信息如下: ", e);
+            return;
+        }
+        cleanTemporarySpool();
+    }
+
+    private void cleanTemporarySpool() {
+        try {
+            int count = temporarySpool.clean();
+            if (count > 0) {
+                LOGGER.info("清理了 {} 个遗留的临时文件", count);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("清理遗留的临时文件时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    /**
+     * 获取临时文件池的指标。
+     *
+     * @return 临时文件池的指标。
+     * @since 2.1.0
+     */
+    public TemporarySpoolMetrics getTemporarySpoolMetrics() {
+        return temporarySpool.getMetrics();
+    }
+
+    /**
+     * 获取处理器的内存预算的指标。
+     *
+     * @return 处理器的内存预算的指标。
+     * @since 2.1.0
+     */
+    public MemoryBudgetMetrics getMemoryBudgetMetrics() {
+        return memoryBudget.getMetrics();
+    }
+
+    /**
+     * 获取进程内所有处理器共享的内存预算的指标。
+     *
+     * @return 进程内所有处理器共享的内存预算的指标。
+     * @since 2.1.0
+     */
+    public MemoryBudgetMetrics getGlobalMemoryBudgetMetrics() {
+        return GLOBAL_MEMORY_BUDGET.getMetrics();
+    }
+
+    /**
+     * 获取缓冲区池的指标。
+     *
+     * @return 缓冲区池的指标。
+     * @since 2.1.0
+     */
+    public BufferPoolMetrics getBufferPoolMetrics() {
+        return bufferPool.getMetrics();
+    }
+
+    /**
+     * 获取断点续传的指标。
+     *
+     * @return 断点续传的指标。
+     * @see FtpConfig#getUploadResumeMaxAttempts()
+     * @see FtpConfig#getDownloadResumeMaxAttempts()
+     * @since 2.1.0
+     */
+    public TransferResumeMetrics getTransferResumeMetrics() {
+        return new TransferResumeMetrics(
+                uploadResumeCount.get(), uploadResumedBytes.get(), downloadResumeCount.get(), downloadResumedBytes.get()
+        );
+    }
+
+    /**
+     * 获取会话池的最大会话数。
+     *
+     * @return 会话池的最大会话数。
+     * @see FtpConfig#getSessionPoolMaxTotal()
+     */
+    int getSessionPoolMaxTotal() {
+        return config.getSessionPoolMaxTotal();
+    }
+
     @Deprecated
     @BehaviorAnalyse
     @Override
@@ -228,45 +580,70 @@ public class FtpHandlerImpl implements FtpHandler {
     @BehaviorAnalyse
     @Override
     public boolean existsFile(@Nonnull String[] filePaths, @Nonnull String fileName) throws FtpException {
-        lock.lock();
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            return internalExistsFile(filePaths, fileName);
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return isFileListed(listing, fileName);
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalExistsFile(s, filePaths, fileName));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
     @BehaviorAnalyse
     @Override
     public boolean existsFile(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return isFileListed(listing, fileName);
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 执行操作，并返回结果。
-            return internalExistsFile(filePaths, fileName);
+            return callWithRetry(session, s -> internalExistsFile(s, filePaths, fileName));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private boolean internalExistsFile(String[] filePaths, String fileName) throws Exception {
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        FTPFile[] ftpFiles = ftpClient.listFiles(fileName);
-        boolean existsFlag = Objects.nonNull(ftpFiles) && ftpFiles.length > 0;
+    private boolean internalExistsFile(FtpSession session, String[] filePaths, String fileName) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        // 文件所在的目录不存在时，文件一定不存在。
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            return false;
+        }
+        // 服务器支持单文件探测时，通过控制连接探测文件，执行时间与目录下的文件数量无关。
+        switch (determineProbeMode(session)) {
+            case PROBE_MODE_MLST:
+                FTPFile ftpFile = mlistFile(session, remotePath);
+                return Objects.nonNull(ftpFile) && !ftpFile.isDirectory();
+            case PROBE_MODE_SIZE:
+                return Objects.nonNull(sizeFile(session, remotePath));
+            default:
+                break;
+        }
+        FTPFile[] ftpFiles = ftpClient.listFiles(remotePath);
+        // 列出非空目录时同样会返回条目，因此只有恰好列出一个与文件同名的非目录条目时，才认为文件存在。
+        boolean existsFlag = isSingleFileListing(ftpFiles, fileName);
         /*
          * 如果文件存在，检查 FTP 的状态；文件不存在时，不检查 FTP 的状态。
          * 这是因为部分 FTP 服务器找不到文件时，会返回非 positiveCompletion 的代码。
@@ -274,7 +651,7 @@ public class FtpHandlerImpl implements FtpHandler {
          *   1. Windows 内置服务器，找不到文件时，返回代码 550。
          */
         if (existsFlag) {
-            checkPositiveCompletion();
+            checkPositiveCompletion(session);
         }
         return existsFlag;
     }
@@ -284,15 +661,16 @@ public class FtpHandlerImpl implements FtpHandler {
     public void storeFile(
             @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull @SkipRecord byte[] content
     ) throws FtpException {
-        lock.lock();
-        try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalStoreFile(filePaths, fileName, content);
+        FtpSession session = null;
+        // 在借出会话之前预留内存，以免在等待内存预算期间占用会话。
+        try (MemoryReservation ignored = reserveMemory(content.length)) {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalStoreFile(s, filePaths, fileName, content));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
@@ -300,43 +678,41 @@ public class FtpHandlerImpl implements FtpHandler {
     @Override
     public void storeFile(@Nonnull FtpFileLocation fileLocation, @Nonnull @SkipRecord byte[] content)
             throws HandlerException {
-        lock.lock();
-        try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+        FtpSession session = null;
+        // 在借出会话之前预留内存，以免在等待内存预算期间占用会话。
+        try (MemoryReservation ignored = reserveMemory(content.length)) {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
             // 执行操作。
-            internalStoreFile(filePaths, fileName, content);
+            runWithoutRetry(session, s -> internalStoreFile(s, filePaths, fileName, content));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalStoreFile(String[] filePaths, String fileName, byte[] content) throws Exception {
-        try (ByteArrayInputStream bin = new ByteArrayInputStream(content)) {
-            internalStoreFileByStream(filePaths, fileName, bin);
-        }
+    private void internalStoreFile(FtpSession session, String[] filePaths, String fileName, byte[] content)
+            throws Exception {
+        storeFileFromSource(
+                session, filePaths, fileName, content.length,
+                (position, count, target) -> target.write(ByteBuffer.wrap(content, (int) position, (int) count))
+        );
     }
 
     @BehaviorAnalyse
     @SkipRecord
     @Override
     public byte[] retrieveFile(@Nonnull String[] filePaths, @Nonnull String fileName) throws FtpException {
-        lock.lock();
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            return internalRetrieveFile(filePaths, fileName);
+            return bufferToContent(retrieveFileToBuffer(filePaths, fileName, false));
         } catch (Exception e) {
             throw new FtpException(e);
-        } finally {
-            lock.unlock();
         }
     }
 
@@ -344,992 +720,3876 @@ public class FtpHandlerImpl implements FtpHandler {
     @SkipRecord
     @Override
     public byte[] retrieveFile(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
             // 执行操作，并返回结果。
-            return internalRetrieveFile(filePaths, fileName);
+            return bufferToContent(retrieveFileToBuffer(filePaths, fileName, false));
         } catch (Exception e) {
             throw new FtpException(e);
-        } finally {
-            lock.unlock();
         }
     }
 
-    private byte[] internalRetrieveFile(String[] filePaths, String fileName) throws Exception {
-        try (ByteArrayOutputStream bout = new ByteArrayOutputStream()) {
-            internalRetrieveFileByStream(filePaths, fileName, bout);
-            bout.flush();
-            return bout.toByteArray();
+    private byte[] bufferToContent(ByteBuffer buffer) {
+        byte[] content = buffer.array();
+        // 缓冲区按照文件的大小分配时，直接返回缓冲区的数组，无需再次复制。
+        if (content.length == buffer.limit()) {
+            return content;
         }
+        return Arrays.copyOf(content, buffer.limit());
     }
 
     @BehaviorAnalyse
+    @SkipRecord
     @Override
-    public void storeFileByStream(
-            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull @SkipRecord InputStream in
+    public ByteBuffer retrieveFileAsByteBuffer(
+            @Nonnull String[] filePaths, @Nonnull String fileName, boolean direct
     ) throws HandlerException {
-        lock.lock();
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalStoreFileByStream(filePaths, fileName, in);
+            return retrieveFileToBuffer(filePaths, fileName, direct).asReadOnlyBuffer();
         } catch (Exception e) {
             throw new FtpException(e);
-        } finally {
-            lock.unlock();
         }
     }
 
     @BehaviorAnalyse
+    @SkipRecord
     @Override
-    public void storeFileByStream(
-            @Nonnull FtpFileLocation fileLocation, @Nonnull @SkipRecord InputStream in
-    ) throws HandlerException {
-        lock.lock();
+    public ByteBuffer retrieveFileAsByteBuffer(@Nonnull FtpFileLocation fileLocation, boolean direct)
+            throws HandlerException {
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
-            // 执行操作。
-            internalStoreFileByStream(filePaths, fileName, in);
+            // 执行操作，并返回结果。
+            return retrieveFileToBuffer(filePaths, fileName, direct).asReadOnlyBuffer();
         } catch (Exception e) {
             throw new FtpException(e);
+        }
+    }
+
+    /**
+     * 将文件的内容获取到缓冲区中。
+     *
+     * <p>
+     * 服务器支持 SIZE 指令时，首先探测文件的大小，并据此一次性地分配缓冲区，数据从数据连接直接读入缓冲区，
+     * 整个过程中只有一份文件内容的拷贝；文件的大小在探测之后发生变化时，缓冲区会按需扩容。<br>
+     * 服务器不支持 SIZE 指令时，缓冲区从缓冲区大小开始按需扩容。
+     *
+     * <p>
+     * 缓冲区占用的内存在分配之前从内存预算中预留，并在方法返回时释放。<br>
+     * 探测文件的大小之后，如果内存预算无法立即满足缓冲区的初始容量，会话被归还，待内存预留成功后再重新借出会话，
+     * 以免在等待内存预算期间占用会话。<br>
+     * 传输期间缓冲区扩容时同样持有会话，此时内存预算无法立即满足时，操作以 {@link FtpMemoryBudgetExhaustedException} 失败。
+     *
+     * @param filePaths 目录路径。
+     * @param fileName  文件的名称。
+     * @param direct    是否使用直接内存缓冲区。
+     * @return 包含文件内容的缓冲区，缓冲区的位置为 0，界限为文件的大小。
+     * @throws Exception 操作过程中发生的异常。
+     */
+    private ByteBuffer retrieveFileToBuffer(String[] filePaths, String fileName, boolean direct) throws Exception {
+        FtpSession session = null;
+        try (MemoryReservation reservation = new MemoryReservation()) {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 探测文件的大小，确定缓冲区的初始容量。
+            long expectedSize = callWithRetry(session, s -> internalProbeContentSize(s, filePaths, fileName));
+            int initialCapacity = expectedSize >= 0 ? (int) expectedSize : config.getBufferSize();
+            // 内存预算无法立即满足时，归还会话之后再等待内存预算。
+            if (!reservation.tryReserve(initialCapacity)) {
+                returnSession(session);
+                session = null;
+                reservation.reserve(initialCapacity);
+                session = borrowSession();
+            }
+            return callWithRetry(
+                    session,
+                    s -> internalRetrieveFileToBuffer(s, filePaths, fileName, direct, initialCapacity, reservation)
+            );
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalStoreFileByStream(String[] filePaths, String fileName, InputStream in) throws Exception {
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        if (!ftpClient.storeFile(fileName, in)) {
-            throw new FtpFileStoreException(resolveAbsolutePath(filePaths, fileName));
+    /**
+     * 探测文件的大小。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 目录路径。
+     * @param fileName  文件的名称。
+     * @return 文件的大小，服务器不支持 SIZE 指令时返回 -1。
+     * @throws Exception 操作过程中发生的异常。
+     */
+    private long internalProbeContentSize(FtpSession session, String[] filePaths, String fileName)
+            throws Exception {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        if (!ftpClient.hasFeature(FTPCmd.SIZE)) {
+            return -1L;
+        }
+        Long size = sizeFile(session, remotePath);
+        if (Objects.isNull(size)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
         }
-        checkPositiveCompletion();
+        if (size > MAX_CONTENT_BUFFER_SIZE) {
+            throw new IOException("文件过大, 无法获取到内存中: " + size + " 字节");
+        }
+        return size;
     }
 
-    @BehaviorAnalyse
-    @Override
-    public void retrieveFileByStream(
-            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull @SkipRecord OutputStream out
-    ) throws HandlerException {
-        lock.lock();
+    private ByteBuffer internalRetrieveFileToBuffer(
+            FtpSession session, String[] filePaths, String fileName, boolean direct, int initialCapacity,
+            MemoryReservation reservation
+    ) throws Exception {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        // 重试时，释放上一次尝试中扩容的缓冲区所预留的内存。
+        reservation.release(reservation.getReservedBytes() - initialCapacity);
+        Socket socket = ftpClient.openChannelDataConnection(FTPCmd.RETR, remotePath);
+        if (Objects.isNull(socket)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        ByteBuffer buffer;
+        boolean completedFlag;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalRetrieveFileByStream(filePaths, fileName, out);
+            buffer = readFromDataConnection(socket.getChannel(), initialCapacity, direct, reservation);
+            socket.close();
+            completedFlag = ftpClient.completePendingCommand();
         } catch (Exception e) {
-            throw new FtpException(e);
-        } finally {
-            lock.unlock();
+            // 传输中止，会话的状态无法确定，关闭数据连接并断开会话，会话再次被借出时会自动重新连接。
+            closeTransferStream(socket, e);
+            session.noThrowingDisconnect();
+            throw e;
+        }
+        if (!completedFlag) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
         }
+        checkPositiveCompletion(session);
+        return buffer;
     }
 
     @BehaviorAnalyse
     @Override
-    public void retrieveFileByStream(
-            @Nonnull FtpFileLocation fileLocation, @Nonnull @SkipRecord OutputStream out
-    ) throws HandlerException {
-        lock.lock();
+    public FtpFileContent retrieveFileContent(@Nonnull String[] filePaths, @Nonnull String fileName)
+            throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalRetrieveFileContent(s, filePaths, fileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @BehaviorAnalyse
+    @Override
+    public FtpFileContent retrieveFileContent(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
-            // 执行操作。
-            internalRetrieveFileByStream(filePaths, fileName, out);
+            // 执行操作，并返回结果。
+            return callWithRetry(session, s -> internalRetrieveFileContent(s, filePaths, fileName));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalRetrieveFileByStream(String[] filePaths, String fileName, OutputStream out) throws Exception {
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        if (!ftpClient.retrieveFile(fileName, out)) {
+    private FtpFileContent internalRetrieveFileContent(FtpSession session, String[] filePaths, String fileName)
+            throws Exception {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        // 服务器支持 SIZE 指令时，探测文件的大小，超过内存阈值的文件内容直接写入临时文件。
+        long expectedSize = -1L;
+        if (ftpClient.hasFeature(FTPCmd.SIZE)) {
+            Long size = sizeFile(session, remotePath);
+            if (Objects.isNull(size)) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            expectedSize = size;
+        }
+        Socket socket = ftpClient.openChannelDataConnection(FTPCmd.RETR, remotePath);
+        if (Objects.isNull(socket)) {
             throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
         }
-        checkPositiveCompletion();
+        SpillableFtpFileContent content = new SpillableFtpFileContent(
+                temporarySpool, config.getRetrieveContentMemoryThreshold(), expectedSize, config.getBufferSize()
+        );
+        boolean successFlag = false;
+        try {
+            boolean completedFlag;
+            try {
+                transferFromDataConnection(socket.getChannel(), content.getWriteChannel());
+                content.finishWrite();
+                socket.close();
+                completedFlag = ftpClient.completePendingCommand();
+            } catch (Exception e) {
+                // 传输中止，会话的状态无法确定，关闭数据连接并断开会话，会话再次被借出时会自动重新连接。
+                closeTransferStream(socket, e);
+                session.noThrowingDisconnect();
+                throw e;
+            }
+            if (!completedFlag) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            checkPositiveCompletion(session);
+            successFlag = true;
+            return content;
+        } finally {
+            // 获取失败时，释放文件内容占用的内存或者临时文件。
+            if (!successFlag) {
+                content.close();
+            }
+        }
     }
 
     @BehaviorAnalyse
     @Override
-    public void deleteFile(@Nonnull String[] filePaths, @Nonnull String fileName) throws FtpException {
-        lock.lock();
+    public void storeFileByStream(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull @SkipRecord InputStream in
+    ) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalDeleteFile(filePaths, fileName);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalStoreFileByStream(s, filePaths, fileName, in));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
     @BehaviorAnalyse
     @Override
-    public void deleteFile(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    public void storeFileByStream(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull @SkipRecord InputStream in
+    ) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
             // 执行操作。
-            internalDeleteFile(filePaths, fileName);
+            runWithoutRetry(session, s -> internalStoreFileByStream(s, filePaths, fileName, in));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalDeleteFile(String[] filePaths, String fileName) throws Exception {
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        if (!ftpClient.deleteFile(fileName)) {
-            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, fileName));
+    private void internalStoreFileByStream(FtpSession session, String[] filePaths, String fileName, InputStream in)
+            throws Exception {
+        ensureStatus(session);
+        if (!addressAndStoreFile(session, filePaths, fileName, in)) {
+            throw new FtpFileStoreException(resolveAbsolutePath(filePaths, fileName));
         }
-        checkPositiveCompletion();
+        checkPositiveCompletion(session);
     }
 
     @BehaviorAnalyse
     @Override
-    public void removeDirectory(@Nonnull String[] filePaths) throws HandlerException {
-        lock.lock();
+    public void retrieveFileByStream(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull @SkipRecord OutputStream out
+    ) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalRemoveDirectory(filePaths);
-        } catch (HandlerException e) {
-            throw e;
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalRetrieveFileByStream(s, filePaths, fileName, out));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
     @BehaviorAnalyse
     @Override
-    public void removeDirectory(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    public void retrieveFileByStream(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull @SkipRecord OutputStream out
+    ) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
+            String fileName = fileLocation.getFileName();
             // 执行操作。
-            internalRemoveDirectory(filePaths);
-        } catch (HandlerException e) {
-            throw e;
+            runWithoutRetry(session, s -> internalRetrieveFileByStream(s, filePaths, fileName, out));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalRemoveDirectory(String[] filePaths) throws Exception {
-        // 如果目录为空，则直接抛出异常（不能删除根目录）。
-        if (filePaths.length == 0) {
-            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, null));
+    private void internalRetrieveFileByStream(
+            FtpSession session, String[] filePaths, String fileName, OutputStream out
+    ) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
         }
+        // 启用断点续传时，经由可以断点续传的输入流获取文件。
+        if (config.getDownloadResumeMaxAttempts() > 0) {
+            InputStream in = openResumableInputStream(session, filePaths, fileName, remotePath);
+            if (Objects.isNull(in)) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            try {
+                copyStream(in, out);
+                in.close();
+            } catch (Exception e) {
+                closeTransferStream(in, e);
+                throw e;
+            }
+            if (!ftpClient.completePendingCommand()) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+        } else if (!retrieveFileToStream(ftpClient, remotePath, out)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        checkPositiveCompletion(session);
+    }
 
-        // 如果目录不为空，则获取父目录路径。
-        String[] parentFilePaths = new String[filePaths.length - 1];
-        System.arraycopy(filePaths, 0, parentFilePaths, 0, parentFilePaths.length);
-
-        // 确认状态并打开文件目录。
-        ensureStatus();
-        enterDirection(parentFilePaths);
-        checkPositiveCompletion();
+    /**
+     * 打开指定文件的可以断点续传的输入流。
+     *
+     * <p>
+     * 返回的输入流记录已经交付给调用者的字节数，数据连接或者控制连接中断时，
+     * 重新连接会话，并通过 REST 以及 RETR 指令从该位置继续下载，对调用者透明。<br>
+     * 调用者读取完输入流之后，需要关闭输入流，并调用 {@link FTPClient#completePendingCommand()} 方法完成指令。
+     *
+     * @param session    执行操作的会话。
+     * @param filePaths  文件所在的目录。
+     * @param fileName   文件名。
+     * @param remotePath 文件的路径。
+     * @return 可以断点续传的输入流，服务器返回否定应答时返回 null。
+     * @throws IOException IO 异常。
+     * @see FtpConfig#getDownloadResumeMaxAttempts()
+     */
+    @Nullable
+    private InputStream openResumableInputStream(
+            FtpSession session, String[] filePaths, String fileName, String remotePath
+    ) throws IOException {
+        RemoteFileVersion version = determineRemoteFileVersion(session, remotePath);
+        InputStream in = session.getFtpClient().retrieveFileStream(remotePath);
+        if (Objects.isNull(in)) {
+            return null;
+        }
+        return new ResumableInputStream(session, filePaths, fileName, version, in);
+    }
 
-        // 删除文件目录。
-        if (!ftpClient.removeDirectory(filePaths[filePaths.length - 1])) {
-            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, null));
+    /**
+     * 确定文件的版本。
+     *
+     * <p>
+     * 文件的大小用于识别提前结束的数据连接；启用校验时，文件的修改时间用于识别下载期间发生变化的文件。
+     *
+     * @param session    执行操作的会话。
+     * @param remotePath 文件的路径。
+     * @return 文件的版本。
+     * @throws IOException IO 异常。
+     * @see FtpConfig#isDownloadResumeVerifyEnabled()
+     */
+    private RemoteFileVersion determineRemoteFileVersion(FtpSession session, String remotePath) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        Long size = ftpClient.hasFeature(FTPCmd.SIZE) ? sizeFile(session, remotePath) : null;
+        String modificationTime = null;
+        if (config.isDownloadResumeVerifyEnabled()) {
+            // 服务器不支持 MDTM 指令时，返回 null，此时只比较文件的大小。
+            modificationTime = ftpClient.getModificationTime(remotePath);
         }
-        checkPositiveCompletion();
+        return new RemoteFileVersion(size, modificationTime);
     }
 
-    @Override
     @BehaviorAnalyse
-    @SkipRecord
-    public FtpFile[] listFiles(@Nonnull String[] filePaths) throws HandlerException {
-        lock.lock();
+    @Override
+    public void storeFileFromPath(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull Path path
+    ) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            return internalListFile(filePaths);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalStoreFileFromPath(s, filePaths, fileName, path));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    @Override
     @BehaviorAnalyse
-    @SkipRecord
-    public FtpFile[] listFiles(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    @Override
+    public void storeFileFromPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
-            // 执行操作，并返回结果。
-            return internalListFile(filePaths);
+            String fileName = fileLocation.getFileName();
+            // 执行操作。
+            runWithoutRetry(session, s -> internalStoreFileFromPath(s, filePaths, fileName, path));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private FtpFile[] internalListFile(String[] filePaths) throws Exception {
-        // 确认状态并列出文件。
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        FTPFile[] ftpFiles = ftpClient.listFiles();
-        checkPositiveCompletion();
-
-        // 映射文件并返回结果。
-        FtpFile[] result = new FtpFile[ftpFiles.length];
-        for (int i = 0; i < ftpFiles.length; i++) {
-            FTPFile ftpFile = ftpFiles[i];
-            result[i] = apacheFtpFileToDwarfengFtpFile(ftpFile);
+    private void internalStoreFileFromPath(FtpSession session, String[] filePaths, String fileName, Path path)
+            throws Exception {
+        // 先打开本地文件，本地文件不存在时，不会在服务器上创建空文件。
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            internalStoreFileFromChannel(session, filePaths, fileName, fileChannel);
         }
-        return result;
     }
 
-    @Override
     @BehaviorAnalyse
-    @SkipRecord
-    public String[] listFileNames(@Nonnull String[] filePaths) throws HandlerException {
-        lock.lock();
+    @Override
+    public void storeFileFromChannel(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull FileChannel fileChannel
+    ) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            return internalListFileNames(filePaths);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalStoreFileFromChannel(s, filePaths, fileName, fileChannel));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    @Override
     @BehaviorAnalyse
-    @SkipRecord
-    public String[] listFileNames(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    @Override
+    public void storeFileFromChannel(@Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel)
+            throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
-            // 执行操作，并返回结果。
-            return internalListFileNames(filePaths);
+            String fileName = fileLocation.getFileName();
+            // 执行操作。
+            runWithoutRetry(session, s -> internalStoreFileFromChannel(s, filePaths, fileName, fileChannel));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private String[] internalListFileNames(String[] filePaths) throws Exception {
-        // 确认状态并列出文件。
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        FTPFile[] ftpFiles = ftpClient.listFiles();
-        checkPositiveCompletion();
-
-        // 映射文件并返回结果。
-        String[] result = new String[ftpFiles.length];
-        for (int i = 0; i < ftpFiles.length; i++) {
-            FTPFile ftpFile = ftpFiles[i];
-            result[i] = ftpFile.getName();
-        }
-        return result;
+    private void internalStoreFileFromChannel(
+            FtpSession session, String[] filePaths, String fileName, FileChannel fileChannel
+    ) throws Exception {
+        // 由操作系统将文件的内容直接发送到数据连接，数据无需经过用户空间。
+        // 传输通过绝对位置读取文件通道，与 FileChannel#transferTo 一致，文件通道的位置保持不变。
+        long startPosition = fileChannel.position();
+        long length = Math.max(fileChannel.size() - startPosition, 0);
+        storeFileFromSource(
+                session, filePaths, fileName, length,
+                (position, count, target) -> fileChannel.transferTo(startPosition + position, count, target)
+        );
     }
 
     /**
-     * 打开指定文件的输入流。
+     * 将可以重复读取的数据源存储为指定的文件。
      *
      * <p>
-     * 该方法返回的流应该在获取后立即使用，在关闭流之前，不得调用该处理器的任何其它方法。<br>
-     * 该方法返回的流只能在本线程中使用，不应该在其他线程中使用。
+     * 启用断点续传时（见 {@link FtpConfig#getUploadResumeMaxAttempts()}），如果连接在传输过程中中断，
+     * 则重新连接会话，通过 SIZE 指令查询服务器上已经写入的字节数，并从该位置继续上传。<br>
+     * 未启用断点续传时，连接中断后重新连接会话，并从头重新上传一次，与其它可以重试的操作一致。<br>
+     * 服务器拒绝写入、超时、数据源提前结束等其它异常不会触发断点续传。
      *
      * <p>
-     * 该方法在调用时会加锁，但返回结果后不会解锁，直到调用者关闭流或者流被关闭时才会解锁，在这段时间内，
-     * 其它线程调用处理器的任何方法都会被阻塞。
+     * 该方法自行负责重新连接，调用者应当通过 {@link #runWithoutRetry(FtpSession, SessionRunnable)} 调用，
+     * 以免外层的重试从头重新上传，使上传的次数成倍增加。
      *
-     * @param filePaths 文件夹路径。<br>
-     *                  路径从根文件出发，一直到达最后一个文件夹，所有文件夹按照顺序组成数组。
-     * @param fileName  文件的名称。
-     * @return 文件的输入流。
-     * @throws HandlerException 处理器异常。
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @param length    数据源的长度。
+     * @param source    数据源。
+     * @throws Exception 操作过程中发生的异常。
      */
-    @Override
-    @BehaviorAnalyse
-    @SkipRecord
-    public InputStream openInputStream(@Nonnull String[] filePaths, @Nonnull String fileName) throws HandlerException {
-        lock.lock();
+    private void storeFileFromSource(
+            FtpSession session, String[] filePaths, String fileName, long length, StoreSource source
+    ) throws Exception {
+        ensureStatus(session);
+        long offset = 0;
+        int resumeCount = 0;
+        while (true) {
+            try {
+                storeFileFromOffset(session, filePaths, fileName, length, source, offset);
+                return;
+            } catch (IOException e) {
+                // 数据源提前结束时，重新上传同样无法读取到数据，直接抛出异常。
+                if (e instanceof EOFException || !isConnectionBroken(session, e)) {
+                    throw e;
+                }
+                // 未启用断点续传时，重新连接并从头重新上传一次。
+                if (config.getUploadResumeMaxAttempts() <= 0) {
+                    if (resumeCount > 0) {
+                        throw e;
+                    }
+                    resumeCount++;
+                    offset = 0;
+                    LOGGER.warn("FTP 连接已失效，将重新连接并重试操作，异常信息如下: ", e);
+                    connectSession(session);
+                    continue;
+                }
+                if (resumeCount >= config.getUploadResumeMaxAttempts()) {
+                    throw e;
+                }
+                resumeCount++;
+                offset = determineUploadResumeOffset(session, filePaths, fileName, length, e);
+                uploadResumeCount.incrementAndGet();
+                uploadResumedBytes.addAndGet(offset);
+                LOGGER.warn(
+                        "上传文件 {} 时连接中断, 已重新连接, 将从第 {} 字节处继续上传, 第 {} 次断点续传, 异常信息如下: ",
+                        resolveAbsolutePath(filePaths, fileName), offset, resumeCount, e
+                );
+            }
+        }
+    }
+
+    private void storeFileFromOffset(
+            FtpSession session, String[] filePaths, String fileName, long length, StoreSource source, long offset
+    ) throws Exception {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        Socket socket = addressAndOpenStoreDataConnection(session, filePaths, fileName, offset);
+        if (Objects.isNull(socket)) {
+            throw new FtpFileStoreException(resolveAbsolutePath(filePaths, fileName));
+        }
+        boolean completedFlag;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            return internalOpenInputStream(filePaths, fileName);
+            SocketChannel socketChannel = socket.getChannel();
+            long position = offset;
+            while (position < length) {
+                long transferred = source.transferTo(position, length - position, socketChannel);
+                // 数据源在传输期间被截断时，无法再读取到数据，继续循环会使线程空转。
+                if (transferred <= 0) {
+                    throw new EOFException("数据源提前结束, 期望 " + length + " 字节, 实际 " + position + " 字节");
+                }
+                position += transferred;
+            }
+            socket.close();
+            completedFlag = ftpClient.completePendingCommand();
         } catch (Exception e) {
-            lock.unlock();
-            throw new FtpStreamOpenException(e);
+            // 传输中止，会话的状态无法确定，关闭数据连接并断开会话，会话再次被借出时会自动重新连接。
+            closeTransferStream(socket, e);
+            session.noThrowingDisconnect();
+            throw e;
+        } finally {
+            invalidateListing(filePaths);
         }
+        if (!completedFlag) {
+            throw new FtpFileStoreException(resolveAbsolutePath(filePaths, fileName));
+        }
+        checkPositiveCompletion(session);
     }
 
     /**
-     * @see #openInputStream(String[], String)
+     * 重新连接会话，并确定断点续传的起始位置。
+     *
+     * <p>
+     * 起始位置为服务器上已经写入的字节数；服务器支持 SIZE 指令但文件不存在时，说明连接在文件被创建之前中断，起始位置为 0。<br>
+     * 服务器不支持 SIZE 指令，或者文件的大小超过数据源的长度时，无法断点续传，抛出导致连接中断的异常。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @param length    数据源的长度。
+     * @param cause     导致连接中断的异常。
+     * @return 断点续传的起始位置。
+     * @throws IOException 无法断点续传时，抛出导致连接中断的异常。
      */
+    private long determineUploadResumeOffset(
+            FtpSession session, String[] filePaths, String fileName, long length, IOException cause
+    ) throws IOException {
+        Long size;
+        try {
+            connectSession(session);
+            String remotePath = tryAddressFile(session, filePaths, fileName);
+            size = Objects.isNull(remotePath) ? null : sizeFile(session, remotePath);
+            if (Objects.isNull(size) && session.getFtpClient().hasFeature(FTPCmd.SIZE)) {
+                return 0L;
+            }
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+            throw cause;
+        }
+        if (Objects.isNull(size) || size > length) {
+            LOGGER.warn("无法确定文件 {} 已经上传的字节数, 放弃断点续传", resolveAbsolutePath(filePaths, fileName));
+            throw cause;
+        }
+        return size;
+    }
+
+    @BehaviorAnalyse
     @Override
+    public void retrieveFileToPath(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull Path path
+    ) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithRetry(session, s -> internalRetrieveFileToPath(s, filePaths, fileName, path));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
     @BehaviorAnalyse
-    @SkipRecord
-    public InputStream openInputStream(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    @Override
+    public void retrieveFileToPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path)
+            throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 校验参数。
             FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             String fileName = fileLocation.getFileName();
-            // 执行操作，并返回结果。
-            return internalOpenInputStream(filePaths, fileName);
+            // 执行操作。
+            runWithRetry(session, s -> internalRetrieveFileToPath(s, filePaths, fileName, path));
         } catch (Exception e) {
-            lock.unlock();
-            throw new FtpStreamOpenException(e);
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
         }
     }
 
-    private CompletePendingInputStream internalOpenInputStream(String[] filePaths, String fileName) throws Exception {
-        // 确认状态并打开文件目录。
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-
-        // 打开文件的输入流。
-        InputStream in = ftpClient.retrieveFileStream(fileName);
-        checkPositivePreliminary();
-
-        // 包装输入流并返回。
-        return new CompletePendingInputStream(in);
+    private void internalRetrieveFileToPath(FtpSession session, String[] filePaths, String fileName, Path path)
+            throws Exception {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        // 先打开远程文件，远程文件不存在时，不会创建或者截断本地文件。
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        // 文件大于分段的大小，且服务器支持时，分段并行下载。
+        if (Objects.nonNull(remotePath) && isSegmentedDownloadSupported(session)) {
+            Long size = sizeFile(session, remotePath);
+            if (Objects.isNull(size)) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            if (size > config.getSegmentedDownloadSegmentSize()) {
+                segmentedRetrieveFileToPath(session, filePaths, fileName, size, path);
+                return;
+            }
+        }
+        Socket socket = Objects.isNull(remotePath) ? null :
+                ftpClient.openChannelDataConnection(FTPCmd.RETR, remotePath);
+        if (Objects.isNull(socket)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        boolean completedFlag;
+        try {
+            try (FileChannel fileChannel = FileChannel.open(
+                    path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+            )) {
+                transferFromDataConnection(socket.getChannel(), fileChannel);
+            }
+            socket.close();
+            completedFlag = ftpClient.completePendingCommand();
+        } catch (Exception e) {
+            // 传输中止，会话的状态无法确定，关闭数据连接并断开会话，会话再次被借出时会自动重新连接。
+            closeTransferStream(socket, e);
+            session.noThrowingDisconnect();
+            throw e;
+        }
+        if (!completedFlag) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        checkPositiveCompletion(session);
     }
 
     /**
-     * 打开指定文件的输出流。
+     * 判断是否可以分段下载。
      *
      * <p>
-     * 该方法返回的流应该在获取后立即使用，在关闭流之前，不得调用该处理器的任何其它方法。<br>
-     * 该方法返回的流只能在本线程中使用，不应该在其他线程中使用。
+     * 分段下载需要启用，且服务器需要支持 SIZE 指令以及 REST STREAM 特性。
      *
-     * <p>
-     * 该方法在调用时会加锁，但返回结果后不会解锁，直到调用者关闭流或者流被关闭时才会解锁，在这段时间内，
-     * 其它线程调用处理器的任何方法都会被阻塞。
+     * @param session 执行操作的会话。
+     * @return 是否可以分段下载。
+     * @throws IOException IO 异常。
+     * @see FtpConfig#getSegmentedDownloadSegmentCount()
+     */
+    private boolean isSegmentedDownloadSupported(FtpSession session) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        return config.getSegmentedDownloadSegmentCount() > 1 && ftpClient.hasFeature(FTPCmd.SIZE) &&
+                ftpClient.hasFeature(FTPCmd.REST.getCommand(), "STREAM");
+    }
+
+    /**
+     * 分段下载指定的文件到本地文件。
      *
-     * @param filePaths 文件夹路径。<br>
-     *                  路径从根文件出发，一直到达最后一个文件夹，所有文件夹按照顺序组成数组。
-     * @param fileName  文件的名称。
-     * @return 文件的输出流。
-     * @throws HandlerException 处理器异常。
+     * <p>
+     * 文件按照 {@link FtpConfig#getSegmentedDownloadSegmentSize()} 切分为多个分段，本地文件首先被扩展为文件的大小，
+     * 之后每个分段在各自的会话上通过 REST 以及 RETR 指令下载，并直接写入本地文件的对应位置。
+     *
+     * <p>
+     * 调用线程使用当前的会话下载分段，同时向下载分段的线程池提交辅助任务，
+     * 每个辅助任务不等待地借出一个额外的会话，借出成功后与调用线程一同下载剩余的分段。<br>
+     * 因此，会话池耗尽时，所有的分段由调用线程依次下载，不会与其它线程互相等待。
+     *
+     * <p>
+     * 分段下载失败时，只重新下载该分段；重试次数耗尽时，不再下载其它的分段，整个下载失败。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @param size      文件的大小。
+     * @param path      本地文件的路径。
+     * @throws Exception 操作过程中发生的异常。
+     * @see FtpConfig#getSegmentedDownloadSegmentCount()
+     * @see FtpConfig#getSegmentedDownloadSegmentMaxRetries()
      */
-    @Override
-    @BehaviorAnalyse
-    @SkipRecord
-    public OutputStream openOutputStream(@Nonnull String[] filePaths, @Nonnull String fileName)
-            throws HandlerException {
+    private void segmentedRetrieveFileToPath(
+            FtpSession session, String[] filePaths, String fileName, long size, Path path
+    ) throws Exception {
+        ExecutorService executor;
         lock.lock();
         try {
-            // 确认处理器已经启动。
             makeSureHandlerStart();
-            return internalOpenOutputStream(filePaths, fileName);
-        } catch (Exception e) {
+            executor = segmentedDownloadExecutor;
+        } finally {
             lock.unlock();
-            throw new FtpStreamOpenException(e);
+        }
+        SegmentedDownload download = new SegmentedDownload(size, config.getSegmentedDownloadSegmentSize());
+        // 辅助线程借出的会话同样登记到调用线程的传输中止令牌中，使中止操作时所有分段的传输均被中止。
+        TransferAbortToken token = TransferAbortToken.current();
+        try (FileChannel fileChannel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            // 写入文件的最后一个字节，将本地文件扩展为文件的大小，使每个分段都可以直接写入对应的位置。
+            fileChannel.write(ByteBuffer.allocate(1), size - 1);
+            List<Future<?>> futures = new ArrayList<>();
+            long helperCount = Math.min(config.getSegmentedDownloadSegmentCount(), download.getSegmentCount()) - 1;
+            try {
+                for (long i = 0; i < helperCount; i++) {
+                    futures.add(executor.submit(
+                            () -> assistSegmentedDownload(token, download, filePaths, fileName, fileChannel)
+                    ));
+                }
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("处理器正在停止, 剩余的分段将由调用线程下载");
+            }
+            runSegmentedDownload(session, download, filePaths, fileName, fileChannel);
+            // 等待辅助任务结束之后，再关闭本地文件。
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (Exception e) {
+                download.fail(e);
+                throw e;
+            }
+        }
+        Exception failure = download.getFailure();
+        if (Objects.nonNull(failure)) {
+            throw new FtpFileRetrieveException(failure, resolveAbsolutePath(filePaths, fileName));
+        }
+    }
+
+    private void assistSegmentedDownload(
+            @Nullable TransferAbortToken token, SegmentedDownload download, String[] filePaths, String fileName,
+            FileChannel fileChannel
+    ) {
+        try {
+            TransferAbortToken.callWith(token, () -> {
+                assistSegmentedDownload(download, filePaths, fileName, fileChannel);
+                return null;
+            });
+        } catch (Exception e) {
+            // assistSegmentedDownload 方法不会抛出异常，此处仅为满足编译器的要求。
+            LOGGER.warn("下载分段时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    private void assistSegmentedDownload(
+            SegmentedDownload download, String[] filePaths, String fileName, FileChannel fileChannel
+    ) {
+        FtpSession session = null;
+        try {
+            // 不等待地借出额外的会话，会话池耗尽时，剩余的分段由其它线程下载。
+            session = tryBorrowSession();
+            if (Objects.isNull(session)) {
+                return;
+            }
+            runSegmentedDownload(session, download, filePaths, fileName, fileChannel);
+        } catch (Exception e) {
+            LOGGER.warn("借出下载分段的会话时发生异常, 剩余的分段将由其它线程下载, 异常信息如下: ", e);
+        } finally {
+            returnSession(session);
         }
     }
 
     /**
-     * @see #openOutputStream(String[], String)
+     * 在指定的会话上依次下载分段，直到所有的分段均已开始下载，或者下载失败。
+     *
+     * <p>
+     * 该方法不会抛出异常，分段的重试次数耗尽时，异常被记录在分段下载中。
+     *
+     * @param session     执行操作的会话。
+     * @param download    分段下载。
+     * @param filePaths   文件所在的目录。
+     * @param fileName    文件名。
+     * @param fileChannel 本地文件的通道。
      */
-    @Override
-    public OutputStream openOutputStream(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    private void runSegmentedDownload(
+            FtpSession session, SegmentedDownload download, String[] filePaths, String fileName,
+            FileChannel fileChannel
+    ) {
+        long index;
+        while ((index = download.nextSegment()) >= 0) {
+            int retries = 0;
+            while (true) {
+                try {
+                    retrieveSegment(session, download, index, filePaths, fileName, fileChannel);
+                    break;
+                } catch (Exception e) {
+                    if (retries >= config.getSegmentedDownloadSegmentMaxRetries() || download.isFailed() ||
+                            e instanceof InterruptedException || e instanceof FtpTransferAbortedException) {
+                        download.fail(e);
+                        return;
+                    }
+                    retries++;
+                    LOGGER.warn("下载第 {} 个分段时发生异常, 将进行第 {} 次重试, 异常信息如下: ", index, retries, e);
+                }
+            }
+        }
+    }
+
+    private void retrieveSegment(
+            FtpSession session, SegmentedDownload download, long index, String[] filePaths, String fileName,
+            FileChannel fileChannel
+    ) throws Exception {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        long offset = download.getOffset(index);
+        long length = download.getLength(index);
+        boolean lastFlag = download.isLast(index);
+        Socket socket;
+        ftpClient.setRestartOffset(offset);
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            // 校验参数。
-            FtpFileLocationUtil.checkAsFile(fileLocation);
-            // 展开参数。
-            String[] filePaths = fileLocation.getFilePaths();
-            String fileName = fileLocation.getFileName();
-            // 执行操作，并返回结果。
-            return internalOpenOutputStream(filePaths, fileName);
+            socket = ftpClient.openChannelDataConnection(FTPCmd.RETR, remotePath);
+        } finally {
+            // 打开数据连接失败时，REST 指令可能尚未发送，因此需要重置偏移量，以免影响之后的传输。
+            ftpClient.setRestartOffset(0);
+        }
+        if (Objects.isNull(socket)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        boolean completedFlag;
+        try {
+            transferSegmentFromDataConnection(socket.getChannel(), fileChannel, offset, length, lastFlag);
+            socket.close();
+            // 最后一个分段的数据在文件末尾结束，传输正常完成；其它分段在读取足够的数据之后中止传输。
+            completedFlag = lastFlag ? ftpClient.completePendingCommand() : ftpClient.abortTransfer();
         } catch (Exception e) {
-            lock.unlock();
-            throw new FtpStreamOpenException(e);
+            // 传输中止，会话的状态无法确定，关闭数据连接并断开会话，会话在重试时会自动重新连接。
+            closeTransferStream(socket, e);
+            session.noThrowingDisconnect();
+            throw e;
+        }
+        if (!completedFlag) {
+            if (!lastFlag) {
+                session.noThrowingDisconnect();
+            }
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
         }
     }
 
-    private CompletePendingOutputStream internalOpenOutputStream(String[] filePaths, String fileName)
-            throws Exception {
-        // 确认状态并打开文件目录。
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
+    /**
+     * 将数据连接中指定长度的数据写入文件通道的指定位置。
+     *
+     * @param socketChannel 数据连接的通道。
+     * @param fileChannel   写入的文件通道。
+     * @param position      写入的位置。
+     * @param length        写入的长度。
+     * @param untilEof      是否确认数据连接在指定长度的数据之后结束，为 <code>true</code> 时，
+     *                      数据连接中的数据多于指定的长度被视为文件的大小在下载期间发生了变化。
+     * @throws IOException IO 异常，或者数据连接中的数据少于指定的长度时抛出的 {@link EOFException}。
+     * @see #transferFromDataConnection(SocketChannel, WritableByteChannel)
+     */
+    private void transferSegmentFromDataConnection(
+            SocketChannel socketChannel, FileChannel fileChannel, long position, long length, boolean untilEof
+    ) throws IOException {
+        socketChannel.configureBlocking(false);
+        ByteBuffer buffer = bufferPool.acquireSegment(true);
+        try (Selector selector = Selector.open()) {
+            socketChannel.register(selector, SelectionKey.OP_READ);
+            long transferred = 0;
+            while (transferred < length) {
+                // 最多读取分段剩余的数据，不读取属于后续分段的数据。
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - transferred));
+                if (readDataConnection(socketChannel, buffer, selector) < 0) {
+                    throw new EOFException("数据连接在分段结束之前关闭, 已读取 " + transferred + " 字节, 分段长度 " + length + " 字节");
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    transferred += fileChannel.write(buffer, position + transferred);
+                }
+            }
+            if (untilEof) {
+                buffer.clear();
+                buffer.limit(1);
+                if (readDataConnection(socketChannel, buffer, selector) >= 0) {
+                    throw new IOException("文件的大小在下载期间发生了变化");
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
 
-        // 打开文件的输出流。
-        OutputStream out = ftpClient.storeFileStream(fileName);
-        checkPositivePreliminary();
+    private int readDataConnection(SocketChannel socketChannel, ByteBuffer buffer, Selector selector)
+            throws IOException {
+        while (true) {
+            int length = socketChannel.read(buffer);
+            if (length != 0) {
+                return length;
+            }
+            awaitDataConnection(selector);
+        }
+    }
 
-        // 包装输出流并返回。
-        return new CompletePendingOutputStream(out);
+    /**
+     * 将数据连接中的数据全部写入指定的通道。
+     *
+     * <p>
+     * 阻塞模式的套接字通道不支持读取超时，因此数据连接被切换为非阻塞模式，并通过选择器实现数据超时。<br>
+     * 数据经由直接内存缓冲区从数据连接写入指定的通道，不经过堆内存。
+     *
+     * @param socketChannel 数据连接的通道。
+     * @param channel       写入的通道。
+     * @throws IOException IO 异常。
+     * @see FtpConfig#getDataTimeout()
+     */
+    private void transferFromDataConnection(SocketChannel socketChannel, WritableByteChannel channel)
+            throws IOException {
+        socketChannel.configureBlocking(false);
+        ByteBuffer buffer = bufferPool.acquireSegment(true);
+        try (Selector selector = Selector.open()) {
+            socketChannel.register(selector, SelectionKey.OP_READ);
+            while (true) {
+                int length = socketChannel.read(buffer);
+                if (length < 0) {
+                    break;
+                }
+                // 缓冲区写满，或者暂时没有数据可读时，将缓冲区中的数据写入通道。
+                if (!buffer.hasRemaining() || length == 0) {
+                    writeFully(channel, buffer);
+                }
+                if (length == 0) {
+                    awaitDataConnection(selector);
+                }
+            }
+            writeFully(channel, buffer);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * 将数据连接中的数据全部读入缓冲区。
+     *
+     * <p>
+     * 缓冲区写满后，数据首先被读入缓冲区池中的直接内存分段，以确认数据是否已经结束，
+     * 因此初始容量与数据的大小一致时，缓冲区不会发生扩容。<br>
+     * 缓冲区的初始容量必须已经从内存预算中预留，扩容时，新的缓冲区的容量在分配之前预留，旧的缓冲区的容量在复制之后释放。
+     *
+     * @param socketChannel   数据连接的通道。
+     * @param initialCapacity 缓冲区的初始容量。
+     * @param direct          是否使用直接内存缓冲区。
+     * @param reservation     缓冲区的内存预留。
+     * @return 包含数据的缓冲区，缓冲区的位置为 0，界限为数据的大小。
+     * @throws Exception IO 异常，或者内存预算耗尽时抛出的异常。
+     */
+    private ByteBuffer readFromDataConnection(
+            SocketChannel socketChannel, int initialCapacity, boolean direct, MemoryReservation reservation
+    ) throws Exception {
+        socketChannel.configureBlocking(false);
+        ByteBuffer buffer = allocateContentBuffer(initialCapacity, direct);
+        ByteBuffer segment = null;
+        try (Selector selector = Selector.open()) {
+            socketChannel.register(selector, SelectionKey.OP_READ);
+            while (true) {
+                if (buffer.hasRemaining()) {
+                    int length = socketChannel.read(buffer);
+                    if (length < 0) {
+                        break;
+                    }
+                    if (length == 0) {
+                        awaitDataConnection(selector);
+                    }
+                    continue;
+                }
+                if (Objects.isNull(segment)) {
+                    segment = bufferPool.acquireSegment(true);
+                }
+                int length = socketChannel.read(segment);
+                if (length < 0) {
+                    break;
+                }
+                if (length == 0) {
+                    awaitDataConnection(selector);
+                    continue;
+                }
+                // 数据超出了缓冲区的容量，扩容缓冲区。
+                segment.flip();
+                buffer = expandContentBuffer(buffer, segment.remaining(), direct, reservation);
+                buffer.put(segment);
+                segment.clear();
+            }
+        } finally {
+            if (Objects.nonNull(segment)) {
+                bufferPool.release(segment);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 等待数据连接中的数据到达。
+     *
+     * @param selector 注册了数据连接的选择器。
+     * @throws IOException IO 异常，或者超过数据超时时间时抛出的 {@link SocketTimeoutException}。
+     * @see FtpConfig#getDataTimeout()
+     */
+    private void awaitDataConnection(Selector selector) throws IOException {
+        int dataTimeout = config.getDataTimeout();
+        if (selector.select(Math.max(dataTimeout, 0)) == 0 && dataTimeout > 0) {
+            throw new SocketTimeoutException("等待数据连接的数据超时: " + dataTimeout + " 毫秒");
+        }
+        selector.selectedKeys().clear();
+    }
+
+    private ByteBuffer allocateContentBuffer(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private ByteBuffer expandContentBuffer(
+            ByteBuffer buffer, int required, boolean direct, MemoryReservation reservation
+    ) throws Exception {
+        long minCapacity = (long) buffer.position() + required;
+        if (minCapacity > MAX_CONTENT_BUFFER_SIZE) {
+            throw new IOException("文件过大, 无法获取到内存中: 超过 " + MAX_CONTENT_BUFFER_SIZE + " 字节");
+        }
+        long neoCapacity = Math.min(Math.max((long) buffer.capacity() << 1, minCapacity), MAX_CONTENT_BUFFER_SIZE);
+        // 扩容时持有会话，因此不等待内存预算，内存预算无法立即满足时，操作失败。
+        reservation.reserveWithoutWaiting(neoCapacity);
+        ByteBuffer neoBuffer = allocateContentBuffer((int) neoCapacity, direct);
+        buffer.flip();
+        neoBuffer.put(buffer);
+        reservation.release(buffer.capacity());
+        return neoBuffer;
+    }
+
+    private void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
     }
 
-    @Override
     @BehaviorAnalyse
-    public void renameFile(
-            @Nonnull String[] oldFilePaths, @Nonnull String oldFileName, @Nonnull String[] neoFilePaths,
-            @Nonnull String neoFileName
-    ) throws HandlerException {
-        lock.lock();
+    @Override
+    public void deleteFile(@Nonnull String[] filePaths, @Nonnull String fileName) throws FtpException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalRenameFile(oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalDeleteFile(s, filePaths, fileName));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
-    @Override
     @BehaviorAnalyse
-    public void renameFile(@Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation)
-            throws HandlerException {
-        lock.lock();
+    @Override
+    public void deleteFile(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 校验参数。
-            FtpFileLocationUtil.checkAsFile(oldFileLocation);
-            FtpFileLocationUtil.checkAsFile(neoFileLocation);
+            FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
-            String[] oldFilePaths = oldFileLocation.getFilePaths();
-            String oldFileName = oldFileLocation.getFileName();
-            String[] neoFilePaths = neoFileLocation.getFilePaths();
-            String neoFileName = neoFileLocation.getFileName();
+            String[] filePaths = fileLocation.getFilePaths();
+            String fileName = fileLocation.getFileName();
             // 执行操作。
-            internalRenameFile(oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            runWithoutRetry(session, s -> internalDeleteFile(s, filePaths, fileName));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalRenameFile(
-            String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
-    ) throws Exception {
-        // 确认状态。
-        ensureStatus();
-
-        // 确保旧文件存在。
-        if (!internalExistsFile(oldFilePaths, oldFileName)) {
-            throw new FtpFileNotExistsException(resolveAbsolutePath(oldFilePaths, oldFileName));
+    private void internalDeleteFile(FtpSession session, String[] filePaths, String fileName) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, fileName));
         }
-
-        // 如果新文件存在，则删除新文件。
-        if (internalExistsFile(neoFilePaths, neoFileName)) {
-            internalDeleteFile(neoFilePaths, neoFileName);
+        boolean deletedFlag;
+        try {
+            deletedFlag = ftpClient.deleteFile(remotePath);
+        } finally {
+            invalidateListing(filePaths);
         }
-
-        // 执行重命名操作。
-        ftpClient.rename(
-                resolveAbsolutePath(oldFilePaths, oldFileName),
-                resolveAbsolutePath(neoFilePaths, neoFileName)
-        );
-        checkPositiveCompletion();
+        if (!deletedFlag) {
+            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, fileName));
+        }
+        checkPositiveCompletion(session);
     }
 
-    @Override
     @BehaviorAnalyse
-    public void clearDirectory(@Nonnull String[] filePaths) throws HandlerException {
-        lock.lock();
+    @Override
+    public void removeDirectory(@Nonnull String[] filePaths) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalClearDirectory(filePaths);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalRemoveDirectory(s, filePaths));
+        } catch (HandlerException e) {
+            throw e;
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    @Override
     @BehaviorAnalyse
-    public void clearDirectory(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    @Override
+    public void removeDirectory(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
             // 执行操作。
-            internalClearDirectory(filePaths);
+            runWithoutRetry(session, s -> internalRemoveDirectory(s, filePaths));
+        } catch (HandlerException e) {
+            throw e;
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalClearDirectory(String[] filePaths) throws Exception {
-        // 确认状态并列出文件。
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-
-        FTPFile[] ftpFiles = ftpClient.listFiles();
-        checkPositiveCompletion();
-
-        // 特殊情形：如果目录为空，则直接返回。
-        if (Objects.isNull(ftpFiles) || ftpFiles.length == 0) {
-            return;
+    private void internalRemoveDirectory(FtpSession session, String[] filePaths) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 如果目录为空，则直接抛出异常（不能删除根目录）。
+        if (filePaths.length == 0) {
+            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, null));
         }
 
-        // 定义帧栈，并初始化。
-        Stack<DirectoryClearFrame> frameStack = new Stack<>();
-        DirectoryClearFrame initialFrame = new DirectoryClearFrame(filePaths, new ArrayDeque<>());
-        initialFrame.getRemainingFiles().addAll(Arrays.asList(ftpFiles));
-        frameStack.push(initialFrame);
+        // 如果目录不为空，则获取父目录路径。
+        String[] parentFilePaths = new String[filePaths.length - 1];
+        System.arraycopy(filePaths, 0, parentFilePaths, 0, parentFilePaths.length);
 
-        // 只要帧栈不为空，就一直循环。
-        while (!frameStack.isEmpty()) {
-            // 弹出栈顶帧。
-            DirectoryClearFrame frame = frameStack.pop();
-            // 清理单帧。
-            clearSingleFrame(filePaths, frame, frameStack);
+        // 确认状态并打开文件目录，父目录不存在时，目录一定不存在。
+        ensureStatus(session);
+        boolean parentExists = tryEnterDirection(session, parentFilePaths);
+
+        // 删除文件目录。
+        if (!parentExists || !ftpClient.removeDirectory(filePaths[filePaths.length - 1])) {
+            throw new FtpFileDeleteException(resolveAbsolutePath(filePaths, null));
         }
+        invalidateDirectories(session, resolveAbsolutePath(filePaths, null));
+        checkPositiveCompletion(session);
     }
 
     @Override
     @BehaviorAnalyse
-    public void copyFile(
-            @Nonnull String[] oldFilePaths, @Nonnull String oldFileName,
-            @Nonnull String[] neoFilePaths, @Nonnull String neoFileName
-    ) throws HandlerException {
-        lock.lock();
+    @SkipRecord
+    public FtpFile[] listFiles(@Nonnull String[] filePaths) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalCopyFile(oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return copyFtpFiles(listing.getFtpFiles());
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalListFile(s, filePaths));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
     @Override
     @BehaviorAnalyse
-    public void copyFile(@Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation)
-            throws HandlerException {
-        lock.lock();
+    @SkipRecord
+    public FtpFile[] listFiles(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            // 校验参数。
-            FtpFileLocationUtil.checkAsFile(oldFileLocation);
-            FtpFileLocationUtil.checkAsFile(neoFileLocation);
             // 展开参数。
-            String[] oldFilePaths = oldFileLocation.getFilePaths();
-            String oldFileName = oldFileLocation.getFileName();
-            String[] neoFilePaths = neoFileLocation.getFilePaths();
-            String neoFileName = neoFileLocation.getFileName();
-            // 执行操作。
-            internalCopyFile(oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            String[] filePaths = fileLocation.getFilePaths();
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return copyFtpFiles(listing.getFtpFiles());
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 执行操作，并返回结果。
+            return callWithRetry(session, s -> internalListFile(s, filePaths));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void internalCopyFile(
-            String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
-    ) throws Exception {
-        // 新建文件复制临时存储。
-        FileCopyTemporaryStorage temporaryStorage = new FileCopyTemporaryStorage(
-                config.getFileCopyMemoryBufferSize(), config.getTemporaryFileDirectoryPath(),
-                config.getTemporaryFilePrefix(), config.getTemporaryFileSuffix()
-        );
-        // 读旧文件。
-        try (OutputStream out = temporaryStorage.openOutputStream()) {
-            ensureStatus();
-            enterDirection(oldFilePaths);
-            checkPositiveCompletion();
-            if (!ftpClient.retrieveFile(oldFileName, out)) {
-                throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
-            }
-            checkPositiveCompletion();
+    private FtpFile[] internalListFile(FtpSession session, String[] filePaths) throws Exception {
+        // 在列出目录之前获取缓存的失效计数，期间目录被修改时，列表不会被放入缓存。
+        long invalidationCount = listingCache.getInvalidationCount();
+        // 确认状态并列出文件，目录不存在时返回空数组。
+        ensureStatus(session);
+        if (!tryEnterDirection(session, filePaths)) {
+            return new FtpFile[0];
         }
-        // 写新文件。
-        try (InputStream in = temporaryStorage.openInputStream()) {
-            ensureStatus();
-            enterDirection(neoFilePaths);
-            checkPositiveCompletion();
-            if (!ftpClient.storeFile(neoFileName, in)) {
-                throw new FtpFileStoreException(resolveAbsolutePath(neoFilePaths, neoFileName));
-            }
-            checkPositiveCompletion();
+        boolean mlsxFlag = isMlsxSupported(session);
+        FTPFile[] ftpFiles = listDirectory(session, null);
+
+        // 映射文件并返回结果。
+        FtpFile[] result = new FtpFile[ftpFiles.length];
+        for (int i = 0; i < ftpFiles.length; i++) {
+            FTPFile ftpFile = ftpFiles[i];
+            result[i] = apacheFtpFileToDwarfengFtpFile(ftpFile, mlsxFlag);
+        }
+
+        // 放入目录列表缓存，缓存中的文件对象不暴露给调用者。
+        if (listingCache.isEnabled()) {
+            listingCache.put(resolveAbsolutePath(filePaths, null), result, invalidationCount);
+            return copyFtpFiles(result);
         }
-        // 释放资源。
-        temporaryStorage.dispose();
+        return result;
     }
 
     @Override
     @BehaviorAnalyse
-    public FtpFile descFile(@Nonnull String[] filePaths, @Nonnull String fileName) throws HandlerException {
-        lock.lock();
+    @SkipRecord
+    public String[] listFileNames(@Nonnull String[] filePaths) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            return internalDescFile(filePaths, fileName);
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return Arrays.stream(listing.getFtpFiles()).map(FtpFile::getName).toArray(String[]::new);
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalListFileNames(s, filePaths));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
     @Override
     @BehaviorAnalyse
-    public FtpFile descFile(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
-        lock.lock();
+    @SkipRecord
+    public String[] listFileNames(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            // 校验参数。
-            FtpFileLocationUtil.checkAsFile(fileLocation);
             // 展开参数。
             String[] filePaths = fileLocation.getFilePaths();
-            String fileName = fileLocation.getFileName();
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return Arrays.stream(listing.getFtpFiles()).map(FtpFile::getName).toArray(String[]::new);
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 执行操作，并返回结果。
-            return internalDescFile(filePaths, fileName);
+            return callWithRetry(session, s -> internalListFileNames(s, filePaths));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private FtpFile internalDescFile(String[] filePaths, String fileName) throws Exception {
-        ensureStatus();
-        enterDirection(filePaths);
-        checkPositiveCompletion();
-        FTPFile[] ftpFiles = ftpClient.listFiles(null, f -> f.getName().equals(fileName));
-        checkPositiveCompletion();
-        FTPFile ftpFile = Arrays.stream(ftpFiles).findFirst().orElse(null);
-        return apacheFtpFileToDwarfengFtpFile(ftpFile);
+    private String[] internalListFileNames(FtpSession session, String[] filePaths) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 确认状态并列出文件，目录不存在时返回空数组。
+        ensureStatus(session);
+        if (!tryEnterDirection(session, filePaths)) {
+            return new String[0];
+        }
+
+        // 优先使用 NLST 指令，其应答只包含文件名，无需解析条目。
+        String[] fileNames = ftpClient.listNames();
+        if (Objects.nonNull(fileNames)) {
+            checkPositiveCompletion(session);
+            return nlstNamesToFileNames(fileNames);
+        }
+
+        // 部分服务器在目录为空或者不支持 NLST 指令时返回否定应答，此时回退到 LIST 指令。
+        FTPFile[] ftpFiles = ftpClient.listFiles();
+        checkPositiveCompletion(session);
+        return listFilesToFileNames(ftpFiles);
+    }
+
+    /**
+     * 将 NLST 指令的结果转换为文件名。
+     *
+     * <p>
+     * 部分服务器返回的名称带有路径前缀，统一去除；代表当前目录以及上级目录的条目被过滤。
+     *
+     * @param fileNames NLST 指令的结果。
+     * @return 文件名。
+     */
+    static String[] nlstNamesToFileNames(String[] fileNames) {
+        return Arrays.stream(fileNames)
+                .filter(Objects::nonNull)
+                .map(n -> n.substring(n.lastIndexOf(PATH_SEPARATOR) + 1))
+                .filter(n -> !n.isEmpty() && !isSpecialDirectoryName(n))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * 将 LIST 指令的结果转换为文件名。
+     *
+     * <p>
+     * 结果与 {@link #nlstNamesToFileNames(String[])} 一致，不包含代表当前目录以及上级目录的条目。
+     *
+     * @param ftpFiles LIST 指令的结果。
+     * @return 文件名。
+     */
+    static String[] listFilesToFileNames(FTPFile[] ftpFiles) {
+        return Arrays.stream(ftpFiles)
+                .filter(Objects::nonNull)
+                .map(FTPFile::getName)
+                .filter(n -> Objects.nonNull(n) && !isSpecialDirectoryName(n))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * 判断指定的名称是否代表当前目录或者上级目录。
+     *
+     * @param name 指定的名称。
+     * @return 指定的名称是否代表当前目录或者上级目录。
+     */
+    private static boolean isSpecialDirectoryName(String name) {
+        return CURRENT_DIRECTORY_NAME.equals(name) || PARENT_DIRECTORY_NAME.equals(name);
     }
 
     @Override
     @BehaviorAnalyse
-    public void moveFile(
-            @Nonnull String[] oldFilePaths, @Nonnull String oldFileName, @Nonnull String[] neoFilePaths,
-            @Nonnull String neoFileName
-    ) throws HandlerException {
-        lock.lock();
+    @SkipRecord
+    public void visitFiles(@Nonnull String[] filePaths, @Nonnull FtpFileVisitor visitor) throws HandlerException {
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            internalRenameFile(oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalVisitFiles(s, filePaths, visitor));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     @BehaviorAnalyse
-    public void moveFile(@Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation)
+    @SkipRecord
+    public void visitFiles(@Nonnull FtpFileLocation fileLocation, @Nonnull FtpFileVisitor visitor)
             throws HandlerException {
-        lock.lock();
+        FtpSession session = null;
         try {
-            // 确认处理器已经启动。
-            makeSureHandlerStart();
-            // 校验参数。
-            FtpFileLocationUtil.checkAsFile(oldFileLocation);
-            FtpFileLocationUtil.checkAsFile(neoFileLocation);
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
             // 展开参数。
-            String[] oldFilePaths = oldFileLocation.getFilePaths();
-            String oldFileName = oldFileLocation.getFileName();
-            String[] neoFilePaths = neoFileLocation.getFilePaths();
-            String neoFileName = neoFileLocation.getFileName();
+            String[] filePaths = fileLocation.getFilePaths();
             // 执行操作。
-            internalRenameFile(oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            runWithoutRetry(session, s -> internalVisitFiles(s, filePaths, visitor));
         } catch (Exception e) {
             throw new FtpException(e);
         } finally {
-            lock.unlock();
+            returnSession(session);
         }
     }
 
-    private void clearSingleFrame(String[] filePaths, DirectoryClearFrame frame, Stack<DirectoryClearFrame> frameStack)
+    private void internalVisitFiles(FtpSession session, String[] filePaths, FtpFileVisitor visitor)
             throws Exception {
-        // 展开参数。
-        String[] frameFilePaths = frame.getFilePaths();
-        Queue<FTPFile> frameRemainingFiles = frame.getRemainingFiles();
-        // 进入文件夹。
-        enterDirection(frameFilePaths);
-        checkPositiveCompletion();
-        // 只要剩余文件队列不为空，就一直循环。
-        while (!frameRemainingFiles.isEmpty()) {
-            // 弹出队首文件。
-            FTPFile ftpFile = frameRemainingFiles.poll();
-            // 如果是文件夹，则进入文件夹。
-            if (ftpFile.isDirectory()) {
-                // 列出文件。
-                FTPFile[] neoFtpFiles = ftpClient.listFiles(ftpFile.getName());
-                checkPositiveCompletion();
-                // 如果文件夹为空，则直接删除目录并返回。
-                if (Objects.isNull(neoFtpFiles) || neoFtpFiles.length == 0) {
-                    if (!ftpClient.removeDirectory(ftpFile.getName())) {
-                        throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, ftpFile.getName()));
-                    }
-                    continue;
-                }
-                // 创建新帧。
-                String[] newFilePaths = Arrays.copyOf(frameFilePaths, frameFilePaths.length + 1);
-                newFilePaths[frameFilePaths.length] = ftpFile.getName();
-                DirectoryClearFrame neoFrame = new DirectoryClearFrame(newFilePaths, new ArrayDeque<>());
-                neoFrame.getRemainingFiles().addAll(Arrays.asList(neoFtpFiles));
-                frameStack.push(frame);
-                frameStack.push(neoFrame);
-                return;
-            }
-            // 如果是文件，则删除文件。
-            if (!ftpClient.deleteFile(ftpFile.getName())) {
-                throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, ftpFile.getName()));
-            }
-            checkPositiveCompletion();
+        SessionFtpClient ftpClient = session.getFtpClient();
+        // 确认状态，目录不存在时直接返回。
+        ensureStatus(session);
+        if (!tryEnterDirection(session, filePaths)) {
+            return;
         }
-        // 剩余文件删除完毕后，删除帧对应的目录（如果不是 filePaths）。
-        // 如果 frameFilePaths 与 filePaths 相等，则不删除。
-        if (Arrays.equals(frameFilePaths, filePaths)) {
+
+        // 打开数据连接。
+        boolean mlsxFlag = isMlsxSupported(session);
+        FTPFileEntryParser parser = ftpClient.getListEntryParser(mlsxFlag);
+        Socket socket = ftpClient.openListDataConnection(mlsxFlag, null);
+        if (Objects.isNull(socket)) {
+            checkPositivePreliminary(session);
             return;
         }
-        // 如果目录为空，则直接抛出异常（不能删除根目录）。
-        if (frameFilePaths.length == 0) {
-            throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, null));
+
+        // 逐条读取、解析并交付条目，内存中只保留当前的条目。
+        boolean finishedFlag;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), ftpClient.getControlEncoding()), config.getBufferSize()
+        )) {
+            finishedFlag = visitEntries(reader, parser, mlsxFlag, visitor);
+        } catch (Exception e) {
+            // 访问中止，尽力完成指令，使控制连接保持同步；无法完成时断开会话，会话再次被借出时会自动重新连接。
+            socket.close();
+            try {
+                ftpClient.completePendingCommand();
+            } catch (Exception ex) {
+                e.addSuppressed(ex);
+                session.noThrowingDisconnect();
+            }
+            throw e;
+        } finally {
+            socket.close();
         }
-        // 如果目录不为空，则获取父目录路径。
-        String[] frameParentFilePaths = new String[frameFilePaths.length - 1];
-        System.arraycopy(frameFilePaths, 0, frameParentFilePaths, 0, frameParentFilePaths.length);
-        // 打开文件目录。
-        enterDirection(frameParentFilePaths);
-        checkPositiveCompletion();
-        // 删除文件目录。
-        if (!ftpClient.removeDirectory(frameFilePaths[frameFilePaths.length - 1])) {
-            throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, null));
+
+        // 完成指令。
+        // 访问器提前结束访问时，数据连接在服务器发送完毕之前被关闭，服务器返回否定应答是可以接受的。
+        if (!ftpClient.completePendingCommand() && finishedFlag) {
+            checkPositiveCompletion(session);
         }
-        checkPositiveCompletion();
     }
 
-    private String resolveAbsolutePath(@Nonnull String[] filePaths, @Nullable String fileName) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(ROOT_PATH);
-        for (String filePath : filePaths) {
-            builder.append(filePath).append(PATH_SEPARATOR);
+    /**
+     * 逐条读取、解析并交付条目。
+     *
+     * @param reader   数据连接的读取器。
+     * @param parser   条目解析器。
+     * @param mlsxFlag 条目是否是 MLSD 指令的应答。
+     * @param visitor  文件访问器。
+     * @return 是否读取完所有的条目，访问器提前结束访问时返回 <code>false</code>。
+     * @throws Exception 读取条目或者访问文件时发生的异常。
+     */
+    private boolean visitEntries(
+            BufferedReader reader, FTPFileEntryParser parser, boolean mlsxFlag, FtpFileVisitor visitor
+    ) throws Exception {
+        String entry;
+        while (Objects.nonNull(entry = parser.readNextEntry(reader))) {
+            // MLSD 指令的应答条目中，文件名位于第一个空格之后，可以在解析条目之前过滤。
+            if (mlsxFlag) {
+                int spaceIndex = entry.indexOf(' ');
+                if (spaceIndex < 0) {
+                    continue;
+                }
+                String type = parseMlsxFact(entry, MLSX_FACT_TYPE);
+                if (MLSX_TYPE_CDIR.equalsIgnoreCase(type) || MLSX_TYPE_PDIR.equalsIgnoreCase(type)) {
+                    continue;
+                }
+                if (!visitor.acceptFileName(entry.substring(spaceIndex + 1))) {
+                    continue;
+                }
+            }
+            // 解析条目，无法解析的条目（例如 LIST 指令应答中的 total 行）被忽略。
+            FTPFile ftpFile = parser.parseFTPEntry(entry);
+            if (Objects.isNull(ftpFile)) {
+                continue;
+            }
+            // LIST 指令的应答条目格式与服务器相关，只能在解析之后过滤，但仍然在创建文件对象之前。
+            if (!mlsxFlag) {
+                String name = ftpFile.getName();
+                if (isSpecialDirectoryName(name) || !visitor.acceptFileName(name)) {
+                    continue;
+                }
+            }
+            if (!visitor.visitFile(apacheFtpFileToDwarfengFtpFile(ftpFile, mlsxFlag))) {
+                return false;
+            }
         }
-        if (Objects.nonNull(fileName)) {
-            builder.append(fileName);
+        return true;
+    }
+
+    /**
+     * 打开指定文件的输入流。
+     *
+     * <p>
+     * 该方法返回的流应该在获取后立即使用，在关闭流之前，不得调用该处理器的任何其它方法。<br>
+     * 该方法返回的流只能在本线程中使用，不应该在其他线程中使用。
+     *
+     * <p>
+     * 该方法在调用时会从会话池中借出会话，但返回结果后不会归还，直到调用者关闭流或者流被关闭时才会归还，
+     * 在这段时间内，该会话不会被其它线程使用；如果会话池的最大会话数为 1，其它线程调用处理器的任何方法都会被阻塞。
+     *
+     * @param filePaths 文件夹路径。<br>
+     *                  路径从根文件出发，一直到达最后一个文件夹，所有文件夹按照顺序组成数组。
+     * @param fileName  文件的名称。
+     * @return 文件的输入流。
+     * @throws HandlerException 处理器异常。
+     */
+    @Override
+    @BehaviorAnalyse
+    @SkipRecord
+    public InputStream openInputStream(@Nonnull String[] filePaths, @Nonnull String fileName) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalOpenInputStream(s, filePaths, fileName));
+        } catch (Exception e) {
+            returnSession(session);
+            throw new FtpStreamOpenException(e);
         }
-        return builder.toString();
     }
 
-    private FtpFile apacheFtpFileToDwarfengFtpFile(FTPFile ftpFile) {
-        // 特殊值判断。
-        if (Objects.isNull(ftpFile)) {
-            return null;
+    /**
+     * @see #openInputStream(String[], String)
+     */
+    @Override
+    @BehaviorAnalyse
+    @SkipRecord
+    public InputStream openInputStream(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
+            // 展开参数。
+            String[] filePaths = fileLocation.getFilePaths();
+            String fileName = fileLocation.getFileName();
+            // 执行操作，并返回结果。
+            return callWithRetry(session, s -> internalOpenInputStream(s, filePaths, fileName));
+        } catch (Exception e) {
+            returnSession(session);
+            throw new FtpStreamOpenException(e);
         }
-        // 定义变量。
-        String name;
-        int type;
-        long size;
-        // 映射变量。
-        name = ftpFile.getName();
-        switch (ftpFile.getType()) {
-            case FTPFile.FILE_TYPE:
-                type = Constants.FTP_FILE_TYPE_FILE;
-                break;
-            case FTPFile.DIRECTORY_TYPE:
-                type = Constants.FTP_FILE_TYPE_DIRECTORY;
-                break;
-            case FTPFile.SYMBOLIC_LINK_TYPE:
-                type = Constants.FTP_FILE_TYPE_SYMBOLIC_LINK;
-                break;
-            default:
-                type = Constants.FTP_FILE_TYPE_UNKNOWN;
-                break;
+    }
+
+    private CompletePendingInputStream internalOpenInputStream(
+            FtpSession session, String[] filePaths, String fileName
+    ) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 确认状态并打开文件目录。
+        ensureStatus(session);
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
         }
-        size = ftpFile.getSize();
-        // 设置结果。
-        return new FtpFile(name, type, size);
+
+        // 打开文件的输入流，启用断点续传时，打开可以断点续传的输入流。
+        InputStream in;
+        if (config.getDownloadResumeMaxAttempts() > 0) {
+            in = openResumableInputStream(session, filePaths, fileName, remotePath);
+        } else {
+            in = ftpClient.retrieveFileStream(remotePath);
+        }
+        checkPositivePreliminary(session);
+
+        // 包装输入流并返回。
+        return new CompletePendingInputStream(session, in);
     }
 
     /**
-     * 执行 FtpClient 具体操作之前确保 FTP 的状态正常。
+     * 打开指定文件的输出流。
      *
      * <p>
-     * 如果未连接成功，则尝试立即连接。连接失败后抛出异常。
+     * 该方法返回的流应该在获取后立即使用，在关闭流之前，不得调用该处理器的任何其它方法。<br>
+     * 该方法返回的流只能在本线程中使用，不应该在其他线程中使用。
+     *
+     * <p>
+     * 该方法在调用时会从会话池中借出会话，但返回结果后不会归还，直到调用者关闭流或者流被关闭时才会归还，
+     * 在这段时间内，该会话不会被其它线程使用；如果会话池的最大会话数为 1，其它线程调用处理器的任何方法都会被阻塞。
+     *
+     * @param filePaths 文件夹路径。<br>
+     *                  路径从根文件出发，一直到达最后一个文件夹，所有文件夹按照顺序组成数组。
+     * @param fileName  文件的名称。
+     * @return 文件的输出流。
+     * @throws HandlerException 处理器异常。
      */
-    private void ensureStatus() throws Exception {
+    @Override
+    @BehaviorAnalyse
+    @SkipRecord
+    public OutputStream openOutputStream(@Nonnull String[] filePaths, @Nonnull String fileName)
+            throws HandlerException {
+        FtpSession session = null;
         try {
-            ftpClient.sendNoOp();
-        } catch (IOException e) {
-            LOGGER.warn("向 FTP 服务器发送 NoOp 指令失败，异常信息如下: ", e);
-            LOGGER.warn("尝试重新连接...");
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalOpenOutputStream(s, filePaths, fileName));
+        } catch (Exception e) {
+            returnSession(session);
+            throw new FtpStreamOpenException(e);
+        }
+    }
+
+    /**
+     * @see #openOutputStream(String[], String)
+     */
+    @Override
+    public OutputStream openOutputStream(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
+            // 展开参数。
+            String[] filePaths = fileLocation.getFilePaths();
+            String fileName = fileLocation.getFileName();
+            // 执行操作，并返回结果。
+            return callWithRetry(session, s -> internalOpenOutputStream(s, filePaths, fileName));
+        } catch (Exception e) {
+            returnSession(session);
+            throw new FtpStreamOpenException(e);
+        }
+    }
+
+    private CompletePendingOutputStream internalOpenOutputStream(
+            FtpSession session, String[] filePaths, String fileName
+    ) throws Exception {
+        // 确认状态。
+        ensureStatus(session);
+
+        // 打开文件的输出流。
+        OutputStream out = addressAndStoreFileStream(session, filePaths, fileName);
+        checkPositivePreliminary(session);
+
+        // 包装输出流并返回。
+        return new CompletePendingOutputStream(session, out, filePaths);
+    }
+
+    /**
+     * 尝试借出会话，并打开指定文件的基于通道的数据连接，供 NIO 传输引擎使用。
+     *
+     * <p>
+     * 该方法执行传输的控制阶段：借出会话、确认状态、寻址文件，并通过 RETR 或者 STOR 指令打开数据连接，
+     * 数据连接上的传输由调用者以非阻塞的方式进行。<br>
+     * 会话池中没有可用的会话时，该方法不等待其它线程归还会话，而是立即返回 null，由调用者在会话可用时重新尝试，
+     * 以免调用者的线程全部阻塞在会话池上，而归还会话的步骤无法执行。<br>
+     * 该方法返回之后，会话不会被归还，调用者必须在传输结束之后调用 {@link #completeNioDataConnection(NioDataConnection)}
+     * 或者 {@link #abortNioDataConnection(NioDataConnection)}。
+     *
+     * <p>
+     * 通过该方法进行的传输不会断点续传。
+     *
+     * @param fileLocation 文件位置。
+     * @param storeFlag    是否为存储文件打开数据连接，为 <code>false</code> 时为获取文件打开数据连接。
+     * @return 打开的数据连接，会话池中没有可用的会话时返回 null。
+     * @throws HandlerException 处理器异常。
+     * @see NioTransferEngine
+     */
+    @Nullable
+    NioDataConnection tryOpenNioDataConnection(@Nonnull FtpFileLocation fileLocation, boolean storeFlag)
+            throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 尝试借出会话，该过程会确认处理器已经启动。
+            session = tryBorrowSession();
+            if (Objects.isNull(session)) {
+                return null;
+            }
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
+            // 展开参数。
+            String[] filePaths = fileLocation.getFilePaths();
+            String fileName = fileLocation.getFileName();
+            // 执行操作，并返回结果。
+            Socket socket = callWithRetry(
+                    session, s -> internalOpenNioDataConnection(s, filePaths, fileName, storeFlag)
+            );
+            return new NioDataConnection(session, socket, filePaths, fileName, storeFlag);
+        } catch (Exception e) {
+            returnSession(session);
+            throw new FtpException(e);
+        }
+    }
+
+    private Socket internalOpenNioDataConnection(
+            FtpSession session, String[] filePaths, String fileName, boolean storeFlag
+    ) throws Exception {
+        ensureStatus(session);
+        if (storeFlag) {
+            Socket socket;
             try {
-                connectAndLogin();
-            } catch (Exception ex) {
-                LOGGER.warn("重连失败，异常信息如下: ", ex);
-                throw ex;
+                socket = addressAndOpenStoreDataConnection(session, filePaths, fileName, 0);
+            } finally {
+                // 打开数据连接失败时，目录可能已经被创建，因此无论成功与否都使目录的列表失效。
+                invalidateListing(filePaths);
+            }
+            if (Objects.isNull(socket)) {
+                throw new FtpFileStoreException(resolveAbsolutePath(filePaths, fileName));
+            }
+            return socket;
+        }
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        Socket socket = Objects.isNull(remotePath) ? null :
+                session.getFtpClient().openChannelDataConnection(FTPCmd.RETR, remotePath);
+        if (Objects.isNull(socket)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+        }
+        return socket;
+    }
+
+    /**
+     * 完成 NIO 传输引擎的传输，并归还会话。
+     *
+     * <p>
+     * 调用该方法之前，调用者必须已经关闭数据连接，该方法读取服务器对传输的应答，以确认传输是否成功。
+     *
+     * @param connection 传输使用的数据连接。
+     * @throws HandlerException 处理器异常。
+     * @see #tryOpenNioDataConnection(FtpFileLocation, boolean)
+     */
+    void completeNioDataConnection(@Nonnull NioDataConnection connection) throws HandlerException {
+        FtpSession session = connection.getSession();
+        String[] filePaths = connection.getFilePaths();
+        String fileName = connection.getFileName();
+        try {
+            boolean completedFlag;
+            try {
+                completedFlag = session.getFtpClient().completePendingCommand();
+            } catch (Exception e) {
+                // 会话的状态无法确定，断开会话，会话再次被借出时会自动重新连接。
+                session.noThrowingDisconnect();
+                throw e;
+            } finally {
+                // 文件的内容在传输完成后才最终确定，因此传输完成后再次使文件所在目录的列表失效。
+                if (connection.isStoreFlag()) {
+                    invalidateListing(filePaths);
+                }
+            }
+            if (!completedFlag) {
+                if (connection.isStoreFlag()) {
+                    throw new FtpFileStoreException(resolveAbsolutePath(filePaths, fileName));
+                }
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            checkPositiveCompletion(session);
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    /**
+     * 中止 NIO 传输引擎的传输，并归还会话。
+     *
+     * <p>
+     * 关闭数据连接并断开会话，会话再次被借出时会自动重新连接。
+     *
+     * @param connection 传输使用的数据连接。
+     * @see #tryOpenNioDataConnection(FtpFileLocation, boolean)
+     */
+    void abortNioDataConnection(@Nonnull NioDataConnection connection) {
+        FtpSession session = connection.getSession();
+        try {
+            connection.getSocket().close();
+        } catch (Exception e) {
+            LOGGER.debug("关闭数据连接时发生异常, 异常信息如下: ", e);
+        }
+        session.noThrowingDisconnect();
+        if (connection.isStoreFlag()) {
+            invalidateListing(connection.getFilePaths());
+        }
+        returnSession(session);
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void renameFile(
+            @Nonnull String[] oldFilePaths, @Nonnull String oldFileName, @Nonnull String[] neoFilePaths,
+            @Nonnull String neoFileName
+    ) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalRenameFile(s, oldFilePaths, oldFileName, neoFilePaths, neoFileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @SuppressWarnings("DuplicatedCode")
+    @Override
+    @BehaviorAnalyse
+    public void renameFile(@Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation)
+            throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(oldFileLocation);
+            FtpFileLocationUtil.checkAsFile(neoFileLocation);
+            // 展开参数。
+            String[] oldFilePaths = oldFileLocation.getFilePaths();
+            String oldFileName = oldFileLocation.getFileName();
+            String[] neoFilePaths = neoFileLocation.getFilePaths();
+            String neoFileName = neoFileLocation.getFileName();
+            // 执行操作。
+            runWithoutRetry(session, s -> internalRenameFile(s, oldFilePaths, oldFileName, neoFilePaths, neoFileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private void internalRenameFile(
+            FtpSession session, String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 确认状态。
+        ensureStatus(session);
+
+        // 确保旧文件存在。
+        if (!internalExistsFile(session, oldFilePaths, oldFileName)) {
+            throw new FtpFileNotExistsException(resolveAbsolutePath(oldFilePaths, oldFileName));
+        }
+
+        // 如果新文件存在，则删除新文件。
+        if (internalExistsFile(session, neoFilePaths, neoFileName)) {
+            internalDeleteFile(session, neoFilePaths, neoFileName);
+        }
+
+        // 在重命名之前判断被重命名的路径是否可能是目录，因为重命名之后旧文件所在目录的列表会失效。
+        boolean directoryFlag = mayBeDirectory(session, oldFilePaths, oldFileName);
+
+        // 执行重命名操作，即使重命名失败，新旧文件所在目录的列表也需要失效，因为失败的重命名可能已经部分生效。
+        String oldPath = resolveAbsolutePath(oldFilePaths, oldFileName);
+        try {
+            ftpClient.rename(oldPath, resolveAbsolutePath(neoFilePaths, neoFileName));
+        } finally {
+            invalidateListing(neoFilePaths);
+            invalidateListing(oldFilePaths);
+            if (directoryFlag) {
+                // 被重命名的是目录时，所有会话记录的工作目录都需要重新确认。
+                invalidateDirectories(session, oldPath + PATH_SEPARATOR);
+            } else {
+                // 被重命名的是文件时，会话记录的工作目录仍然有效。
+                knownDirectoryCache.removeTree(oldPath + PATH_SEPARATOR);
+            }
+        }
+        checkPositiveCompletion(session);
+    }
+
+    /**
+     * 判断已经确认存在的文件是否可能是目录。
+     *
+     * <p>
+     * 通过 MLST 或者 SIZE 指令确认存在的文件一定不是目录；
+     * 通过列出目录确认存在时，目录同样会被认为存在，此时只有目录列表缓存表明其为文件时，才能排除目录的可能。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @return 指定的文件是否可能是目录。
+     * @throws IOException IO 异常。
+     */
+    private boolean mayBeDirectory(FtpSession session, String[] filePaths, String fileName) throws IOException {
+        if (determineProbeMode(session) != PROBE_MODE_LIST) {
+            return false;
+        }
+        ListingCache.Listing listing = lookupListing(filePaths);
+        return Objects.isNull(listing) || !isFileListed(listing, fileName);
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void clearDirectory(@Nonnull String[] filePaths) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithRetry(session, s -> internalClearDirectory(s, filePaths));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void clearDirectory(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 展开参数。
+            String[] filePaths = fileLocation.getFilePaths();
+            // 执行操作。
+            runWithRetry(session, s -> internalClearDirectory(s, filePaths));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private void internalClearDirectory(FtpSession session, String[] filePaths) throws Exception {
+        // 确认状态并列出文件，目录不存在时无需清空。
+        ensureStatus(session);
+        if (!tryEnterDirection(session, filePaths)) {
+            return;
+        }
+
+        FTPFile[] ftpFiles = listDirectory(session, null);
+
+        // 特殊情形：如果目录为空，则直接返回。
+        if (Objects.isNull(ftpFiles) || ftpFiles.length == 0) {
+            return;
+        }
+
+        // 定义帧栈，并初始化。
+        Stack<DirectoryClearFrame> frameStack = new Stack<>();
+        DirectoryClearFrame initialFrame = new DirectoryClearFrame(filePaths, new ArrayDeque<>());
+        initialFrame.getRemainingFiles().addAll(Arrays.asList(ftpFiles));
+        frameStack.push(initialFrame);
+
+        // 只要帧栈不为空，就一直循环。
+        // 无论清空是否成功，目录及其子孙目录的列表都可能已经发生变化，因此在结束后使其失效。
+        try {
+            while (!frameStack.isEmpty()) {
+                // 弹出栈顶帧。
+                DirectoryClearFrame frame = frameStack.pop();
+                // 清理单帧。
+                clearSingleFrame(session, filePaths, frame, frameStack);
             }
+        } finally {
+            listingCache.removeTree(resolveAbsolutePath(filePaths, null));
+        }
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void copyFile(
+            @Nonnull String[] oldFilePaths, @Nonnull String oldFileName,
+            @Nonnull String[] neoFilePaths, @Nonnull String neoFileName
+    ) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithRetry(session, s -> internalCopyFile(s, oldFilePaths, oldFileName, neoFilePaths, neoFileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void copyFile(@Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation)
+            throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(oldFileLocation);
+            FtpFileLocationUtil.checkAsFile(neoFileLocation);
+            // 展开参数。
+            String[] oldFilePaths = oldFileLocation.getFilePaths();
+            String oldFileName = oldFileLocation.getFileName();
+            String[] neoFilePaths = neoFileLocation.getFilePaths();
+            String neoFileName = neoFileLocation.getFileName();
+            // 执行操作。
+            runWithRetry(session, s -> internalCopyFile(s, oldFilePaths, oldFileName, neoFilePaths, neoFileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private void internalCopyFile(
+            FtpSession session, String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        // 确认状态。
+        ensureStatus(session);
+
+        // 优先尝试服务器端的复制方式，文件内容无需经过客户端。
+        switch (determineCopyStrategy(session)) {
+            case COPY_STRATEGY_SITE:
+                if (siteCopyFile(session, oldFilePaths, oldFileName, neoFilePaths, neoFileName)) {
+                    return;
+                }
+                break;
+            case COPY_STRATEGY_FXP:
+                if (fxpCopyFile(session, oldFilePaths, oldFileName, neoFilePaths, neoFileName)) {
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+
+        // 服务器端的复制方式不可用时，尝试使用两个会话以管道的方式复制，数据不经过临时存储。
+        if (pipedCopyFile(session, oldFilePaths, oldFileName, neoFilePaths, neoFileName)) {
+            return;
+        }
+
+        // 无法使用管道的方式复制时，经由客户端的临时存储中转。
+        bufferedCopyFile(session, oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+    }
+
+    /**
+     * 使用 SITE CPFR/CPTO 指令在服务器端复制文件。
+     *
+     * <p>
+     * 服务器拒绝 SITE CPFR 指令，且拒绝的原因不是源文件不存在时，说明服务器不再支持该指令，
+     * 此时复制方式被降级，并返回 <code>false</code>。
+     *
+     * @return 是否复制成功，服务器不支持该复制方式时返回 <code>false</code>。
+     * @throws Exception 复制过程中发生的异常。
+     */
+    private boolean siteCopyFile(
+            FtpSession session, String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 确保目标目录存在，两条指令均使用绝对路径。
+        enterDirection(session, neoFilePaths);
+        String sourcePath = resolveAbsolutePath(oldFilePaths, oldFileName);
+        String targetPath = resolveAbsolutePath(neoFilePaths, neoFileName);
+
+        // 指定源文件，服务器应返回 350 应答。
+        int replyCode = ftpClient.sendCommand(FTPCmd.SITE, SITE_COPY_FROM + ' ' + sourcePath);
+        if (replyCode == FTPReply.FILE_UNAVAILABLE) {
+            throw new FtpFileRetrieveException(sourcePath);
+        }
+        if (!FTPReply.isPositiveIntermediate(replyCode)) {
+            LOGGER.info("服务器拒绝了 SITE {} 指令, 应答码: {}, 复制方式降级...", SITE_COPY_FROM, replyCode);
+            copyStrategy.compareAndSet(COPY_STRATEGY_SITE, COPY_STRATEGY_FXP);
+            return false;
+        }
+
+        // 指定目标文件，服务器完成复制。
+        try {
+            if (!ftpClient.sendSiteCommand(SITE_COPY_TO + ' ' + targetPath)) {
+                throw new FtpFileStoreException(targetPath);
+            }
+        } finally {
+            invalidateListing(neoFilePaths);
+        }
+        return true;
+    }
+
+    /**
+     * 使用两个会话，在服务器端以 FXP 的方式复制文件。
+     *
+     * <p>
+     * 源会话进入被动模式，目标会话以主动模式连接源会话的数据端口，文件内容在服务器的两个数据连接之间直接传输。<br>
+     * 目标会话先发送 STOR 指令，服务器主动连接数据端口后返回预备应答；源会话再发送 RETR 指令，
+     * 服务器接受等待中的数据连接并开始发送，因此两条指令都不会因为等待对方而阻塞。
+     *
+     * <p>
+     * 多数服务器出于安全考虑，拒绝 PORT 指令指向客户端以外的地址，此时复制方式被降级，并返回 <code>false</code>。<br>
+     * 部分服务器接受 PORT 指令，但是拒绝建立指向其它服务器的数据连接，表现为 STOR 或 RETR 指令没有返回预备应答，
+     * 或者传输以 42x 应答结束；FXP 传输成功之前发生这种情况时，复制方式同样被降级，并返回 <code>false</code>。<br>
+     * 会话池中没有可用的第二个会话时，也返回 <code>false</code>，但复制方式不会被降级。
+     *
+     * @return 是否复制成功，无法使用该复制方式时返回 <code>false</code>。
+     * @throws Exception 复制过程中发生的异常。
+     */
+    private boolean fxpCopyFile(
+            FtpSession session, String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        // 源文件不存在时，直接抛出异常，避免在目标会话上创建空文件。
+        if (!internalExistsFile(session, oldFilePaths, oldFileName)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+        }
+
+        // 借出第二个会话，不等待，以免与其它同样持有会话的线程互相等待。
+        FtpSession targetSession = tryBorrowSession();
+        if (Objects.isNull(targetSession)) {
+            return false;
+        }
+        try {
+            ensureStatus(targetSession);
+            return fxpTransfer(session, targetSession, oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+        } catch (IOException e) {
+            if (isConnectionBroken(targetSession, e)) {
+                targetSession.noThrowingDisconnect();
+            }
+            throw e;
+        } finally {
+            returnSession(targetSession);
+        }
+    }
+
+    private boolean fxpTransfer(
+            FtpSession sourceSession, FtpSession targetSession, String[] oldFilePaths, String oldFileName,
+            String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        FTPClient sourceClient = sourceSession.getFtpClient();
+        FTPClient targetClient = targetSession.getFtpClient();
+        // 寻址源文件以及目标文件，目标文件的目录不存在时创建。
+        String sourcePath = tryAddressFile(sourceSession, oldFilePaths, oldFileName);
+        if (Objects.isNull(sourcePath)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+        }
+        String targetPath = addressFile(targetSession, neoFilePaths, neoFileName);
+
+        // 源会话进入被动模式，目标会话指向源会话的数据端口。
+        InetSocketAddress passiveAddress = null;
+        if (sourceClient.pasv() == FTPReply.ENTERING_PASSIVE_MODE) {
+            passiveAddress = parsePassiveAddress(sourceSession, sourceClient.getReplyString());
+        }
+        boolean portAcceptedFlag = Objects.nonNull(passiveAddress) && FTPReply.isPositiveCompletion(
+                targetClient.port(passiveAddress.getAddress(), passiveAddress.getPort())
+        );
+        if (!portAcceptedFlag) {
+            downgradeFxpTransfer("应答码: " + targetClient.getReplyCode());
+            return false;
+        }
+
+        // 目标会话先发送 STOR 指令，源会话再发送 RETR 指令，等待应答的时间受 FXP 应答超时时间的限制。
+        int fxpReplyTimeout = determineFxpReplyTimeout();
+        int sourceSoTimeout = sourceClient.getSoTimeout();
+        int targetSoTimeout = targetClient.getSoTimeout();
+        sourceClient.setSoTimeout(fxpReplyTimeout);
+        targetClient.setSoTimeout(fxpReplyTimeout);
+        try {
+            int targetReplyCode = targetClient.sendCommand(FTPCmd.STOR, targetPath);
+            if (!FTPReply.isPositivePreliminary(targetReplyCode)) {
+                if (!fxpTransferConfirmed.get()) {
+                    downgradeFxpTransfer("应答码: " + targetReplyCode);
+                    return false;
+                }
+                throw new FtpFileStoreException(resolveAbsolutePath(neoFilePaths, neoFileName));
+            }
+            int sourceReplyCode = sourceClient.sendCommand(FTPCmd.RETR, sourcePath);
+            if (!FTPReply.isPositivePreliminary(sourceReplyCode)) {
+                // 目标会话的 STOR 指令仍在等待数据，断开目标会话以中止传输，会话再次被借出时会自动重新连接。
+                targetSession.noThrowingDisconnect();
+                if (!fxpTransferConfirmed.get()) {
+                    downgradeFxpTransfer("应答码: " + sourceReplyCode);
+                    return false;
+                }
+                throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+            }
+            // 等待两端完成传输。
+            boolean sourceCompletedFlag = sourceClient.completePendingCommand();
+            boolean targetCompletedFlag = targetClient.completePendingCommand();
+            // 任意一端以 42x 应答结束时，说明服务器之间无法建立数据连接。
+            if (!fxpTransferConfirmed.get() && (
+                    isDataConnectionRejected(sourceCompletedFlag, sourceClient.getReplyCode()) ||
+                            isDataConnectionRejected(targetCompletedFlag, targetClient.getReplyCode())
+            )) {
+                downgradeFxpTransfer(
+                        "应答码: " + (sourceCompletedFlag ? targetClient.getReplyCode() : sourceClient.getReplyCode())
+                );
+                return false;
+            }
+            if (!sourceCompletedFlag) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+            }
+            if (!targetCompletedFlag) {
+                throw new FtpFileStoreException(resolveAbsolutePath(neoFilePaths, neoFileName));
+            }
+        } catch (SocketTimeoutException e) {
+            // 超时后两个会话的应答均不可预期，断开两个会话以中止传输，会话再次被借出时会自动重新连接。
+            sourceSession.noThrowingDisconnect();
+            targetSession.noThrowingDisconnect();
+            // 从未成功过的 FXP 传输超时，说明服务器之间无法建立数据连接，降级后重新连接源会话，回退到其它复制方式。
+            if (!fxpTransferConfirmed.get()) {
+                downgradeFxpTransfer("等待应答超时: " + fxpReplyTimeout + " 毫秒");
+                ensureStatus(sourceSession);
+                return false;
+            }
+            throw e;
+        } finally {
+            restoreSoTimeout(sourceClient, sourceSoTimeout);
+            restoreSoTimeout(targetClient, targetSoTimeout);
+            invalidateListing(neoFilePaths);
+        }
+        fxpTransferConfirmed.set(true);
+        return true;
+    }
+
+    private boolean isDataConnectionRejected(boolean completedFlag, int replyCode) {
+        return !completedFlag && replyCode / 10 == 42;
+    }
+
+    private void downgradeFxpTransfer(String reason) {
+        if (copyStrategy.compareAndSet(COPY_STRATEGY_FXP, COPY_STRATEGY_BUFFERED)) {
+            LOGGER.info("服务器不支持 FXP 传输, {}, 复制方式降级...", reason);
+        }
+    }
+
+    /**
+     * 确定 FXP 传输等待服务器应答的最长时间。
+     *
+     * <p>
+     * FXP 传输的数据不经过客户端，客户端无法观察数据连接的进度，因此数据超时时间被用作整个传输等待应答的上限；
+     * 未指定数据超时时间时，使用 {@link #DEFAULT_FXP_REPLY_TIMEOUT}。
+     *
+     * @return FXP 传输等待服务器应答的最长时间，单位为毫秒。
+     * @see FtpConfig#getDataTimeout()
+     */
+    private int determineFxpReplyTimeout() {
+        int dataTimeout = config.getDataTimeout();
+        return dataTimeout > 0 ? dataTimeout : DEFAULT_FXP_REPLY_TIMEOUT;
+    }
+
+    private void restoreSoTimeout(FTPClient ftpClient, int soTimeout) {
+        if (!ftpClient.isConnected()) {
+            return;
+        }
+        try {
+            ftpClient.setSoTimeout(soTimeout);
+        } catch (SocketException e) {
+            LOGGER.warn("恢复控制连接的超时时间时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    /**
+     * 使用两个会话，以管道的方式复制文件。
+     *
+     * <p>
+     * 源会话读取源文件的同时，目标会话写入目标文件，数据在两条数据连接之间直接搬运，
+     * 内存中只保留一个固定大小的缓冲区，且不占用临时存储；复制的耗时约等于一次传输，而不是一次读取加一次写入。
+     *
+     * <p>
+     * 未启用管道复制，或者会话池中没有可用的第二个会话时，返回 <code>false</code>。
+     *
+     * @return 是否复制成功，无法使用该复制方式时返回 <code>false</code>。
+     * @throws Exception 复制过程中发生的异常。
+     */
+    private boolean pipedCopyFile(
+            FtpSession session, String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        if (!config.isPipedCopyEnabled()) {
+            return false;
+        }
+
+        // 借出第二个会话，不等待，以免与其它同样持有会话的线程互相等待。
+        FtpSession targetSession = tryBorrowSession();
+        if (Objects.isNull(targetSession)) {
+            return false;
+        }
+        try {
+            ensureStatus(targetSession);
+            pipedTransfer(session, targetSession, oldFilePaths, oldFileName, neoFilePaths, neoFileName);
+            return true;
+        } catch (IOException e) {
+            if (isConnectionBroken(targetSession, e)) {
+                targetSession.noThrowingDisconnect();
+            }
+            throw e;
+        } finally {
+            returnSession(targetSession);
+        }
+    }
+
+    private void pipedTransfer(
+            FtpSession sourceSession, FtpSession targetSession, String[] oldFilePaths, String oldFileName,
+            String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        FTPClient sourceClient = sourceSession.getFtpClient();
+        FTPClient targetClient = targetSession.getFtpClient();
+
+        // 先打开源文件，源文件不存在时，不会在目标会话上创建空文件。
+        String sourcePath = tryAddressFile(sourceSession, oldFilePaths, oldFileName);
+        InputStream in = Objects.isNull(sourcePath) ? null : sourceClient.retrieveFileStream(sourcePath);
+        if (Objects.isNull(in)) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+        }
+
+        OutputStream out = null;
+        boolean sourceCompletedFlag;
+        boolean targetCompletedFlag;
+        try {
+            // 打开目标文件。
+            out = addressAndStoreFileStream(targetSession, neoFilePaths, neoFileName);
+            if (Objects.isNull(out)) {
+                throw new FtpFileStoreException(resolveAbsolutePath(neoFilePaths, neoFileName));
+            }
+
+            // 在两条数据连接之间搬运数据，内存中只保留一个从缓冲区池中借出的缓冲区。
+            copyStream(in, out);
+
+            // 依次完成两端的传输，根据 FtpClient 的文档，必须调用 completePendingCommand 方法。
+            in.close();
+            sourceCompletedFlag = sourceClient.completePendingCommand();
+            out.close();
+            targetCompletedFlag = targetClient.completePendingCommand();
+        } catch (Exception e) {
+            // 传输中止，两个会话的状态均无法确定，关闭数据连接并断开会话，会话再次被借出时会自动重新连接。
+            closeTransferStream(in, e);
+            closeTransferStream(out, e);
+            sourceSession.noThrowingDisconnect();
+            targetSession.noThrowingDisconnect();
+            throw e;
+        } finally {
+            invalidateListing(neoFilePaths);
+        }
+        if (!sourceCompletedFlag) {
+            throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+        }
+        if (!targetCompletedFlag) {
+            throw new FtpFileStoreException(resolveAbsolutePath(neoFilePaths, neoFileName));
+        }
+    }
+
+    private void closeTransferStream(@Nullable Closeable stream, Exception cause) {
+        if (Objects.isNull(stream)) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 获取指定的文件，并写入指定的输出流。
+     *
+     * <p>
+     * 与 {@link FTPClient#retrieveFile(String, OutputStream)} 等价，
+     * 但是经由缓冲区池中借出的缓冲区搬运数据，不会为每次传输分配新的缓冲区。
+     *
+     * @param ftpClient  执行操作的 FtpClient。
+     * @param remotePath 文件的路径。
+     * @param out        写入的输出流。
+     * @return 是否获取成功。
+     * @throws IOException IO 异常。
+     */
+    private boolean retrieveFileToStream(FTPClient ftpClient, String remotePath, OutputStream out)
+            throws IOException {
+        InputStream in = ftpClient.retrieveFileStream(remotePath);
+        if (Objects.isNull(in)) {
+            return false;
+        }
+        try {
+            copyStream(in, out);
+            in.close();
+        } catch (Exception e) {
+            closeTransferStream(in, e);
+            throw e;
+        }
+        return ftpClient.completePendingCommand();
+    }
+
+    /**
+     * 读取指定的输入流，并写入指定的文件。
+     *
+     * <p>
+     * 与 {@link FTPClient#storeFile(String, InputStream)} 等价，
+     * 但是经由缓冲区池中借出的缓冲区搬运数据，不会为每次传输分配新的缓冲区。
+     *
+     * @param ftpClient  执行操作的 FtpClient。
+     * @param remotePath 文件的路径。
+     * @param in         读取的输入流。
+     * @return 是否写入成功。
+     * @throws IOException IO 异常。
+     */
+    private boolean storeFileFromStream(FTPClient ftpClient, String remotePath, InputStream in)
+            throws IOException {
+        OutputStream out = ftpClient.storeFileStream(remotePath);
+        if (Objects.isNull(out)) {
+            return false;
+        }
+        try {
+            copyStream(in, out);
+            out.close();
+        } catch (Exception e) {
+            closeTransferStream(out, e);
+            throw e;
+        }
+        return ftpClient.completePendingCommand();
+    }
+
+    /**
+     * 将输入流中的数据全部写入输出流。
+     *
+     * <p>
+     * 使用从缓冲区池中借出的容量不小于 {@link FtpConfig#getBufferSize()} 的堆内存缓冲区。
+     *
+     * @param in  输入流。
+     * @param out 输出流。
+     * @throws IOException IO 异常。
+     */
+    private void copyStream(InputStream in, OutputStream out) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire(config.getBufferSize(), false);
+        try {
+            byte[] array = buffer.array();
+            int length;
+            while ((length = in.read(array)) >= 0) {
+                out.write(array, 0, length);
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private void bufferedCopyFile(
+            FtpSession session, String[] oldFilePaths, String oldFileName, String[] neoFilePaths, String neoFileName
+    ) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 新建文件复制临时存储。
+        FileCopyTemporaryStorage temporaryStorage = new FileCopyTemporaryStorage(
+                config.getFileCopyMemoryBufferSize(), config.getFileCopyMemoryBufferType(),
+                config.getFileCopyFileBufferType(), bufferPool, temporarySpool
+        );
+        try {
+            // 读旧文件。
+            try (OutputStream out = temporaryStorage.openOutputStream()) {
+                ensureStatus(session);
+                String remotePath = tryAddressFile(session, oldFilePaths, oldFileName);
+                if (Objects.isNull(remotePath) || !retrieveFileToStream(ftpClient, remotePath, out)) {
+                    throw new FtpFileRetrieveException(resolveAbsolutePath(oldFilePaths, oldFileName));
+                }
+                checkPositiveCompletion(session);
+            }
+            // 写新文件。
+            try (InputStream in = temporaryStorage.openInputStream()) {
+                ensureStatus(session);
+                if (!addressAndStoreFile(session, neoFilePaths, neoFileName, in)) {
+                    throw new FtpFileStoreException(resolveAbsolutePath(neoFilePaths, neoFileName));
+                }
+                checkPositiveCompletion(session);
+            }
+        } finally {
+            // 释放资源，无论复制是否成功，临时文件都会被归还给临时文件池。
+            temporaryStorage.dispose();
+        }
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public FtpFile descFile(@Nonnull String[] filePaths, @Nonnull String fileName) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return copyFtpFile(listing.getFtpFile(fileName));
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            return callWithRetry(session, s -> internalDescFile(s, filePaths, fileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public FtpFile descFile(@Nonnull FtpFileLocation fileLocation) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(fileLocation);
+            // 展开参数。
+            String[] filePaths = fileLocation.getFilePaths();
+            String fileName = fileLocation.getFileName();
+            // 优先从目录列表缓存中获取结果，命中时无需借出会话。
+            ListingCache.Listing listing = lookupListing(filePaths);
+            if (Objects.nonNull(listing)) {
+                return copyFtpFile(listing.getFtpFile(fileName));
+            }
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 执行操作，并返回结果。
+            return callWithRetry(session, s -> internalDescFile(s, filePaths, fileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private FtpFile internalDescFile(FtpSession session, String[] filePaths, String fileName) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        ensureStatus(session);
+        // 文件所在的目录不存在时，文件一定不存在。
+        String remotePath = tryAddressFile(session, filePaths, fileName);
+        if (Objects.isNull(remotePath)) {
+            return null;
+        }
+        // 服务器支持单文件探测时，通过控制连接探测文件，执行时间与目录下的文件数量无关。
+        switch (determineProbeMode(session)) {
+            case PROBE_MODE_MLST:
+                FTPFile ftpFile = mlistFile(session, remotePath);
+                if (Objects.nonNull(ftpFile)) {
+                    // MLST 应答中的文件名是请求时使用的路径，统一为文件名。
+                    ftpFile.setName(fileName);
+                }
+                return apacheFtpFileToDwarfengFtpFile(ftpFile, true);
+            case PROBE_MODE_SIZE:
+                Long size = sizeFile(session, remotePath);
+                if (Objects.nonNull(size)) {
+                    // 服务器支持 MDTM 指令时，补充文件的修改时间。
+                    Date modifiedTime = null;
+                    if (ftpClient.hasFeature(FTPCmd.MDTM)) {
+                        modifiedTime = Optional.ofNullable(ftpClient.mdtmCalendar(remotePath))
+                                .map(Calendar::getTime).orElse(null);
+                    }
+                    return new FtpFile(fileName, Constants.FTP_FILE_TYPE_FILE, size, modifiedTime, null, null);
+                }
+                // SIZE 指令只适用于文件，探测失败时，检查同名的目录是否存在。
+                String[] directoryPaths = Arrays.copyOf(filePaths, filePaths.length + 1);
+                directoryPaths[filePaths.length] = fileName;
+                if (tryEnterDirection(session, directoryPaths)) {
+                    return new FtpFile(fileName, Constants.FTP_FILE_TYPE_DIRECTORY, 0);
+                }
+                return null;
+            default:
+                break;
+        }
+        // 列出目录的方式需要进入文件所在的目录。
+        if (!tryEnterDirection(session, filePaths)) {
+            return null;
+        }
+        FTPFile[] ftpFiles = ftpClient.listFiles(null, f -> f.getName().equals(fileName));
+        checkPositiveCompletion(session);
+        FTPFile ftpFile = Arrays.stream(ftpFiles).findFirst().orElse(null);
+        return apacheFtpFileToDwarfengFtpFile(ftpFile, false);
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void ensureDirectories(@Nonnull List<FtpFileLocation> fileLocations) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 展开参数，去除重复的目录，并按照路径排序，使上级目录先于下级目录被处理。
+            SortedMap<String, String[]> filePathsMap = new TreeMap<>();
+            for (FtpFileLocation fileLocation : fileLocations) {
+                String[] filePaths = fileLocation.getFilePaths();
+                filePathsMap.put(resolveAbsolutePath(filePaths, null), filePaths);
+            }
+            List<String[]> filePathsList = new ArrayList<>(filePathsMap.values());
+            // 执行操作。
+            runWithRetry(session, s -> internalEnsureDirectories(s, filePathsList));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private void internalEnsureDirectories(FtpSession session, List<String[]> filePathsList) throws Exception {
+        // 确认状态。
+        ensureStatus(session);
+        // 本次调用过程中确认存在的目录，不受已知目录缓存容量的限制。
+        Set<String> localDirectories = new HashSet<>();
+        for (String[] filePaths : filePathsList) {
+            String directory = resolveAbsolutePath(filePaths, null);
+            // 根目录以及已知存在的目录无需处理。
+            if (filePaths.length == 0 || isKnownDirectory(directory, localDirectories)) {
+                continue;
+            }
+            // 最后一级目录创建成功，说明整个目录都已经存在，无需再次确认。
+            if (makeDirectories(session, filePaths, localDirectories)) {
+                rememberDirectories(filePaths, localDirectories);
+                continue;
+            }
+            // 最后一级目录创建失败，可能是目录已经存在，进入目录以确认。
+            enterMadeDirectory(session, filePaths, localDirectories);
+        }
+    }
+
+    @Override
+    @BehaviorAnalyse
+    public void moveFile(
+            @Nonnull String[] oldFilePaths, @Nonnull String oldFileName, @Nonnull String[] neoFilePaths,
+            @Nonnull String neoFileName
+    ) throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            runWithoutRetry(session, s -> internalRenameFile(s, oldFilePaths, oldFileName, neoFilePaths, neoFileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @SuppressWarnings("DuplicatedCode")
+    @Override
+    @BehaviorAnalyse
+    public void moveFile(@Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation)
+            throws HandlerException {
+        FtpSession session = null;
+        try {
+            // 借出会话，该过程会确认处理器已经启动。
+            session = borrowSession();
+            // 校验参数。
+            FtpFileLocationUtil.checkAsFile(oldFileLocation);
+            FtpFileLocationUtil.checkAsFile(neoFileLocation);
+            // 展开参数。
+            String[] oldFilePaths = oldFileLocation.getFilePaths();
+            String oldFileName = oldFileLocation.getFileName();
+            String[] neoFilePaths = neoFileLocation.getFilePaths();
+            String neoFileName = neoFileLocation.getFileName();
+            // 执行操作。
+            runWithoutRetry(session, s -> internalRenameFile(s, oldFilePaths, oldFileName, neoFilePaths, neoFileName));
+        } catch (Exception e) {
+            throw new FtpException(e);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private void clearSingleFrame(
+            FtpSession session, String[] filePaths, DirectoryClearFrame frame, Stack<DirectoryClearFrame> frameStack
+    ) throws Exception {
+        FTPClient ftpClient = session.getFtpClient();
+        // 展开参数。
+        String[] frameFilePaths = frame.getFilePaths();
+        Queue<FTPFile> frameRemainingFiles = frame.getRemainingFiles();
+        // 进入文件夹。
+        enterDirection(session, frameFilePaths);
+        // 只要剩余文件队列不为空，就一直循环。
+        while (!frameRemainingFiles.isEmpty()) {
+            // 弹出队首文件。
+            FTPFile ftpFile = frameRemainingFiles.poll();
+            // 如果是文件夹，则进入文件夹。
+            if (ftpFile.isDirectory()) {
+                // 列出文件。
+                FTPFile[] neoFtpFiles = listDirectory(session, ftpFile.getName());
+                // 如果文件夹为空，则直接删除目录并返回。
+                if (Objects.isNull(neoFtpFiles) || neoFtpFiles.length == 0) {
+                    if (!ftpClient.removeDirectory(ftpFile.getName())) {
+                        throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, ftpFile.getName()));
+                    }
+                    invalidateDirectories(
+                            session, resolveAbsolutePath(frameFilePaths, ftpFile.getName()) + PATH_SEPARATOR
+                    );
+                    continue;
+                }
+                // 创建新帧。
+                String[] newFilePaths = Arrays.copyOf(frameFilePaths, frameFilePaths.length + 1);
+                newFilePaths[frameFilePaths.length] = ftpFile.getName();
+                DirectoryClearFrame neoFrame = new DirectoryClearFrame(newFilePaths, new ArrayDeque<>());
+                neoFrame.getRemainingFiles().addAll(Arrays.asList(neoFtpFiles));
+                frameStack.push(frame);
+                frameStack.push(neoFrame);
+                return;
+            }
+            // 如果是文件，则删除文件。
+            if (!ftpClient.deleteFile(ftpFile.getName())) {
+                throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, ftpFile.getName()));
+            }
+            checkPositiveCompletion(session);
+        }
+        // 剩余文件删除完毕后，删除帧对应的目录（如果不是 filePaths）。
+        // 如果 frameFilePaths 与 filePaths 相等，则不删除。
+        if (Arrays.equals(frameFilePaths, filePaths)) {
+            return;
+        }
+        // 如果目录为空，则直接抛出异常（不能删除根目录）。
+        if (frameFilePaths.length == 0) {
+            throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, null));
+        }
+        // 如果目录不为空，则获取父目录路径。
+        String[] frameParentFilePaths = new String[frameFilePaths.length - 1];
+        System.arraycopy(frameFilePaths, 0, frameParentFilePaths, 0, frameParentFilePaths.length);
+        // 打开文件目录。
+        enterDirection(session, frameParentFilePaths);
+        // 删除文件目录。
+        if (!ftpClient.removeDirectory(frameFilePaths[frameFilePaths.length - 1])) {
+            throw new FtpFileDeleteException(resolveAbsolutePath(frameFilePaths, null));
+        }
+        invalidateDirectories(session, resolveAbsolutePath(frameFilePaths, null));
+        checkPositiveCompletion(session);
+    }
+
+    private String resolveAbsolutePath(@Nonnull String[] filePaths, @Nullable String fileName) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(ROOT_PATH);
+        for (String filePath : filePaths) {
+            builder.append(filePath).append(PATH_SEPARATOR);
+        }
+        if (Objects.nonNull(fileName)) {
+            builder.append(fileName);
+        }
+        return builder.toString();
+    }
+
+    static FtpFile apacheFtpFileToDwarfengFtpFile(FTPFile ftpFile, boolean mlsxFlag) {
+        // 特殊值判断。
+        if (Objects.isNull(ftpFile)) {
+            return null;
+        }
+        // 定义变量。
+        String name;
+        int type;
+        long size;
+        Date modifiedTime;
+        String permission;
+        String uniqueId;
+        // 映射变量。
+        name = ftpFile.getName();
+        switch (ftpFile.getType()) {
+            case FTPFile.FILE_TYPE:
+                type = Constants.FTP_FILE_TYPE_FILE;
+                break;
+            case FTPFile.DIRECTORY_TYPE:
+                type = Constants.FTP_FILE_TYPE_DIRECTORY;
+                break;
+            case FTPFile.SYMBOLIC_LINK_TYPE:
+                type = Constants.FTP_FILE_TYPE_SYMBOLIC_LINK;
+                break;
+            default:
+                type = Constants.FTP_FILE_TYPE_UNKNOWN;
+                break;
+        }
+        size = ftpFile.getSize();
+        modifiedTime = Optional.ofNullable(ftpFile.getTimestamp()).map(Calendar::getTime).orElse(null);
+        // 权限与唯一标识只存在于机器可读的应答中。
+        if (mlsxFlag) {
+            permission = parseMlsxFact(ftpFile.getRawListing(), MLSX_FACT_PERM);
+            uniqueId = parseMlsxFact(ftpFile.getRawListing(), MLSX_FACT_UNIQUE);
+        } else {
+            permission = null;
+            uniqueId = null;
+        }
+        // 设置结果。
+        return new FtpFile(name, type, size, modifiedTime, permission, uniqueId);
+    }
+
+    /**
+     * 执行 FtpClient 具体操作之前确保 FTP 的状态正常。
+     *
+     * <p>
+     * 如果会话未连接，则尝试立即连接。<br>
+     * 如果会话在信任期内收到过服务器的应答，则认为会话可用，不进行任何检查；
+     * 否则，发送 NOOP 指令检查连接，检查失败后尝试重新连接。<br>
+     * 连接失败后抛出异常。
+     *
+     * @param session 执行操作的会话。
+     * @see FtpConfig#getSessionTrustPeriod()
+     */
+    private void ensureStatus(FtpSession session) throws Exception {
+        if (!session.isConnected()) {
+            try {
+                connectSession(session);
+            } catch (Exception e) {
+                LOGGER.warn("连接失败，异常信息如下: ", e);
+                throw e;
+            }
+            return;
+        }
+        if (session.isActiveWithin(config.getSessionTrustPeriod())) {
+            return;
+        }
+        try {
+            session.getFtpClient().sendNoOp();
+        } catch (IOException e) {
+            LOGGER.warn("向 FTP 服务器发送 NoOp 指令失败，异常信息如下: ", e);
+            LOGGER.warn("尝试重新连接...");
+            try {
+                connectSession(session);
+            } catch (Exception ex) {
+                LOGGER.warn("重连失败，异常信息如下: ", ex);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * 在指定的会话上执行操作，并返回结果。
+     *
+     * <p>
+     * 如果操作因为连接失效而失败，则重新连接会话，并重试一次。<br>
+     * 只有重复执行不会产生副作用的操作才可以使用该方法。
+     *
+     * @param session   执行操作的会话。
+     * @param operation 执行的操作。
+     * @param <T>       操作结果的类型。
+     * @return 操作的结果。
+     * @throws Exception 操作过程中发生的异常。
+     */
+    private <T> T callWithRetry(FtpSession session, SessionCallable<T> operation) throws Exception {
+        try {
+            return operation.call(session);
+        } catch (IOException e) {
+            if (!isConnectionBroken(session, e)) {
+                disconnectIfTimeout(session, e);
+                throw e;
+            }
+            LOGGER.warn("FTP 连接已失效，将重新连接并重试操作，异常信息如下: ", e);
+            connectSession(session);
+            return operation.call(session);
+        }
+    }
+
+    /**
+     * 在指定的会话上执行操作。
+     *
+     * <p>
+     * 如果操作因为连接失效而失败，则重新连接会话，并重试一次。<br>
+     * 只有重复执行不会产生副作用的操作才可以使用该方法。
+     *
+     * @param session   执行操作的会话。
+     * @param operation 执行的操作。
+     * @throws Exception 操作过程中发生的异常。
+     */
+    private void runWithRetry(FtpSession session, SessionRunnable operation) throws Exception {
+        callWithRetry(session, s -> {
+            operation.run(s);
+            return null;
+        });
+    }
+
+    /**
+     * 在指定的会话上执行操作。
+     *
+     * <p>
+     * 该方法用于重复执行会产生副作用的操作，例如删除、重命名以及消费调用者流的操作。<br>
+     * 如果操作因为连接失效而失败，则断开会话并抛出异常，会话再次被借出时会自动重新连接。
+     *
+     * @param session   执行操作的会话。
+     * @param operation 执行的操作。
+     * @throws Exception 操作过程中发生的异常。
+     */
+    private void runWithoutRetry(FtpSession session, SessionRunnable operation) throws Exception {
+        try {
+            operation.run(session);
+        } catch (IOException e) {
+            if (isConnectionBroken(session, e)) {
+                session.noThrowingDisconnect();
+            }
+            disconnectIfTimeout(session, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 判断指定的异常是否由连接失效引起。
+     *
+     * <p>
+     * 超时异常不被认为是连接失效，因为超时往往意味着服务器繁忙，重试只会加重服务器的负担。<br>
+     * 传输过程中发生超时时，会话往往已经在抛出异常之前被断开，因此超时异常需要在检查会话的连接状态之前被排除。
+     *
+     * @param session 发生异常的会话。
+     * @param e       发生的异常。
+     * @return 指定的异常是否由连接失效引起。
+     */
+    private boolean isConnectionBroken(FtpSession session, IOException e) {
+        if (isTimeout(e)) {
+            return false;
+        }
+        return e instanceof FTPConnectionClosedException || e instanceof SocketException || !session.isConnected();
+    }
+
+    /**
+     * 判断指定的异常是否由超时引起。
+     *
+     * @param e 发生的异常。
+     * @return 指定的异常或者其原因链中是否存在 {@link SocketTimeoutException}。
+     */
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 如果指定的异常由超时引起，则断开会话。
+     *
+     * <p>
+     * 超时之后，控制连接上可能还有尚未收到的应答，会话的状态无法确定，因此断开会话，会话再次被借出时会自动重新连接。
+     *
+     * @param session 发生异常的会话。
+     * @param e       发生的异常。
+     */
+    private void disconnectIfTimeout(FtpSession session, IOException e) {
+        if (isTimeout(e)) {
+            session.noThrowingDisconnect();
+        }
+    }
+
+    /**
+     * 执行 FtpClient 具体操作之后检查 FTP 的状态。
+     *
+     * @param session 执行操作的会话。
+     * @throws IOException 如果 FTP 服务器返回错误的状态码，则抛出此异常。
+     */
+    private void checkPositiveCompletion(FtpSession session) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        if (FTPReply.isPositiveCompletion(ftpClient.getReplyCode())) {
+            return;
+        }
+
+        throw new IOException("FTP 服务器返回错误的状态码: " + ftpClient.getReplyCode());
+    }
+
+    /**
+     * 执行 FtpClient 具体操作失败之后检查 FTP 的状态。
+     *
+     * <p>
+     * 永久性的否定应答说明目标不存在（或不可访问），是可以接受的结果；其它应答说明发生了其它错误。
+     *
+     * @param session 执行操作的会话。
+     * @throws IOException 如果 FTP 服务器返回永久性否定应答以外的状态码，则抛出此异常。
+     */
+    private void checkNegativePermanent(FtpSession session) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        if (FTPReply.isNegativePermanent(ftpClient.getReplyCode())) {
+            return;
+        }
+
+        throw new IOException("FTP 服务器返回错误的状态码: " + ftpClient.getReplyCode());
+    }
+
+    /**
+     * 执行 FtpClient 具体操作之后检查 FTP 的状态。
+     *
+     * @param session 执行操作的会话。
+     * @throws IOException 如果 FTP 服务器返回错误的状态码，则抛出此异常。
+     */
+    private void checkPositivePreliminary(FtpSession session) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        if (FTPReply.isPositivePreliminary(ftpClient.getReplyCode())) {
+            return;
+        }
+
+        throw new IOException("FTP 服务器返回错误的状态码: " + ftpClient.getReplyCode());
+    }
+
+    /**
+     * 确定单文件探测模式。
+     *
+     * <p>
+     * 服务器的特性通过 FEAT 指令获取，FTPClient 会在每个连接上缓存 FEAT 指令的结果，因此每个连接只会查询一次。
+     *
+     * @param session 执行操作的会话。
+     * @return 单文件探测模式。
+     * @throws IOException IO 异常。
+     */
+    private int determineProbeMode(FtpSession session) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        if (isMlsxSupported(session)) {
+            return PROBE_MODE_MLST;
+        }
+        if (ftpClient.hasFeature(FTPCmd.SIZE)) {
+            return PROBE_MODE_SIZE;
+        }
+        return PROBE_MODE_LIST;
+    }
+
+    /**
+     * 判断服务器是否支持 MLST 以及 MLSD 指令。
+     *
+     * <p>
+     * 根据 RFC 3659，服务器通过 FEAT 指令应答中的 MLST 特性同时声明对 MLST 以及 MLSD 指令的支持。
+     *
+     * @param session 执行操作的会话。
+     * @return 服务器是否支持 MLST 以及 MLSD 指令。
+     * @throws IOException IO 异常。
+     */
+    private boolean isMlsxSupported(FtpSession session) throws IOException {
+        return session.getFtpClient().hasFeature(FTPCmd.MLST);
+    }
+
+    /**
+     * 列出目录。
+     *
+     * <p>
+     * 服务器支持 MLSD 指令时，使用 MLSD 指令列出目录，其应答是机器可读的，解析速度快且包含完整的时间戳；
+     * 否则，使用 LIST 指令列出目录。<br>
+     * 结果中不包含代表当前目录以及上级目录的条目。
+     *
+     * @param session  执行操作的会话。
+     * @param pathname 目录的路径，为 null 时列出当前工作目录。
+     * @return 目录下的文件。
+     * @throws IOException IO 异常。
+     */
+    private FTPFile[] listDirectory(FtpSession session, @Nullable String pathname) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        FTPFile[] ftpFiles;
+        if (isMlsxSupported(session)) {
+            ftpFiles = ftpClient.mlistDir(pathname);
+            checkPositiveCompletion(session);
+            ftpFiles = Arrays.stream(ftpFiles).filter(f -> {
+                String type = parseMlsxFact(f.getRawListing(), MLSX_FACT_TYPE);
+                return !MLSX_TYPE_CDIR.equalsIgnoreCase(type) && !MLSX_TYPE_PDIR.equalsIgnoreCase(type);
+            }).toArray(FTPFile[]::new);
+        } else {
+            ftpFiles = ftpClient.listFiles(pathname);
+            checkPositiveCompletion(session);
+            ftpFiles = Arrays.stream(ftpFiles)
+                    .filter(f -> Objects.nonNull(f) && !isSpecialDirectoryName(f.getName()))
+                    .toArray(FTPFile[]::new);
+        }
+        return ftpFiles;
+    }
+
+    /**
+     * 判断对文件路径执行 LIST 指令的结果是否表示文件存在。
+     *
+     * <p>
+     * 对文件路径执行 LIST 指令时，服务器返回该文件的条目；但是如果该路径是一个目录，服务器返回目录下的所有条目。
+     * 因此，只有结果中恰好有一个非目录的条目，且条目的名称（部分服务器返回完整的路径）与文件名相同时，才认为文件存在，
+     * 与 MLST 指令以及 SIZE 指令的探测结果保持一致。
+     *
+     * @param ftpFiles LIST 指令的结果。
+     * @param fileName 文件名。
+     * @return 结果是否表示文件存在。
+     */
+    static boolean isSingleFileListing(@Nullable FTPFile[] ftpFiles, String fileName) {
+        if (Objects.isNull(ftpFiles) || ftpFiles.length != 1) {
+            return false;
+        }
+        FTPFile ftpFile = ftpFiles[0];
+        if (Objects.isNull(ftpFile) || ftpFile.isDirectory() || Objects.isNull(ftpFile.getName())) {
+            return false;
+        }
+        String name = ftpFile.getName();
+        return name.equals(fileName) || name.endsWith(PATH_SEPARATOR + fileName);
+    }
+
+    /**
+     * 从 MLST 或 MLSD 指令的应答条目中解析指定的事实。
+     *
+     * <p>
+     * 应答条目的格式为 <code>fact1=value1;fact2=value2; name</code>，事实的名称不区分大小写。
+     *
+     * @param rawListing 应答条目。
+     * @param factName   事实的名称，小写。
+     * @return 事实的值，条目中不包含该事实时返回 null。
+     */
+    @Nullable
+    static String parseMlsxFact(@Nullable String rawListing, String factName) {
+        if (Objects.isNull(rawListing)) {
+            return null;
+        }
+        int spaceIndex = rawListing.indexOf(' ');
+        String factsPart = spaceIndex < 0 ? rawListing : rawListing.substring(0, spaceIndex);
+        for (String fact : factsPart.split(";")) {
+            int equalIndex = fact.indexOf('=');
+            if (equalIndex <= 0) {
+                continue;
+            }
+            if (fact.substring(0, equalIndex).toLowerCase(Locale.ENGLISH).equals(factName)) {
+                return fact.substring(equalIndex + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 确定文件复制方式。
+     *
+     * <p>
+     * 服务器是否支持 SITE CPFR/CPTO 指令通过 SITE HELP 指令的应答判断，这两条指令不会出现在 FEAT 指令的应答中；
+     * FXP 传输无法预先探测，在第一次尝试时确定。<br>
+     * 确定的复制方式在处理器的生命周期内被缓存，因此 SITE HELP 指令只会发送一次。
+     *
+     * @param session 执行操作的会话。
+     * @return 文件复制方式。
+     * @throws IOException IO 异常。
+     */
+    private int determineCopyStrategy(FtpSession session) throws IOException {
+        int strategy = copyStrategy.get();
+        if (strategy != COPY_STRATEGY_UNDETERMINED) {
+            return strategy;
+        }
+        if (!config.isServerSideCopyEnabled()) {
+            strategy = COPY_STRATEGY_BUFFERED;
+        } else if (isSiteCopySupported(session)) {
+            strategy = COPY_STRATEGY_SITE;
+        } else {
+            strategy = COPY_STRATEGY_FXP;
+        }
+        copyStrategy.compareAndSet(COPY_STRATEGY_UNDETERMINED, strategy);
+        return copyStrategy.get();
+    }
+
+    private boolean isSiteCopySupported(FtpSession session) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        if (!ftpClient.sendSiteCommand(SITE_HELP)) {
+            return false;
+        }
+        String replyString = ftpClient.getReplyString().toUpperCase(Locale.ENGLISH);
+        return replyString.contains(SITE_COPY_FROM) && replyString.contains(SITE_COPY_TO);
+    }
+
+    /**
+     * 从 PASV 指令的应答中解析数据端口的地址。
+     *
+     * <p>
+     * 服务器返回的地址为通配地址时，使用控制连接的远端地址代替。
+     *
+     * @param session     发送 PASV 指令的会话。
+     * @param replyString PASV 指令的应答。
+     * @return 数据端口的地址，应答无法解析时返回 null。
+     */
+    @Nullable
+    private InetSocketAddress parsePassiveAddress(FtpSession session, String replyString) {
+        Matcher matcher = PASSIVE_ADDRESS_PATTERN.matcher(replyString);
+        if (!matcher.find()) {
+            return null;
+        }
+        byte[] addressBytes = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            addressBytes[i] = (byte) Integer.parseInt(matcher.group(i + 1));
+        }
+        int port = (Integer.parseInt(matcher.group(5)) << 8) | Integer.parseInt(matcher.group(6));
+        try {
+            InetAddress address = InetAddress.getByAddress(addressBytes);
+            if (address.isAnyLocalAddress()) {
+                address = session.getFtpClient().getRemoteAddress();
+            }
+            return new InetSocketAddress(address, port);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 使用 MLST 指令探测指定的文件。
+     *
+     * @param session    执行操作的会话。
+     * @param remotePath 文件的路径。
+     * @return 探测到的文件，文件不存在时返回 null。
+     * @throws IOException IO 异常，或者服务器返回了文件不存在以外的错误状态码。
+     */
+    @Nullable
+    private FTPFile mlistFile(FtpSession session, String remotePath) throws IOException {
+        FTPFile ftpFile = session.getFtpClient().mlistFile(remotePath);
+        if (Objects.isNull(ftpFile)) {
+            checkNegativePermanent(session);
+        }
+        return ftpFile;
+    }
+
+    /**
+     * 使用 SIZE 指令探测指定文件的大小。
+     *
+     * @param session    执行操作的会话。
+     * @param remotePath 文件的路径。
+     * @return 文件的大小，文件不存在时返回 null。
+     * @throws IOException IO 异常，或者服务器返回了文件不存在以外的错误状态码。
+     */
+    @Nullable
+    private Long sizeFile(FtpSession session, String remotePath) throws IOException {
+        String size = session.getFtpClient().getSize(remotePath);
+        if (Objects.isNull(size)) {
+            checkNegativePermanent(session);
+            return null;
+        }
+        try {
+            return Long.parseLong(size.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("无法解析 FTP 服务器返回的文件大小: " + size, e);
+        }
+    }
+
+    /**
+     * 打开指定的目录，如果目录不存在就创建。
+     *
+     * <p>
+     * 如果会话已经位于指定的目录，则不与服务器进行任何交互；
+     * 否则，首先尝试以绝对路径一次性地进入目录，失败后再创建不存在的目录并进入。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 指定的文件目录。
+     * @throws IOException IO 异常。
+     */
+    private void enterDirection(FtpSession session, String[] filePaths) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        String directory = resolveAbsolutePath(filePaths, null);
+        long invalidationCount = directoryInvalidationCount.get();
+        // 会话已经位于指定的目录，无需切换。
+        if (session.isInWorkingDirectory(directory, invalidationCount)) {
+            return;
+        }
+        // 切换目录期间，会话的工作目录未知。
+        session.resetWorkingDirectory();
+        // 目录已经存在时，一条 CWD 指令即可进入目录。
+        if (ftpClient.changeWorkingDirectory(directory)) {
+            rememberDirectories(filePaths, null);
+            session.recordWorkingDirectory(directory, invalidationCount);
+            return;
+        }
+        // 目录不存在，创建目录并进入。
+        makeAndEnterDirectory(session, filePaths, null);
+    }
+
+    /**
+     * 尝试进入指定的目录，不创建不存在的目录。
+     *
+     * <p>
+     * 该方法用于查询类的操作。如果会话已经位于指定的目录，则不与服务器进行任何交互；
+     * 否则，以绝对路径一次性地进入目录，目录不存在时，只需要一条 CWD 指令即可得出结论。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 指定的文件目录。
+     * @return 是否成功进入指定的目录，目录不存在时返回 false。
+     * @throws IOException IO 异常，或者服务器返回了目录不存在以外的错误状态码。
+     */
+    private boolean tryEnterDirection(FtpSession session, String[] filePaths) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        String directory = resolveAbsolutePath(filePaths, null);
+        long invalidationCount = directoryInvalidationCount.get();
+        // 会话已经位于指定的目录，无需切换。
+        if (session.isInWorkingDirectory(directory, invalidationCount)) {
+            return true;
+        }
+        // 切换目录期间，会话的工作目录未知。
+        session.resetWorkingDirectory();
+        if (!ftpClient.changeWorkingDirectory(directory)) {
+            // 永久性的否定应答说明目录不存在（或不可访问），其它应答说明发生了其它错误。
+            checkNegativePermanent(session);
+            return false;
+        }
+        rememberDirectories(filePaths, null);
+        session.recordWorkingDirectory(directory, invalidationCount);
+        return true;
+    }
+
+    /**
+     * 创建指定的目录及其不存在的上级目录，并进入指定的目录。
+     *
+     * @param session          执行操作的会话。
+     * @param filePaths        指定的文件目录。
+     * @param localDirectories 本次调用过程中确认存在的目录，为 null 时只使用已知目录缓存。
+     * @throws IOException IO 异常。
+     */
+    private void makeAndEnterDirectory(
+            FtpSession session, String[] filePaths, @Nullable Set<String> localDirectories
+    ) throws IOException {
+        makeDirectories(session, filePaths, localDirectories);
+        enterMadeDirectory(session, filePaths, localDirectories);
+    }
+
+    /**
+     * 进入已经创建的目录。
+     *
+     * <p>
+     * 如果已知存在的目录被其它客户端删除导致无法进入目录，则忘记这些目录，重新创建一次后再次进入。
+     *
+     * @param session          执行操作的会话。
+     * @param filePaths        指定的文件目录。
+     * @param localDirectories 本次调用过程中确认存在的目录，为 null 时只使用已知目录缓存。
+     * @throws IOException IO 异常。
+     */
+    private void enterMadeDirectory(
+            FtpSession session, String[] filePaths, @Nullable Set<String> localDirectories
+    ) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        String directory = resolveAbsolutePath(filePaths, null);
+        long invalidationCount = directoryInvalidationCount.get();
+        session.resetWorkingDirectory();
+        if (!ftpClient.changeWorkingDirectory(directory)) {
+            forgetDirectories(filePaths, localDirectories);
+            makeDirectories(session, filePaths, localDirectories);
+            ftpClient.changeWorkingDirectory(directory);
+        }
+        checkPositiveCompletion(session);
+        rememberDirectories(filePaths, localDirectories);
+        session.recordWorkingDirectory(directory, invalidationCount);
+    }
+
+    /**
+     * 按照 filePaths 依次创建目录，跳过已知存在的目录。
+     *
+     * <p>
+     * 目录以绝对路径创建，不切换工作目录。某一级目录创建成功后，其下级目录一定不存在，因此不再检查下级目录是否已知。<br>
+     * 目录创建失败时不抛出异常，因为目录可能已经存在，调用者应该在创建完成后进入目录以确认目录存在。
+     *
+     * @param session          执行操作的会话。
+     * @param filePaths        指定的文件目录。
+     * @param localDirectories 本次调用过程中确认存在的目录，为 null 时只使用已知目录缓存。
+     * @return 最后一级目录是否由本方法创建成功。
+     * @throws IOException IO 异常。
+     */
+    private boolean makeDirectories(
+            FtpSession session, String[] filePaths, @Nullable Set<String> localDirectories
+    ) throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        boolean createdFlag = false;
+        for (int i = 1; i <= filePaths.length; i++) {
+            String directory = resolveAbsolutePath(Arrays.copyOf(filePaths, i), null);
+            if (!createdFlag && isKnownDirectory(directory, localDirectories)) {
+                continue;
+            }
+            createdFlag = ftpClient.makeDirectory(directory);
+            // 新建的目录改变了上级目录的列表。
+            if (createdFlag) {
+                invalidateListing(Arrays.copyOf(filePaths, i - 1));
+            }
+        }
+        return createdFlag;
+    }
+
+    private boolean isKnownDirectory(String directory, @Nullable Set<String> localDirectories) {
+        if (Objects.nonNull(localDirectories) && localDirectories.contains(directory)) {
+            return true;
+        }
+        return knownDirectoryCache.contains(directory);
+    }
+
+    /**
+     * 记录指定的目录及其所有上级目录存在。
+     *
+     * @param filePaths        指定的文件目录。
+     * @param localDirectories 本次调用过程中确认存在的目录，为 null 时只记录到已知目录缓存。
+     */
+    private void rememberDirectories(String[] filePaths, @Nullable Set<String> localDirectories) {
+        for (int i = 1; i <= filePaths.length; i++) {
+            String directory = resolveAbsolutePath(Arrays.copyOf(filePaths, i), null);
+            knownDirectoryCache.add(directory);
+            if (Objects.nonNull(localDirectories)) {
+                localDirectories.add(directory);
+            }
+        }
+    }
+
+    /**
+     * 忘记指定的目录及其所有上级目录。
+     *
+     * @param filePaths        指定的文件目录。
+     * @param localDirectories 本次调用过程中确认存在的目录，为 null 时只从已知目录缓存中移除。
+     */
+    private void forgetDirectories(String[] filePaths, @Nullable Set<String> localDirectories) {
+        for (int i = 1; i <= filePaths.length; i++) {
+            String directory = resolveAbsolutePath(Arrays.copyOf(filePaths, i), null);
+            knownDirectoryCache.removeTree(directory);
+            if (Objects.nonNull(localDirectories)) {
+                localDirectories.remove(directory);
+            }
+        }
+    }
+
+    /**
+     * 确定访问指定文件时使用的路径。
+     *
+     * <p>
+     * 如果启用了绝对路径寻址，则直接返回文件的绝对路径，不切换工作目录；
+     * 否则，进入文件所在的目录，并返回文件名。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @return 访问指定文件时使用的路径。
+     * @throws IOException IO 异常。
+     * @see FtpConfig#isAbsolutePathAddressing()
+     */
+    private String addressFile(FtpSession session, String[] filePaths, String fileName) throws IOException {
+        if (config.isAbsolutePathAddressing()) {
+            return resolveAbsolutePath(filePaths, fileName);
+        }
+        enterDirection(session, filePaths);
+        return fileName;
+    }
+
+    /**
+     * 确定读取指定文件时使用的路径，不创建不存在的目录。
+     *
+     * <p>
+     * 如果启用了绝对路径寻址，则直接返回文件的绝对路径，不切换工作目录；
+     * 否则，尝试进入文件所在的目录，并返回文件名。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @return 读取指定文件时使用的路径，文件所在的目录不存在时返回 null。
+     * @throws IOException IO 异常。
+     * @see FtpConfig#isAbsolutePathAddressing()
+     */
+    @Nullable
+    private String tryAddressFile(FtpSession session, String[] filePaths, String fileName) throws IOException {
+        if (config.isAbsolutePathAddressing()) {
+            return resolveAbsolutePath(filePaths, fileName);
+        }
+        if (!tryEnterDirection(session, filePaths)) {
+            return null;
+        }
+        return fileName;
+    }
+
+    /**
+     * 寻址并写入指定的文件。
+     *
+     * <p>
+     * 启用绝对路径寻址时，如果服务器因为目录不存在而拒绝写入，则创建目录，并以相对路径再次写入。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @param in        文件内容的输入流。
+     * @return 是否写入成功。
+     * @throws IOException IO 异常。
+     */
+    private boolean addressAndStoreFile(FtpSession session, String[] filePaths, String fileName, InputStream in)
+            throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        String remotePath = addressFile(session, filePaths, fileName);
+        try {
+            if (storeFileFromStream(ftpClient, remotePath, in)) {
+                return true;
+            }
+            if (!isAbsoluteStoreRejected(session)) {
+                return false;
+            }
+            enterDirection(session, filePaths);
+            return storeFileFromStream(ftpClient, fileName, in);
+        } finally {
+            invalidateListing(filePaths);
+        }
+    }
+
+    /**
+     * 寻址并打开指定文件的输出流。
+     *
+     * <p>
+     * 启用绝对路径寻址时，如果服务器因为目录不存在而拒绝写入，则创建目录，并以相对路径再次打开。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @return 文件的输出流，打开失败时返回 null。
+     * @throws IOException IO 异常。
+     */
+    private OutputStream addressAndStoreFileStream(FtpSession session, String[] filePaths, String fileName)
+            throws IOException {
+        FTPClient ftpClient = session.getFtpClient();
+        String remotePath = addressFile(session, filePaths, fileName);
+        try {
+            OutputStream out = ftpClient.storeFileStream(remotePath);
+            if (Objects.nonNull(out) || !isAbsoluteStoreRejected(session)) {
+                return out;
+            }
+            enterDirection(session, filePaths);
+            return ftpClient.storeFileStream(fileName);
+        } finally {
+            invalidateListing(filePaths);
+        }
+    }
+
+    /**
+     * 寻址并打开写入指定文件的基于通道的数据连接。
+     *
+     * <p>
+     * 启用绝对路径寻址时，如果服务器因为目录不存在而拒绝写入，则创建目录，并以相对路径再次打开。
+     *
+     * @param session   执行操作的会话。
+     * @param filePaths 文件所在的目录。
+     * @param fileName  文件名。
+     * @param offset    开始写入的位置，大于 0 时从该位置继续写入。
+     * @return 基于通道的数据连接，打开失败时返回 null。
+     * @throws IOException IO 异常。
+     * @see SessionFtpClient#openChannelDataConnection(FTPCmd, String)
+     */
+    @Nullable
+    private Socket addressAndOpenStoreDataConnection(
+            FtpSession session, String[] filePaths, String fileName, long offset
+    ) throws IOException {
+        SessionFtpClient ftpClient = session.getFtpClient();
+        String remotePath = addressFile(session, filePaths, fileName);
+        Socket socket = openStoreDataConnection(ftpClient, remotePath, offset);
+        if (Objects.nonNull(socket) || !isAbsoluteStoreRejected(session)) {
+            return socket;
+        }
+        enterDirection(session, filePaths);
+        return openStoreDataConnection(ftpClient, fileName, offset);
+    }
+
+    /**
+     * 打开写入指定文件的基于通道的数据连接。
+     *
+     * <p>
+     * 开始写入的位置大于 0 时，如果服务器支持 REST STREAM 特性，则通过 REST 以及 STOR 指令从该位置继续写入，
+     * 否则通过 APPE 指令追加写入。
+     *
+     * @param ftpClient  执行操作的 FtpClient。
+     * @param remotePath 文件的路径。
+     * @param offset     开始写入的位置。
+     * @return 基于通道的数据连接，打开失败时返回 null。
+     * @throws IOException IO 异常。
+     */
+    @Nullable
+    private Socket openStoreDataConnection(SessionFtpClient ftpClient, String remotePath, long offset)
+            throws IOException {
+        if (offset <= 0) {
+            return ftpClient.openChannelDataConnection(FTPCmd.STOR, remotePath);
+        }
+        if (!ftpClient.hasFeature(FTPCmd.REST.getCommand(), "STREAM")) {
+            return ftpClient.openChannelDataConnection(FTPCmd.APPE, remotePath);
+        }
+        ftpClient.setRestartOffset(offset);
+        try {
+            return ftpClient.openChannelDataConnection(FTPCmd.STOR, remotePath);
+        } finally {
+            // 打开数据连接失败时，REST 指令可能尚未发送，因此需要重置偏移量，以免影响之后的传输。
+            ftpClient.setRestartOffset(0);
+        }
+    }
+
+    /**
+     * 判断以绝对路径写入文件失败的原因是否可能是目录不存在。
+     *
+     * @param session 执行操作的会话。
+     * @return 以绝对路径写入文件失败的原因是否可能是目录不存在。
+     */
+    private boolean isAbsoluteStoreRejected(FtpSession session) {
+        if (!config.isAbsolutePathAddressing()) {
+            return false;
+        }
+        int replyCode = session.getFtpClient().getReplyCode();
+        return replyCode == FTPReply.FILE_UNAVAILABLE || replyCode == FTPReply.FILE_NAME_NOT_ALLOWED;
+    }
+
+    /**
+     * 使指定的目录及其子孙目录失效。
+     *
+     * <p>
+     * 处理器删除或移动目录后调用此方法，此后所有会话记录的工作目录都需要重新确认，已知目录缓存中的相关目录也会被移除。<br>
+     * 目录列表缓存中，失效目录及其子孙目录的列表，以及失效目录的上级目录的列表也会被移除。<br>
+     * 执行操作的会话删除或移动的是其工作目录之下的目录，因此该会话的工作目录仍然有效。
+     *
+     * @param session   执行操作的会话。
+     * @param directory 失效的目录。
+     */
+    private void invalidateDirectories(FtpSession session, String directory) {
+        knownDirectoryCache.removeTree(directory);
+        listingCache.removeTree(directory);
+        String trimmedDirectory = directory.substring(0, directory.length() - 1);
+        if (!trimmedDirectory.isEmpty()) {
+            listingCache.remove(trimmedDirectory.substring(0, trimmedDirectory.lastIndexOf(PATH_SEPARATOR) + 1));
+        }
+        long invalidationCount = directoryInvalidationCount.incrementAndGet();
+        session.renewWorkingDirectory(invalidationCount - 1, invalidationCount);
+    }
+
+    /**
+     * 使指定目录的列表失效。
+     *
+     * <p>
+     * 处理器在目录下写入、删除或者创建文件后调用此方法。<br>
+     * 该方法应当在修改完成之后调用，即使修改失败也应当调用，因为失败的修改可能已经部分生效。
+     *
+     * @param filePaths 指定的目录。
+     */
+    private void invalidateListing(String[] filePaths) {
+        listingCache.remove(resolveAbsolutePath(filePaths, null));
+    }
+
+    /**
+     * 从目录列表缓存中查找指定目录的列表。
+     *
+     * @param filePaths 指定的目录。
+     * @return 指定目录的列表，缓存未启用、目录未被缓存或者已经过期时返回 null。
+     */
+    @Nullable
+    private ListingCache.Listing lookupListing(String[] filePaths) {
+        if (!listingCache.isEnabled()) {
+            return null;
+        }
+        return listingCache.get(resolveAbsolutePath(filePaths, null));
+    }
+
+    /**
+     * 判断目录列表中是否存在指定名称的文件。
+     *
+     * <p>
+     * 与 {@link #existsFile(String[], String)} 的语义一致，目录不被认为是文件。
+     *
+     * @param listing  目录列表。
+     * @param fileName 文件的名称。
+     * @return 目录列表中是否存在指定名称的文件。
+     */
+    private boolean isFileListed(ListingCache.Listing listing, String fileName) {
+        FtpFile ftpFile = listing.getFtpFile(fileName);
+        return Objects.nonNull(ftpFile) && ftpFile.getType() != Constants.FTP_FILE_TYPE_DIRECTORY;
+    }
+
+    @Nullable
+    private FtpFile copyFtpFile(@Nullable FtpFile ftpFile) {
+        if (Objects.isNull(ftpFile)) {
+            return null;
+        }
+        Date modifiedTime = Optional.ofNullable(ftpFile.getModifiedTime()).map(d -> new Date(d.getTime())).orElse(null);
+        return new FtpFile(
+                ftpFile.getName(), ftpFile.getType(), ftpFile.getSize(), modifiedTime, ftpFile.getPermission(),
+                ftpFile.getUniqueId()
+        );
+    }
+
+    private FtpFile[] copyFtpFiles(FtpFile[] ftpFiles) {
+        FtpFile[] result = new FtpFile[ftpFiles.length];
+        for (int i = 0; i < ftpFiles.length; i++) {
+            result[i] = copyFtpFile(ftpFiles[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 连接会话。
+     *
+     * <p>
+     * 如果会话曾经连接过，说明与服务器之间的连接发生过中断，期间服务器上的目录可能已经发生变化，因此清空已知目录缓存。
+     *
+     * @param session 需要连接的会话。
+     * @throws Exception 连接或登录过程中发生的任何异常。
+     */
+    private void connectSession(FtpSession session) throws Exception {
+        // 操作被中止之后，不再重新连接，以免中止的操作被重试或者断点续传。
+        TransferAbortToken token = TransferAbortToken.current();
+        if (Objects.nonNull(token)) {
+            token.checkNotAborted();
+        }
+        if (session.hasEverConnected()) {
+            knownDirectoryCache.clear();
+        }
+        session.connectAndLogin();
+    }
+
+    /**
+     * 从内存预算中预留内存。
+     *
+     * <p>
+     * 返回的内存预留必须在操作结束后关闭，以释放预留的内存。
+     *
+     * @param bytes 预留的字节数。
+     * @return 内存预留。
+     * @throws Exception 内存预算耗尽，或者线程被中断时抛出的异常。
+     * @see FtpConfig#getMemoryBudget()
+     * @see FtpConfig#getGlobalMemoryBudget()
+     */
+    private MemoryReservation reserveMemory(long bytes) throws Exception {
+        MemoryReservation reservation = new MemoryReservation();
+        reservation.reserve(bytes);
+        return reservation;
+    }
+
+    /**
+     * 借出会话。
+     *
+     * <p>
+     * 借出的会话在使用完毕后，必须调用 {@link #returnSession(FtpSession)} 归还。
+     *
+     * <p>
+     * 等待其它线程归还会话期间，绑定到当前线程的传输中止令牌被中止时，立即停止等待。
+     *
+     * @return 借出的会话。
+     * @throws Exception 处理器未启动、会话池耗尽、线程被中断或者操作被中止时抛出的异常。
+     * @see TransferAbortToken
+     */
+    private FtpSession borrowSession() throws Exception {
+        FtpSessionPool pool;
+        lock.lock();
+        try {
+            makeSureHandlerStart();
+            pool = sessionPool;
+        } finally {
+            lock.unlock();
+        }
+        return attachSession(pool.borrowSession(TransferAbortToken.current()));
+    }
+
+    /**
+     * 尝试借出额外的会话，不等待。
+     *
+     * <p>
+     * 已经持有会话的操作需要额外的会话时，应当使用该方法，借出的会话在使用完毕后，
+     * 必须调用 {@link #returnSession(FtpSession)} 归还。
+     *
+     * @return 借出的会话，会话池中没有可用的会话时返回 null。
+     * @throws Exception 处理器未启动或者操作被中止时抛出的异常。
+     */
+    @Nullable
+    private FtpSession tryBorrowSession() throws Exception {
+        FtpSessionPool pool;
+        lock.lock();
+        try {
+            makeSureHandlerStart();
+            pool = sessionPool;
+        } finally {
+            lock.unlock();
+        }
+        FtpSession session = pool.tryBorrowSession();
+        if (Objects.isNull(session)) {
+            return null;
         }
+        return attachSession(session);
     }
 
     /**
-     * 执行 FtpClient 具体操作之后检查 FTP 的状态。
+     * 将借出的会话登记到当前线程的传输中止令牌中。
      *
-     * @throws IOException 如果 FTP 服务器返回错误的状态码，则抛出此异常。
+     * <p>
+     * 当前线程没有绑定传输中止令牌时，不进行任何操作；令牌已经被中止时，归还会话并抛出异常。
+     *
+     * @param session 借出的会话。
+     * @return 借出的会话。
+     * @throws Exception 操作被中止时抛出的异常。
+     * @see TransferAbortToken
      */
-    private void checkPositiveCompletion() throws IOException {
-        if (FTPReply.isPositiveCompletion(ftpClient.getReplyCode())) {
-            return;
+    private FtpSession attachSession(FtpSession session) throws Exception {
+        TransferAbortToken token = TransferAbortToken.current();
+        if (Objects.isNull(token)) {
+            return session;
         }
-
-        throw new IOException("FTP 服务器返回错误的状态码: " + ftpClient.getReplyCode());
+        try {
+            token.attach(session);
+        } catch (Exception e) {
+            session.getPool().returnSession(session);
+            throw e;
+        }
+        return session;
     }
 
     /**
-     * 执行 FtpClient 具体操作之后检查 FTP 的状态。
+     * 归还会话。
      *
-     * @throws IOException 如果 FTP 服务器返回错误的状态码，则抛出此异常。
+     * @param session 归还的会话，允许为 null，为 null 时不进行任何操作。
      */
-    private void checkPositivePreliminary() throws IOException {
-        if (FTPReply.isPositivePreliminary(ftpClient.getReplyCode())) {
+    private void returnSession(@Nullable FtpSession session) {
+        if (Objects.isNull(session)) {
             return;
         }
-
-        throw new IOException("FTP 服务器返回错误的状态码: " + ftpClient.getReplyCode());
+        TransferAbortToken token = TransferAbortToken.current();
+        if (Objects.nonNull(token)) {
+            token.detach(session);
+        }
+        session.getPool().returnSession(session);
     }
 
     /**
-     * 按照 filePaths 依次打开指定的目录，如果目录不存在就创建。
+     * 维护会话池。
      *
-     * @param filePaths 指定的文件目录。
-     * @throws IOException IO 异常。
+     * <p>
+     * 补足会话池的空闲会话，并对空闲会话进行保活：未连接的会话尝试连接，已连接的会话发送 NOOP 指令，
+     * NOOP 指令发送失败的会话尝试重新连接。
+     *
+     * <p>
+     * 空闲会话逐个借出维护，维护完成后立即归还，在一个 NOOP 周期内收到过服务器应答的会话不会被借出，
+     * 以免维护期间（尤其是重连较慢时）其它线程无法借出空闲会话。
+     *
+     * @param pool 需要维护的会话池。
      */
-    private void enterDirection(String[] filePaths) throws IOException {
-        ftpClient.changeWorkingDirectory(ROOT_PATH);
-        for (String filePath : filePaths) {
-            boolean result = ftpClient.changeWorkingDirectory(filePath);
-            if (!result) {
-                ftpClient.mkd(filePath);
-                ftpClient.changeWorkingDirectory(filePath);
+    private void maintainSessionPool(FtpSessionPool pool) {
+        pool.fillIdleSessions();
+        Set<FtpSession> visitedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+        FtpSession session;
+        while (Objects.nonNull(session = pool.pollIdleSessionForMaintenance(
+                config.getNoopInterval(), visitedSessions
+        ))) {
+            try {
+                keepSessionAlive(session);
+            } finally {
+                pool.returnSession(session);
             }
         }
     }
 
-    private void connectAndLogin() throws Exception {
-        if (ftpClient.isConnected()) {
-            ftpClient.disconnect();
-        }
-
-        // 设置连接超时时间。
-        // 连接的超时时间一定要在调用 connect 方法之前设置。
-        ftpClient.setConnectTimeout(config.getConnectTimeout());
-
-        // 连接 FTP 服务器,设置 IP 及端口。
-        try {
-            ftpClient.connect(config.getHost(), config.getPort());
-        } catch (Exception e) {
-            throw new FtpConnectException(e);
+    private void keepSessionAlive(FtpSession session) {
+        // 未连接的会话，尝试连接。
+        if (!session.isConnected()) {
+            try {
+                connectSession(session);
+            } catch (Exception e) {
+                LOGGER.warn("FTP 连接失败，将会启用重连机制尝试重新连接", e);
+            }
+            return;
         }
-
-        // 设置用户名和密码。
-        ftpClient.login(config.getUsername(), config.getPassword());
-
-        // 设置数据连接模式。
-        switch (config.getDataConnectionMode()) {
-            case FtpConfig.Builder.DATA_CONNECTION_MODE_ACTIVE_LOCAL:
-                ftpClient.enterLocalActiveMode();
-                break;
-            case FtpConfig.Builder.DATA_CONNECTION_MODE_ACTIVE_REMOTE:
-                ftpClient.enterRemoteActiveMode(
-                        InetAddress.getByName(config.getActiveRemoteDataConnectionModeServerHost()),
-                        config.getActiveRemoteDataConnectionModeServerPort()
-                );
-                break;
-            case FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_LOCALE:
-                ftpClient.enterLocalPassiveMode();
-                break;
-            case FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_REMOTE:
-                ftpClient.enterRemotePassiveMode();
-                break;
-            default:
-                throw new IllegalArgumentException("不支持的数据连接模式");
+        // 在一个 NOOP 周期内收到过服务器应答的会话，不需要保活。
+        if (session.isActiveWithin(config.getNoopInterval())) {
+            return;
         }
-
-        // 设置文件传输为模式为 binary。
-        ftpClient.setFileType(FTPClient.BINARY_FILE_TYPE);
-
-        // 检查连接结果，确认连接正常。
-        if (!FTPReply.isPositiveCompletion(ftpClient.getReplyCode())) {
-            ftpClient.disconnect();
-            throw new FtpLoginException();
-        } else {
-            LOGGER.info("FTP 连接成功");
+        // 已连接的会话，发送 NOOP 指令，发送失败则尝试重新连接。
+        try {
+            LOGGER.debug("向 FTP 服务器 发送 NoOp 指令，以保持 FTP 服务器的正常连接...");
+            session.getFtpClient().sendNoOp();
+        } catch (IOException e) {
+            LOGGER.warn("向 FTP 服务器发送 NoOp 指令失败，异常信息如下: ", e);
+            LOGGER.warn("尝试重新连接...");
+            try {
+                connectSession(session);
+            } catch (Exception ex) {
+                LOGGER.warn("重连失败，异常信息如下: ", ex);
+            }
         }
     }
 
@@ -1339,6 +4599,36 @@ public class FtpHandlerImpl implements FtpHandler {
         }
     }
 
+    @FunctionalInterface
+    private interface SessionCallable<T> {
+
+        T call(FtpSession session) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface SessionRunnable {
+
+        void run(FtpSession session) throws Exception;
+    }
+
+    /**
+     * 存储文件时可以重复读取的数据源。
+     */
+    @FunctionalInterface
+    private interface StoreSource {
+
+        /**
+         * 将数据源中从指定位置开始的数据写入指定的通道。
+         *
+         * @param position 开始读取的位置，相对于数据源的起点。
+         * @param count    最多写入的字节数。
+         * @param target   写入的通道。
+         * @return 实际写入的字节数。
+         * @throws IOException IO 异常。
+         */
+        long transferTo(long position, long count, WritableByteChannel target) throws IOException;
+    }
+
     private static class DirectoryClearFrame {
 
         private final String[] filePaths;
@@ -1366,357 +4656,422 @@ public class FtpHandlerImpl implements FtpHandler {
         }
     }
 
-    private static class FileCopyTemporaryStorage {
-
-        public byte[] memoryBuffer;
-        public File fileBuffer;
+    private class NoopSendTask implements Runnable {
 
-        public int memoryBufferActualLength = 0;
-        public boolean fileBufferUsed = false;
+        private final FtpSessionPool pool;
 
-        private FileCopyTemporaryStorage(
-                int memoryBufferMaxSize, String temporaryFileDirectoryPath, String temporaryFilePrefix,
-                String temporaryFileSuffix
-        ) {
-            this.memoryBuffer = new byte[memoryBufferMaxSize];
-            this.fileBuffer = new File(
-                    temporaryFileDirectoryPath, temporaryFilePrefix + UUID.randomUUID() + temporaryFileSuffix
-            );
-            fileBuffer.deleteOnExit();
+        public NoopSendTask(FtpSessionPool pool) {
+            this.pool = pool;
         }
 
-        public InputStream openInputStream() {
-            return new FileCopyTemporaryStorageInputStream(this);
+        @Override
+        public void run() {
+            maintainSessionPool(pool);
         }
+    }
 
-        public OutputStream openOutputStream() {
-            return new FileCopyTemporaryStorageOutputStream(this);
-        }
+    private class TemporarySpoolCleanTask implements Runnable {
 
-        public void dispose() {
-            // 释放内存缓冲区。
-            memoryBufferActualLength = 0;
-            memoryBuffer = null;
-            // 删除文件缓冲区。
-            fileBufferUsed = false;
-            if (Objects.nonNull(fileBuffer) && fileBuffer.exists()) {
-                if (!fileBuffer.delete()) {
-                    LOGGER.warn("删除文件缓冲区失败: {}", fileBuffer.getAbsolutePath());
-                }
-                fileBuffer = null;
-            }
+        @Override
+        public void run() {
+            cleanTemporarySpool();
         }
     }
 
-    private static class FileCopyTemporaryStorageInputStream extends InputStream {
+    /**
+     * 内存预留。
+     *
+     * <p>
+     * 同时从处理器级别以及进程级别的内存预算中预留内存，关闭时释放所有预留的内存。
+     *
+     * <p>
+     * 该类不是线程安全的。
+     */
+    private class MemoryReservation implements AutoCloseable {
+
+        private long reservedBytes = 0;
+
+        /**
+         * 预留内存。
+         *
+         * <p>
+         * 依次从处理器级别以及进程级别的内存预算中预留内存，总的等待时间不超过
+         * {@link FtpConfig#getMemoryBudgetMaxWait()}；从进程级别的内存预算中预留失败时，释放从处理器级别预留的内存。
+         *
+         * @param bytes 预留的字节数。
+         * @throws Exception 内存预算耗尽，或者线程被中断时抛出的异常。
+         */
+        public void reserve(long bytes) throws Exception {
+            reserve(bytes, config.getMemoryBudgetMaxWait());
+        }
 
-        private final FileCopyTemporaryStorage temporaryStorage;
+        /**
+         * 预留内存，不等待。
+         *
+         * <p>
+         * 任意一个内存预算无法立即满足时，立即抛出 {@link FtpMemoryBudgetExhaustedException}。<br>
+         * 持有会话期间必须使用该方法预留内存，否则等待内存预算的线程占用会话，
+         * 而持有内存预算的线程等待会话，两者会互相等待。
+         *
+         * @param bytes 预留的字节数。
+         * @throws Exception 内存预算耗尽时抛出的异常。
+         */
+        public void reserveWithoutWaiting(long bytes) throws Exception {
+            reserve(bytes, 0L);
+        }
 
-        private int memoryBufferAnchorIndex = 0;
-        private InputStream fileBufferInputStream;
+        private void reserve(long bytes, long maxWait) throws Exception {
+            if (bytes <= 0) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            memoryBudget.reserve(bytes, maxWait, startNanos);
+            try {
+                GLOBAL_MEMORY_BUDGET.reserve(bytes, maxWait, startNanos);
+            } catch (Exception e) {
+                memoryBudget.release(bytes);
+                throw e;
+            }
+            reservedBytes += bytes;
+        }
 
-        public FileCopyTemporaryStorageInputStream(FileCopyTemporaryStorage temporaryStorage) {
-            this.temporaryStorage = temporaryStorage;
+        /**
+         * 释放内存。
+         *
+         * @param bytes 释放的字节数，超过已经预留的字节数时，释放所有预留的内存。
+         */
+        public void release(long bytes) {
+            long releasingBytes = Math.min(bytes, reservedBytes);
+            if (releasingBytes <= 0) {
+                return;
+            }
+            GLOBAL_MEMORY_BUDGET.release(releasingBytes);
+            memoryBudget.release(releasingBytes);
+            reservedBytes -= releasingBytes;
         }
 
-        @Override
-        public int available() throws IOException {
-            // 如果 temporaryStorage.memoryBuffer 中没有数据了：
-            if (memoryBufferAnchorIndex >= temporaryStorage.memoryBufferActualLength) {
-                // 如果 fileBuffer 已经被使用，则直接返回 fileBufferInputStream 的 available 方法的返回值。
-                if (temporaryStorage.fileBufferUsed) {
-                    mayOpenFileBufferInputStream();
-                    return fileBufferInputStream.available();
-                }
-                // 否则，返回 0。
-                return 0;
+        /**
+         * 尝试预留内存。
+         *
+         * <p>
+         * 依次从处理器级别以及进程级别的内存预算中预留内存，任意一个内存预算无法立即满足时，不等待，直接返回失败。
+         *
+         * @param bytes 预留的字节数。
+         * @return 是否预留成功。
+         */
+        public boolean tryReserve(long bytes) {
+            if (bytes <= 0) {
+                return true;
             }
-            // 如果 temporaryStorage.memoryBuffer 中还有数据：
-            // 计算剩余数据长度。
-            int memoryBufferRemainingLength = temporaryStorage.memoryBufferActualLength - memoryBufferAnchorIndex;
-            // 如果 fileBuffer 已经被使用，则返回 fileBuffer 的可用长度 + temporaryStorage.memoryBuffer 的剩余长度。
-            if (temporaryStorage.fileBufferUsed) {
-                mayOpenFileBufferInputStream();
-                return fileBufferInputStream.available() + memoryBufferRemainingLength;
+            if (!memoryBudget.tryReserve(bytes)) {
+                return false;
             }
-            // 如果 fileBuffer 没有被使用，则返回 temporaryStorage.memoryBuffer 的剩余长度。
-            return memoryBufferRemainingLength;
+            if (!GLOBAL_MEMORY_BUDGET.tryReserve(bytes)) {
+                memoryBudget.release(bytes);
+                return false;
+            }
+            reservedBytes += bytes;
+            return true;
         }
 
-        @Override
-        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
-            return internalRead(b, off, len);
+        public long getReservedBytes() {
+            return reservedBytes;
         }
 
         @Override
-        public int read(@Nonnull byte[] b) throws IOException {
-            return internalRead(b, 0, b.length);
+        public void close() {
+            release(reservedBytes);
         }
+    }
 
-        private int internalRead(byte[] b, int i, int len) throws IOException {
-            // 如果 temporaryStorage.memoryBuffer 中没有数据了：
-            if (memoryBufferAnchorIndex >= temporaryStorage.memoryBufferActualLength) {
-                // 如果 fileBuffer 已经被使用，则直接从 fileBuffer 读取。
-                if (temporaryStorage.fileBufferUsed) {
-                    mayOpenFileBufferInputStream();
-                    return fileBufferInputStream.read(b, i, len);
-                }
-                // 否则，读取结束。
-                return -1;
-            }
-            // 如果 temporaryStorage.memoryBuffer 中还有数据：
-            // 计算剩余数据长度。
-            int memoryBufferRemainingLength = temporaryStorage.memoryBufferActualLength - memoryBufferAnchorIndex;
-            // 如果剩余数据长度大于等于 len，则直接从 temporaryStorage.memoryBuffer 读取。
-            if (memoryBufferRemainingLength >= len) {
-                System.arraycopy(temporaryStorage.memoryBuffer, memoryBufferAnchorIndex, b, i, len);
-                memoryBufferAnchorIndex += len;
-                return len;
-            }
-            // 如果剩余长度小于 len：
-            // 如果 fileBuffer 已经被使用：
-            if (temporaryStorage.fileBufferUsed) {
-                // 将 temporaryStorage.memoryBuffer 中的数据读取完毕，之后再从 fileBuffer 读取剩余部分。
-                System.arraycopy(
-                        temporaryStorage.memoryBuffer, memoryBufferAnchorIndex, b, i, memoryBufferRemainingLength
-                );
-                memoryBufferAnchorIndex = temporaryStorage.memoryBufferActualLength;
-                mayOpenFileBufferInputStream();
-                return memoryBufferRemainingLength + fileBufferInputStream.read(
-                        b, i + memoryBufferRemainingLength, len - memoryBufferRemainingLength
-                );
-            }
-            // 如果 fileBuffer 没有被使用，则直接从 temporaryStorage.memoryBuffer 读取剩余部分，返回真实的读取长度。
-            System.arraycopy(
-                    temporaryStorage.memoryBuffer, memoryBufferAnchorIndex, b, i, memoryBufferRemainingLength
-            );
-            memoryBufferAnchorIndex = temporaryStorage.memoryBufferActualLength;
-            return memoryBufferRemainingLength;
+    /**
+     * 分段下载。
+     *
+     * <p>
+     * 记录下一个待下载的分段，以及下载失败的原因。下载失败后，不再分配新的分段。
+     *
+     * <p>
+     * 该类是线程安全的。
+     */
+    static final class SegmentedDownload {
+
+        private final long size;
+        private final long segmentSize;
+        private final long segmentCount;
+
+        private long nextIndex = 0;
+        private Exception failure = null;
+
+        public SegmentedDownload(long size, long segmentSize) {
+            this.size = size;
+            this.segmentSize = segmentSize;
+            this.segmentCount = (size + segmentSize - 1) / segmentSize;
         }
 
-        @Override
-        public int read() throws IOException {
-            // 如果 temporaryStorage.memoryBuffer 中没有数据了：
-            if (memoryBufferAnchorIndex >= temporaryStorage.memoryBufferActualLength) {
-                // 如果 fileBuffer 已经被使用，则直接从 fileBuffer 读取。
-                if (temporaryStorage.fileBufferUsed) {
-                    mayOpenFileBufferInputStream();
-                    return fileBufferInputStream.read();
-                }
-                // 否则，读取结束。
+        /**
+         * 分配下一个待下载的分段。
+         *
+         * @return 分段的序号，所有的分段均已分配，或者下载已经失败时返回 -1。
+         */
+        public synchronized long nextSegment() {
+            if (Objects.nonNull(failure) || nextIndex >= segmentCount) {
                 return -1;
             }
-            // 如果 temporaryStorage.memoryBuffer 中还有数据：
-            return temporaryStorage.memoryBuffer[memoryBufferAnchorIndex++] & 0xFF;
+            return nextIndex++;
         }
 
-        @Override
-        public long skip(long n) throws IOException {
-            // 如果 temporaryStorage.memoryBuffer 中没有数据了：
-            if (memoryBufferAnchorIndex >= temporaryStorage.memoryBufferActualLength) {
-                // 如果 fileBuffer 已经被使用，则直接从 fileBuffer 跳过。
-                if (temporaryStorage.fileBufferUsed) {
-                    mayOpenFileBufferInputStream();
-                    return fileBufferInputStream.skip(n);
-                }
-                // 否则，跳过结束。
-                return 0;
-            }
-            // 如果 temporaryStorage.memoryBuffer 中还有数据：
-            // 计算剩余数据长度。
-            int memoryBufferRemainingLength = temporaryStorage.memoryBufferActualLength - memoryBufferAnchorIndex;
-            // 如果剩余数据长度大于等于 n，则直接从 temporaryStorage.memoryBuffer 跳过。
-            if (memoryBufferRemainingLength >= n) {
-                memoryBufferAnchorIndex += (int) n;
-                return n;
-            }
-            // 如果剩余长度小于 n：
-            // 如果 fileBuffer 已经被使用：
-            if (temporaryStorage.fileBufferUsed) {
-                // 将 temporaryStorage.memoryBuffer 中的数据跳过完毕，之后再从 fileBuffer 跳过剩余部分。
-                memoryBufferAnchorIndex = temporaryStorage.memoryBufferActualLength;
-                mayOpenFileBufferInputStream();
-                return memoryBufferRemainingLength + fileBufferInputStream.skip(n - memoryBufferRemainingLength);
-            }
-            // 如果 fileBuffer 没有被使用，则直接从 temporaryStorage.memoryBuffer 跳过剩余部分，返回真实的跳过长度。
-            memoryBufferAnchorIndex = temporaryStorage.memoryBufferActualLength;
-            return memoryBufferRemainingLength;
+        public long getSegmentCount() {
+            return segmentCount;
         }
 
-        @Override
-        public void close() throws IOException {
-            // 根据情况关闭文件缓冲区输入流。
-            try {
-                mayCloseFileBufferInputStream();
-            } catch (Exception e) {
-                LOGGER.debug("关闭文件缓冲区输入流时发生异常, 将抛出异常...");
-                throw new IOException("关闭文件缓冲区输入流时发生异常", e);
-            }
+        public long getOffset(long index) {
+            return index * segmentSize;
         }
 
-        private void mayOpenFileBufferInputStream() throws IOException {
-            if (Objects.nonNull(fileBufferInputStream)) {
-                return;
-            }
-            fileBufferInputStream = Files.newInputStream(
-                    temporaryStorage.fileBuffer.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ
-            );
+        public long getLength(long index) {
+            return Math.min(segmentSize, size - getOffset(index));
         }
 
-        private void mayCloseFileBufferInputStream() throws Exception {
-            if (Objects.isNull(fileBufferInputStream)) {
-                return;
+        public boolean isLast(long index) {
+            return index == segmentCount - 1;
+        }
+
+        public synchronized void fail(Exception e) {
+            if (Objects.isNull(failure)) {
+                failure = e;
+            } else if (failure != e) {
+                failure.addSuppressed(e);
             }
-            fileBufferInputStream.close();
-            fileBufferInputStream = null;
+        }
+
+        public synchronized boolean isFailed() {
+            return Objects.nonNull(failure);
+        }
+
+        public synchronized Exception getFailure() {
+            return failure;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "SegmentedDownload{" +
+                    "size=" + size +
+                    ", segmentSize=" + segmentSize +
+                    ", segmentCount=" + segmentCount +
+                    ", nextIndex=" + nextIndex +
+                    ", failure=" + failure +
+                    '}';
         }
     }
 
-    private static class FileCopyTemporaryStorageOutputStream extends OutputStream {
+    /**
+     * 远程文件的版本。
+     *
+     * <p>
+     * 由文件的大小以及修改时间组成，服务器不支持对应的指令时，对应的字段为 null。
+     */
+    private static final class RemoteFileVersion {
 
-        private final FileCopyTemporaryStorage temporaryStorage;
+        private final Long size;
+        private final String modificationTime;
 
-        private OutputStream fileBufferOutputStream;
+        public RemoteFileVersion(@Nullable Long size, @Nullable String modificationTime) {
+            this.size = size;
+            this.modificationTime = modificationTime;
+        }
 
-        public FileCopyTemporaryStorageOutputStream(FileCopyTemporaryStorage temporaryStorage) {
-            this.temporaryStorage = temporaryStorage;
+        @Nullable
+        public Long getSize() {
+            return size;
         }
 
-        @Override
-        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
-            internalWrite(b, off, len);
+        /**
+         * 判断指定的版本是否与该版本一致。
+         *
+         * <p>
+         * 只比较两个版本中均不为 null 的字段。
+         *
+         * @param that 指定的版本。
+         * @return 指定的版本是否与该版本一致。
+         */
+        public boolean matches(RemoteFileVersion that) {
+            if (Objects.nonNull(size) && Objects.nonNull(that.size) && !size.equals(that.size)) {
+                return false;
+            }
+            return Objects.isNull(modificationTime) || Objects.isNull(that.modificationTime) ||
+                    modificationTime.equals(that.modificationTime);
         }
 
         @Override
-        public void write(@Nonnull byte[] b) throws IOException {
-            internalWrite(b, 0, b.length);
+        public String toString() {
+            return "RemoteFileVersion{" +
+                    "size=" + size +
+                    ", modificationTime='" + modificationTime + '\'' +
+                    '}';
         }
+    }
 
-        private void internalWrite(byte[] b, int off, int len) throws IOException {
-            // 特殊值判断：如果 len 为 0，则直接返回。
-            if (len == 0) {
-                return;
-            }
-            // 如果 temporaryStorage.memoryBuffer 已经被写满了：
-            if (temporaryStorage.memoryBufferActualLength >= temporaryStorage.memoryBuffer.length) {
-                // 置位 temporaryStorage.fileBufferUsed 标志。
-                temporaryStorage.fileBufferUsed = true;
-                // 将数据写入 fileBuffer。
-                mayOpenFileBufferOutputStream();
-                fileBufferOutputStream.write(b, off, len);
-                return;
-            }
-            // 如果 temporaryStorage.memoryBuffer 还有剩余空间：
-            // 计算 temporaryStorage.memoryBuffer 剩余空间。
-            int memoryBufferRemainingLength =
-                    temporaryStorage.memoryBuffer.length - temporaryStorage.memoryBufferActualLength;
-            // 如果剩余空间大于等于 len，则直接写入 temporaryStorage.memoryBuffer。
-            if (memoryBufferRemainingLength >= len) {
-                System.arraycopy(
-                        b, off, temporaryStorage.memoryBuffer, temporaryStorage.memoryBufferActualLength, len
-                );
-                temporaryStorage.memoryBufferActualLength += len;
-                return;
-            }
-            // 如果剩余空间小于 len：
-            // 先将 temporaryStorage.memoryBuffer 写满。
-            System.arraycopy(
-                    b, off, temporaryStorage.memoryBuffer, temporaryStorage.memoryBufferActualLength,
-                    memoryBufferRemainingLength
-            );
-            temporaryStorage.memoryBufferActualLength = temporaryStorage.memoryBuffer.length;
-            // 置位 temporaryStorage.fileBufferUsed 标志。
-            temporaryStorage.fileBufferUsed = true;
-            // 将剩余数据写入 fileBuffer。
-            mayOpenFileBufferOutputStream();
-            fileBufferOutputStream.write(b, off + memoryBufferRemainingLength, len - memoryBufferRemainingLength);
+    /**
+     * 可以断点续传的输入流。
+     *
+     * <p>
+     * 记录已经交付给调用者的字节数，数据连接或者控制连接中断时，重新连接会话，
+     * 并通过 REST 以及 RETR 指令从该位置继续下载。<br>
+     * 文件的大小已知时，数据连接在文件结束之前关闭同样被视为中断。<br>
+     * 超时不被视为中断，不会触发断点续传，因为超时往往意味着服务器繁忙，重新下载只会加重服务器的负担。
+     *
+     * <p>
+     * 该输入流始终代表会话上当前的数据连接，关闭该输入流之后，调用者需要在同一个会话上完成指令。
+     */
+    private class ResumableInputStream extends InputStream {
+
+        private final FtpSession session;
+        private final String[] filePaths;
+        private final String fileName;
+        private final RemoteFileVersion version;
+
+        private InputStream in;
+        private long position = 0;
+        private int resumeCount = 0;
+
+        public ResumableInputStream(
+                FtpSession session, String[] filePaths, String fileName, RemoteFileVersion version, InputStream in
+        ) {
+            this.session = session;
+            this.filePaths = filePaths;
+            this.fileName = fileName;
+            this.version = version;
+            this.in = in;
         }
 
         @Override
-        public void write(int b) throws IOException {
-            // 如果 temporaryStorage.memoryBuffer 已经被写满了：
-            if (temporaryStorage.memoryBufferActualLength >= temporaryStorage.memoryBuffer.length) {
-                // 置位 temporaryStorage.fileBufferUsed 标志。
-                temporaryStorage.fileBufferUsed = true;
-                // 将数据写入 fileBuffer。
-                mayOpenFileBufferOutputStream();
-                fileBufferOutputStream.write(b);
-                return;
+        public int read() throws IOException {
+            while (true) {
+                try {
+                    int b = in.read();
+                    if (b >= 0) {
+                        position++;
+                    } else {
+                        checkEnded();
+                    }
+                    return b;
+                } catch (IOException e) {
+                    resume(e);
+                }
             }
-            // 如果 temporaryStorage.memoryBuffer 还有剩余空间：
-            temporaryStorage.memoryBuffer[temporaryStorage.memoryBufferActualLength] = (byte) b;
         }
 
         @Override
-        public void flush() throws IOException {
-            // 如果没有使用 fileBuffer，则直接返回。
-            if (!temporaryStorage.fileBufferUsed) {
-                return;
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            while (true) {
+                try {
+                    int length = in.read(b, off, len);
+                    if (length > 0) {
+                        position += length;
+                    } else if (length < 0) {
+                        checkEnded();
+                    }
+                    return length;
+                } catch (IOException e) {
+                    resume(e);
+                }
             }
-            // 如果使用了 fileBuffer，则 flush fileBuffer。
-            mayOpenFileBufferOutputStream();
-            fileBufferOutputStream.flush();
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
         }
 
         @Override
         public void close() throws IOException {
-            // 根据情况关闭文件缓冲区输出流。
-            try {
-                mayCloseFileBufferOutputStream();
-            } catch (Exception e) {
-                LOGGER.debug("关闭文件缓冲区输出流时发生异常, 将抛出异常...");
-                throw new IOException("关闭文件缓冲区输出流时发生异常", e);
-            }
+            in.close();
         }
 
-        private void mayOpenFileBufferOutputStream() throws IOException {
-            if (Objects.nonNull(fileBufferOutputStream)) {
-                return;
+        private void checkEnded() throws EOFException {
+            Long size = version.getSize();
+            if (Objects.nonNull(size) && position < size) {
+                throw new EOFException("数据连接在文件结束之前关闭, 已读取 " + position + " 字节, 文件大小 " + size + " 字节");
             }
-            fileBufferOutputStream = Files.newOutputStream(
-                    temporaryStorage.fileBuffer.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-                    StandardOpenOption.TRUNCATE_EXISTING
-            );
         }
 
-        private void mayCloseFileBufferOutputStream() throws IOException {
-            if (Objects.isNull(fileBufferOutputStream)) {
-                return;
+        private void resume(IOException cause) throws IOException {
+            // 超时在检查会话的连接状态之前被排除，因为超时的传输往往已经断开了会话。
+            if (isTimeout(cause)) {
+                throw cause;
+            }
+            if (resumeCount >= config.getDownloadResumeMaxAttempts() ||
+                    !(cause instanceof EOFException || isConnectionBroken(session, cause))) {
+                throw cause;
+            }
+            resumeCount++;
+            closeTransferStream(in, cause);
+            try {
+                in = reopen();
+            } catch (Exception e) {
+                // 放弃断点续传，会话上没有待完成的指令，断开会话，以免调用者完成指令时无限等待应答。
+                session.noThrowingDisconnect();
+                cause.addSuppressed(e);
+                throw cause;
             }
-            fileBufferOutputStream.close();
-            fileBufferOutputStream = null;
+            downloadResumeCount.incrementAndGet();
+            downloadResumedBytes.addAndGet(position);
+            LOGGER.warn(
+                    "下载文件 {} 时连接中断, 已重新连接, 将从第 {} 字节处继续下载, 第 {} 次断点续传, 异常信息如下: ",
+                    resolveAbsolutePath(filePaths, fileName), position, resumeCount, cause
+            );
         }
-    }
-
-    private class NoopSendTask implements Runnable {
 
-        @Override
-        public void run() {
-            lock.lock();
+        private InputStream reopen() throws Exception {
+            // 中断的指令的应答无法确定，因此断开并重新连接会话。
+            session.noThrowingDisconnect();
+            connectSession(session);
+            SessionFtpClient ftpClient = session.getFtpClient();
+            String remotePath = tryAddressFile(session, filePaths, fileName);
+            if (Objects.isNull(remotePath)) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            if (!version.matches(determineRemoteFileVersion(session, remotePath))) {
+                throw new IOException("文件在下载期间发生了变化, 无法断点续传");
+            }
+            if (position > 0 && !ftpClient.hasFeature(FTPCmd.REST.getCommand(), "STREAM")) {
+                throw new IOException("FTP 服务器不支持 REST STREAM 特性, 无法断点续传");
+            }
+            InputStream neoIn;
+            ftpClient.setRestartOffset(position);
             try {
-                LOGGER.debug("向 FTP 服务器 发送 NoOp 指令，以保持 FTP 服务器的正常连接...");
-                ftpClient.sendNoOp();
-            } catch (IOException e) {
-                LOGGER.warn("向 FTP 服务器发送 NoOp 指令失败，异常信息如下: ", e);
-                LOGGER.warn("尝试重新连接...");
-                try {
-                    connectAndLogin();
-                } catch (Exception ex) {
-                    LOGGER.warn("重连失败，异常信息如下: ", ex);
-                }
+                neoIn = ftpClient.retrieveFileStream(remotePath);
             } finally {
-                lock.unlock();
+                // 打开数据连接失败时，REST 指令可能尚未发送，因此需要重置偏移量，以免影响之后的传输。
+                ftpClient.setRestartOffset(0);
             }
+            if (Objects.isNull(neoIn)) {
+                throw new FtpFileRetrieveException(resolveAbsolutePath(filePaths, fileName));
+            }
+            return neoIn;
+        }
+
+        @Override
+        public String toString() {
+            return "ResumableInputStream{" +
+                    "filePaths=" + Arrays.toString(filePaths) +
+                    ", fileName='" + fileName + '\'' +
+                    ", version=" + version +
+                    ", position=" + position +
+                    ", resumeCount=" + resumeCount +
+                    '}';
         }
     }
 
     private class CompletePendingInputStream extends InputStream {
 
+        private final FtpSession session;
         private final InputStream in;
 
         private boolean closed = false;
 
-        public CompletePendingInputStream(InputStream in) {
+        public CompletePendingInputStream(FtpSession session, InputStream in) {
+            this.session = session;
             this.in = in;
         }
 
@@ -1778,46 +5133,37 @@ public class FtpHandlerImpl implements FtpHandler {
                 in.close();
             } catch (Exception e) {
                 LOGGER.debug("关闭 FtpClient 原生输入流时发生异常, 将主动断开连接, 并抛出异常...");
-                noThrowingDisconnectFtp();
+                session.noThrowingDisconnect();
                 closed = true;
-                lock.unlock();
+                returnSession(session);
                 throw new IOException("关闭 FtpClient 原生输入流时发生异常", e);
             }
 
             // 根据 FtpClient 的文档，必须调用 completePendingCommand 方法，以完成文件传输。
             try {
-                if (ftpClient.completePendingCommand()) {
+                if (session.getFtpClient().completePendingCommand()) {
                     closed = true;
-                    lock.unlock();
+                    returnSession(session);
                     return;
                 }
             } catch (Exception e) {
                 LOGGER.debug("调用 FtpClient 的 completePendingCommand 方法时发生异常, 将主动断开连接, 并抛出异常...");
-                noThrowingDisconnectFtp();
+                session.noThrowingDisconnect();
                 closed = true;
-                lock.unlock();
+                returnSession(session);
                 throw new IOException("调用 FtpClient 的 completePendingCommand 方法时发生异常", e);
             }
 
             // ftpClient.completePendingCommand 返回 false，说明文件传输失败，则主动断开连接。
             LOGGER.debug("ftpClient.completePendingCommand 返回 false, 文件传输失败, 将主动断开连接, 并抛出异常...");
-            // 主动断开连接后，调用其它方法，会自动触发重连机制，所以不需要再次重连。
-            noThrowingDisconnectFtp();
+            // 主动断开连接后，会话再次被借出时，会自动触发重连机制，所以不需要再次重连。
+            session.noThrowingDisconnect();
             closed = true;
-            lock.unlock();
+            returnSession(session);
             // 抛出 IOException，以通知上层调用者。
             throw new IOException("ftpClient.completePendingCommand 返回 false, 文件传输失败");
         }
 
-        private void noThrowingDisconnectFtp() {
-            try {
-                ftpClient.logout();
-                ftpClient.disconnect();
-            } catch (Exception e) {
-                LOGGER.warn("FtpClient 登出或断开连接时发生异常, 异常信息如下: ", e);
-            }
-        }
-
         private void makeSureOpen(String exceptionMessage) throws IllegalStateException {
             if (closed) {
                 throw new IllegalStateException(exceptionMessage);
@@ -1827,12 +5173,16 @@ public class FtpHandlerImpl implements FtpHandler {
 
     private class CompletePendingOutputStream extends OutputStream {
 
+        private final FtpSession session;
         private final OutputStream out;
+        private final String[] filePaths;
 
         private boolean closed = false;
 
-        public CompletePendingOutputStream(OutputStream out) {
+        public CompletePendingOutputStream(FtpSession session, OutputStream out, String[] filePaths) {
+            this.session = session;
             this.out = out;
+            this.filePaths = filePaths;
         }
 
         @Override
@@ -1859,56 +5209,56 @@ public class FtpHandlerImpl implements FtpHandler {
             out.flush();
         }
 
-        @SuppressWarnings("DuplicatedCode")
         @Override
         public void close() throws IOException {
             makeSureOpen("不能多次关闭流");
 
+            // 文件的内容在传输完成后才最终确定，因此传输完成后再次使文件所在目录的列表失效。
+            try {
+                completeTransfer();
+            } finally {
+                invalidateListing(filePaths);
+            }
+        }
+
+        @SuppressWarnings("DuplicatedCode")
+        private void completeTransfer() throws IOException {
             // 关闭 FtpClient 原生输出流。
             try {
                 out.close();
             } catch (Exception e) {
                 LOGGER.debug("关闭 FtpClient 原生输出流时发生异常, 将主动断开连接, 并抛出异常...");
-                noThrowingDisconnectFtp();
+                session.noThrowingDisconnect();
                 closed = true;
-                lock.unlock();
+                returnSession(session);
                 throw new IOException("关闭 FtpClient 原生输出流时发生异常", e);
             }
 
             // 根据 FtpClient 的文档，必须调用 completePendingCommand 方法，以完成文件传输。
             try {
-                if (ftpClient.completePendingCommand()) {
+                if (session.getFtpClient().completePendingCommand()) {
                     closed = true;
-                    lock.unlock();
+                    returnSession(session);
                     return;
                 }
             } catch (Exception e) {
                 LOGGER.debug("调用 FtpClient 的 completePendingCommand 方法时发生异常, 将主动断开连接, 并抛出异常...");
-                noThrowingDisconnectFtp();
+                session.noThrowingDisconnect();
                 closed = true;
-                lock.unlock();
+                returnSession(session);
                 throw new IOException("调用 FtpClient 的 completePendingCommand 方法时发生异常", e);
             }
 
             // ftpClient.completePendingCommand 返回 false，说明文件传输失败，则主动断开连接。
             LOGGER.debug("ftpClient.completePendingCommand 返回 false, 文件传输失败, 将主动断开连接, 并抛出异常...");
-            // 主动断开连接后，调用其它方法，会自动触发重连机制，所以不需要再次重连。
-            noThrowingDisconnectFtp();
+            // 主动断开连接后，会话再次被借出时，会自动触发重连机制，所以不需要再次重连。
+            session.noThrowingDisconnect();
             closed = true;
-            lock.unlock();
+            returnSession(session);
             // 抛出 IOException，以通知上层调用者。
             throw new IOException("ftpClient.completePendingCommand 返回 false, 文件传输失败");
         }
 
-        private void noThrowingDisconnectFtp() {
-            try {
-                ftpClient.logout();
-                ftpClient.disconnect();
-            } catch (Exception e) {
-                LOGGER.warn("FtpClient 登出或断开连接时发生异常, 异常信息如下: ", e);
-            }
-        }
-
         private void makeSureOpen(String exceptionMessage) throws IllegalStateException {
             if (closed) {
                 throw new IllegalStateException(exceptionMessage);
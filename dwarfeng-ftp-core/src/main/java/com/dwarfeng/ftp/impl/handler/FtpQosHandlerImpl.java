@@ -4,8 +4,10 @@ import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
 import com.dwarfeng.ftp.stack.exception.AmbiguousFtpHandlerException;
 import com.dwarfeng.ftp.stack.exception.FtpHandlerNotFoundException;
 import com.dwarfeng.ftp.stack.exception.NoFtpHandlerPresentException;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
 import com.dwarfeng.ftp.stack.handler.FtpHandler;
 import com.dwarfeng.ftp.stack.handler.FtpQosHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
 import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
 import com.dwarfeng.subgrade.sdk.exception.HandlerExceptionHelper;
 import com.dwarfeng.subgrade.stack.exception.HandlerException;
@@ -16,6 +18,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -453,6 +458,89 @@ public class FtpQosHandlerImpl implements FtpQosHandler {
         }
     }
 
+    @Override
+    public void ensureDirectories(
+            @Nullable String handlerName,
+            @Nonnull List<FtpFileLocation> fileLocations
+    ) throws HandlerException {
+        try {
+            determineHandler(handlerName).ensureDirectories(fileLocations);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public void visitFiles(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation,
+            @Nonnull FtpFileVisitor visitor
+    ) throws HandlerException {
+        try {
+            determineHandler(handlerName).visitFiles(fileLocation, visitor);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public void storeFileFromPath(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) throws HandlerException {
+        try {
+            determineHandler(handlerName).storeFileFromPath(fileLocation, path);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public void retrieveFileToPath(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) throws HandlerException {
+        try {
+            determineHandler(handlerName).retrieveFileToPath(fileLocation, path);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public ByteBuffer retrieveFileAsByteBuffer(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, boolean direct
+    ) throws HandlerException {
+        try {
+            return determineHandler(handlerName).retrieveFileAsByteBuffer(fileLocation, direct);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public FtpFileContent retrieveFileContent(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) throws HandlerException {
+        try {
+            return determineHandler(handlerName).retrieveFileContent(fileLocation);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public void storeFileFromChannel(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    ) throws HandlerException {
+        try {
+            determineHandler(handlerName).storeFileFromChannel(fileLocation, fileChannel);
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
     private FtpHandler determineHandler(@Nullable String handlerName) throws Exception {
         if (ftpHandlerMap.isEmpty()) {
             throw new NoFtpHandlerPresentException();
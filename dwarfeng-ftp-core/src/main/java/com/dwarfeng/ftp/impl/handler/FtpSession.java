@@ -0,0 +1,271 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpConnectException;
+import com.dwarfeng.ftp.stack.exception.FtpLoginException;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.apache.commons.net.ProtocolCommandEvent;
+import org.apache.commons.net.ProtocolCommandListener;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.time.Duration;
+
+/**
+ * FTP 会话。
+ *
+ * <p>
+ * 一个会话持有一个 FTPClient，对应一条与 FTP 服务器之间的控制连接。
+ *
+ * <p>
+ * 该类不是线程安全的，同一时刻只能被一个线程持有，持有关系由 {@link FtpSessionPool} 维护。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class FtpSession {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtpSession.class);
+
+    private final FtpSessionPool pool;
+    private final FtpConfig config;
+    private final SessionFtpClient ftpClient;
+
+    /**
+     * 最近一次收到服务器应答的时间。
+     */
+    private volatile long lastActivityTime = 0;
+
+    /**
+     * 会话当前所在的工作目录，为 <code>null</code> 时表示工作目录未知。
+     *
+     * <p>
+     * 工作目录的格式与 {@link FtpHandlerImpl} 中的目录路径格式一致，即以 <code>/</code> 开头，各级目录之间以
+     * <code>/</code> 分隔，根目录为 <code>/</code>。
+     */
+    private String workingDirectory = null;
+
+    /**
+     * 记录工作目录时，处理器的目录失效计数。
+     *
+     * <p>
+     * 如果目录失效计数在记录工作目录之后发生了变化，说明工作目录有可能已经被删除或移动，记录的工作目录不再可信。
+     */
+    private long workingDirectoryInvalidationCount = 0;
+
+    /**
+     * 会话是否曾经连接过。
+     */
+    private boolean everConnectedFlag = false;
+
+    FtpSession(FtpSessionPool pool, FtpConfig config) {
+        this.pool = pool;
+        this.config = config;
+
+        // 初始化 FTP 客户端。
+        ftpClient = new SessionFtpClient();
+
+        // 设置 FTP 客户端的控制编码。
+        ftpClient.setControlEncoding(config.getServerCharset());
+
+        // 设置 FTP 客户端的缓冲区大小。
+        ftpClient.setBufferSize(config.getBufferSize());
+
+        // 设置 FTP 客户端的数据超时时间。
+        ftpClient.setDataTimeout(Duration.ofMillis(config.getDataTimeout()));
+
+        // 每次收到服务器的应答时，记录活动时间。
+        ftpClient.addProtocolCommandListener(new ActivityRecordListener());
+    }
+
+    /**
+     * 连接并登录 FTP 服务器。
+     *
+     * <p>
+     * 如果会话已经连接，则先断开连接，再重新连接。
+     *
+     * @throws Exception 连接或登录过程中发生的任何异常。
+     */
+    void connectAndLogin() throws Exception {
+        if (ftpClient.isConnected()) {
+            ftpClient.disconnect();
+        }
+
+        // 新的连接总是位于登录目录，记录的工作目录失效。
+        resetWorkingDirectory();
+        everConnectedFlag = true;
+
+        // 设置连接超时时间。
+        // 连接的超时时间一定要在调用 connect 方法之前设置。
+        ftpClient.setConnectTimeout(config.getConnectTimeout());
+
+        // 连接 FTP 服务器,设置 IP 及端口。
+        try {
+            ftpClient.connect(config.getHost(), config.getPort());
+        } catch (Exception e) {
+            throw new FtpConnectException(e);
+        }
+
+        // 设置用户名和密码。
+        ftpClient.login(config.getUsername(), config.getPassword());
+
+        // 设置数据连接模式。
+        switch (config.getDataConnectionMode()) {
+            case FtpConfig.Builder.DATA_CONNECTION_MODE_ACTIVE_LOCAL:
+                ftpClient.enterLocalActiveMode();
+                break;
+            case FtpConfig.Builder.DATA_CONNECTION_MODE_ACTIVE_REMOTE:
+                ftpClient.enterRemoteActiveMode(
+                        InetAddress.getByName(config.getActiveRemoteDataConnectionModeServerHost()),
+                        config.getActiveRemoteDataConnectionModeServerPort()
+                );
+                break;
+            case FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_LOCALE:
+                ftpClient.enterLocalPassiveMode();
+                break;
+            case FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_REMOTE:
+                ftpClient.enterRemotePassiveMode();
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的数据连接模式");
+        }
+
+        // 设置文件传输为模式为 binary。
+        ftpClient.setFileType(FTPClient.BINARY_FILE_TYPE);
+
+        // 检查连接结果，确认连接正常。
+        if (!FTPReply.isPositiveCompletion(ftpClient.getReplyCode())) {
+            ftpClient.disconnect();
+            throw new FtpLoginException();
+        } else {
+            LOGGER.info("FTP 连接成功");
+        }
+    }
+
+    /**
+     * 登出并断开连接，该过程中发生的任何异常都不会被抛出。
+     */
+    void noThrowingDisconnect() {
+        resetWorkingDirectory();
+        if (!ftpClient.isConnected()) {
+            return;
+        }
+        try {
+            ftpClient.logout();
+        } catch (Exception e) {
+            LOGGER.warn("FtpClient 登出时发生异常, 异常信息如下: ", e);
+        }
+        try {
+            ftpClient.disconnect();
+        } catch (Exception e) {
+            LOGGER.warn("FtpClient 断开连接时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    /**
+     * 判断会话在指定的时间内是否收到过服务器的应答。
+     *
+     * @param period 指定的时间，单位为毫秒。
+     * @return 会话在指定的时间内是否收到过服务器的应答。
+     */
+    boolean isActiveWithin(long period) {
+        return period > 0 && System.currentTimeMillis() - lastActivityTime < period;
+    }
+
+    /**
+     * 判断会话当前是否位于指定的工作目录。
+     *
+     * @param directory         指定的工作目录。
+     * @param invalidationCount 处理器当前的目录失效计数。
+     * @return 会话当前是否位于指定的工作目录。
+     */
+    boolean isInWorkingDirectory(String directory, long invalidationCount) {
+        return directory.equals(workingDirectory) && workingDirectoryInvalidationCount == invalidationCount;
+    }
+
+    /**
+     * 记录会话当前所在的工作目录。
+     *
+     * @param directory         会话当前所在的工作目录。
+     * @param invalidationCount 切换工作目录之前，处理器的目录失效计数。
+     */
+    void recordWorkingDirectory(String directory, long invalidationCount) {
+        this.workingDirectory = directory;
+        this.workingDirectoryInvalidationCount = invalidationCount;
+    }
+
+    /**
+     * 更新工作目录对应的目录失效计数。
+     *
+     * <p>
+     * 会话自身删除或移动了工作目录之下的目录时，工作目录本身仍然有效，可以调用此方法继续信任工作目录。<br>
+     * 只有记录的目录失效计数等于 <code>expectedCount</code> 时才会更新，
+     * 否则说明其它会话在此期间也使目录失效，工作目录不再可信。
+     *
+     * @param expectedCount 期望的目录失效计数。
+     * @param neoCount      新的目录失效计数。
+     */
+    void renewWorkingDirectory(long expectedCount, long neoCount) {
+        if (workingDirectoryInvalidationCount == expectedCount) {
+            workingDirectoryInvalidationCount = neoCount;
+        }
+    }
+
+    /**
+     * 重置工作目录，使会话的工作目录变为未知。
+     *
+     * <p>
+     * 当会话执行的指令失败，或者连接被重置时，会话的工作目录无法确定，应调用此方法。
+     */
+    void resetWorkingDirectory() {
+        this.workingDirectory = null;
+    }
+
+    /**
+     * 判断会话是否曾经连接过。
+     *
+     * <p>
+     * 曾经连接过的会话再次连接时，意味着与服务器之间的连接发生过中断。
+     *
+     * @return 会话是否曾经连接过。
+     */
+    boolean hasEverConnected() {
+        return everConnectedFlag;
+    }
+
+    boolean isConnected() {
+        return ftpClient.isConnected();
+    }
+
+    FtpSessionPool getPool() {
+        return pool;
+    }
+
+    SessionFtpClient getFtpClient() {
+        return ftpClient;
+    }
+
+    @Override
+    public String toString() {
+        return "FtpSession{" +
+                "connected=" + ftpClient.isConnected() +
+                ", lastActivityTime=" + lastActivityTime +
+                ", workingDirectory='" + workingDirectory + '\'' +
+                '}';
+    }
+
+    private class ActivityRecordListener implements ProtocolCommandListener {
+
+        @Override
+        public void protocolCommandSent(ProtocolCommandEvent event) {
+            // 发送指令并不意味着连接可用，因此不记录活动时间。
+        }
+
+        @Override
+        public void protocolReplyReceived(ProtocolCommandEvent event) {
+            lastActivityTime = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpHandlerStoppedException;
+import com.dwarfeng.ftp.stack.exception.FtpSessionPoolExhaustedException;
+import com.dwarfeng.ftp.stack.exception.FtpTransferAbortedException;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FTP 会话池。
+ *
+ * <p>
+ * 会话池维护一组 {@link FtpSession}，会话在被借出期间由借出的线程独占，归还后可以被其它线程复用。<br>
+ * 会话池中同时存在的会话数量不超过 {@link FtpConfig#getSessionPoolMaxTotal()}，
+ * 空闲的会话数量不超过 {@link FtpConfig#getSessionPoolMaxIdle()}。
+ *
+ * <p>
+ * 会话池新建的会话处于未连接的状态，连接的建立由借出会话的调用方负责，
+ * 这样连接失败的会话也可以被正常地归还，并在下次借出时再次尝试连接。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class FtpSessionPool {
+
+    private final FtpConfig config;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition condition = lock.newCondition();
+
+    /**
+     * 空闲会话队列。
+     *
+     * <p>
+     * 队首为最近归还的会话，借出时优先借出队首的会话，以便让不常用的会话自然地被淘汰。
+     */
+    private final Deque<FtpSession> idleSessions = new ArrayDeque<>();
+
+    private int totalCount = 0;
+    private boolean closed = false;
+
+    FtpSessionPool(FtpConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 借出会话。
+     *
+     * <p>
+     * 如果有空闲的会话，则借出空闲的会话；否则，如果会话数量没有达到上限，则新建会话并借出；
+     * 否则，等待其它线程归还会话，等待时间由 {@link FtpConfig#getSessionPoolMaxWait()} 决定。
+     *
+     * @return 借出的会话。
+     * @throws Exception 会话池已关闭，或者等待超时，或者线程被中断时抛出的异常。
+     */
+    FtpSession borrowSession() throws Exception {
+        return borrowSession(null);
+    }
+
+    /**
+     * 借出会话，等待期间可以被指定的令牌中止。
+     *
+     * <p>
+     * 与 {@link #borrowSession()} 相同，但是等待其它线程归还会话期间，令牌被中止时，立即停止等待并抛出异常。
+     *
+     * @param token 传输中止令牌，允许为 null，为 null 时等待不能被中止。
+     * @return 借出的会话。
+     * @throws Exception 会话池已关闭，或者等待超时，或者线程被中断，或者令牌被中止时抛出的异常。
+     * @see TransferAbortToken#abort()
+     */
+    FtpSession borrowSession(@Nullable TransferAbortToken token) throws Exception {
+        long maxWait = config.getSessionPoolMaxWait();
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWait, 0));
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new FtpHandlerStoppedException();
+                }
+                if (!idleSessions.isEmpty()) {
+                    return idleSessions.pollFirst();
+                }
+                if (totalCount < config.getSessionPoolMaxTotal()) {
+                    totalCount++;
+                    return new FtpSession(this, config);
+                }
+                if (maxWait >= 0 && remainingNanos <= 0) {
+                    throw new FtpSessionPoolExhaustedException(maxWait);
+                }
+                if (Objects.nonNull(token)) {
+                    try {
+                        // 令牌的中止在会话池的锁内唤醒等待的线程，因此登记之后、等待之前的中止不会被错过。
+                        token.beginWait(this);
+                    } catch (FtpTransferAbortedException e) {
+                        // 该线程可能已经消耗了归还会话时的唤醒，将其传递给其它等待的线程。
+                        condition.signal();
+                        throw e;
+                    }
+                }
+                try {
+                    if (maxWait < 0) {
+                        condition.await();
+                    } else {
+                        remainingNanos = condition.awaitNanos(remainingNanos);
+                    }
+                } finally {
+                    if (Objects.nonNull(token)) {
+                        token.endWait();
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 唤醒所有等待借出会话的线程，以便其中被中止的线程停止等待。
+     *
+     * @see TransferAbortToken#abort()
+     */
+    void wakeUpWaiters() {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 尝试借出会话，不等待。
+     *
+     * <p>
+     * 如果有空闲的会话，则借出空闲的会话；否则，如果会话数量没有达到上限，则新建会话并借出；否则，立即返回 null。
+     *
+     * <p>
+     * 已经持有会话的线程需要借出额外的会话时，应当使用该方法，而不是 {@link #borrowSession()}，
+     * 否则当会话池中的会话均被类似的线程持有时，这些线程会互相等待。
+     *
+     * @return 借出的会话，没有可用的会话时返回 null。
+     * @throws Exception 会话池已关闭时抛出的异常。
+     */
+    @Nullable
+    FtpSession tryBorrowSession() throws Exception {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new FtpHandlerStoppedException();
+            }
+            if (!idleSessions.isEmpty()) {
+                return idleSessions.pollFirst();
+            }
+            if (totalCount < config.getSessionPoolMaxTotal()) {
+                totalCount++;
+                return new FtpSession(this, config);
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还会话。
+     *
+     * <p>
+     * 如果会话池已经关闭，或者空闲会话数已经达到上限，则归还的会话会被断开并销毁。
+     *
+     * @param session 归还的会话。
+     */
+    void returnSession(FtpSession session) {
+        boolean destroyFlag;
+        lock.lock();
+        try {
+            if (closed || idleSessions.size() >= config.getSessionPoolMaxIdle()) {
+                totalCount--;
+                destroyFlag = true;
+            } else {
+                idleSessions.offerFirst(session);
+                destroyFlag = false;
+            }
+            condition.signal();
+        } finally {
+            lock.unlock();
+        }
+        // 断开连接涉及网络通信，在锁外进行。
+        if (destroyFlag) {
+            session.noThrowingDisconnect();
+        }
+    }
+
+    /**
+     * 补足空闲会话。
+     *
+     * <p>
+     * 空闲会话数少于 {@link FtpConfig#getSessionPoolMinIdle()} 时，在会话数量上限内新建未连接的会话作为空闲会话。
+     */
+    void fillIdleSessions() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (idleSessions.size() < config.getSessionPoolMinIdle()
+                    && totalCount < config.getSessionPoolMaxTotal()) {
+                totalCount++;
+                idleSessions.offerLast(new FtpSession(this, config));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 借出一个需要维护的空闲会话。
+     *
+     * <p>
+     * 该方法用于周期性的维护任务：维护者反复调用该方法，每次只借出一个会话，对其进行保活或连接后，
+     * 调用 {@link #returnSession(FtpSession)} 将其归还，再借出下一个，以免维护期间空闲会话全部不可用。
+     *
+     * <p>
+     * 已连接且在指定的时间内收到过服务器应答的会话不需要维护，不会被借出；
+     * 借出的会话会被记录到 <code>visitedSessions</code> 中，同一轮维护中不会被重复借出。
+     *
+     * @param activePeriod    活跃时间，单位为毫秒。
+     * @param visitedSessions 本轮维护中已经借出过的会话。
+     * @return 需要维护的空闲会话，没有需要维护的空闲会话时返回 null。
+     */
+    @Nullable
+    FtpSession pollIdleSessionForMaintenance(long activePeriod, Set<FtpSession> visitedSessions) {
+        lock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            // 从队尾开始查找，优先维护最久未被使用的会话。
+            Iterator<FtpSession> iterator = idleSessions.descendingIterator();
+            while (iterator.hasNext()) {
+                FtpSession session = iterator.next();
+                if (visitedSessions.contains(session)) {
+                    continue;
+                }
+                if (session.isConnected() && session.isActiveWithin(activePeriod)) {
+                    continue;
+                }
+                iterator.remove();
+                visitedSessions.add(session);
+                return session;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭会话池。
+     *
+     * <p>
+     * 关闭后，空闲的会话会被立即断开；被借出的会话会在归还时被断开；等待借出会话的线程会收到异常。
+     */
+    void close() {
+        List<FtpSession> sessions;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sessions = new ArrayList<>(idleSessions);
+            totalCount -= idleSessions.size();
+            idleSessions.clear();
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (FtpSession session : sessions) {
+            session.noThrowingDisconnect();
+        }
+    }
+
+    int getTotalCount() {
+        lock.lock();
+        try {
+            return totalCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getIdleCount() {
+        lock.lock();
+        try {
+            return idleSessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FtpSessionPool{" +
+                "totalCount=" + getTotalCount() +
+                ", idleCount=" + getIdleCount() +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已知目录缓存。
+ *
+ * <p>
+ * 缓存处理器确认存在的目录，以便在创建目录时跳过已经存在的目录，减少与 FTP 服务器之间的往返次数。<br>
+ * 缓存的容量是有限的，超出容量时，最久未被访问的目录会被淘汰。
+ *
+ * <p>
+ * 目录的格式与 {@link FtpHandlerImpl} 中的目录路径格式一致，即以 <code>/</code> 开头，且以 <code>/</code> 结尾，
+ * 因此一个目录的所有子孙目录均以该目录为前缀。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class KnownDirectoryCache {
+
+    private final int maxSize;
+    private final Map<String, Boolean> directoryMap;
+
+    KnownDirectoryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.directoryMap = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 2462167452376478461L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > KnownDirectoryCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 判断指定的目录是否已知存在。
+     *
+     * @param directory 指定的目录。
+     * @return 指定的目录是否已知存在。
+     */
+    synchronized boolean contains(String directory) {
+        // 使用 get 方法而不是 containsKey 方法，以便刷新目录的访问顺序。
+        return directoryMap.get(directory) != null;
+    }
+
+    /**
+     * 记录指定的目录已知存在。
+     *
+     * @param directory 指定的目录。
+     */
+    synchronized void add(String directory) {
+        if (maxSize <= 0) {
+            return;
+        }
+        directoryMap.put(directory, Boolean.TRUE);
+    }
+
+    /**
+     * 移除指定的目录及其所有子孙目录。
+     *
+     * @param directory 指定的目录。
+     */
+    synchronized void removeTree(String directory) {
+        Iterator<String> iterator = directoryMap.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(directory)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 清空缓存。
+     */
+    synchronized void clear() {
+        directoryMap.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "KnownDirectoryCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + directoryMap.size() +
+                '}';
+    }
+}
@@ -0,0 +1,301 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * 目录列表缓存。
+ *
+ * <p>
+ * 缓存目录的列表结果，以便重复列出同一目录、或者查询目录下的文件时，无需再次与 FTP 服务器通信。<br>
+ * 缓存的每个目录都有存活时间，超过存活时间的目录被视为不存在；
+ * 缓存的目录数量以及估算的内存占用均是有限的，超出限制时，最久未被访问的目录会被淘汰。
+ *
+ * <p>
+ * 目录的格式与 {@link FtpHandlerImpl} 中的目录路径格式一致，即以 <code>/</code> 开头，且以 <code>/</code> 结尾，
+ * 因此一个目录的所有子孙目录均以该目录为前缀。
+ *
+ * <p>
+ * 为了避免在列出目录的过程中，其它线程修改并失效了该目录，导致过期的列表被放入缓存，
+ * 调用者需要在列出目录之前通过 {@link #getInvalidationCount()} 获取失效计数，并在放入缓存时传入；
+ * 缓存为每次失效记录失效时的计数，如果期间该目录本身、或者该目录的祖先目录所在的目录树被失效过，列表不会被放入缓存，
+ * 其它目录的失效不影响该目录的列表放入缓存。<br>
+ * 失效记录的数量是有限的，超出限制时，所有失效记录被合并为一条对全部目录生效的记录。
+ *
+ * <p>
+ * 缓存中的文件对象不会被暴露给处理器的调用者，处理器在返回结果之前需要复制文件对象。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class ListingCache {
+
+    /**
+     * 估算内存占用时，每个文件的固定开销，包括文件对象、名称映射的条目以及各字段对象的对象头。
+     */
+    private static final long FILE_OVERHEAD = 160;
+
+    /**
+     * 估算内存占用时，每个目录的固定开销。
+     */
+    private static final long LISTING_OVERHEAD = 128;
+
+    /**
+     * 失效记录的最大数量。
+     */
+    private static final int MAX_INVALIDATION_RECORDS = 1024;
+
+    private final long timeToLive;
+    private final int maxEntries;
+    private final long maxMemory;
+    private final LinkedHashMap<String, Listing> listingMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, Long> directoryInvalidationMap = new HashMap<>();
+    private final Map<String, Long> treeInvalidationMap = new HashMap<>();
+
+    private long memory = 0;
+    private long invalidationCount = 0;
+    private long globalInvalidationCount = 0;
+
+    ListingCache(long timeToLive, int maxEntries, long maxMemory) {
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * 判断缓存是否启用。
+     *
+     * @return 缓存是否启用。
+     */
+    boolean isEnabled() {
+        return timeToLive > 0 && maxEntries > 0 && maxMemory > 0;
+    }
+
+    /**
+     * 获取缓存的失效计数。
+     *
+     * @return 缓存的失效计数。
+     */
+    synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * 获取指定目录的列表。
+     *
+     * @param directory 指定的目录。
+     * @return 指定目录的列表，目录未被缓存或者已经过期时返回 null。
+     */
+    @Nullable
+    synchronized Listing get(String directory) {
+        Listing listing = listingMap.get(directory);
+        if (Objects.isNull(listing)) {
+            return null;
+        }
+        if (listing.getExpireTime() <= System.currentTimeMillis()) {
+            removeListing(directory);
+            return null;
+        }
+        return listing;
+    }
+
+    /**
+     * 放入指定目录的列表。
+     *
+     * @param directory         指定的目录。
+     * @param ftpFiles          指定目录下的文件，调用者此后不得修改数组以及数组中的文件。
+     * @param invalidationCount 列出目录之前获取的失效计数。
+     */
+    synchronized void put(String directory, FtpFile[] ftpFiles, long invalidationCount) {
+        if (!isEnabled() || isInvalidatedSince(directory, invalidationCount)) {
+            return;
+        }
+        // 估算内存占用，超出内存上限的列表不放入缓存。
+        long listingMemory = estimateMemory(directory, ftpFiles);
+        if (listingMemory > maxMemory) {
+            return;
+        }
+        // 放入列表，替换旧的列表。
+        removeListing(directory);
+        listingMap.put(directory, new Listing(ftpFiles, System.currentTimeMillis() + timeToLive, listingMemory));
+        memory += listingMemory;
+        // 淘汰最久未被访问的列表，直到满足数量以及内存的限制。
+        Iterator<Map.Entry<String, Listing>> iterator = listingMap.entrySet().iterator();
+        while ((listingMap.size() > maxEntries || memory > maxMemory) && iterator.hasNext()) {
+            memory -= iterator.next().getValue().getMemory();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 移除指定目录的列表。
+     *
+     * @param directory 指定的目录。
+     */
+    synchronized void remove(String directory) {
+        recordInvalidation(directoryInvalidationMap, directory);
+        removeListing(directory);
+    }
+
+    /**
+     * 移除指定目录及其所有子孙目录的列表。
+     *
+     * @param directory 指定的目录。
+     */
+    synchronized void removeTree(String directory) {
+        recordInvalidation(treeInvalidationMap, directory);
+        Iterator<Map.Entry<String, Listing>> iterator = listingMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Listing> entry = iterator.next();
+            if (entry.getKey().startsWith(directory)) {
+                memory -= entry.getValue().getMemory();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 清空缓存。
+     */
+    synchronized void clear() {
+        invalidationCount++;
+        globalInvalidationCount = invalidationCount;
+        directoryInvalidationMap.clear();
+        treeInvalidationMap.clear();
+        listingMap.clear();
+        memory = 0;
+    }
+
+    private void recordInvalidation(Map<String, Long> invalidationMap, String directory) {
+        invalidationCount++;
+        // 失效记录超出限制时，合并为对全部目录生效的记录，保守地拒绝此前开始的所有列表。
+        if (directoryInvalidationMap.size() + treeInvalidationMap.size() >= MAX_INVALIDATION_RECORDS) {
+            globalInvalidationCount = invalidationCount;
+            directoryInvalidationMap.clear();
+            treeInvalidationMap.clear();
+            return;
+        }
+        invalidationMap.put(directory, invalidationCount);
+    }
+
+    private boolean isInvalidatedSince(String directory, long invalidationCount) {
+        if (globalInvalidationCount > invalidationCount) {
+            return true;
+        }
+        if (directoryInvalidationMap.getOrDefault(directory, 0L) > invalidationCount) {
+            return true;
+        }
+        // 检查目录本身以及所有祖先目录的目录树失效记录。
+        int index = directory.indexOf('/');
+        while (index >= 0) {
+            if (treeInvalidationMap.getOrDefault(directory.substring(0, index + 1), 0L) > invalidationCount) {
+                return true;
+            }
+            index = directory.indexOf('/', index + 1);
+        }
+        return false;
+    }
+
+    private void removeListing(String directory) {
+        Listing listing = listingMap.remove(directory);
+        if (Objects.nonNull(listing)) {
+            memory -= listing.getMemory();
+        }
+    }
+
+    private long estimateMemory(String directory, FtpFile[] ftpFiles) {
+        long result = LISTING_OVERHEAD + estimateStringMemory(directory);
+        for (FtpFile ftpFile : ftpFiles) {
+            result += FILE_OVERHEAD;
+            result += estimateStringMemory(ftpFile.getName());
+            result += estimateStringMemory(ftpFile.getPermission());
+            result += estimateStringMemory(ftpFile.getUniqueId());
+        }
+        return result;
+    }
+
+    private long estimateStringMemory(@Nullable String string) {
+        return Objects.isNull(string) ? 0 : 2L * string.length();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ListingCache{" +
+                "timeToLive=" + timeToLive +
+                ", maxEntries=" + maxEntries +
+                ", maxMemory=" + maxMemory +
+                ", size=" + listingMap.size() +
+                ", memory=" + memory +
+                '}';
+    }
+
+    /**
+     * 目录列表。
+     *
+     * <p>
+     * 该类是不可变的。
+     *
+     * @author DwArFeng
+     * @since 2.1.0
+     */
+    static final class Listing {
+
+        private final FtpFile[] ftpFiles;
+        private final Map<String, FtpFile> ftpFileMap;
+        private final long expireTime;
+        private final long memory;
+
+        private Listing(FtpFile[] ftpFiles, long expireTime, long memory) {
+            this.ftpFiles = ftpFiles;
+            this.ftpFileMap = new HashMap<>(Math.max(16, ftpFiles.length * 4 / 3 + 1));
+            for (FtpFile ftpFile : ftpFiles) {
+                ftpFileMap.put(ftpFile.getName(), ftpFile);
+            }
+            this.expireTime = expireTime;
+            this.memory = memory;
+        }
+
+        /**
+         * 获取目录下的所有文件。
+         *
+         * @return 目录下的所有文件，调用者不得修改数组以及数组中的文件。
+         */
+        FtpFile[] getFtpFiles() {
+            return ftpFiles;
+        }
+
+        /**
+         * 获取目录下指定名称的文件。
+         *
+         * @param fileName 文件的名称。
+         * @return 指定名称的文件，目录下不存在该文件时返回 null，调用者不得修改返回的文件。
+         */
+        @Nullable
+        FtpFile getFtpFile(String fileName) {
+            return ftpFileMap.get(fileName);
+        }
+
+        long getExpireTime() {
+            return expireTime;
+        }
+
+        long getMemory() {
+            return memory;
+        }
+
+        @Override
+        public String toString() {
+            return "Listing{" +
+                    "size=" + ftpFiles.length +
+                    ", expireTime=" + expireTime +
+                    ", memory=" + memory +
+                    '}';
+        }
+    }
+}
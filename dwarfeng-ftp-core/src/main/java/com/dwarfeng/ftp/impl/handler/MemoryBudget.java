@@ -0,0 +1,196 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.MemoryBudgetMetrics;
+import com.dwarfeng.ftp.stack.exception.FtpMemoryBudgetExhaustedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内存预算。
+ *
+ * <p>
+ * 以字节数组的形式存储或获取文件时，文件内容在操作期间占用的内存需要从内存预算中预留，操作结束后释放。<br>
+ * 内存预算中剩余的内存不足时，预留内存的线程等待其它线程释放内存，或者立即失败；
+ * 预留的内存超过内存预算的上限时，预留永远无法成功，因此立即失败。
+ *
+ * <p>
+ * 内存预算的上限为 0 时，表示不限制，此时预留总是立即成功，但是仍然会记录已经预留的字节数。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class MemoryBudget {
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition condition = lock.newCondition();
+
+    private long capacity;
+    private long usedBytes = 0;
+    private int waitingCount = 0;
+    private long reservedCount = 0;
+    private long rejectedCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+
+    MemoryBudget(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 限制内存预算的上限。
+     *
+     * <p>
+     * 当指定的上限为正数，且当前不限制或者当前的上限大于指定的上限时，将上限设置为指定的上限。
+     *
+     * @param neoCapacity 指定的上限。
+     * @return 调整后的上限。
+     */
+    long limitCapacity(long neoCapacity) {
+        lock.lock();
+        try {
+            if (neoCapacity > 0 && (capacity == 0 || capacity > neoCapacity)) {
+                capacity = neoCapacity;
+            }
+            return capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 预留内存。
+     *
+     * <p>
+     * 最大等待时间从 <code>startNanos</code> 开始计算，因此依次从多个内存预算中预留内存时，总的等待时间不超过最大等待时间。
+     *
+     * @param bytes      预留的字节数。
+     * @param maxWait    最大等待时间，单位为毫秒，小于 0 表示无限等待，等于 0 表示内存预算耗尽时立即失败。
+     * @param startNanos 开始预留内存的时间，取自 {@link System#nanoTime()}。
+     * @throws Exception 等待超时，预留的内存超过内存预算的上限，或者线程被中断时抛出的异常。
+     */
+    void reserve(long bytes, long maxWait, long startNanos) throws Exception {
+        if (bytes <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (capacity > 0 && bytes > capacity) {
+                rejectedCount++;
+                throw new FtpMemoryBudgetExhaustedException(bytes, maxWait);
+            }
+            if (capacity == 0 || usedBytes + bytes <= capacity) {
+                usedBytes += bytes;
+                reservedCount++;
+                return;
+            }
+            waitingCount++;
+            long waitStartNanos = System.nanoTime();
+            try {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWait, 0)) -
+                        (waitStartNanos - startNanos);
+                while (capacity > 0 && usedBytes + bytes > capacity) {
+                    if (maxWait < 0) {
+                        condition.await();
+                        continue;
+                    }
+                    if (remainingNanos <= 0) {
+                        rejectedCount++;
+                        throw new FtpMemoryBudgetExhaustedException(bytes, maxWait);
+                    }
+                    remainingNanos = condition.awaitNanos(remainingNanos);
+                }
+                usedBytes += bytes;
+                reservedCount++;
+            } finally {
+                waitingCount--;
+                long waitNanos = System.nanoTime() - waitStartNanos;
+                totalWaitNanos += waitNanos;
+                maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 尝试预留内存。
+     *
+     * <p>
+     * 内存预算中剩余的内存不足时，不等待，直接返回失败，且不计入被拒绝的次数，调用者通常会随后调用
+     * {@link #reserve(long, long, long)} 等待内存预算。
+     *
+     * @param bytes 预留的字节数。
+     * @return 是否预留成功。
+     */
+    boolean tryReserve(long bytes) {
+        if (bytes <= 0) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (capacity == 0 || usedBytes + bytes <= capacity) {
+                usedBytes += bytes;
+                reservedCount++;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 释放内存。
+     *
+     * @param bytes 释放的字节数，必须与预留的字节数相对应。
+     */
+    void release(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            usedBytes -= bytes;
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取内存预算的指标。
+     *
+     * @return 内存预算的指标。
+     */
+    MemoryBudgetMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new MemoryBudgetMetrics(
+                    capacity, usedBytes, waitingCount, reservedCount, rejectedCount,
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos), TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "MemoryBudget{" +
+                    "capacity=" + capacity +
+                    ", usedBytes=" + usedBytes +
+                    ", waitingCount=" + waitingCount +
+                    '}';
+        } finally {
+            lock.unlock();
+        }
+    }
+}
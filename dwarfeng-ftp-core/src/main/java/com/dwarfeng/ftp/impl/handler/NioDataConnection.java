@@ -0,0 +1,69 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+/**
+ * NIO 传输引擎使用的数据连接。
+ *
+ * <p>
+ * 数据连接由 {@link FtpHandlerImpl#tryOpenNioDataConnection(com.dwarfeng.ftp.stack.struct.FtpFileLocation, boolean)}
+ * 打开，并持有打开它的会话。<br>
+ * 数据连接上的传输结束之后，必须调用 {@link FtpHandlerImpl#completeNioDataConnection(NioDataConnection)}
+ * 或者 {@link FtpHandlerImpl#abortNioDataConnection(NioDataConnection)}，以完成传输并归还会话。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class NioDataConnection {
+
+    private final FtpSession session;
+    private final Socket socket;
+    private final String[] filePaths;
+    private final String fileName;
+    private final boolean storeFlag;
+
+    NioDataConnection(FtpSession session, Socket socket, String[] filePaths, String fileName, boolean storeFlag) {
+        this.session = session;
+        this.socket = socket;
+        this.filePaths = filePaths;
+        this.fileName = fileName;
+        this.storeFlag = storeFlag;
+    }
+
+    FtpSession getSession() {
+        return session;
+    }
+
+    Socket getSocket() {
+        return socket;
+    }
+
+    SocketChannel getSocketChannel() {
+        return socket.getChannel();
+    }
+
+    String[] getFilePaths() {
+        return filePaths;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    boolean isStoreFlag() {
+        return storeFlag;
+    }
+
+    @Override
+    public String toString() {
+        return "NioDataConnection{" +
+                "session=" + session +
+                ", socket=" + socket +
+                ", filePaths=" + Arrays.toString(filePaths) +
+                ", fileName='" + fileName + '\'' +
+                ", storeFlag=" + storeFlag +
+                '}';
+    }
+}
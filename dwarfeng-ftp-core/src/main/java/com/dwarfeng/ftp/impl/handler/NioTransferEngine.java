@@ -0,0 +1,932 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.sdk.util.FtpConfigUtil;
+import com.dwarfeng.ftp.stack.exception.FtpException;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * NIO 传输引擎。
+ *
+ * <p>
+ * {@link FtpHandlerImpl} 的每个传输在整个传输期间阻塞一个线程，并发传输的数量与线程的数量相同。
+ * 该引擎将传输拆分为控制阶段与数据阶段：<br>
+ * 控制阶段（打开数据连接、等待传输完成的应答）仍然通过各个会话的控制连接以阻塞的方式进行，
+ * 打开数据连接在固定数量的控制线程中执行，等待传输完成的应答在同样数量的完成线程中执行，每个步骤只占用线程一个往返的时间；<br>
+ * 数据阶段由固定数量的选择器线程驱动，每个选择器线程通过一个 {@link Selector} 以非阻塞的方式多路复用分配给它的所有数据连接。<br>
+ * 因此，引擎的线程数量为选择器线程数与两倍的控制线程数之和，不随并发传输的数量增长。
+ *
+ * <p>
+ * 每个传输在控制阶段开始时借出一个会话，直到传输结束时归还，因此引擎同时进行的传输不超过会话池的最大会话数。<br>
+ * 超出会话池容量的传输在引擎的队列中等待，不占用任何线程；控制线程借出会话时不等待，会话池中的会话被其它操作占用时，
+ * 传输重新进入队列，在引擎的传输结束时，或者每隔一段时间重新尝试。
+ * 归还会话的完成步骤不与打开数据连接的步骤共用线程，因此控制线程不会因为等待会话而阻塞归还会话的步骤。
+ *
+ * <p>
+ * 引擎只承担本地文件的传输，数据在数据连接与本地文件之间直接搬运：
+ * 下载时，数据经由选择器线程的直接内存缓冲区写入本地文件；上传时，由操作系统将本地文件的内容直接发送到数据连接。<br>
+ * 通过该引擎进行的传输不会断点续传，也不会分段下载；数据连接在数据超时时间内没有任何进展时，传输以
+ * {@link SocketTimeoutException} 失败。
+ *
+ * <p>
+ * 传输返回的 {@link CompletableFuture} 在传输结束之前完成时，例如被取消，或者超时以 {@link TimeoutException} 失败，
+ * 引擎中止传输：控制阶段的传输通过 {@link TransferAbortToken} 中止，数据阶段的传输关闭数据连接并断开会话。
+ *
+ * <p>
+ * 选择器线程与控制线程在第一次传输时创建。未启用时（见 {@link FtpConfig#isNioTransferEnabled()}），
+ * 引擎不创建任何线程，也不接受任何传输。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class NioTransferEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NioTransferEngine.class);
+
+    /**
+     * 选择器线程用于下载的直接内存缓冲区的大小，单位为字节。
+     */
+    private static final int SELECTOR_BUFFER_SIZE = 65536;
+
+    /**
+     * 选择器等待的最长时间，单位为毫秒，选择器线程至少以该间隔检查数据超时。
+     */
+    private static final long SELECT_TIMEOUT = 1000L;
+
+    /**
+     * 会话池中的会话被其它操作占用时，重新尝试等待中的传输的间隔，单位为毫秒。
+     */
+    private static final long SESSION_RETRY_INTERVAL = 100L;
+
+    private final ThreadPoolTaskScheduler scheduler;
+    private final boolean enabled;
+    private final int selectorCount;
+    private final int controlThreadCount;
+    private final int dataTimeout;
+
+    /**
+     * 执行传输的处理器，未启用时为 null。
+     */
+    @Nullable
+    private final FtpHandlerImpl handler;
+
+    private final Lock lock = new ReentrantLock();
+    private final AtomicInteger activeTransferCount = new AtomicInteger(0);
+    private final AtomicInteger nextSelectorIndex = new AtomicInteger(0);
+
+    /**
+     * 等待会话的传输。
+     *
+     * <p>
+     * 等待中的传输不占用任何线程，在会话可能可用时被分派到控制线程。
+     */
+    private final Deque<Transfer> pendingTransfers = new ArrayDeque<>();
+
+    /**
+     * 已经分派到控制线程，且尚未归还会话的传输的数量，不超过会话池的最大会话数。
+     */
+    private int admittedTransferCount = 0;
+
+    private boolean retryScheduledFlag = false;
+
+    private ThreadPoolExecutor controlExecutor = null;
+    private ThreadPoolExecutor completeExecutor = null;
+    private SelectorLoop[] selectorLoops = null;
+    private boolean shutdownFlag = false;
+
+    public NioTransferEngine(
+            @Nonnull ThreadPoolTaskScheduler scheduler, @Nonnull FtpHandler handler, @Nonnull FtpConfig config
+    ) {
+        this(
+                scheduler, handler, config.isNioTransferEnabled(), config.getNioTransferSelectorCount(),
+                config.getNioTransferControlThreadCount(), config.getDataTimeout()
+        );
+    }
+
+    public NioTransferEngine(
+            @Nonnull ThreadPoolTaskScheduler scheduler, @Nonnull FtpHandler handler, boolean enabled,
+            int selectorCount, int controlThreadCount, int dataTimeout
+    ) {
+        FtpConfigUtil.checkNioTransferSelectorCount(selectorCount);
+        FtpConfigUtil.checkNioTransferControlThreadCount(controlThreadCount);
+        this.scheduler = scheduler;
+        this.enabled = enabled;
+        this.selectorCount = selectorCount;
+        this.controlThreadCount = controlThreadCount;
+        this.dataTimeout = dataTimeout;
+        this.handler = enabled ? resolveHandler(handler) : null;
+    }
+
+    /**
+     * 解析执行传输的处理器。
+     *
+     * <p>
+     * 处理器可能被 Spring AOP 代理，此时使用代理的目标对象。
+     *
+     * @param handler 指定的处理器。
+     * @return 执行传输的处理器。
+     * @throws IllegalArgumentException 指定的处理器不是 {@link FtpHandlerImpl}，也不是其代理时抛出的异常。
+     */
+    private static FtpHandlerImpl resolveHandler(FtpHandler handler) {
+        Object target = handler;
+        while (Objects.nonNull(target)) {
+            if (target instanceof FtpHandlerImpl) {
+                return (FtpHandlerImpl) target;
+            }
+            target = AopProxyUtils.getSingletonTarget(target);
+        }
+        throw new IllegalArgumentException("NIO 传输引擎需要处理器为 FtpHandlerImpl: " + handler);
+    }
+
+    /**
+     * 引擎是否启用。
+     *
+     * @return 引擎是否启用。
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取指定的文件，并写入指定的本地文件。
+     *
+     * <p>
+     * 远程文件不存在时，不会创建或者截断本地文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @param timeout      超时时间，单位为毫秒，从提交传输时开始计算，为 0 表示不超时。
+     * @return 传输结果的 {@link CompletableFuture}，传输成功时以 null 完成。
+     * @see FtpHandler#retrieveFileToPath(FtpFileLocation, Path)
+     */
+    public CompletableFuture<Void> retrieveFileToPath(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path, long timeout
+    ) {
+        return submit(new Transfer(fileLocation, path, false), timeout);
+    }
+
+    /**
+     * 将指定的本地文件存储为指定的文件。
+     *
+     * <p>
+     * 本地文件不存在时，不会在服务器上创建空文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @param timeout      超时时间，单位为毫秒，从提交传输时开始计算，为 0 表示不超时。
+     * @return 传输结果的 {@link CompletableFuture}，传输成功时以 null 完成。
+     * @see FtpHandler#storeFileFromPath(FtpFileLocation, Path)
+     */
+    public CompletableFuture<Void> storeFileFromPath(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path, long timeout
+    ) {
+        return submit(new Transfer(fileLocation, path, true), timeout);
+    }
+
+    private CompletableFuture<Void> submit(Transfer transfer, long timeout) {
+        FtpConfigUtil.checkAsyncOperationTimeout(timeout);
+        CompletableFuture<Void> future = transfer.future;
+
+        // CompletableFuture 在传输结束之前完成时，中止传输；传输已经结束时，中止不产生任何效果。
+        future.whenComplete((result, throwable) -> transfer.abort());
+        activeTransferCount.incrementAndGet();
+        future.whenComplete((result, throwable) -> activeTransferCount.decrementAndGet());
+
+        try {
+            ensureStarted();
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        lock.lock();
+        try {
+            pendingTransfers.offerLast(transfer);
+        } finally {
+            lock.unlock();
+        }
+        dispatchTransfers();
+
+        if (timeout > 0) {
+            ScheduledFuture<?> timeoutFuture = scheduler.schedule(
+                    () -> future.completeExceptionally(new TimeoutException("NIO 传输超时: " + timeout + " ms")),
+                    new Date(System.currentTimeMillis() + timeout)
+            );
+            future.whenComplete((result, throwable) -> timeoutFuture.cancel(false));
+        }
+        return future;
+    }
+
+    private void ensureStarted() throws IOException {
+        lock.lock();
+        try {
+            if (!enabled) {
+                throw new IllegalStateException("NIO 传输引擎未启用");
+            }
+            if (shutdownFlag) {
+                throw new RejectedExecutionException("NIO 传输引擎已经关闭");
+            }
+            if (Objects.nonNull(selectorLoops)) {
+                return;
+            }
+            // 控制阶段的步骤在无界的队列中排队，控制线程与完成线程的数量保持不变。
+            ThreadPoolExecutor executor = newFixedExecutor("ftp-nio-control-");
+            ThreadPoolExecutor completeExecutor = newFixedExecutor("ftp-nio-complete-");
+            CustomizableThreadFactory selectorThreadFactory = new CustomizableThreadFactory("ftp-nio-selector-");
+            selectorThreadFactory.setDaemon(true);
+            SelectorLoop[] loops = new SelectorLoop[selectorCount];
+            try {
+                for (int i = 0; i < selectorCount; i++) {
+                    loops[i] = new SelectorLoop(Selector.open());
+                }
+            } catch (IOException e) {
+                for (SelectorLoop loop : loops) {
+                    if (Objects.nonNull(loop)) {
+                        loop.closeSelector();
+                    }
+                }
+                executor.shutdown();
+                completeExecutor.shutdown();
+                throw e;
+            }
+            controlExecutor = executor;
+            this.completeExecutor = completeExecutor;
+            selectorLoops = loops;
+            for (SelectorLoop loop : loops) {
+                selectorThreadFactory.newThread(loop).start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ThreadPoolExecutor newFixedExecutor(String threadNamePrefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(
+                controlThreadCount, controlThreadCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory
+        );
+    }
+
+    /**
+     * 在完成线程中执行指定的步骤，完成线程已经关闭时，在当前线程中执行。
+     *
+     * @param step 执行的步骤。
+     */
+    private void runCompleteStep(Runnable step) {
+        try {
+            completeExecutor.execute(step);
+        } catch (RejectedExecutionException e) {
+            step.run();
+        }
+    }
+
+    /**
+     * 在会话池的容量内，将等待中的传输分派到控制线程。
+     *
+     * <p>
+     * 等待期间已经被取消或者超时的传输被直接丢弃。
+     */
+    private void dispatchTransfers() {
+        List<Transfer> admittedTransfers = new ArrayList<>();
+        lock.lock();
+        try {
+            int capacity = handler.getSessionPoolMaxTotal();
+            while (admittedTransferCount < capacity && !pendingTransfers.isEmpty()) {
+                Transfer transfer = pendingTransfers.pollFirst();
+                if (transfer.future.isDone()) {
+                    continue;
+                }
+                admittedTransferCount++;
+                admittedTransfers.add(transfer);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Transfer transfer : admittedTransfers) {
+            try {
+                controlExecutor.execute(() -> openTransfer(transfer));
+            } catch (RejectedExecutionException e) {
+                // 控制线程已经关闭，引擎不会再执行该传输，无需再分派其它传输。
+                releaseAdmission(false);
+                transfer.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 释放传输占用的名额。
+     *
+     * <p>
+     * 传输占用的会话已经归还，或者传输没有借出会话时调用。
+     *
+     * @param dispatchFlag 是否在释放之后分派等待中的传输。
+     */
+    private void releaseAdmission(boolean dispatchFlag) {
+        lock.lock();
+        try {
+            admittedTransferCount--;
+        } finally {
+            lock.unlock();
+        }
+        if (dispatchFlag) {
+            dispatchTransfers();
+        }
+    }
+
+    /**
+     * 会话池中的会话均被其它操作占用，将传输放回等待队列的队首。
+     *
+     * <p>
+     * 引擎中没有其它传输占用会话时，不会有传输结束触发分派，因此在一段时间之后重新尝试分派。
+     *
+     * @param transfer 没有借出会话的传输。
+     */
+    private void parkTransfer(Transfer transfer) {
+        lock.lock();
+        try {
+            admittedTransferCount--;
+            pendingTransfers.offerFirst(transfer);
+            if (admittedTransferCount > 0 || retryScheduledFlag || shutdownFlag) {
+                return;
+            }
+            retryScheduledFlag = true;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            scheduler.schedule(this::retryTransfers, new Date(System.currentTimeMillis() + SESSION_RETRY_INTERVAL));
+        } catch (Exception e) {
+            LOGGER.warn("无法调度等待会话的 NIO 传输, 等待中的传输将以异常结束, 异常信息如下: ", e);
+            failPendingTransfers(e);
+        }
+    }
+
+    private void retryTransfers() {
+        lock.lock();
+        try {
+            retryScheduledFlag = false;
+        } finally {
+            lock.unlock();
+        }
+        dispatchTransfers();
+    }
+
+    /**
+     * 从等待队列中移除指定的传输。
+     *
+     * @param transfer 指定的传输。
+     */
+    private void removePendingTransfer(Transfer transfer) {
+        lock.lock();
+        try {
+            pendingTransfers.remove(transfer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 使所有等待中的传输以异常结束。
+     *
+     * @param cause 异常的原因。
+     */
+    private void failPendingTransfers(Throwable cause) {
+        List<Transfer> transfers;
+        lock.lock();
+        try {
+            retryScheduledFlag = false;
+            transfers = new ArrayList<>(pendingTransfers);
+            pendingTransfers.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (Transfer transfer : transfers) {
+            transfer.future.completeExceptionally(cause instanceof FtpException ? cause : new FtpException(cause));
+        }
+    }
+
+    /**
+     * 执行传输的控制阶段，并将数据连接分配给选择器线程。
+     *
+     * <p>
+     * 传输已经占用一个名额，该方法结束时，或者数据阶段结束、会话被归还时，释放占用的名额。
+     *
+     * @param transfer 传输。
+     */
+    private void openTransfer(Transfer transfer) {
+        // 尚未开始的传输已经被取消或者超时，不再执行。
+        if (transfer.future.isDone()) {
+            releaseAdmission(true);
+            return;
+        }
+        NioDataConnection connection = null;
+        FileChannel fileChannel = null;
+        try {
+            // 上传时先打开本地文件，本地文件不存在时，不会在服务器上创建空文件；
+            // 下载时先打开远程文件，远程文件不存在时，不会创建或者截断本地文件。
+            if (transfer.storeFlag) {
+                fileChannel = FileChannel.open(transfer.path, StandardOpenOption.READ);
+                transfer.length = fileChannel.size();
+            }
+            try {
+                connection = TransferAbortToken.callWith(
+                        transfer.token,
+                        () -> handler.tryOpenNioDataConnection(transfer.fileLocation, transfer.storeFlag)
+                );
+            } catch (Exception e) {
+                transfer.token.finish();
+                throw e;
+            }
+            if (Objects.isNull(connection)) {
+                // 会话池中的会话均被其它操作占用，关闭本地文件，传输重新进入等待队列，不占用控制线程。
+                closeFileChannel(fileChannel);
+                parkTransfer(transfer);
+                return;
+            }
+            // 控制阶段的指令已经结束，此后的中止不再经由令牌，以免影响已经归还的会话。
+            transfer.token.finish();
+            if (!transfer.storeFlag) {
+                fileChannel = FileChannel.open(
+                        transfer.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING
+                );
+            }
+            connection.getSocketChannel().configureBlocking(false);
+        } catch (Throwable e) {
+            closeFileChannel(fileChannel);
+            if (Objects.nonNull(connection)) {
+                handler.abortNioDataConnection(connection);
+            }
+            transfer.future.completeExceptionally(e instanceof FtpException ? e : new FtpException(e));
+            releaseAdmission(true);
+            return;
+        }
+
+        SelectorLoop loop = selectorLoops[Math.floorMod(nextSelectorIndex.getAndIncrement(), selectorLoops.length)];
+        synchronized (transfer) {
+            transfer.connection = connection;
+            transfer.fileChannel = fileChannel;
+            // 控制阶段结束时传输已经被取消或者超时，直接中止。
+            if (transfer.future.isDone()) {
+                transfer.state = Transfer.STATE_ABORTED;
+            } else {
+                transfer.state = Transfer.STATE_DATA;
+            }
+        }
+        if (transfer.state == Transfer.STATE_ABORTED) {
+            closeFileChannel(fileChannel);
+            handler.abortNioDataConnection(connection);
+            releaseAdmission(true);
+            return;
+        }
+        loop.register(transfer);
+    }
+
+    /**
+     * 完成传输，读取服务器的应答并归还会话。
+     *
+     * @param transfer 数据阶段已经结束的传输。
+     */
+    private void completeTransfer(Transfer transfer) {
+        try {
+            try {
+                closeFileChannel(transfer.fileChannel, true);
+            } catch (Exception e) {
+                handler.abortNioDataConnection(transfer.connection);
+                throw new FtpException(e);
+            }
+            handler.completeNioDataConnection(transfer.connection);
+        } catch (Throwable e) {
+            transfer.future.completeExceptionally(e);
+            return;
+        } finally {
+            releaseAdmission(true);
+        }
+        transfer.future.complete(null);
+    }
+
+    /**
+     * 在数据阶段中止传输，关闭数据连接并断开会话。
+     *
+     * @param transfer 数据阶段被中止的传输。
+     * @param cause    中止的原因，为 null 时表示传输被取消或者超时。
+     */
+    private void abortTransfer(Transfer transfer, @Nullable Throwable cause) {
+        closeFileChannel(transfer.fileChannel);
+        handler.abortNioDataConnection(transfer.connection);
+        releaseAdmission(true);
+        if (Objects.nonNull(cause)) {
+            transfer.future.completeExceptionally(cause instanceof FtpException ? cause : new FtpException(cause));
+        }
+    }
+
+    private void closeFileChannel(@Nullable FileChannel fileChannel) {
+        try {
+            closeFileChannel(fileChannel, false);
+        } catch (Exception e) {
+            LOGGER.debug("关闭本地文件时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    private void closeFileChannel(@Nullable FileChannel fileChannel, boolean throwFlag) throws IOException {
+        if (Objects.isNull(fileChannel)) {
+            return;
+        }
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            if (throwFlag) {
+                throw e;
+            }
+            LOGGER.debug("关闭本地文件时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    /**
+     * 获取正在进行的传输的数量。
+     *
+     * @return 正在进行的传输的数量，包括等待会话的传输。
+     */
+    public int getActiveTransferCount() {
+        return activeTransferCount.get();
+    }
+
+    /**
+     * 获取引擎的线程数量。
+     *
+     * @return 引擎的线程数量，即选择器线程数、控制线程数与完成线程数之和，引擎尚未创建线程时返回 0。
+     */
+    public int getThreadCount() {
+        lock.lock();
+        try {
+            if (Objects.isNull(selectorLoops)) {
+                return 0;
+            }
+            return selectorCount + controlThreadCount * 2;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭引擎。
+     *
+     * <p>
+     * 关闭之后，引擎不再接受新的传输，等待会话的传输以及数据阶段的传输以异常结束，
+     * 控制阶段的传输在控制阶段结束后以异常结束。
+     */
+    @PreDestroy
+    public void shutdown() {
+        SelectorLoop[] loops;
+        ThreadPoolExecutor executor;
+        ThreadPoolExecutor completeExecutor;
+        lock.lock();
+        try {
+            shutdownFlag = true;
+            loops = selectorLoops;
+            executor = controlExecutor;
+            completeExecutor = this.completeExecutor;
+        } finally {
+            lock.unlock();
+        }
+        if (Objects.isNull(loops)) {
+            return;
+        }
+        failPendingTransfers(new RejectedExecutionException("NIO 传输引擎已经关闭"));
+        for (SelectorLoop loop : loops) {
+            loop.stop();
+        }
+        executor.shutdown();
+        completeExecutor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "NioTransferEngine{" +
+                "enabled=" + enabled +
+                ", selectorCount=" + selectorCount +
+                ", controlThreadCount=" + controlThreadCount +
+                ", dataTimeout=" + dataTimeout +
+                ", activeTransferCount=" + activeTransferCount +
+                '}';
+    }
+
+    /**
+     * 传输。
+     *
+     * <p>
+     * 传输的状态在传输的锁内转换，以保证控制线程、选择器线程与取消传输的线程中，只有一个线程结束传输。
+     */
+    private final class Transfer {
+
+        static final int STATE_CONTROL = 0;
+        static final int STATE_DATA = 1;
+        static final int STATE_COMPLETING = 2;
+        static final int STATE_ABORTED = 3;
+
+        final FtpFileLocation fileLocation;
+        final Path path;
+        final boolean storeFlag;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final TransferAbortToken token = new TransferAbortToken();
+
+        // 以下字段在控制阶段结束时，于传输的锁内赋值。
+        NioDataConnection connection = null;
+        FileChannel fileChannel = null;
+        int state = STATE_CONTROL;
+
+        // 以下字段只在控制线程以及选择器线程中顺序访问。
+        long length = 0;
+        long position = 0;
+        long lastActiveTime = 0;
+
+        Transfer(FtpFileLocation fileLocation, Path path, boolean storeFlag) {
+            this.fileLocation = fileLocation;
+            this.path = path;
+            this.storeFlag = storeFlag;
+        }
+
+        /**
+         * 数据阶段结束，转入完成阶段。
+         *
+         * @return 是否由本次调用结束数据阶段。
+         */
+        synchronized boolean finishData() {
+            if (state != STATE_DATA) {
+                return false;
+            }
+            state = STATE_COMPLETING;
+            return true;
+        }
+
+        /**
+         * 数据阶段失败，中止传输。
+         *
+         * @return 是否由本次调用中止传输。
+         */
+        synchronized boolean failData() {
+            if (state != STATE_DATA) {
+                return false;
+            }
+            state = STATE_ABORTED;
+            return true;
+        }
+
+        /**
+         * 传输的 {@link CompletableFuture} 完成时调用，在传输结束之前完成时中止传输。
+         */
+        void abort() {
+            synchronized (this) {
+                if (state == STATE_CONTROL) {
+                    if (token.abort()) {
+                        LOGGER.debug("NIO 传输在控制阶段被取消或者超时, 已中止正在进行的操作");
+                    }
+                    // 传输可能仍在等待会话，将其移出等待队列，以免被取消的传输在队列中累积。
+                    removePendingTransfer(this);
+                    return;
+                }
+                if (state != STATE_DATA) {
+                    return;
+                }
+                state = STATE_ABORTED;
+            }
+            LOGGER.debug("NIO 传输在数据阶段被取消或者超时, 将关闭数据连接并断开会话");
+            // 关闭数据连接会使其在选择器中的注册失效，选择器线程不会再处理该传输。
+            try {
+                connection.getSocketChannel().close();
+            } catch (Exception e) {
+                LOGGER.debug("关闭数据连接时发生异常, 异常信息如下: ", e);
+            }
+            runCompleteStep(() -> abortTransfer(this, null));
+        }
+
+        @Override
+        public String toString() {
+            return "Transfer{" +
+                    "fileLocation=" + fileLocation +
+                    ", path=" + path +
+                    ", storeFlag=" + storeFlag +
+                    ", position=" + position +
+                    '}';
+        }
+    }
+
+    /**
+     * 选择器线程。
+     *
+     * <p>
+     * 每个选择器线程持有一个 {@link Selector}，以及一个用于下载的直接内存缓冲区，
+     * 每次数据连接就绪时，至多读取或者写入一次，以保证分配给同一个线程的传输之间的公平。
+     */
+    private final class SelectorLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<Transfer> registrations = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(SELECTOR_BUFFER_SIZE);
+
+        private volatile boolean runningFlag = true;
+        private volatile boolean exitedFlag = false;
+
+        SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(Transfer transfer) {
+            registrations.offer(transfer);
+            selector.wakeup();
+            // 选择器线程已经退出时，没有线程会再处理注册，直接使其失败。
+            if (exitedFlag) {
+                failRegistrations(new IOException("NIO 传输引擎的选择器线程已经退出"));
+            }
+        }
+
+        void stop() {
+            runningFlag = false;
+            selector.wakeup();
+        }
+
+        void closeSelector() {
+            try {
+                selector.close();
+            } catch (Exception e) {
+                LOGGER.debug("关闭选择器时发生异常, 异常信息如下: ", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            // 启用数据超时时，选择器等待的时间不超过数据超时时间，以便及时检查数据超时。
+            long selectTimeout = dataTimeout > 0 ? Math.min(SELECT_TIMEOUT, dataTimeout) : SELECT_TIMEOUT;
+            try {
+                while (runningFlag) {
+                    selector.select(selectTimeout);
+                    long currentTime = System.currentTimeMillis();
+                    acceptRegistrations(currentTime);
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handleKey(key, currentTime);
+                    }
+                    selector.selectedKeys().clear();
+                    checkDataTimeout(currentTime);
+                }
+            } catch (Throwable e) {
+                LOGGER.error("NIO 传输引擎的选择器线程发生异常, 线程将退出, 异常信息如下: ", e);
+            } finally {
+                exitedFlag = true;
+                IOException cause = new IOException("NIO 传输引擎的选择器线程已经退出");
+                failRegistrations(cause);
+                for (SelectionKey key : selector.keys()) {
+                    failTransfer((Transfer) key.attachment(), cause);
+                }
+                closeSelector();
+            }
+        }
+
+        private void acceptRegistrations(long currentTime) {
+            Transfer transfer;
+            while (Objects.nonNull(transfer = registrations.poll())) {
+                transfer.lastActiveTime = currentTime;
+                int ops = transfer.storeFlag ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+                try {
+                    transfer.connection.getSocketChannel().register(selector, ops, transfer);
+                } catch (ClosedChannelException e) {
+                    // 数据连接在分配给选择器线程之前被关闭，说明传输已经被中止。
+                    failTransfer(transfer, e);
+                }
+            }
+        }
+
+        private void handleKey(SelectionKey key, long currentTime) {
+            Transfer transfer = (Transfer) key.attachment();
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                boolean finishedFlag;
+                if (transfer.storeFlag) {
+                    finishedFlag = writeDataConnection(transfer, currentTime);
+                } else {
+                    finishedFlag = readDataConnection(transfer, currentTime);
+                }
+                if (finishedFlag) {
+                    finishTransfer(key, transfer);
+                }
+            } catch (Exception e) {
+                key.cancel();
+                failTransfer(transfer, e);
+            }
+        }
+
+        private boolean readDataConnection(Transfer transfer, long currentTime) throws IOException {
+            SocketChannel socketChannel = transfer.connection.getSocketChannel();
+            buffer.clear();
+            int length = socketChannel.read(buffer);
+            if (length < 0) {
+                return true;
+            }
+            if (length > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    transfer.fileChannel.write(buffer);
+                }
+                transfer.position += length;
+                transfer.lastActiveTime = currentTime;
+            }
+            return false;
+        }
+
+        private boolean writeDataConnection(Transfer transfer, long currentTime) throws IOException {
+            if (transfer.position < transfer.length) {
+                // 非阻塞的数据连接暂时无法写入时，transferTo 返回 0，等待下一次就绪。
+                long length = transfer.fileChannel.transferTo(
+                        transfer.position, Math.min(transfer.length - transfer.position, SELECTOR_BUFFER_SIZE),
+                        transfer.connection.getSocketChannel()
+                );
+                if (length > 0) {
+                    transfer.position += length;
+                    transfer.lastActiveTime = currentTime;
+                }
+            }
+            return transfer.position >= transfer.length;
+        }
+
+        private void finishTransfer(SelectionKey key, Transfer transfer) throws IOException {
+            key.cancel();
+            if (!transfer.finishData()) {
+                return;
+            }
+            // 关闭数据连接，上传时，服务器以此确认文件的结束。
+            transfer.connection.getSocketChannel().close();
+            runCompleteStep(() -> completeTransfer(transfer));
+        }
+
+        private void failTransfer(Transfer transfer, Throwable cause) {
+            if (!transfer.failData()) {
+                return;
+            }
+            try {
+                transfer.connection.getSocketChannel().close();
+            } catch (Exception e) {
+                cause.addSuppressed(e);
+            }
+            runCompleteStep(() -> abortTransfer(transfer, cause));
+        }
+
+        private void checkDataTimeout(long currentTime) {
+            if (dataTimeout <= 0) {
+                return;
+            }
+            List<SelectionKey> timeoutKeys = new ArrayList<>();
+            for (SelectionKey key : selector.keys()) {
+                Transfer transfer = (Transfer) key.attachment();
+                if (key.isValid() && currentTime - transfer.lastActiveTime > dataTimeout) {
+                    timeoutKeys.add(key);
+                }
+            }
+            for (SelectionKey key : timeoutKeys) {
+                key.cancel();
+                failTransfer(
+                        (Transfer) key.attachment(),
+                        new SocketTimeoutException("等待数据连接的数据超时: " + dataTimeout + " 毫秒")
+                );
+            }
+        }
+
+        private void failRegistrations(Throwable cause) {
+            Transfer transfer;
+            while (Objects.nonNull(transfer = registrations.poll())) {
+                failTransfer(transfer, cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPCmd;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
+import org.apache.commons.net.ftp.parser.MLSxEntryParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+
+/**
+ * 会话使用的 FTP 客户端。
+ *
+ * <p>
+ * 在 {@link FTPClient} 的基础上，暴露列出目录时的数据连接，以便流式地解析目录条目。
+ *
+ * <p>
+ * {@link FTPClient#initiateListParsing()} 等方法返回的 {@link org.apache.commons.net.ftp.FTPListParseEngine}
+ * 会在返回之前将整个目录的应答读入内存，无法做到流式解析，因此该类直接打开数据连接，
+ * 由调用者使用 {@link FTPFileEntryParser} 逐条读取并解析条目。
+ *
+ * <p>
+ * 此外，该类可以打开基于通道的数据连接，以便在本地文件与数据连接之间使用
+ * {@link java.nio.channels.FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+ * 等方法直接传输数据，而无需经过用户空间的缓冲区。
+ *
+ * <p>
+ * 该类还记录最近一次打开的数据连接，以便在其它线程中中止正在进行的传输，见 {@link #abortFromOtherThread()}。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class SessionFtpClient extends FTPClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionFtpClient.class);
+
+    private static final SocketFactory CHANNEL_SOCKET_FACTORY = new ChannelSocketFactory();
+    private static final ServerSocketFactory CHANNEL_SERVER_SOCKET_FACTORY = new ChannelServerSocketFactory();
+
+    /**
+     * 中止数据传输时，在 NOOP 指令的应答之前最多读取的应答数量。
+     */
+    private static final int MAX_ABORT_PENDING_REPLY_COUNT = 2;
+
+    private final DefaultFTPFileEntryParserFactory parserFactory = new DefaultFTPFileEntryParserFactory();
+
+    /**
+     * LIST 指令应答的条目解析器，与服务器的系统类型相关，在每个连接上只创建一次。
+     */
+    private FTPFileEntryParser listEntryParser = null;
+
+    /**
+     * 最近一次打开的数据连接，用于在其它线程中中止正在进行的传输。
+     */
+    private volatile Socket dataSocket = null;
+
+    @Override
+    protected void _connectAction_(Reader socketIsReader) throws IOException {
+        // 新的连接可能连接到不同的服务器，解析器失效。
+        listEntryParser = null;
+        super._connectAction_(socketIsReader);
+    }
+
+    @Override
+    protected Socket _openDataConnection_(String command, String arg) throws IOException {
+        Socket socket = super._openDataConnection_(command, arg);
+        dataSocket = socket;
+        return socket;
+    }
+
+    /**
+     * 返回客户端是否已经连接。
+     *
+     * <p>
+     * 控制连接的套接字被关闭之后，{@link Socket#isConnected()} 仍然返回 <code>true</code>，
+     * 因此额外判断套接字是否已经关闭，使控制连接被 {@link #abortFromOtherThread()} 关闭的客户端被视为未连接。
+     *
+     * @return 客户端是否已经连接。
+     */
+    @Override
+    public boolean isConnected() {
+        Socket socket = _socket_;
+        return super.isConnected() && Objects.nonNull(socket) && !socket.isClosed();
+    }
+
+    /**
+     * 打开列出目录的数据连接。
+     *
+     * <p>
+     * 调用者读取完数据连接之后，需要关闭数据连接，并调用 {@link #completePendingCommand()} 方法完成指令。
+     *
+     * @param mlsxFlag 是否使用 MLSD 指令，为 <code>false</code> 时使用 LIST 指令。
+     * @param pathname 目录的路径，为 null 时列出当前工作目录。
+     * @return 数据连接，服务器返回否定应答时返回 null。
+     * @throws IOException IO 异常。
+     */
+    @Nullable
+    Socket openListDataConnection(boolean mlsxFlag, @Nullable String pathname) throws IOException {
+        if (mlsxFlag) {
+            return _openDataConnection_(FTPCmd.MLSD, pathname);
+        } else {
+            return _openDataConnection_(FTPCmd.LIST, getListArguments(pathname));
+        }
+    }
+
+    /**
+     * 打开基于通道的数据连接。
+     *
+     * <p>
+     * 返回的数据连接的 {@link Socket#getChannel()} 方法返回阻塞模式的 {@link SocketChannel}。<br>
+     * 控制连接不受影响，仍然使用原有的套接字工厂创建。
+     *
+     * <p>
+     * 调用者读写完数据连接之后，需要关闭数据连接，并调用 {@link #completePendingCommand()} 方法完成指令。
+     *
+     * @param command 打开数据连接的指令，例如 {@link FTPCmd#RETR} 或 {@link FTPCmd#STOR}。
+     * @param arg     指令的参数。
+     * @return 数据连接，服务器返回否定应答时返回 null。
+     * @throws IOException IO 异常。
+     */
+    @Nullable
+    Socket openChannelDataConnection(FTPCmd command, @Nullable String arg) throws IOException {
+        // 数据连接与控制连接共用套接字工厂，因此仅在打开数据连接期间替换套接字工厂。
+        SocketFactory socketFactory = _socketFactory_;
+        ServerSocketFactory serverSocketFactory = _serverSocketFactory_;
+        _socketFactory_ = CHANNEL_SOCKET_FACTORY;
+        _serverSocketFactory_ = CHANNEL_SERVER_SOCKET_FACTORY;
+        try {
+            return _openDataConnection_(command, arg);
+        } finally {
+            _socketFactory_ = socketFactory;
+            _serverSocketFactory_ = serverSocketFactory;
+        }
+    }
+
+    /**
+     * 中止正在进行的数据传输。
+     *
+     * <p>
+     * 调用者需要先关闭数据连接，再调用该方法。
+     *
+     * <p>
+     * 服务器对 ABOR 指令的应答数量与传输的状态有关：传输尚未结束时，服务器先以 426 应答被中止的指令，
+     * 再以 226 应答 ABOR 指令；传输已经结束时，服务器先以 226 应答传输指令，再应答 ABOR 指令。<br>
+     * 因此，该方法在发送 ABOR 指令之后发送 NOOP 指令，并读取应答，直到读到 NOOP 指令的应答，
+     * 使控制连接上的指令与应答重新对应。
+     *
+     * @return 是否读到了 NOOP 指令的应答，为 <code>false</code> 时控制连接的状态无法确定，调用者应当断开连接。
+     * @throws IOException IO 异常。
+     */
+    boolean abortTransfer() throws IOException {
+        abor();
+        int replyCode = noop();
+        for (int i = 0; i < MAX_ABORT_PENDING_REPLY_COUNT && replyCode != FTPReply.COMMAND_OK; i++) {
+            replyCode = getReply();
+        }
+        return replyCode == FTPReply.COMMAND_OK;
+    }
+
+    /**
+     * 在其它线程中中止正在进行的传输。
+     *
+     * <p>
+     * 该方法向服务器发送 ABOR 指令，但不读取应答，随后关闭数据连接以及控制连接，
+     * 使阻塞在数据连接或者控制连接上的线程立即以异常结束。<br>
+     * 由于控制连接上的指令与应答不再对应，该方法调用之后，客户端被视为未连接，需要重新连接才能继续使用。
+     *
+     * <p>
+     * 该方法可以在任意线程中调用，调用过程中发生的任何异常都不会被抛出。
+     */
+    void abortFromOtherThread() {
+        Socket socket = _socket_;
+        BufferedWriter controlOutput = _controlOutput_;
+        if (Objects.isNull(socket) || socket.isClosed()) {
+            return;
+        }
+        // 控制连接上的写入由 BufferedWriter 的内部锁保护，但无法与正在发送的指令保持完整，
+        // 因此发送 ABOR 指令之后立即关闭连接，不再复用控制连接。
+        if (Objects.nonNull(controlOutput)) {
+            try {
+                controlOutput.write(FTPCmd.ABOR.getCommand() + "\r\n");
+                controlOutput.flush();
+            } catch (IOException e) {
+                LOGGER.debug("发送 ABOR 指令时发生异常, 将直接关闭连接, 异常信息如下: ", e);
+            }
+        }
+        closeQuietly(dataSocket);
+        closeQuietly(socket);
+    }
+
+    private void closeQuietly(@Nullable Socket socket) {
+        if (Objects.isNull(socket)) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.debug("关闭套接字时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    /**
+     * 获取列出目录的条目解析器。
+     *
+     * @param mlsxFlag 是否使用 MLSD 指令，为 <code>false</code> 时使用 LIST 指令。
+     * @return 条目解析器。
+     * @throws IOException IO 异常。
+     */
+    FTPFileEntryParser getListEntryParser(boolean mlsxFlag) throws IOException {
+        if (mlsxFlag) {
+            return MLSxEntryParser.getInstance();
+        }
+        if (listEntryParser == null) {
+            String systemType;
+            try {
+                systemType = getSystemType();
+            } catch (IOException e) {
+                // 部分服务器不支持 SYST 指令，此时按照最常见的 UNIX 格式解析；其它异常照常抛出。
+                if (!FTPReply.isNegativePermanent(getReplyCode())) {
+                    throw e;
+                }
+                systemType = FTPClientConfig.SYST_UNIX;
+            }
+            listEntryParser = parserFactory.createFileEntryParser(systemType);
+        }
+        return listEntryParser;
+    }
+
+    /**
+     * 创建基于通道的套接字的套接字工厂。
+     *
+     * @author DwArFeng
+     * @since 2.1.0
+     */
+    private static final class ChannelSocketFactory extends SocketFactory {
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return SocketChannel.open().socket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return createSocket(InetAddress.getByName(host), port);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return createSocket(InetAddress.getByName(host), port, localHost, localPort);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            Socket socket = createSocket();
+            socket.connect(new InetSocketAddress(host, port));
+            return socket;
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+                throws IOException {
+            Socket socket = createSocket();
+            socket.bind(new InetSocketAddress(localAddress, localPort));
+            socket.connect(new InetSocketAddress(address, port));
+            return socket;
+        }
+    }
+
+    /**
+     * 创建基于通道的服务端套接字的服务端套接字工厂。
+     *
+     * <p>
+     * 基于通道的服务端套接字接受的连接同样基于通道，用于主动模式下的数据连接。
+     *
+     * @author DwArFeng
+     * @since 2.1.0
+     */
+    private static final class ChannelServerSocketFactory extends ServerSocketFactory {
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return ServerSocketChannel.open().socket();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress ifAddress) throws IOException {
+            ServerSocket serverSocket = createServerSocket();
+            serverSocket.bind(new InetSocketAddress(ifAddress, port), backlog);
+            return serverSocket;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 可溢出到临时文件的 FTP 文件内容。
+ *
+ * <p>
+ * 文件内容首先写入堆内存中的数组，数组的容量按需增长，但不超过内存阈值；
+ * 文件内容的长度超过内存阈值时，已经写入的数据以及后续的数据全部写入从临时文件池中借出的临时文件。<br>
+ * 预期的文件内容长度已知且超过内存阈值时，文件内容直接写入临时文件，不占用堆内存。
+ *
+ * <p>
+ * 文件内容只能按照如下的顺序使用：通过 {@link #getWriteChannel()} 写入全部数据，调用 {@link #finishWrite()}；
+ * 之后才可以读取文件内容，最后调用 {@link #close()} 释放资源。
+ *
+ * <p>
+ * 临时文件被映射到内存中后，关闭文件内容时临时文件被直接删除，而不是被截断并放回临时文件池，
+ * 以免被截断的临时文件导致访问映射区域的线程崩溃。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class SpillableFtpFileContent implements FtpFileContent {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillableFtpFileContent.class);
+
+    private final TemporarySpool temporarySpool;
+    private final int memoryThreshold;
+    private final Set<Closeable> openedStreams = new HashSet<>();
+
+    private byte[] memoryBuffer;
+    private TemporarySpool.SpoolFile spoolFile = null;
+    private FileChannel fileChannel = null;
+    private MappedByteBuffer mappedBuffer = null;
+    private long length = 0;
+    private boolean writingFlag = true;
+    private boolean closedFlag = false;
+
+    /**
+     * 构造器。
+     *
+     * @param temporarySpool  临时文件池。
+     * @param memoryThreshold 内存阈值，文件内容的长度超过该值时，文件内容被写入临时文件。
+     * @param expectedLength  预期的文件内容长度，负数表示未知。
+     * @param initialCapacity 预期的文件内容长度未知时，数组的初始容量。
+     */
+    SpillableFtpFileContent(
+            TemporarySpool temporarySpool, int memoryThreshold, long expectedLength, int initialCapacity
+    ) {
+        this.temporarySpool = temporarySpool;
+        this.memoryThreshold = memoryThreshold;
+        if (expectedLength > memoryThreshold) {
+            this.memoryBuffer = null;
+        } else if (expectedLength >= 0) {
+            this.memoryBuffer = new byte[(int) expectedLength];
+        } else {
+            this.memoryBuffer = new byte[Math.min(initialCapacity, memoryThreshold)];
+        }
+    }
+
+    /**
+     * 获取写入文件内容的通道。
+     *
+     * <p>
+     * 关闭该通道等价于调用 {@link #finishWrite()}。
+     *
+     * @return 写入文件内容的通道。
+     */
+    WritableByteChannel getWriteChannel() {
+        return new ContentWriteChannel();
+    }
+
+    private synchronized int write(ByteBuffer src) throws IOException {
+        if (closedFlag || !writingFlag) {
+            throw new IOException("文件内容已经关闭或者已经完成写入");
+        }
+        int len = src.remaining();
+        // 数据能够容纳在内存阈值之内时，写入数组。
+        if (Objects.nonNull(memoryBuffer) && length + len <= memoryThreshold) {
+            int memoryLength = (int) length;
+            if (memoryLength + len > memoryBuffer.length) {
+                int neoCapacity = (int) Math.min(
+                        Math.max((long) memoryBuffer.length << 1, (long) memoryLength + len), memoryThreshold
+                );
+                byte[] neoBuffer = new byte[neoCapacity];
+                System.arraycopy(memoryBuffer, 0, neoBuffer, 0, memoryLength);
+                memoryBuffer = neoBuffer;
+            }
+            src.get(memoryBuffer, memoryLength, len);
+            length += len;
+            return len;
+        }
+        // 否则，将已经写入数组的数据转移到临时文件中，并将后续的数据写入临时文件。
+        if (Objects.isNull(fileChannel)) {
+            spill();
+        }
+        while (src.hasRemaining()) {
+            fileChannel.write(src);
+        }
+        spoolFile.recordWritten(len);
+        length += len;
+        return len;
+    }
+
+    private void spill() throws IOException {
+        spoolFile = temporarySpool.lease();
+        fileChannel = FileChannel.open(spoolFile.getFile().toPath(), StandardOpenOption.WRITE);
+        if (length > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(memoryBuffer, 0, (int) length);
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+            spoolFile.recordWritten(length);
+        }
+        memoryBuffer = null;
+    }
+
+    /**
+     * 完成写入。
+     *
+     * <p>
+     * 该方法是幂等的。
+     *
+     * @throws IOException IO 异常。
+     */
+    synchronized void finishWrite() throws IOException {
+        if (!writingFlag) {
+            return;
+        }
+        writingFlag = false;
+        // 预期的文件内容长度超过内存阈值，但是没有写入任何数据时，文件内容为空。
+        if (Objects.isNull(memoryBuffer) && Objects.isNull(spoolFile)) {
+            memoryBuffer = new byte[0];
+        }
+        if (Objects.nonNull(fileChannel)) {
+            FileChannel closing = fileChannel;
+            fileChannel = null;
+            closing.close();
+        }
+    }
+
+    @Override
+    public synchronized long getLength() {
+        return length;
+    }
+
+    @Override
+    public synchronized boolean isSpilled() {
+        return Objects.nonNull(spoolFile);
+    }
+
+    @Override
+    public synchronized InputStream openInputStream() throws IOException {
+        checkReadable();
+        if (Objects.isNull(spoolFile)) {
+            return new ByteArrayInputStream(memoryBuffer, 0, (int) length);
+        }
+        InputStream in = new SpoolFileInputStream(
+                Files.newInputStream(spoolFile.getFile().toPath(), StandardOpenOption.READ)
+        );
+        openedStreams.add(in);
+        return in;
+    }
+
+    @Override
+    public synchronized ByteBuffer getByteBuffer() throws IOException {
+        checkReadable();
+        if (Objects.isNull(spoolFile)) {
+            return ByteBuffer.wrap(memoryBuffer, 0, (int) length).slice().asReadOnlyBuffer();
+        }
+        if (Objects.isNull(mappedBuffer)) {
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("文件内容过大, 无法映射到缓冲区中: " + length + " 字节");
+            }
+            try (FileChannel channel = FileChannel.open(spoolFile.getFile().toPath(), StandardOpenOption.READ)) {
+                mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+        }
+        return mappedBuffer.duplicate();
+    }
+
+    private void checkReadable() throws IOException {
+        if (closedFlag) {
+            throw new IOException("文件内容已经关闭");
+        }
+        if (writingFlag) {
+            throw new IOException("文件内容尚未完成写入");
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Closeable> closings;
+        synchronized (this) {
+            if (closedFlag) {
+                return;
+            }
+            closedFlag = true;
+            closings = new ArrayList<>(openedStreams);
+            openedStreams.clear();
+            if (Objects.nonNull(fileChannel)) {
+                closings.add(fileChannel);
+                fileChannel = null;
+            }
+        }
+        // 在归还临时文件之前关闭所有的流以及通道。
+        for (Closeable closing : closings) {
+            closeQuietly(closing);
+        }
+        synchronized (this) {
+            memoryBuffer = null;
+            if (Objects.nonNull(spoolFile)) {
+                if (Objects.nonNull(mappedBuffer)) {
+                    temporarySpool.discard(spoolFile);
+                } else {
+                    temporarySpool.release(spoolFile);
+                }
+                spoolFile = null;
+            }
+            mappedBuffer = null;
+        }
+    }
+
+    private synchronized void onStreamClosed(Closeable stream) {
+        openedStreams.remove(stream);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOGGER.warn("关闭文件内容的流时发生异常, 异常信息如下: ", e);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SpillableFtpFileContent{" +
+                "memoryThreshold=" + memoryThreshold +
+                ", spoolFile=" + spoolFile +
+                ", length=" + length +
+                ", writingFlag=" + writingFlag +
+                ", closedFlag=" + closedFlag +
+                '}';
+    }
+
+    private class ContentWriteChannel implements WritableByteChannel {
+
+        private boolean openFlag = true;
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return SpillableFtpFileContent.this.write(src);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return openFlag;
+        }
+
+        @Override
+        public void close() throws IOException {
+            openFlag = false;
+            finishWrite();
+        }
+    }
+
+    private class SpoolFileInputStream extends FilterInputStream {
+
+        private SpoolFileInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            onStreamClosed(this);
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.TemporarySpoolMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 临时文件池。
+ *
+ * <p>
+ * 管理复制文件时使用的临时文件：临时文件在使用完毕后被截断并放回池中，供后续的复制复用，
+ * 池中空闲的临时文件数量不超过指定的上限，超出上限的临时文件在使用完毕后被删除。
+ *
+ * <p>
+ * 临时文件不会通过 {@link File#deleteOnExit()} 注册删除，因为该方法注册的文件在虚拟机退出之前不会被移除，
+ * 长时间运行的服务会因此持续地泄漏内存。<br>
+ * 作为替代，每个临时文件池在打开时创建并锁定一个锁文件，临时文件的名称中包含临时文件池的标识；
+ * 清理时，锁文件存在、但没有被任何进程锁定的临时文件池被认为已经终止，其遗留的临时文件以及锁文件会被删除。
+ * 因此，即使虚拟机异常退出，遗留的临时文件也会在下一次清理时被删除，且多个进程可以安全地共享同一个临时文件目录。
+ *
+ * <p>
+ * 临时文件的名称格式为 <code>前缀 + 临时文件池标识 + . + 序号 + 后缀</code>，
+ * 锁文件的名称格式为 <code>前缀 + 临时文件池标识 + .lock</code>，临时文件池标识为 UUID 的标准字符串形式。<br>
+ * 临时文件目录可能与其它程序共享，因此清理时只删除名称严格符合上述格式的文件，其它文件即使以相同的前缀以及后缀命名，也不会被删除。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class TemporarySpool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemporarySpool.class);
+
+    private static final char SEQUENCE_SEPARATOR = '.';
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+
+    /**
+     * 临时文件池标识的长度，即 UUID 的标准字符串形式的长度。
+     */
+    private static final int SPOOL_ID_LENGTH = 36;
+
+    private final File directory;
+    private final String prefix;
+    private final String suffix;
+    private final int maxIdle;
+
+    private final Deque<File> idleFiles = new ArrayDeque<>();
+    private final Set<File> leasedFiles = new HashSet<>();
+
+    private String spoolId = null;
+    private FileChannel lockChannel = null;
+    private FileLock lock = null;
+    private long sequence = 0;
+
+    private long bytesInUse = 0;
+    private long createdFileCount = 0;
+    private long deletedOrphanFileCount = 0;
+
+    /**
+     * 构造器。
+     *
+     * @param directoryPath 临时文件所在的目录。
+     * @param prefix        临时文件的前缀。
+     * @param suffix        临时文件的后缀。
+     * @param maxIdle       池中空闲的临时文件的最大数量。
+     */
+    TemporarySpool(String directoryPath, String prefix, String suffix, int maxIdle) {
+        this.directory = new File(directoryPath);
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * 打开临时文件池。
+     *
+     * <p>
+     * 创建并锁定锁文件，锁文件在临时文件池关闭之前保持锁定，以此向其它临时文件池表明本临时文件池仍然存活。
+     *
+     * @throws IOException IO 异常。
+     */
+    synchronized void open() throws IOException {
+        if (Objects.nonNull(spoolId)) {
+            return;
+        }
+        String neoSpoolId = UUID.randomUUID().toString();
+        File lockFile = new File(directory, prefix + neoSpoolId + LOCK_FILE_SUFFIX);
+        FileChannel channel = FileChannel.open(
+                lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE
+        );
+        try {
+            lock = channel.lock();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        lockChannel = channel;
+        spoolId = neoSpoolId;
+        sequence = 0;
+    }
+
+    /**
+     * 关闭临时文件池。
+     *
+     * <p>
+     * 删除所有空闲的临时文件，释放并删除锁文件；仍被使用的临时文件在归还时被删除。
+     */
+    synchronized void close() {
+        if (Objects.isNull(spoolId)) {
+            return;
+        }
+        while (!idleFiles.isEmpty()) {
+            deleteFile(idleFiles.pollFirst());
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("释放临时文件池的锁文件时发生异常, 异常信息如下: ", e);
+        }
+        deleteFile(new File(directory, prefix + spoolId + LOCK_FILE_SUFFIX));
+        lock = null;
+        lockChannel = null;
+        spoolId = null;
+    }
+
+    /**
+     * 借出临时文件。
+     *
+     * <p>
+     * 优先借出空闲的临时文件，没有空闲的临时文件时，新建临时文件；临时文件池未打开时，首先打开临时文件池。<br>
+     * 借出的临时文件的内容为空，使用完毕后必须调用 {@link #release(SpoolFile)} 归还。
+     *
+     * @return 借出的临时文件。
+     * @throws IOException 打开临时文件池，或者新建临时文件失败时抛出的异常。
+     */
+    synchronized SpoolFile lease() throws IOException {
+        if (Objects.isNull(spoolId)) {
+            open();
+        }
+        File file = idleFiles.pollFirst();
+        if (Objects.isNull(file)) {
+            file = new File(directory, prefix + spoolId + SEQUENCE_SEPARATOR + (sequence++) + suffix);
+            Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+                    .close();
+            createdFileCount++;
+        }
+        leasedFiles.add(file);
+        return new SpoolFile(file);
+    }
+
+    /**
+     * 归还临时文件。
+     *
+     * <p>
+     * 临时文件被截断后放回池中；池中空闲的临时文件已经达到上限，或者临时文件池已经关闭时，临时文件被删除。<br>
+     * 调用该方法之前，调用者必须关闭临时文件的所有流。
+     *
+     * @param spoolFile 归还的临时文件。
+     */
+    void release(SpoolFile spoolFile) {
+        File file = spoolFile.getFile();
+        boolean retainFlag;
+        synchronized (this) {
+            if (!leasedFiles.remove(file)) {
+                return;
+            }
+            bytesInUse -= spoolFile.getWrittenBytes();
+            retainFlag = Objects.nonNull(spoolId) && idleFiles.size() < maxIdle;
+        }
+        // 截断或删除文件涉及磁盘 IO，在锁外进行。
+        if (retainFlag && truncateFile(file)) {
+            synchronized (this) {
+                if (Objects.nonNull(spoolId) && idleFiles.size() < maxIdle) {
+                    idleFiles.offerFirst(file);
+                    return;
+                }
+            }
+        }
+        deleteFile(file);
+    }
+
+    /**
+     * 丢弃临时文件。
+     *
+     * <p>
+     * 临时文件被直接删除，不会被放回池中。<br>
+     * 临时文件可能仍被映射到内存中时，应该调用该方法代替 {@link #release(SpoolFile)}，
+     * 以免被截断的临时文件导致访问映射区域的线程崩溃。
+     *
+     * @param spoolFile 丢弃的临时文件。
+     */
+    void discard(SpoolFile spoolFile) {
+        File file = spoolFile.getFile();
+        synchronized (this) {
+            if (!leasedFiles.remove(file)) {
+                return;
+            }
+            bytesInUse -= spoolFile.getWrittenBytes();
+        }
+        deleteFile(file);
+    }
+
+    /**
+     * 清理临时文件目录。
+     *
+     * <p>
+     * 删除已经终止的临时文件池遗留的临时文件以及锁文件。<br>
+     * 只有名称中的临时文件池标识是合法的 UUID、且对应的锁文件存在但没有被任何进程锁定时，文件才会被删除；
+     * 锁文件不存在时，无法确认文件由临时文件池创建，文件被保留。
+     *
+     * @return 删除的临时文件的数量。
+     */
+    int clean() {
+        String selfSpoolId;
+        synchronized (this) {
+            selfSpoolId = spoolId;
+        }
+        File[] files = directory.listFiles();
+        if (Objects.isNull(files)) {
+            return 0;
+        }
+        // 按照临时文件池标识归类锁文件以及临时文件。
+        Set<String> lockOwnerIds = new HashSet<>();
+        Map<String, List<File>> ownerFileMap = new HashMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (!file.isFile() || !name.startsWith(prefix)) {
+                continue;
+            }
+            if (name.endsWith(LOCK_FILE_SUFFIX)) {
+                String ownerId = name.substring(prefix.length(), name.length() - LOCK_FILE_SUFFIX.length());
+                if (isSpoolId(ownerId)) {
+                    lockOwnerIds.add(ownerId);
+                }
+                continue;
+            }
+            String ownerId = parseOwnerId(name);
+            if (Objects.nonNull(ownerId)) {
+                ownerFileMap.computeIfAbsent(ownerId, k -> new ArrayList<>()).add(file);
+            }
+        }
+        // 删除已经终止的临时文件池的临时文件，最后删除其锁文件。
+        int count = 0;
+        for (String ownerId : lockOwnerIds) {
+            if (ownerId.equals(selfSpoolId) || isOwnerAlive(ownerId)) {
+                continue;
+            }
+            for (File file : ownerFileMap.getOrDefault(ownerId, Collections.emptyList())) {
+                if (deleteFile(file)) {
+                    count++;
+                }
+            }
+            deleteFile(new File(directory, prefix + ownerId + LOCK_FILE_SUFFIX));
+        }
+        synchronized (this) {
+            deletedOrphanFileCount += count;
+        }
+        return count;
+    }
+
+    /**
+     * 解析临时文件的名称中的临时文件池标识。
+     *
+     * @param name 文件的名称。
+     * @return 临时文件池标识，名称不符合临时文件的名称格式时返回 null。
+     */
+    @Nullable
+    private String parseOwnerId(String name) {
+        if (!name.endsWith(suffix) || name.length() < prefix.length() + suffix.length()) {
+            return null;
+        }
+        String middle = name.substring(prefix.length(), name.length() - suffix.length());
+        int separatorIndex = middle.indexOf(SEQUENCE_SEPARATOR);
+        if (separatorIndex < 0 || separatorIndex == middle.length() - 1) {
+            return null;
+        }
+        for (int i = separatorIndex + 1; i < middle.length(); i++) {
+            if (!Character.isDigit(middle.charAt(i))) {
+                return null;
+            }
+        }
+        String ownerId = middle.substring(0, separatorIndex);
+        return isSpoolId(ownerId) ? ownerId : null;
+    }
+
+    private boolean isSpoolId(String ownerId) {
+        if (ownerId.length() != SPOOL_ID_LENGTH) {
+            return false;
+        }
+        try {
+            return UUID.fromString(ownerId).toString().equals(ownerId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取临时文件池的指标。
+     *
+     * @return 临时文件池的指标。
+     */
+    synchronized TemporarySpoolMetrics getMetrics() {
+        return new TemporarySpoolMetrics(
+                bytesInUse, leasedFiles.size(), idleFiles.size(), createdFileCount, deletedOrphanFileCount
+        );
+    }
+
+    private synchronized void recordWrittenBytes(long length) {
+        bytesInUse += length;
+    }
+
+    /**
+     * 判断指定标识的临时文件池是否仍然存活。
+     *
+     * <p>
+     * 锁文件不存在，或者能够锁定锁文件时，说明临时文件池已经终止。<br>
+     * 同一个虚拟机中的其它临时文件池持有的锁会导致 {@link OverlappingFileLockException}，说明临时文件池仍然存活。
+     */
+    private boolean isOwnerAlive(String ownerId) {
+        File lockFile = new File(directory, prefix + ownerId + LOCK_FILE_SUFFIX);
+        if (!lockFile.exists()) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.WRITE)) {
+            FileLock ownerLock = channel.tryLock();
+            if (Objects.isNull(ownerLock)) {
+                return true;
+            }
+            ownerLock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true;
+        } catch (IOException e) {
+            // 无法确定时，保守地认为临时文件池仍然存活。
+            return true;
+        }
+    }
+
+    private boolean truncateFile(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("截断临时文件失败: {}, 异常信息如下: ", file.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    private boolean deleteFile(File file) {
+        if (!file.exists()) {
+            return false;
+        }
+        if (!file.delete()) {
+            LOGGER.warn("删除临时文件失败: {}", file.getAbsolutePath());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TemporarySpool{" +
+                "directory=" + directory +
+                ", prefix='" + prefix + '\'' +
+                ", suffix='" + suffix + '\'' +
+                ", maxIdle=" + maxIdle +
+                ", spoolId='" + spoolId + '\'' +
+                ", leasedFileCount=" + leasedFiles.size() +
+                ", idleFileCount=" + idleFiles.size() +
+                ", bytesInUse=" + bytesInUse +
+                '}';
+    }
+
+    /**
+     * 借出的临时文件。
+     *
+     * <p>
+     * 写入临时文件的调用者需要通过 {@link #recordWritten(long)} 方法记录写入的字节数，以便统计临时文件池的指标。
+     *
+     * <p>
+     * 该类不是线程安全的。
+     *
+     * @author DwArFeng
+     * @since 2.1.0
+     */
+    final class SpoolFile {
+
+        private final File file;
+        private long writtenBytes = 0;
+
+        private SpoolFile(File file) {
+            this.file = file;
+        }
+
+        /**
+         * 记录写入临时文件的字节数。
+         *
+         * @param length 写入的字节数。
+         */
+        void recordWritten(long length) {
+            writtenBytes += length;
+            recordWrittenBytes(length);
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        long getWrittenBytes() {
+            return writtenBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "SpoolFile{" +
+                    "file=" + file +
+                    ", writtenBytes=" + writtenBytes +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpTransferAbortedException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * 传输中止令牌。
+ *
+ * <p>
+ * 异步操作在执行期间将令牌绑定到执行线程，处理器在该线程中借出会话时，将会话登记到令牌中，归还会话时注销。<br>
+ * 其它线程调用 {@link #abort()} 方法时，令牌在所有登记的会话上发送 ABOR 指令并关闭连接，
+ * 使正在进行的传输立即以异常结束，正在等待借出会话的线程也立即停止等待；
+ * 此后，该线程借出会话或者重新连接会话时，立即抛出 {@link FtpTransferAbortedException}，操作不会被重试或者断点续传。
+ *
+ * <p>
+ * 操作结束之后，令牌被标记为完成，此后的中止不产生任何效果，以免影响操作返回的流所持有的会话。
+ *
+ * <p>
+ * 该类是线程安全的。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class TransferAbortToken {
+
+    private static final ThreadLocal<TransferAbortToken> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 登记的会话。
+     */
+    private final Set<FtpSession> sessions = new HashSet<>();
+
+    /**
+     * 正在被中止的会话。
+     *
+     * <p>
+     * 中止会话需要进行网络 IO，因此在令牌的锁外进行；注销会话时等待该会话的中止完成，
+     * 因此被中止的会话一定尚未归还，不会影响其它操作借出的会话。
+     */
+    private final Set<FtpSession> abortingSessions = new HashSet<>();
+
+    /**
+     * 执行操作的线程正在等待借出会话的会话池。
+     *
+     * <p>
+     * 令牌被中止时唤醒该会话池中等待的线程，使执行操作的线程不必等到会话被归还或者等待超时才停止。
+     */
+    @Nullable
+    private FtpSessionPool waitingPool = null;
+
+    private boolean abortedFlag = false;
+    private boolean finishedFlag = false;
+
+    /**
+     * 获取绑定到当前线程的令牌。
+     *
+     * @return 绑定到当前线程的令牌，当前线程没有绑定令牌时返回 null。
+     */
+    @Nullable
+    static TransferAbortToken current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 将指定的令牌绑定到当前线程，并执行指定的操作，操作结束后恢复当前线程原有的令牌。
+     *
+     * @param token    指定的令牌，允许为 null，为 null 时当前线程在操作期间不绑定令牌。
+     * @param callable 执行的操作。
+     * @param <T>      操作结果的类型。
+     * @return 操作的结果。
+     * @throws Exception 操作过程中发生的异常。
+     */
+    static <T> T callWith(@Nullable TransferAbortToken token, Callable<T> callable) throws Exception {
+        TransferAbortToken previous = CURRENT.get();
+        CURRENT.set(token);
+        try {
+            return callable.call();
+        } finally {
+            if (Objects.isNull(previous)) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 登记会话。
+     *
+     * @param session 借出的会话。
+     * @throws FtpTransferAbortedException 令牌已经被中止时抛出的异常，此时会话不会被登记。
+     */
+    synchronized void attach(FtpSession session) throws FtpTransferAbortedException {
+        checkNotAborted();
+        if (!finishedFlag) {
+            sessions.add(session);
+        }
+    }
+
+    /**
+     * 注销会话。
+     *
+     * <p>
+     * 会话正在被其它线程中止时，等待中止完成之后再返回，以免会话在中止完成之前被归还。
+     *
+     * @param session 归还的会话。
+     */
+    synchronized void detach(FtpSession session) {
+        sessions.remove(session);
+        boolean interruptedFlag = false;
+        while (abortingSessions.contains(session)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interruptedFlag = true;
+            }
+        }
+        if (interruptedFlag) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 登记执行操作的线程开始等待借出指定会话池的会话。
+     *
+     * <p>
+     * 调用者需要持有会话池的锁，并在等待结束后调用 {@link #endWait()}。
+     *
+     * @param pool 等待借出会话的会话池。
+     * @throws FtpTransferAbortedException 令牌已经被中止时抛出的异常，此时不应当开始等待。
+     * @see FtpSessionPool#borrowSession(TransferAbortToken)
+     */
+    synchronized void beginWait(FtpSessionPool pool) throws FtpTransferAbortedException {
+        checkNotAborted();
+        waitingPool = pool;
+    }
+
+    /**
+     * 登记执行操作的线程结束等待借出会话。
+     */
+    synchronized void endWait() {
+        waitingPool = null;
+    }
+
+    /**
+     * 确认令牌没有被中止。
+     *
+     * @throws FtpTransferAbortedException 令牌已经被中止时抛出的异常。
+     */
+    synchronized void checkNotAborted() throws FtpTransferAbortedException {
+        if (abortedFlag) {
+            throw new FtpTransferAbortedException();
+        }
+    }
+
+    /**
+     * 中止操作。
+     *
+     * <p>
+     * 在所有登记的会话上发送 ABOR 指令并关闭连接；执行操作的线程正在等待借出会话时，唤醒该线程，使其停止等待。
+     * 令牌已经被中止或者操作已经结束时，不进行任何操作。<br>
+     * 登记的会话在令牌的锁内被取出，发送指令与关闭连接在锁外进行，因此中止期间不会阻塞执行操作的线程访问令牌；
+     * 唤醒等待的线程同样在令牌的锁外进行，以免与持有会话池的锁登记等待的线程形成死锁。
+     *
+     * @return 本次调用是否中止了操作。
+     */
+    boolean abort() {
+        List<FtpSession> abortingSessionList;
+        FtpSessionPool pool;
+        synchronized (this) {
+            if (abortedFlag || finishedFlag) {
+                return false;
+            }
+            abortedFlag = true;
+            abortingSessionList = new ArrayList<>(sessions);
+            abortingSessions.addAll(sessions);
+            sessions.clear();
+            pool = waitingPool;
+        }
+        if (Objects.nonNull(pool)) {
+            pool.wakeUpWaiters();
+        }
+        for (FtpSession session : abortingSessionList) {
+            try {
+                session.getFtpClient().abortFromOtherThread();
+            } finally {
+                synchronized (this) {
+                    abortingSessions.remove(session);
+                    notifyAll();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 标记操作已经结束。
+     *
+     * <p>
+     * 标记之后，令牌不再登记会话，中止也不再产生任何效果。
+     */
+    synchronized void finish() {
+        finishedFlag = true;
+        sessions.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TransferAbortToken{" +
+                "sessionCount=" + sessions.size() +
+                ", abortingSessionCount=" + abortingSessions.size() +
+                ", waitingFlag=" + Objects.nonNull(waitingPool) +
+                ", abortedFlag=" + abortedFlag +
+                ", finishedFlag=" + finishedFlag +
+                '}';
+    }
+}
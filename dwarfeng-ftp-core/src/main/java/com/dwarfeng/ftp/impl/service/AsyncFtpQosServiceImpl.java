@@ -0,0 +1,292 @@
+package com.dwarfeng.ftp.impl.service;
+
+import com.dwarfeng.ftp.impl.handler.FtpAsyncExecutor;
+import com.dwarfeng.ftp.sdk.util.FtpConfigUtil;
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
+import com.dwarfeng.ftp.stack.service.AsyncFtpQosService;
+import com.dwarfeng.ftp.stack.service.FtpQosService;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步 FTP QoS 服务实现。
+ *
+ * <p>
+ * 该实现将 {@link FtpQosService} 的操作提交到 {@link FtpAsyncExecutor} 中执行，
+ * 取消以及超时时中止传输的行为见 {@link FtpAsyncExecutor}。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class AsyncFtpQosServiceImpl implements AsyncFtpQosService {
+
+    private final FtpQosService service;
+    private final FtpAsyncExecutor executor;
+    private final long timeout;
+
+    public AsyncFtpQosServiceImpl(@Nonnull FtpQosService service, @Nonnull FtpAsyncExecutor executor) {
+        this(service, executor, executor.getDefaultTimeout());
+    }
+
+    public AsyncFtpQosServiceImpl(@Nonnull FtpQosService service, @Nonnull FtpAsyncExecutor executor, long timeout) {
+        FtpConfigUtil.checkAsyncOperationTimeout(timeout);
+        this.service = service;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public AsyncFtpQosService withTimeout(long timeout) {
+        return new AsyncFtpQosServiceImpl(service, executor, timeout);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> listHandlerNames() {
+        return submit(service::listHandlerNames);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isStarted(@Nullable String handlerName) {
+        return submit(() -> service.isStarted(handlerName));
+    }
+
+    @Override
+    public CompletableFuture<Void> start(@Nullable String handlerName) {
+        return submit(() -> {
+            service.start(handlerName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> stop(@Nullable String handlerName) {
+        return submit(() -> {
+            service.stop(handlerName);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> service.existsFile(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFile(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull byte[] content
+    ) {
+        return submit(() -> {
+            service.storeFile(handlerName, fileLocation, content);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieveFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> service.retrieveFile(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFileByStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull InputStream in
+    ) {
+        return submit(() -> {
+            service.storeFileByStream(handlerName, fileLocation, in);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveFileByStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull OutputStream out
+    ) {
+        return submit(() -> {
+            service.retrieveFileByStream(handlerName, fileLocation, out);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> {
+            service.deleteFile(handlerName, fileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> removeDirectory(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) {
+        return submit(() -> {
+            service.removeDirectory(handlerName, fileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<FtpFile[]> listFiles(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> service.listFiles(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<String[]> listFileNames(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) {
+        return submit(() -> service.listFileNames(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> openInputStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) {
+        return submit(() -> service.openInputStream(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<OutputStream> openOutputStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) {
+        return submit(() -> service.openOutputStream(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> renameFile(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    ) {
+        return submit(() -> {
+            service.renameFile(handlerName, oldFileLocation, neoFileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> clearDirectory(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> {
+            service.clearDirectory(handlerName, fileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> copyFile(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    ) {
+        return submit(() -> {
+            service.copyFile(handlerName, oldFileLocation, neoFileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<FtpFile> descFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation) {
+        return submit(() -> service.descFile(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> moveFile(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    ) {
+        return submit(() -> {
+            service.moveFile(handlerName, oldFileLocation, neoFileLocation);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> ensureDirectories(
+            @Nullable String handlerName, @Nonnull List<FtpFileLocation> fileLocations
+    ) {
+        return submit(() -> {
+            service.ensureDirectories(handlerName, fileLocations);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> visitFiles(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull FtpFileVisitor visitor
+    ) {
+        return submit(() -> {
+            service.visitFiles(handlerName, fileLocation, visitor);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFileFromPath(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) {
+        return submit(() -> {
+            service.storeFileFromPath(handlerName, fileLocation, path);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> retrieveFileToPath(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) {
+        return submit(() -> {
+            service.retrieveFileToPath(handlerName, fileLocation, path);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<ByteBuffer> retrieveFileAsByteBuffer(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, boolean direct
+    ) {
+        return submit(() -> service.retrieveFileAsByteBuffer(handlerName, fileLocation, direct));
+    }
+
+    @Override
+    public CompletableFuture<FtpFileContent> retrieveFileContent(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) {
+        return submit(() -> service.retrieveFileContent(handlerName, fileLocation));
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFileFromChannel(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    ) {
+        return submit(() -> {
+            service.storeFileFromChannel(handlerName, fileLocation, fileChannel);
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> operation) {
+        return executor.submit(operation, timeout);
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncFtpQosServiceImpl{" +
+                "service=" + service +
+                ", executor=" + executor +
+                ", timeout=" + timeout +
+                '}';
+    }
+}
@@ -1,8 +1,10 @@
 package com.dwarfeng.ftp.impl.service;
 
 import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
 import com.dwarfeng.ftp.stack.handler.FtpQosHandler;
 import com.dwarfeng.ftp.stack.service.FtpQosService;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
 import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
 import com.dwarfeng.subgrade.sdk.exception.ServiceExceptionHelper;
 import com.dwarfeng.subgrade.stack.exception.ServiceException;
@@ -16,6 +18,9 @@ import javax.annotation.Nullable;
 import javax.annotation.PreDestroy;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -443,4 +448,87 @@ public class FtpQosServiceImpl implements FtpQosService {
         }
     }
 
+    @Override
+    public void ensureDirectories(
+            @Nullable String handlerName,
+            @Nonnull List<FtpFileLocation> fileLocations
+    ) throws ServiceException {
+        try {
+            ftpQosHandler.ensureDirectories(handlerName, fileLocations);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("确保 FTP 目录存在时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
+    @Override
+    public void visitFiles(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation,
+            @Nonnull FtpFileVisitor visitor
+    ) throws ServiceException {
+        try {
+            ftpQosHandler.visitFiles(handlerName, fileLocation, visitor);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("流式访问 FTP 目录下的文件时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
+    @Override
+    public void storeFileFromPath(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) throws ServiceException {
+        try {
+            ftpQosHandler.storeFileFromPath(handlerName, fileLocation, path);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("将本地文件存储为 FTP 文件时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
+    @Override
+    public void retrieveFileToPath(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) throws ServiceException {
+        try {
+            ftpQosHandler.retrieveFileToPath(handlerName, fileLocation, path);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("将 FTP 文件获取到本地文件时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
+    @Override
+    public ByteBuffer retrieveFileAsByteBuffer(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, boolean direct
+    ) throws ServiceException {
+        try {
+            return ftpQosHandler.retrieveFileAsByteBuffer(handlerName, fileLocation, direct);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("以缓冲区的形式获取 FTP 文件时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
+    @Override
+    public FtpFileContent retrieveFileContent(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) throws ServiceException {
+        try {
+            return ftpQosHandler.retrieveFileContent(handlerName, fileLocation);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("获取 FTP 文件内容时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
+    @Override
+    public void storeFileFromChannel(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    ) throws ServiceException {
+        try {
+            ftpQosHandler.storeFileFromChannel(handlerName, fileLocation, fileChannel);
+        } catch (Exception e) {
+            throw ServiceExceptionHelper.logParse("将文件通道中的数据存储为 FTP 文件时发生异常", LogLevel.WARN, e, sem);
+        }
+    }
+
 }
@@ -0,0 +1,140 @@
+package com.dwarfeng.ftp.node.configuration;
+
+import com.dwarfeng.ftp.impl.handler.AsyncFtpHandlerImpl;
+import com.dwarfeng.ftp.impl.handler.FtpAsyncExecutor;
+import com.dwarfeng.ftp.impl.handler.NioTransferEngine;
+import com.dwarfeng.ftp.impl.service.AsyncFtpQosServiceImpl;
+import com.dwarfeng.ftp.sdk.util.BeanDefinitionParserUtil;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.xml.BeanDefinitionParser;
+import org.springframework.beans.factory.xml.ParserContext;
+import org.w3c.dom.Element;
+
+import javax.annotation.Nonnull;
+
+/**
+ * FTP Async 元素的 BeanDefinitionParser。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpAsyncDefinitionParser implements BeanDefinitionParser {
+
+    @Override
+    public BeanDefinition parse(Element element, @Nonnull ParserContext parserContext) {
+        String executorName = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("executor-name")
+        );
+        String nioEngineName = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("nio-engine-name")
+        );
+        String asyncHandlerName = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("async-handler-name")
+        );
+        String asyncQosServiceName = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("async-qos-service-name")
+        );
+        String schedulerRef = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("scheduler-ref")
+        );
+        String configRef = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("config-ref")
+        );
+        String handlerRef = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("handler-ref")
+        );
+        String qosServiceRef = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("qos-service-ref")
+        );
+        String qosEnabled = (String) BeanDefinitionParserUtil.mayResolveSpel(
+                parserContext, element.getAttribute("qos-enabled")
+        );
+
+        BeanDefinitionParserUtil.makeSureBeanNameNotDuplicated(parserContext, executorName);
+        BeanDefinitionParserUtil.makeSureBeanNameNotDuplicated(parserContext, nioEngineName);
+        BeanDefinitionParserUtil.makeSureBeanNameNotDuplicated(parserContext, asyncHandlerName);
+        if (Boolean.parseBoolean(qosEnabled)) {
+            BeanDefinitionParserUtil.makeSureBeanNameNotDuplicated(parserContext, asyncQosServiceName);
+        }
+
+        BeanDefinitionBuilder ftpAsyncExecutorBuilder = BeanDefinitionBuilder.rootBeanDefinition(
+                FtpAsyncExecutor.class
+        );
+        ftpAsyncExecutorBuilder.getRawBeanDefinition().setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+        ConstructorArgumentValues ftpAsyncExecutorConstructorArgumentValues = new ConstructorArgumentValues();
+        ftpAsyncExecutorConstructorArgumentValues.addIndexedArgumentValue(0, new RuntimeBeanReference(schedulerRef));
+        ftpAsyncExecutorConstructorArgumentValues.addIndexedArgumentValue(1, new RuntimeBeanReference(configRef));
+        ftpAsyncExecutorBuilder.getRawBeanDefinition().setConstructorArgumentValues(
+                ftpAsyncExecutorConstructorArgumentValues
+        );
+        ftpAsyncExecutorBuilder.setDestroyMethodName("shutdown");
+        ftpAsyncExecutorBuilder.setScope(BeanDefinition.SCOPE_SINGLETON);
+        ftpAsyncExecutorBuilder.setLazyInit(false);
+        parserContext.getRegistry().registerBeanDefinition(executorName, ftpAsyncExecutorBuilder.getBeanDefinition());
+
+        BeanDefinitionBuilder nioTransferEngineBuilder = BeanDefinitionBuilder.rootBeanDefinition(
+                NioTransferEngine.class
+        );
+        nioTransferEngineBuilder.getRawBeanDefinition().setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+        ConstructorArgumentValues nioTransferEngineConstructorArgumentValues = new ConstructorArgumentValues();
+        nioTransferEngineConstructorArgumentValues.addIndexedArgumentValue(0, new RuntimeBeanReference(schedulerRef));
+        nioTransferEngineConstructorArgumentValues.addIndexedArgumentValue(1, new RuntimeBeanReference(handlerRef));
+        nioTransferEngineConstructorArgumentValues.addIndexedArgumentValue(2, new RuntimeBeanReference(configRef));
+        nioTransferEngineBuilder.getRawBeanDefinition().setConstructorArgumentValues(
+                nioTransferEngineConstructorArgumentValues
+        );
+        nioTransferEngineBuilder.setDestroyMethodName("shutdown");
+        nioTransferEngineBuilder.setScope(BeanDefinition.SCOPE_SINGLETON);
+        nioTransferEngineBuilder.setLazyInit(false);
+        parserContext.getRegistry().registerBeanDefinition(
+                nioEngineName, nioTransferEngineBuilder.getBeanDefinition()
+        );
+
+        BeanDefinitionBuilder asyncFtpHandlerBuilder = BeanDefinitionBuilder.rootBeanDefinition(
+                AsyncFtpHandlerImpl.class
+        );
+        asyncFtpHandlerBuilder.getRawBeanDefinition().setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+        ConstructorArgumentValues asyncFtpHandlerConstructorArgumentValues = new ConstructorArgumentValues();
+        asyncFtpHandlerConstructorArgumentValues.addIndexedArgumentValue(0, new RuntimeBeanReference(handlerRef));
+        asyncFtpHandlerConstructorArgumentValues.addIndexedArgumentValue(1, new RuntimeBeanReference(executorName));
+        asyncFtpHandlerConstructorArgumentValues.addIndexedArgumentValue(2, new RuntimeBeanReference(nioEngineName));
+        asyncFtpHandlerBuilder.getRawBeanDefinition().setConstructorArgumentValues(
+                asyncFtpHandlerConstructorArgumentValues
+        );
+        asyncFtpHandlerBuilder.setScope(BeanDefinition.SCOPE_SINGLETON);
+        asyncFtpHandlerBuilder.setLazyInit(false);
+        parserContext.getRegistry().registerBeanDefinition(
+                asyncHandlerName, asyncFtpHandlerBuilder.getBeanDefinition()
+        );
+
+        if (!Boolean.parseBoolean(qosEnabled)) {
+            return null;
+        }
+
+        BeanDefinitionBuilder asyncFtpQosServiceBuilder = BeanDefinitionBuilder.rootBeanDefinition(
+                AsyncFtpQosServiceImpl.class
+        );
+        asyncFtpQosServiceBuilder.getRawBeanDefinition().setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+        ConstructorArgumentValues asyncFtpQosServiceConstructorArgumentValues = new ConstructorArgumentValues();
+        asyncFtpQosServiceConstructorArgumentValues.addIndexedArgumentValue(
+                0, new RuntimeBeanReference(qosServiceRef)
+        );
+        asyncFtpQosServiceConstructorArgumentValues.addIndexedArgumentValue(
+                1, new RuntimeBeanReference(executorName)
+        );
+        asyncFtpQosServiceBuilder.getRawBeanDefinition().setConstructorArgumentValues(
+                asyncFtpQosServiceConstructorArgumentValues
+        );
+        asyncFtpQosServiceBuilder.setScope(BeanDefinition.SCOPE_SINGLETON);
+        asyncFtpQosServiceBuilder.setLazyInit(false);
+        parserContext.getRegistry().registerBeanDefinition(
+                asyncQosServiceName, asyncFtpQosServiceBuilder.getBeanDefinition()
+        );
+
+        return null;
+    }
+}
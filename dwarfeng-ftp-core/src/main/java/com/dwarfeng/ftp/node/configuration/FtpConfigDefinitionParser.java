@@ -117,6 +117,198 @@ public class FtpConfigDefinitionParser implements BeanDefinitionParser {
                         parserContext, element.getAttribute("active-remote-data-connection-mode-server-port")
                 )
         );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "sessionPoolMaxTotal",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("session-pool-max-total")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "sessionPoolMaxIdle",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("session-pool-max-idle")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "sessionPoolMinIdle",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("session-pool-min-idle")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "sessionPoolMaxWait",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("session-pool-max-wait")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "sessionTrustPeriod",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("session-trust-period")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "absolutePathAddressing",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("absolute-path-addressing")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "knownDirectoryCacheSize",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("known-directory-cache-size")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "listingCacheTimeToLive",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("listing-cache-time-to-live")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "listingCacheMaxEntries",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("listing-cache-max-entries")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "listingCacheMaxMemory",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("listing-cache-max-memory")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "serverSideCopyEnabled",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("server-side-copy-enabled")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "pipedCopyEnabled",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("piped-copy-enabled")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "temporarySpoolMaxIdle",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("temporary-spool-max-idle")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "temporarySpoolCleanInterval",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("temporary-spool-clean-interval")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "fileCopyMemoryBufferType",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("file-copy-memory-buffer-type")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "fileCopyFileBufferType",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("file-copy-file-buffer-type")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "retrieveContentMemoryThreshold",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("retrieve-content-memory-threshold")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "memoryBudget",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("memory-budget")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "globalMemoryBudget",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("global-memory-budget")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "memoryBudgetMaxWait",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("memory-budget-max-wait")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "segmentedDownloadSegmentCount",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("segmented-download-segment-count")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "segmentedDownloadSegmentSize",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("segmented-download-segment-size")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "segmentedDownloadSegmentMaxRetries",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("segmented-download-segment-max-retries")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "uploadResumeMaxAttempts",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("upload-resume-max-attempts")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "downloadResumeMaxAttempts",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("download-resume-max-attempts")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "downloadResumeVerifyEnabled",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("download-resume-verify-enabled")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "asyncExecutorPoolSize",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("async-executor-pool-size")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "asyncExecutorQueueCapacity",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("async-executor-queue-capacity")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "asyncOperationTimeout",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("async-operation-timeout")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "nioTransferEnabled",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("nio-transfer-enabled")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "nioTransferSelectorCount",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("nio-transfer-selector-count")
+                )
+        );
+        ftpConfigBuilderBeanDefinition.getPropertyValues().add(
+                "nioTransferControlThreadCount",
+                BeanDefinitionParserUtil.mayResolvePlaceholder(
+                        parserContext, element.getAttribute("nio-transfer-control-thread-count")
+                )
+        );
         ftpConfigBuilderBeanDefinition.setScope(BeanDefinition.SCOPE_SINGLETON);
         ftpConfigBuilderBeanDefinition.setLazyInit(false);
         String ftpConfigBuilderBeanName = BeanDefinitionParserUtil.parseAvailableBeanName(
@@ -15,5 +15,6 @@ public class FtpNamespaceHandlerSupport extends NamespaceHandlerSupport {
         registerBeanDefinitionParser("config", new FtpConfigDefinitionParser());
         registerBeanDefinitionParser("handler", new FtpHandlerDefinitionParser());
         registerBeanDefinitionParser("qos", new FtpQosDefinitionParser());
+        registerBeanDefinitionParser("async", new FtpAsyncDefinitionParser());
     }
 }
@@ -1,10 +1,16 @@
 package com.dwarfeng.ftp.node.configuration;
 
+import com.dwarfeng.ftp.impl.handler.AsyncFtpHandlerImpl;
+import com.dwarfeng.ftp.impl.handler.FtpAsyncExecutor;
+import com.dwarfeng.ftp.impl.handler.NioTransferEngine;
 import com.dwarfeng.ftp.impl.handler.FtpHandlerImpl;
 import com.dwarfeng.ftp.impl.handler.FtpQosHandlerImpl;
+import com.dwarfeng.ftp.impl.service.AsyncFtpQosServiceImpl;
 import com.dwarfeng.ftp.impl.service.FtpQosServiceImpl;
+import com.dwarfeng.ftp.stack.handler.AsyncFtpHandler;
 import com.dwarfeng.ftp.stack.handler.FtpHandler;
 import com.dwarfeng.ftp.stack.handler.FtpQosHandler;
+import com.dwarfeng.ftp.stack.service.AsyncFtpQosService;
 import com.dwarfeng.ftp.stack.service.FtpQosService;
 import com.dwarfeng.ftp.stack.struct.FtpConfig;
 import com.dwarfeng.subgrade.stack.exception.ServiceExceptionMapper;
@@ -244,6 +250,198 @@ public class SingletonConfiguration {
     @Value(SPEL_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_PORT)
     private int activeRemoteDataConnectionModeServerPort;
 
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.session_pool_max_total:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SESSION_POOL_MAX_TOTAL}}")
+    private int sessionPoolMaxTotal;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.session_pool_max_idle:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SESSION_POOL_MAX_IDLE}}")
+    private int sessionPoolMaxIdle;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.session_pool_min_idle:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SESSION_POOL_MIN_IDLE}}")
+    private int sessionPoolMinIdle;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.session_pool_max_wait:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SESSION_POOL_MAX_WAIT}}")
+    private long sessionPoolMaxWait;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.session_trust_period:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SESSION_TRUST_PERIOD}}")
+    private long sessionTrustPeriod;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.absolute_path_addressing:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_ABSOLUTE_PATH_ADDRESSING}}")
+    private boolean absolutePathAddressing;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.known_directory_cache_size:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_KNOWN_DIRECTORY_CACHE_SIZE}}")
+    private int knownDirectoryCacheSize;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.listing_cache_time_to_live:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_LISTING_CACHE_TIME_TO_LIVE}}")
+    private long listingCacheTimeToLive;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.listing_cache_max_entries:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_LISTING_CACHE_MAX_ENTRIES}}")
+    private int listingCacheMaxEntries;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.listing_cache_max_memory:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_LISTING_CACHE_MAX_MEMORY}}")
+    private long listingCacheMaxMemory;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.server_side_copy_enabled:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SERVER_SIDE_COPY_ENABLED}}")
+    private boolean serverSideCopyEnabled;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.piped_copy_enabled:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_PIPED_COPY_ENABLED}}")
+    private boolean pipedCopyEnabled;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.temporary_spool_max_idle:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_TEMPORARY_SPOOL_MAX_IDLE}}")
+    private int temporarySpoolMaxIdle;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.temporary_spool_clean_interval:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_TEMPORARY_SPOOL_CLEAN_INTERVAL}}")
+    private long temporarySpoolCleanInterval;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.file_copy_memory_buffer_type:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_FILE_COPY_MEMORY_BUFFER_TYPE}}")
+    private int fileCopyMemoryBufferType;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.file_copy_file_buffer_type:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_FILE_COPY_FILE_BUFFER_TYPE}}")
+    private int fileCopyFileBufferType;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.retrieve_content_memory_threshold:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_RETRIEVE_CONTENT_MEMORY_THRESHOLD}}")
+    private int retrieveContentMemoryThreshold;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.memory_budget:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_MEMORY_BUDGET}}")
+    private long memoryBudget;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.global_memory_budget:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_GLOBAL_MEMORY_BUDGET}}")
+    private long globalMemoryBudget;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.memory_budget_max_wait:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_MEMORY_BUDGET_MAX_WAIT}}")
+    private long memoryBudgetMaxWait;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.segmented_download_segment_count:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_COUNT}}")
+    private int segmentedDownloadSegmentCount;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.segmented_download_segment_size:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_SIZE}}")
+    private long segmentedDownloadSegmentSize;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.segmented_download_segment_max_retries:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_MAX_RETRIES}}")
+    private int segmentedDownloadSegmentMaxRetries;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.upload_resume_max_attempts:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_UPLOAD_RESUME_MAX_ATTEMPTS}}")
+    private int uploadResumeMaxAttempts;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.download_resume_max_attempts:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_DOWNLOAD_RESUME_MAX_ATTEMPTS}}")
+    private int downloadResumeMaxAttempts;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.download_resume_verify_enabled:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_DOWNLOAD_RESUME_VERIFY_ENABLED}}")
+    private boolean downloadResumeVerifyEnabled;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.async_executor_pool_size:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_ASYNC_EXECUTOR_POOL_SIZE}}")
+    private int asyncExecutorPoolSize;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.async_executor_queue_capacity:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_ASYNC_EXECUTOR_QUEUE_CAPACITY}}")
+    private int asyncExecutorQueueCapacity;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.async_operation_timeout:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_ASYNC_OPERATION_TIMEOUT}}")
+    private long asyncOperationTimeout;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.nio_transfer_enabled:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_NIO_TRANSFER_ENABLED}}")
+    private boolean nioTransferEnabled;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.nio_transfer_selector_count:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_NIO_TRANSFER_SELECTOR_COUNT}}")
+    private int nioTransferSelectorCount;
+
+    /**
+     * @since 2.1.0
+     */
+    @Value("${ftp.nio_transfer_control_thread_count:#{T(com.dwarfeng.ftp.stack.struct.FtpConfig$Builder).DEFAULT_NIO_TRANSFER_CONTROL_THREAD_COUNT}}")
+    private int nioTransferControlThreadCount;
+
     @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
     public SingletonConfiguration(ThreadPoolTaskScheduler scheduler) {
         this.scheduler = scheduler;
@@ -255,7 +453,15 @@ public class SingletonConfiguration {
                 host, port, username, password, serverCharset, connectTimeout, noopInterval, bufferSize,
                 temporaryFileDirectoryPath, temporaryFilePrefix, temporaryFileSuffix, fileCopyMemoryBufferSize,
                 dataConnectionMode, dataTimeout, activeRemoteDataConnectionModeServerHost,
-                activeRemoteDataConnectionModeServerPort
+                activeRemoteDataConnectionModeServerPort, sessionPoolMaxTotal, sessionPoolMaxIdle, sessionPoolMinIdle,
+                sessionPoolMaxWait, sessionTrustPeriod, absolutePathAddressing, knownDirectoryCacheSize,
+                listingCacheTimeToLive, listingCacheMaxEntries, listingCacheMaxMemory, serverSideCopyEnabled,
+                pipedCopyEnabled, temporarySpoolMaxIdle, temporarySpoolCleanInterval, fileCopyMemoryBufferType,
+                fileCopyFileBufferType, retrieveContentMemoryThreshold, memoryBudget, globalMemoryBudget,
+                memoryBudgetMaxWait, segmentedDownloadSegmentCount, segmentedDownloadSegmentSize,
+                segmentedDownloadSegmentMaxRetries, uploadResumeMaxAttempts, downloadResumeMaxAttempts,
+                downloadResumeVerifyEnabled, asyncExecutorPoolSize, asyncExecutorQueueCapacity, asyncOperationTimeout,
+                nioTransferEnabled, nioTransferSelectorCount, nioTransferControlThreadCount
         );
 
         return new FtpHandlerImpl(scheduler, ftpConfig);
@@ -279,4 +485,42 @@ public class SingletonConfiguration {
     public FtpQosService ftpQosService(ServiceExceptionMapper serviceExceptionMapper) {
         return new FtpQosServiceImpl(ftpQosHandler(), serviceExceptionMapper);
     }
+
+    /**
+     * @since 2.1.0
+     */
+    @Bean
+    public FtpAsyncExecutor ftpAsyncExecutor() {
+        return new FtpAsyncExecutor(
+                scheduler, asyncExecutorPoolSize, asyncExecutorQueueCapacity, asyncOperationTimeout
+        );
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    @Bean
+    public NioTransferEngine nioTransferEngine() {
+        return new NioTransferEngine(
+                scheduler, ftpHandler(), nioTransferEnabled, nioTransferSelectorCount, nioTransferControlThreadCount,
+                dataTimeout
+        );
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    @Bean
+    public AsyncFtpHandler asyncFtpHandler() {
+        return new AsyncFtpHandlerImpl(ftpHandler(), ftpAsyncExecutor(), nioTransferEngine());
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
+    @Bean
+    public AsyncFtpQosService asyncFtpQosService(ServiceExceptionMapper serviceExceptionMapper) {
+        return new AsyncFtpQosServiceImpl(ftpQosService(serviceExceptionMapper), ftpAsyncExecutor());
+    }
 }
@@ -71,6 +71,31 @@ public final class Constants {
      */
     public static final String XSD_DEFAULT_FTP_HANDLER_AUTO_START_VALUE = "true";
 
+    /**
+     * @since 2.1.0
+     */
+    public static final String XSD_DEFAULT_FTP_ASYNC_EXECUTOR_NAME = "ftpAsyncExecutor";
+
+    /**
+     * @since 2.1.0
+     */
+    public static final String XSD_DEFAULT_ASYNC_FTP_HANDLER_NAME = "asyncFtpHandler";
+
+    /**
+     * @since 2.1.0
+     */
+    public static final String XSD_DEFAULT_ASYNC_FTP_QOS_SERVICE_NAME = "asyncFtpQosService";
+
+    /**
+     * @since 2.1.0
+     */
+    public static final String XSD_DEFAULT_ASYNC_QOS_ENABLED_VALUE = "true";
+
+    /**
+     * @since 2.1.0
+     */
+    public static final String XSD_DEFAULT_NIO_TRANSFER_ENGINE_NAME = "nioTransferEngine";
+
     // endregion
 
     private static final Lock LOCK = new ReentrantLock();
@@ -37,6 +37,35 @@ public final class FtpConfigUtil {
         DATA_CONNECTION_MODE_SPACE = Collections.unmodifiableSet(DATA_CONNECTION_MODE_SPACE_DEJA_VU);
     }
 
+    /**
+     * 文件复制内存缓冲区的类型空间。
+     *
+     * @since 2.1.0
+     */
+    private static final Set<Integer> FILE_COPY_MEMORY_BUFFER_TYPE_SPACE;
+
+    static {
+        Set<Integer> FILE_COPY_MEMORY_BUFFER_TYPE_SPACE_DEJA_VU = new HashSet<>();
+        FILE_COPY_MEMORY_BUFFER_TYPE_SPACE_DEJA_VU.add(FtpConfig.Builder.FILE_COPY_MEMORY_BUFFER_TYPE_HEAP);
+        FILE_COPY_MEMORY_BUFFER_TYPE_SPACE_DEJA_VU.add(FtpConfig.Builder.FILE_COPY_MEMORY_BUFFER_TYPE_DIRECT);
+        FILE_COPY_MEMORY_BUFFER_TYPE_SPACE = Collections.unmodifiableSet(FILE_COPY_MEMORY_BUFFER_TYPE_SPACE_DEJA_VU);
+    }
+
+    /**
+     * 文件复制文件缓冲区的类型空间。
+     *
+     * @since 2.1.0
+     */
+    private static final Set<Integer> FILE_COPY_FILE_BUFFER_TYPE_SPACE;
+
+    static {
+        Set<Integer> FILE_COPY_FILE_BUFFER_TYPE_SPACE_DEJA_VU = new HashSet<>();
+        FILE_COPY_FILE_BUFFER_TYPE_SPACE_DEJA_VU.add(FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_STREAM);
+        FILE_COPY_FILE_BUFFER_TYPE_SPACE_DEJA_VU.add(FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_CHANNEL);
+        FILE_COPY_FILE_BUFFER_TYPE_SPACE_DEJA_VU.add(FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_MAPPED);
+        FILE_COPY_FILE_BUFFER_TYPE_SPACE = Collections.unmodifiableSet(FILE_COPY_FILE_BUFFER_TYPE_SPACE_DEJA_VU);
+    }
+
     /**
      * 检查指定的主机是否合法。
      *
@@ -251,6 +280,346 @@ public final class FtpConfigUtil {
         }
     }
 
+    /**
+     * 检查指定的会话池最大会话数是否合法。
+     *
+     * @param sessionPoolMaxTotal 指定的会话池最大会话数。
+     * @since 2.1.0
+     */
+    public static void checkSessionPoolMaxTotal(int sessionPoolMaxTotal) {
+        if (sessionPoolMaxTotal < 1) {
+            throw new IllegalArgumentException("会话池最大会话数必须大于等于 1");
+        }
+    }
+
+    /**
+     * 检查指定的会话池最大空闲会话数是否合法。
+     *
+     * @param sessionPoolMaxIdle     指定的会话池最大空闲会话数。
+     * @param refSessionPoolMaxTotal 参考的会话池最大会话数。
+     * @since 2.1.0
+     */
+    public static void checkSessionPoolMaxIdle(int sessionPoolMaxIdle, int refSessionPoolMaxTotal) {
+        if (sessionPoolMaxIdle < 0 || sessionPoolMaxIdle > refSessionPoolMaxTotal) {
+            throw new IllegalArgumentException(
+                    "会话池最大空闲会话数必须在 0 - sessionPoolMaxTotal（" + refSessionPoolMaxTotal + "）之间"
+            );
+        }
+    }
+
+    /**
+     * 检查指定的会话池最小空闲会话数是否合法。
+     *
+     * @param sessionPoolMinIdle    指定的会话池最小空闲会话数。
+     * @param refSessionPoolMaxIdle 参考的会话池最大空闲会话数。
+     * @since 2.1.0
+     */
+    public static void checkSessionPoolMinIdle(int sessionPoolMinIdle, int refSessionPoolMaxIdle) {
+        if (sessionPoolMinIdle < 0 || sessionPoolMinIdle > refSessionPoolMaxIdle) {
+            throw new IllegalArgumentException(
+                    "会话池最小空闲会话数必须在 0 - sessionPoolMaxIdle（" + refSessionPoolMaxIdle + "）之间"
+            );
+        }
+    }
+
+    /**
+     * 检查指定的会话池借出会话的最大等待时间是否合法。
+     *
+     * @param sessionPoolMaxWait 指定的会话池借出会话的最大等待时间。
+     * @since 2.1.0
+     */
+    @SuppressWarnings({"unused", "EmptyMethod"})
+    public static void checkSessionPoolMaxWait(long sessionPoolMaxWait) {
+        // sessionPoolMaxWait 允许为 0 或负数，0 表示立即失败，负数表示无限等待。
+        // 因此无论如何都不会抛出异常。
+    }
+
+    /**
+     * 检查指定的会话信任期是否合法。
+     *
+     * @param sessionTrustPeriod 指定的会话信任期。
+     * @since 2.1.0
+     */
+    public static void checkSessionTrustPeriod(long sessionTrustPeriod) {
+        if (sessionTrustPeriod < 0) {
+            throw new IllegalArgumentException("会话信任期必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的是否使用绝对路径寻址文件是否合法。
+     *
+     * @param absolutePathAddressing 指定的是否使用绝对路径寻址文件。
+     * @since 2.1.0
+     */
+    @SuppressWarnings({"unused", "EmptyMethod"})
+    public static void checkAbsolutePathAddressing(boolean absolutePathAddressing) {
+        // 无论 absolutePathAddressing 的值是什么，都不会抛出异常。
+    }
+
+    /**
+     * 检查指定的已知目录缓存的最大容量是否合法。
+     *
+     * @param knownDirectoryCacheSize 指定的已知目录缓存的最大容量。
+     * @since 2.1.0
+     */
+    public static void checkKnownDirectoryCacheSize(int knownDirectoryCacheSize) {
+        if (knownDirectoryCacheSize < 0) {
+            throw new IllegalArgumentException("已知目录缓存的最大容量必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的目录列表缓存的存活时间是否合法。
+     *
+     * @param listingCacheTimeToLive 指定的目录列表缓存的存活时间。
+     * @since 2.1.0
+     */
+    public static void checkListingCacheTimeToLive(long listingCacheTimeToLive) {
+        if (listingCacheTimeToLive < 0) {
+            throw new IllegalArgumentException("目录列表缓存的存活时间必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的目录列表缓存的最大目录数量是否合法。
+     *
+     * @param listingCacheMaxEntries 指定的目录列表缓存的最大目录数量。
+     * @since 2.1.0
+     */
+    public static void checkListingCacheMaxEntries(int listingCacheMaxEntries) {
+        if (listingCacheMaxEntries < 0) {
+            throw new IllegalArgumentException("目录列表缓存的最大目录数量必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的目录列表缓存估算的最大内存占用是否合法。
+     *
+     * @param listingCacheMaxMemory 指定的目录列表缓存估算的最大内存占用。
+     * @since 2.1.0
+     */
+    public static void checkListingCacheMaxMemory(long listingCacheMaxMemory) {
+        if (listingCacheMaxMemory < 0) {
+            throw new IllegalArgumentException("目录列表缓存估算的最大内存占用必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的临时文件池中空闲的临时文件的最大数量是否合法。
+     *
+     * @param temporarySpoolMaxIdle 指定的临时文件池中空闲的临时文件的最大数量。
+     * @since 2.1.0
+     */
+    public static void checkTemporarySpoolMaxIdle(int temporarySpoolMaxIdle) {
+        if (temporarySpoolMaxIdle < 0) {
+            throw new IllegalArgumentException("临时文件池中空闲的临时文件的最大数量必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的清理遗留的临时文件的间隔是否合法。
+     *
+     * @param temporarySpoolCleanInterval 指定的清理遗留的临时文件的间隔。
+     * @since 2.1.0
+     */
+    public static void checkTemporarySpoolCleanInterval(long temporarySpoolCleanInterval) {
+        if (temporarySpoolCleanInterval <= 0) {
+            throw new IllegalArgumentException("清理遗留的临时文件的间隔必须大于 0");
+        }
+    }
+
+    /**
+     * 检查指定的文件复制内存缓冲区的类型是否合法。
+     *
+     * @param fileCopyMemoryBufferType 指定的文件复制内存缓冲区的类型。
+     * @since 2.1.0
+     */
+    public static void checkFileCopyMemoryBufferType(int fileCopyMemoryBufferType) {
+        if (!FILE_COPY_MEMORY_BUFFER_TYPE_SPACE.contains(fileCopyMemoryBufferType)) {
+            throw new IllegalArgumentException("文件复制内存缓冲区的类型 " + fileCopyMemoryBufferType + " 非法");
+        }
+    }
+
+    /**
+     * 检查指定的文件复制文件缓冲区的类型是否合法。
+     *
+     * @param fileCopyFileBufferType 指定的文件复制文件缓冲区的类型。
+     * @since 2.1.0
+     */
+    public static void checkFileCopyFileBufferType(int fileCopyFileBufferType) {
+        if (!FILE_COPY_FILE_BUFFER_TYPE_SPACE.contains(fileCopyFileBufferType)) {
+            throw new IllegalArgumentException("文件复制文件缓冲区的类型 " + fileCopyFileBufferType + " 非法");
+        }
+    }
+
+    /**
+     * 检查指定的获取文件内容时，保存在内存中的文件内容的最大大小是否合法。
+     *
+     * @param retrieveContentMemoryThreshold 指定的获取文件内容时，保存在内存中的文件内容的最大大小。
+     * @since 2.1.0
+     */
+    public static void checkRetrieveContentMemoryThreshold(int retrieveContentMemoryThreshold) {
+        if (retrieveContentMemoryThreshold < 0) {
+            throw new IllegalArgumentException("获取文件内容时，保存在内存中的文件内容的最大大小必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的处理器的内存预算是否合法。
+     *
+     * @param memoryBudget 指定的处理器的内存预算。
+     * @since 2.1.0
+     */
+    public static void checkMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("处理器的内存预算必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的进程内所有处理器共享的内存预算是否合法。
+     *
+     * @param globalMemoryBudget 指定的进程内所有处理器共享的内存预算。
+     * @since 2.1.0
+     */
+    public static void checkGlobalMemoryBudget(long globalMemoryBudget) {
+        if (globalMemoryBudget < 0) {
+            throw new IllegalArgumentException("进程内所有处理器共享的内存预算必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的从内存预算中预留内存的最大等待时间是否合法。
+     *
+     * @param memoryBudgetMaxWait 指定的从内存预算中预留内存的最大等待时间。
+     * @since 2.1.0
+     */
+    public static void checkMemoryBudgetMaxWait(long memoryBudgetMaxWait) {
+        // memoryBudgetMaxWait 允许为 0 或负数，0 表示立即失败，负数表示无限等待。
+        // 因此无论如何都不会抛出异常。
+    }
+
+    /**
+     * 检查指定的分段下载时同时下载的最大分段数量是否合法。
+     *
+     * @param segmentedDownloadSegmentCount 指定的分段下载时同时下载的最大分段数量。
+     * @since 2.1.0
+     */
+    public static void checkSegmentedDownloadSegmentCount(int segmentedDownloadSegmentCount) {
+        if (segmentedDownloadSegmentCount < 1) {
+            throw new IllegalArgumentException("分段下载时同时下载的最大分段数量必须大于等于 1");
+        }
+    }
+
+    /**
+     * 检查指定的分段下载时每个分段的大小是否合法。
+     *
+     * @param segmentedDownloadSegmentSize 指定的分段下载时每个分段的大小。
+     * @since 2.1.0
+     */
+    public static void checkSegmentedDownloadSegmentSize(long segmentedDownloadSegmentSize) {
+        if (segmentedDownloadSegmentSize <= 0) {
+            throw new IllegalArgumentException("分段下载时每个分段的大小必须大于 0");
+        }
+    }
+
+    /**
+     * 检查指定的分段下载时每个分段失败后的最大重试次数是否合法。
+     *
+     * @param segmentedDownloadSegmentMaxRetries 指定的分段下载时每个分段失败后的最大重试次数。
+     * @since 2.1.0
+     */
+    public static void checkSegmentedDownloadSegmentMaxRetries(int segmentedDownloadSegmentMaxRetries) {
+        if (segmentedDownloadSegmentMaxRetries < 0) {
+            throw new IllegalArgumentException("分段下载时每个分段失败后的最大重试次数必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的上传中断后断点续传的最大次数是否合法。
+     *
+     * @param uploadResumeMaxAttempts 指定的上传中断后断点续传的最大次数。
+     * @since 2.1.0
+     */
+    public static void checkUploadResumeMaxAttempts(int uploadResumeMaxAttempts) {
+        if (uploadResumeMaxAttempts < 0) {
+            throw new IllegalArgumentException("上传中断后断点续传的最大次数必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的下载中断后断点续传的最大次数是否合法。
+     *
+     * @param downloadResumeMaxAttempts 指定的下载中断后断点续传的最大次数。
+     * @since 2.1.0
+     */
+    public static void checkDownloadResumeMaxAttempts(int downloadResumeMaxAttempts) {
+        if (downloadResumeMaxAttempts < 0) {
+            throw new IllegalArgumentException("下载中断后断点续传的最大次数必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的异步操作线程池的最大线程数是否合法。
+     *
+     * @param asyncExecutorPoolSize 指定的异步操作线程池的最大线程数。
+     * @since 2.1.0
+     */
+    public static void checkAsyncExecutorPoolSize(int asyncExecutorPoolSize) {
+        if (asyncExecutorPoolSize <= 0) {
+            throw new IllegalArgumentException("异步操作线程池的最大线程数必须大于 0");
+        }
+    }
+
+    /**
+     * 检查指定的异步操作线程池的队列容量是否合法。
+     *
+     * @param asyncExecutorQueueCapacity 指定的异步操作线程池的队列容量。
+     * @since 2.1.0
+     */
+    public static void checkAsyncExecutorQueueCapacity(int asyncExecutorQueueCapacity) {
+        if (asyncExecutorQueueCapacity < 0) {
+            throw new IllegalArgumentException("异步操作线程池的队列容量必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的异步操作的默认超时时间是否合法。
+     *
+     * @param asyncOperationTimeout 指定的异步操作的默认超时时间。
+     * @since 2.1.0
+     */
+    public static void checkAsyncOperationTimeout(long asyncOperationTimeout) {
+        if (asyncOperationTimeout < 0) {
+            throw new IllegalArgumentException("异步操作的默认超时时间必须大于等于 0");
+        }
+    }
+
+    /**
+     * 检查指定的 NIO 传输引擎的选择器线程数是否合法。
+     *
+     * @param nioTransferSelectorCount 指定的 NIO 传输引擎的选择器线程数。
+     * @since 2.1.0
+     */
+    public static void checkNioTransferSelectorCount(int nioTransferSelectorCount) {
+        if (nioTransferSelectorCount <= 0) {
+            throw new IllegalArgumentException("NIO 传输引擎的选择器线程数必须大于 0");
+        }
+    }
+
+    /**
+     * 检查指定的 NIO 传输引擎执行控制连接指令的线程数是否合法。
+     *
+     * @param nioTransferControlThreadCount 指定的 NIO 传输引擎执行控制连接指令的线程数。
+     * @since 2.1.0
+     */
+    public static void checkNioTransferControlThreadCount(int nioTransferControlThreadCount) {
+        if (nioTransferControlThreadCount <= 0) {
+            throw new IllegalArgumentException("NIO 传输引擎执行控制连接指令的线程数必须大于 0");
+        }
+    }
+
     private FtpConfigUtil() {
         throw new IllegalStateException("禁止外部实例化");
     }
@@ -69,6 +69,24 @@ public final class ServiceExceptionCodes {
     public static final ServiceException.Code FTP_QOS_HANDLER_NOT_FOUND =
             new ServiceException.Code(offset(13), "ftp qos handler not found");
 
+    /**
+     * @since 2.1.0
+     */
+    public static final ServiceException.Code FTP_SESSION_POOL_EXHAUSTED =
+            new ServiceException.Code(offset(14), "ftp session pool exhausted");
+
+    /**
+     * @since 2.1.0
+     */
+    public static final ServiceException.Code FTP_MEMORY_BUDGET_EXHAUSTED =
+            new ServiceException.Code(offset(15), "ftp memory budget exhausted");
+
+    /**
+     * @since 2.1.0
+     */
+    public static final ServiceException.Code FTP_TRANSFER_ABORTED =
+            new ServiceException.Code(offset(16), "ftp transfer aborted");
+
     private static int offset(int i) {
         return EXCEPTION_CODE_OFFSET + i;
     }
@@ -106,6 +124,9 @@ public final class ServiceExceptionCodes {
         AMBIGUOUS_FTP_HANDLER.setCode(offset(11));
         NO_FTP_HANDLER_PRESENT.setCode(offset(12));
         FTP_QOS_HANDLER_NOT_FOUND.setCode(offset(13));
+        FTP_SESSION_POOL_EXHAUSTED.setCode(offset(14));
+        FTP_MEMORY_BUDGET_EXHAUSTED.setCode(offset(15));
+        FTP_TRANSFER_ABORTED.setCode(offset(16));
     }
 
     private ServiceExceptionCodes() {
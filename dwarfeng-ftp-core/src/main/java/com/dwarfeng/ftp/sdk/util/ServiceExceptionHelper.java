@@ -44,6 +44,9 @@ public final class ServiceExceptionHelper {
         map.put(AmbiguousFtpHandlerException.class, ServiceExceptionCodes.AMBIGUOUS_FTP_HANDLER);
         map.put(NoFtpHandlerPresentException.class, ServiceExceptionCodes.NO_FTP_HANDLER_PRESENT);
         map.put(FtpHandlerNotFoundException.class, ServiceExceptionCodes.FTP_QOS_HANDLER_NOT_FOUND);
+        map.put(FtpSessionPoolExhaustedException.class, ServiceExceptionCodes.FTP_SESSION_POOL_EXHAUSTED);
+        map.put(FtpMemoryBudgetExhaustedException.class, ServiceExceptionCodes.FTP_MEMORY_BUDGET_EXHAUSTED);
+        map.put(FtpTransferAbortedException.class, ServiceExceptionCodes.FTP_TRANSFER_ABORTED);
 
         return map;
     }
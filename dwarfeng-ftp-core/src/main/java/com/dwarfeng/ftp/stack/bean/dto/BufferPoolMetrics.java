@@ -0,0 +1,149 @@
+package com.dwarfeng.ftp.stack.bean.dto;
+
+import com.dwarfeng.subgrade.stack.bean.dto.Dto;
+
+/**
+ * 缓冲区池指标。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class BufferPoolMetrics implements Dto {
+
+    private static final long serialVersionUID = 4389516927042418135L;
+
+    /**
+     * 全局空闲列表中空闲的缓冲区的最大总容量，单位为字节。
+     */
+    private long maxIdleBytes;
+
+    /**
+     * 全局空闲列表中空闲的缓冲区的总容量，单位为字节。
+     */
+    private long idleBytes;
+
+    /**
+     * 全局空闲列表中空闲的缓冲区的数量。
+     */
+    private int idleCount;
+
+    /**
+     * 累计从池中借出缓冲区的次数，包括从线程本地缓存以及全局空闲列表中借出的次数。
+     */
+    private long hitCount;
+
+    /**
+     * 累计从线程本地缓存中借出缓冲区的次数。
+     */
+    private long threadLocalHitCount;
+
+    /**
+     * 累计因池中没有可用的缓冲区而分配新缓冲区的次数。
+     */
+    private long missCount;
+
+    /**
+     * 是否检测泄漏。
+     */
+    private boolean leakDetectionEnabled;
+
+    /**
+     * 累计检测到的泄漏的缓冲区的数量。
+     */
+    private long leakCount;
+
+    public BufferPoolMetrics() {
+    }
+
+    public BufferPoolMetrics(
+            long maxIdleBytes, long idleBytes, int idleCount, long hitCount, long threadLocalHitCount, long missCount,
+            boolean leakDetectionEnabled, long leakCount
+    ) {
+        this.maxIdleBytes = maxIdleBytes;
+        this.idleBytes = idleBytes;
+        this.idleCount = idleCount;
+        this.hitCount = hitCount;
+        this.threadLocalHitCount = threadLocalHitCount;
+        this.missCount = missCount;
+        this.leakDetectionEnabled = leakDetectionEnabled;
+        this.leakCount = leakCount;
+    }
+
+    public long getMaxIdleBytes() {
+        return maxIdleBytes;
+    }
+
+    public void setMaxIdleBytes(long maxIdleBytes) {
+        this.maxIdleBytes = maxIdleBytes;
+    }
+
+    public long getIdleBytes() {
+        return idleBytes;
+    }
+
+    public void setIdleBytes(long idleBytes) {
+        this.idleBytes = idleBytes;
+    }
+
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    public void setIdleCount(int idleCount) {
+        this.idleCount = idleCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getThreadLocalHitCount() {
+        return threadLocalHitCount;
+    }
+
+    public void setThreadLocalHitCount(long threadLocalHitCount) {
+        this.threadLocalHitCount = threadLocalHitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public boolean isLeakDetectionEnabled() {
+        return leakDetectionEnabled;
+    }
+
+    public void setLeakDetectionEnabled(boolean leakDetectionEnabled) {
+        this.leakDetectionEnabled = leakDetectionEnabled;
+    }
+
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    public void setLeakCount(long leakCount) {
+        this.leakCount = leakCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPoolMetrics{" +
+                "maxIdleBytes=" + maxIdleBytes +
+                ", idleBytes=" + idleBytes +
+                ", idleCount=" + idleCount +
+                ", hitCount=" + hitCount +
+                ", threadLocalHitCount=" + threadLocalHitCount +
+                ", missCount=" + missCount +
+                ", leakDetectionEnabled=" + leakDetectionEnabled +
+                ", leakCount=" + leakCount +
+                '}';
+    }
+}
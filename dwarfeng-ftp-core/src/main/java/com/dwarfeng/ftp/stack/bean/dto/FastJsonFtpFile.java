@@ -3,6 +3,7 @@ package com.dwarfeng.ftp.stack.bean.dto;
 import com.alibaba.fastjson.annotation.JSONField;
 import com.dwarfeng.subgrade.stack.bean.dto.Dto;
 
+import java.util.Date;
 import java.util.Objects;
 
 /**
@@ -20,7 +21,8 @@ public class FastJsonFtpFile implements Dto {
             return null;
         } else {
             return new FastJsonFtpFile(
-                    ftpFile.getName(), ftpFile.getType(), ftpFile.getSize()
+                    ftpFile.getName(), ftpFile.getType(), ftpFile.getSize(), ftpFile.getModifiedTime(),
+                    ftpFile.getPermission(), ftpFile.getUniqueId()
             );
         }
     }
@@ -34,6 +36,24 @@ public class FastJsonFtpFile implements Dto {
     @JSONField(name = "size", ordinal = 3)
     private long size;
 
+    /**
+     * @since 2.1.0
+     */
+    @JSONField(name = "modified_time", ordinal = 4)
+    private Date modifiedTime;
+
+    /**
+     * @since 2.1.0
+     */
+    @JSONField(name = "permission", ordinal = 5)
+    private String permission;
+
+    /**
+     * @since 2.1.0
+     */
+    @JSONField(name = "unique_id", ordinal = 6)
+    private String uniqueId;
+
     public FastJsonFtpFile() {
     }
 
@@ -43,6 +63,20 @@ public class FastJsonFtpFile implements Dto {
         this.size = size;
     }
 
+    /**
+     * @since 2.1.0
+     */
+    public FastJsonFtpFile(
+            String name, int type, long size, Date modifiedTime, String permission, String uniqueId
+    ) {
+        this.name = name;
+        this.type = type;
+        this.size = size;
+        this.modifiedTime = modifiedTime;
+        this.permission = permission;
+        this.uniqueId = uniqueId;
+    }
+
     public String getName() {
         return name;
     }
@@ -67,12 +101,39 @@ public class FastJsonFtpFile implements Dto {
         this.size = size;
     }
 
+    public Date getModifiedTime() {
+        return modifiedTime;
+    }
+
+    public void setModifiedTime(Date modifiedTime) {
+        this.modifiedTime = modifiedTime;
+    }
+
+    public String getPermission() {
+        return permission;
+    }
+
+    public void setPermission(String permission) {
+        this.permission = permission;
+    }
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
     @Override
     public String toString() {
         return "FastJsonFtpFile{" +
                 "name='" + name + '\'' +
                 ", type=" + type +
                 ", size=" + size +
+                ", modifiedTime=" + modifiedTime +
+                ", permission='" + permission + '\'' +
+                ", uniqueId='" + uniqueId + '\'' +
                 '}';
     }
 }
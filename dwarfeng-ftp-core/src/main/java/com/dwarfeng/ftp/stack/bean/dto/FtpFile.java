@@ -2,6 +2,8 @@ package com.dwarfeng.ftp.stack.bean.dto;
 
 import com.dwarfeng.subgrade.stack.bean.dto.Dto;
 
+import java.util.Date;
+
 /**
  * FTP 文件。
  *
@@ -16,6 +18,40 @@ public class FtpFile implements Dto {
     private int type;
     private long size;
 
+    /**
+     * 文件的修改时间。
+     *
+     * <p>
+     * 服务器没有提供修改时间时，该字段为 <code>null</code>。
+     *
+     * @since 2.1.0
+     */
+    private Date modifiedTime;
+
+    /**
+     * 文件的权限。
+     *
+     * <p>
+     * 该字段的值为 RFC 3659 中定义的 <code>perm</code> 事实，例如 <code>adfrw</code>，
+     * 表示当前登录的用户可以对文件执行的操作。<br>
+     * 服务器没有提供该事实时，该字段为 <code>null</code>。
+     *
+     * @since 2.1.0
+     */
+    private String permission;
+
+    /**
+     * 文件的唯一标识。
+     *
+     * <p>
+     * 该字段的值为 RFC 3659 中定义的 <code>unique</code> 事实，同一个文件的唯一标识在服务器上是唯一且稳定的，
+     * 可以用于识别文件的重命名以及移动。<br>
+     * 服务器没有提供该事实时，该字段为 <code>null</code>。
+     *
+     * @since 2.1.0
+     */
+    private String uniqueId;
+
     public FtpFile() {
     }
 
@@ -25,6 +61,20 @@ public class FtpFile implements Dto {
         this.size = size;
     }
 
+    /**
+     * @since 2.1.0
+     */
+    public FtpFile(
+            String name, int type, long size, Date modifiedTime, String permission, String uniqueId
+    ) {
+        this.name = name;
+        this.type = type;
+        this.size = size;
+        this.modifiedTime = modifiedTime;
+        this.permission = permission;
+        this.uniqueId = uniqueId;
+    }
+
     public String getName() {
         return name;
     }
@@ -49,12 +99,39 @@ public class FtpFile implements Dto {
         this.size = size;
     }
 
+    public Date getModifiedTime() {
+        return modifiedTime;
+    }
+
+    public void setModifiedTime(Date modifiedTime) {
+        this.modifiedTime = modifiedTime;
+    }
+
+    public String getPermission() {
+        return permission;
+    }
+
+    public void setPermission(String permission) {
+        this.permission = permission;
+    }
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
     @Override
     public String toString() {
         return "FtpFile{" +
                 "name='" + name + '\'' +
                 ", type=" + type +
                 ", size=" + size +
+                ", modifiedTime=" + modifiedTime +
+                ", permission='" + permission + '\'' +
+                ", uniqueId='" + uniqueId + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,134 @@
+package com.dwarfeng.ftp.stack.bean.dto;
+
+import com.dwarfeng.subgrade.stack.bean.dto.Dto;
+
+/**
+ * 内存预算指标。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class MemoryBudgetMetrics implements Dto {
+
+    private static final long serialVersionUID = -6017553291848320467L;
+
+    /**
+     * 内存预算的上限，单位为字节，为 0 表示不限制。
+     */
+    private long capacity;
+
+    /**
+     * 已经预留的字节数。
+     */
+    private long usedBytes;
+
+    /**
+     * 正在等待预留内存的操作的数量。
+     */
+    private int waitingCount;
+
+    /**
+     * 累计成功预留内存的次数。
+     */
+    private long reservedCount;
+
+    /**
+     * 累计因内存预算耗尽而失败的预留次数。
+     */
+    private long rejectedCount;
+
+    /**
+     * 累计等待预留内存的时间，单位为毫秒。
+     */
+    private long totalWaitTime;
+
+    /**
+     * 单次等待预留内存的最长时间，单位为毫秒。
+     */
+    private long maxWaitTime;
+
+    public MemoryBudgetMetrics() {
+    }
+
+    public MemoryBudgetMetrics(
+            long capacity, long usedBytes, int waitingCount, long reservedCount, long rejectedCount,
+            long totalWaitTime, long maxWaitTime
+    ) {
+        this.capacity = capacity;
+        this.usedBytes = usedBytes;
+        this.waitingCount = waitingCount;
+        this.reservedCount = reservedCount;
+        this.rejectedCount = rejectedCount;
+        this.totalWaitTime = totalWaitTime;
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public void setUsedBytes(long usedBytes) {
+        this.usedBytes = usedBytes;
+    }
+
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+
+    public void setWaitingCount(int waitingCount) {
+        this.waitingCount = waitingCount;
+    }
+
+    public long getReservedCount() {
+        return reservedCount;
+    }
+
+    public void setReservedCount(long reservedCount) {
+        this.reservedCount = reservedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public void setTotalWaitTime(long totalWaitTime) {
+        this.totalWaitTime = totalWaitTime;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(long maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryBudgetMetrics{" +
+                "capacity=" + capacity +
+                ", usedBytes=" + usedBytes +
+                ", waitingCount=" + waitingCount +
+                ", reservedCount=" + reservedCount +
+                ", rejectedCount=" + rejectedCount +
+                ", totalWaitTime=" + totalWaitTime +
+                ", maxWaitTime=" + maxWaitTime +
+                '}';
+    }
+}
@@ -0,0 +1,104 @@
+package com.dwarfeng.ftp.stack.bean.dto;
+
+import com.dwarfeng.subgrade.stack.bean.dto.Dto;
+
+/**
+ * 临时文件池指标。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class TemporarySpoolMetrics implements Dto {
+
+    private static final long serialVersionUID = 4326517480929374261L;
+
+    /**
+     * 正在使用的临时文件中已写入的字节数。
+     */
+    private long bytesInUse;
+
+    /**
+     * 正在使用的临时文件的数量。
+     */
+    private int leasedFileCount;
+
+    /**
+     * 池中空闲的临时文件的数量。
+     */
+    private int idleFileCount;
+
+    /**
+     * 累计创建的临时文件的数量。
+     */
+    private long createdFileCount;
+
+    /**
+     * 累计删除的遗留临时文件的数量。
+     */
+    private long deletedOrphanFileCount;
+
+    public TemporarySpoolMetrics() {
+    }
+
+    public TemporarySpoolMetrics(
+            long bytesInUse, int leasedFileCount, int idleFileCount, long createdFileCount,
+            long deletedOrphanFileCount
+    ) {
+        this.bytesInUse = bytesInUse;
+        this.leasedFileCount = leasedFileCount;
+        this.idleFileCount = idleFileCount;
+        this.createdFileCount = createdFileCount;
+        this.deletedOrphanFileCount = deletedOrphanFileCount;
+    }
+
+    public long getBytesInUse() {
+        return bytesInUse;
+    }
+
+    public void setBytesInUse(long bytesInUse) {
+        this.bytesInUse = bytesInUse;
+    }
+
+    public int getLeasedFileCount() {
+        return leasedFileCount;
+    }
+
+    public void setLeasedFileCount(int leasedFileCount) {
+        this.leasedFileCount = leasedFileCount;
+    }
+
+    public int getIdleFileCount() {
+        return idleFileCount;
+    }
+
+    public void setIdleFileCount(int idleFileCount) {
+        this.idleFileCount = idleFileCount;
+    }
+
+    public long getCreatedFileCount() {
+        return createdFileCount;
+    }
+
+    public void setCreatedFileCount(long createdFileCount) {
+        this.createdFileCount = createdFileCount;
+    }
+
+    public long getDeletedOrphanFileCount() {
+        return deletedOrphanFileCount;
+    }
+
+    public void setDeletedOrphanFileCount(long deletedOrphanFileCount) {
+        this.deletedOrphanFileCount = deletedOrphanFileCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TemporarySpoolMetrics{" +
+                "bytesInUse=" + bytesInUse +
+                ", leasedFileCount=" + leasedFileCount +
+                ", idleFileCount=" + idleFileCount +
+                ", createdFileCount=" + createdFileCount +
+                ", deletedOrphanFileCount=" + deletedOrphanFileCount +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package com.dwarfeng.ftp.stack.bean.dto;
+
+import com.dwarfeng.subgrade.stack.bean.dto.Dto;
+
+/**
+ * 断点续传指标。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class TransferResumeMetrics implements Dto {
+
+    private static final long serialVersionUID = -6183370455528903751L;
+
+    /**
+     * 累计上传中断后断点续传的次数。
+     */
+    private long uploadResumeCount;
+
+    /**
+     * 累计上传中断后断点续传时，无需重新上传的字节数。
+     */
+    private long uploadResumedBytes;
+
+    /**
+     * 累计下载中断后断点续传的次数。
+     */
+    private long downloadResumeCount;
+
+    /**
+     * 累计下载中断后断点续传时，无需重新下载的字节数。
+     */
+    private long downloadResumedBytes;
+
+    public TransferResumeMetrics() {
+    }
+
+    public TransferResumeMetrics(
+            long uploadResumeCount, long uploadResumedBytes, long downloadResumeCount, long downloadResumedBytes
+    ) {
+        this.uploadResumeCount = uploadResumeCount;
+        this.uploadResumedBytes = uploadResumedBytes;
+        this.downloadResumeCount = downloadResumeCount;
+        this.downloadResumedBytes = downloadResumedBytes;
+    }
+
+    public long getUploadResumeCount() {
+        return uploadResumeCount;
+    }
+
+    public void setUploadResumeCount(long uploadResumeCount) {
+        this.uploadResumeCount = uploadResumeCount;
+    }
+
+    public long getUploadResumedBytes() {
+        return uploadResumedBytes;
+    }
+
+    public void setUploadResumedBytes(long uploadResumedBytes) {
+        this.uploadResumedBytes = uploadResumedBytes;
+    }
+
+    public long getDownloadResumeCount() {
+        return downloadResumeCount;
+    }
+
+    public void setDownloadResumeCount(long downloadResumeCount) {
+        this.downloadResumeCount = downloadResumeCount;
+    }
+
+    public long getDownloadResumedBytes() {
+        return downloadResumedBytes;
+    }
+
+    public void setDownloadResumedBytes(long downloadResumedBytes) {
+        this.downloadResumedBytes = downloadResumedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferResumeMetrics{" +
+                "uploadResumeCount=" + uploadResumeCount +
+                ", uploadResumedBytes=" + uploadResumedBytes +
+                ", downloadResumeCount=" + downloadResumeCount +
+                ", downloadResumedBytes=" + downloadResumedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.dwarfeng.ftp.stack.exception;
+
+/**
+ * FTP 内存预算耗尽异常。
+ *
+ * <p>
+ * 当内存预算中剩余的内存不足，且在最大等待时间内没有足够的内存被释放时，抛出该异常；
+ * 预留的内存超过内存预算的上限时，该异常会被立即抛出。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpMemoryBudgetExhaustedException extends FtpException {
+
+    private static final long serialVersionUID = -2178946183046591723L;
+
+    private final long requestedBytes;
+    private final long maxWait;
+
+    public FtpMemoryBudgetExhaustedException(long requestedBytes, long maxWait) {
+        this.requestedBytes = requestedBytes;
+        this.maxWait = maxWait;
+    }
+
+    public FtpMemoryBudgetExhaustedException(Throwable cause, long requestedBytes, long maxWait) {
+        super(cause);
+        this.requestedBytes = requestedBytes;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public String getMessage() {
+        return "FTP memory budget exhausted, unable to reserve " + requestedBytes + " bytes within " + maxWait + " ms";
+    }
+}
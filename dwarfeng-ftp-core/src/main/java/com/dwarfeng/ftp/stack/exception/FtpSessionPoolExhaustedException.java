@@ -0,0 +1,31 @@
+package com.dwarfeng.ftp.stack.exception;
+
+/**
+ * FTP 会话池耗尽异常。
+ *
+ * <p>
+ * 当会话池中的所有会话均被借出，且在最大等待时间内没有会话被归还时，抛出该异常。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpSessionPoolExhaustedException extends FtpException {
+
+    private static final long serialVersionUID = 3348263810427745125L;
+
+    private final long maxWait;
+
+    public FtpSessionPoolExhaustedException(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public FtpSessionPoolExhaustedException(Throwable cause, long maxWait) {
+        super(cause);
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public String getMessage() {
+        return "FTP session pool exhausted, no session available within " + maxWait + " ms";
+    }
+}
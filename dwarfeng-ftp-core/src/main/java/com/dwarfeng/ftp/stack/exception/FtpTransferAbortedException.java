@@ -0,0 +1,27 @@
+package com.dwarfeng.ftp.stack.exception;
+
+/**
+ * FTP 传输中止异常。
+ *
+ * <p>
+ * 当异步操作被取消或者超时，正在进行的操作被中止时，抛出该异常。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpTransferAbortedException extends FtpException {
+
+    private static final long serialVersionUID = 5207113385164962183L;
+
+    public FtpTransferAbortedException() {
+    }
+
+    public FtpTransferAbortedException(Throwable cause) {
+        super(cause);
+    }
+
+    @Override
+    public String getMessage() {
+        return "FTP transfer aborted";
+    }
+}
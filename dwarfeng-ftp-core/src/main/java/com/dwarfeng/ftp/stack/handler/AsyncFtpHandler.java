@@ -0,0 +1,279 @@
+package com.dwarfeng.ftp.stack.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步 FTP 处理器。
+ *
+ * <p>
+ * 该处理器以 {@link CompletableFuture} 的形式返回 {@link FtpHandler} 每个操作的结果，操作在有界的线程池中执行。<br>
+ * 操作失败时，{@link CompletableFuture} 以 {@link FtpHandler} 抛出的异常失败；线程池的线程以及队列全部被占用时，
+ * {@link CompletableFuture} 立即以 {@link java.util.concurrent.RejectedExecutionException} 失败。
+ *
+ * <p>
+ * 操作在超时时间内没有结束时，{@link CompletableFuture} 以 {@link java.util.concurrent.TimeoutException} 失败。<br>
+ * 取消返回的 {@link CompletableFuture}，或者操作超时时，正在进行的传输会被中止：处理器在操作使用的连接上发送 ABOR 指令，
+ * 并断开连接，操作不会被重试或者断点续传。
+ *
+ * @author DwArFeng
+ * @see FtpHandler
+ * @since 2.1.0
+ */
+public interface AsyncFtpHandler {
+
+    /**
+     * 获取操作的超时时间。
+     *
+     * @return 操作的超时时间，单位为毫秒，为 0 表示不超时。
+     */
+    long getTimeout();
+
+    /**
+     * 返回使用指定超时时间的异步 FTP 处理器。
+     *
+     * <p>
+     * 返回的处理器与该处理器共用同一个 {@link FtpHandler} 以及线程池，只有操作的超时时间不同，
+     * 用于为单次调用指定超时时间，例如 <code>asyncFtpHandler.withTimeout(5000L).retrieveFile(fileLocation)</code>。
+     *
+     * @param timeout 超时时间，单位为毫秒，从提交操作时开始计算，为 0 表示不超时。
+     * @return 使用指定超时时间的异步 FTP 处理器。
+     */
+    AsyncFtpHandler withTimeout(long timeout);
+
+    /**
+     * 异步地检查 FTP 文件是否存在。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件是否存在的布尔值完成。
+     * @see FtpHandler#existsFile(FtpFileLocation)
+     */
+    CompletableFuture<Boolean> existsFile(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地存储 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param content      文件的内容。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#storeFile(FtpFileLocation, byte[])
+     */
+    CompletableFuture<Void> storeFile(@Nonnull FtpFileLocation fileLocation, @Nonnull byte[] content);
+
+    /**
+     * 异步地获取 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件的内容完成。
+     * @see FtpHandler#retrieveFile(FtpFileLocation)
+     */
+    CompletableFuture<byte[]> retrieveFile(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地通过流存储 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param in           文件内容的输入流。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#storeFileByStream(FtpFileLocation, InputStream)
+     */
+    CompletableFuture<Void> storeFileByStream(@Nonnull FtpFileLocation fileLocation, @Nonnull InputStream in);
+
+    /**
+     * 异步地通过流获取 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param out          文件内容的输出流。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#retrieveFileByStream(FtpFileLocation, OutputStream)
+     */
+    CompletableFuture<Void> retrieveFileByStream(@Nonnull FtpFileLocation fileLocation, @Nonnull OutputStream out);
+
+    /**
+     * 异步地删除 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#deleteFile(FtpFileLocation)
+     */
+    CompletableFuture<Void> deleteFile(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地删除 FTP 目录。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#removeDirectory(FtpFileLocation)
+     */
+    CompletableFuture<Void> removeDirectory(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地列出 FTP 目录下的所有文件。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以目录下的所有文件完成。
+     * @see FtpHandler#listFiles(FtpFileLocation)
+     */
+    CompletableFuture<FtpFile[]> listFiles(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地列出 FTP 目录下的所有文件的名称。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以目录下的所有文件的名称完成。
+     * @see FtpHandler#listFileNames(FtpFileLocation)
+     */
+    CompletableFuture<String[]> listFileNames(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地打开 FTP 文件的输入流。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件的输入流完成。
+     * @see FtpHandler#openInputStream(FtpFileLocation)
+     */
+    CompletableFuture<InputStream> openInputStream(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地打开 FTP 文件的输出流。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件的输出流完成。
+     * @see FtpHandler#openOutputStream(FtpFileLocation)
+     */
+    CompletableFuture<OutputStream> openOutputStream(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地重命名 FTP 文件。
+     *
+     * @param oldFileLocation 旧的文件位置。
+     * @param neoFileLocation 新的文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#renameFile(FtpFileLocation, FtpFileLocation)
+     */
+    CompletableFuture<Void> renameFile(
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    );
+
+    /**
+     * 异步地清空 FTP 目录。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#clearDirectory(FtpFileLocation)
+     */
+    CompletableFuture<Void> clearDirectory(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地复制 FTP 文件。
+     *
+     * @param oldFileLocation 旧的文件位置。
+     * @param neoFileLocation 新的文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#copyFile(FtpFileLocation, FtpFileLocation)
+     */
+    CompletableFuture<Void> copyFile(
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    );
+
+    /**
+     * 异步地描述 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件对象完成，文件不存在时以 null 完成。
+     * @see FtpHandler#descFile(FtpFileLocation)
+     */
+    CompletableFuture<FtpFile> descFile(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地移动 FTP 文件。
+     *
+     * @param oldFileLocation 旧的文件位置。
+     * @param neoFileLocation 新的文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#moveFile(FtpFileLocation, FtpFileLocation)
+     */
+    CompletableFuture<Void> moveFile(
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    );
+
+    /**
+     * 异步地确保 FTP 目录存在。
+     *
+     * @param fileLocations 文件位置组成的列表。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#ensureDirectories(List)
+     */
+    CompletableFuture<Void> ensureDirectories(@Nonnull List<FtpFileLocation> fileLocations);
+
+    /**
+     * 异步地流式地访问 FTP 目录下的所有文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param visitor      文件访问器。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#visitFiles(FtpFileLocation, FtpFileVisitor)
+     */
+    CompletableFuture<Void> visitFiles(@Nonnull FtpFileLocation fileLocation, @Nonnull FtpFileVisitor visitor);
+
+    /**
+     * 异步地将本地文件存储为 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#storeFileFromPath(FtpFileLocation, Path)
+     */
+    CompletableFuture<Void> storeFileFromPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path);
+
+    /**
+     * 异步地将 FTP 文件获取到本地文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#retrieveFileToPath(FtpFileLocation, Path)
+     */
+    CompletableFuture<Void> retrieveFileToPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path);
+
+    /**
+     * 异步地获取 FTP 文件，并以只读缓冲区的形式返回文件的内容。
+     *
+     * @param fileLocation 文件位置。
+     * @param direct       是否使用直接内存缓冲区。
+     * @return 操作结果的 CompletableFuture，操作成功时以包含文件内容的只读缓冲区完成。
+     * @see FtpHandler#retrieveFileAsByteBuffer(FtpFileLocation, boolean)
+     */
+    CompletableFuture<ByteBuffer> retrieveFileAsByteBuffer(@Nonnull FtpFileLocation fileLocation, boolean direct);
+
+    /**
+     * 异步地获取 FTP 文件内容。
+     *
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件内容完成。
+     * @see FtpHandler#retrieveFileContent(FtpFileLocation)
+     */
+    CompletableFuture<FtpFileContent> retrieveFileContent(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地将文件通道中的数据存储为 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param fileChannel  文件通道。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpHandler#storeFileFromChannel(FtpFileLocation, FileChannel)
+     */
+    CompletableFuture<Void> storeFileFromChannel(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    );
+}
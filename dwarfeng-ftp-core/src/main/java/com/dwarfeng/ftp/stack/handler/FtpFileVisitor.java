@@ -0,0 +1,47 @@
+package com.dwarfeng.ftp.stack.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+
+import javax.annotation.Nonnull;
+
+/**
+ * FTP 文件访问器。
+ *
+ * <p>
+ * 用于流式地访问目录下的文件，目录下的条目在到达时被逐个解析并交付给访问器，
+ * 不会在内存中保存整个目录的列表，适用于包含大量文件的目录。
+ *
+ * @author DwArFeng
+ * @see FtpHandler#visitFiles(String[], FtpFileVisitor)
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface FtpFileVisitor {
+
+    /**
+     * 判断是否接受指定名称的文件。
+     *
+     * <p>
+     * 该方法在文件对象被创建之前调用，被拒绝的文件不会被创建为 {@link FtpFile}，
+     * 也不会被交付给 {@link #visitFile(FtpFile)} 方法，因此按名称过滤文件时，应当重写该方法，
+     * 而不是在 {@link #visitFile(FtpFile)} 方法中过滤。
+     *
+     * <p>
+     * 默认实现接受所有的文件。
+     *
+     * @param fileName 文件的名称。
+     * @return 是否接受指定名称的文件。
+     */
+    default boolean acceptFileName(@Nonnull String fileName) {
+        return true;
+    }
+
+    /**
+     * 访问文件。
+     *
+     * @param ftpFile 被访问的文件。
+     * @return 是否继续访问，返回 <code>false</code> 时，剩余的条目将不再被解析，访问立即结束。
+     * @throws Exception 访问过程中发生的任何异常，异常将会中止访问，并被包装后抛给调用者。
+     */
+    boolean visitFile(@Nonnull FtpFile ftpFile) throws Exception;
+}
@@ -1,6 +1,8 @@
 package com.dwarfeng.ftp.stack.handler;
 
 import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
 import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
 import com.dwarfeng.subgrade.stack.exception.HandlerException;
 import com.dwarfeng.subgrade.stack.handler.StartableHandler;
@@ -8,6 +10,10 @@ import com.dwarfeng.subgrade.stack.handler.StartableHandler;
 import javax.annotation.Nonnull;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * FTP 处理器。
@@ -346,7 +352,7 @@ public interface FtpHandler extends StartableHandler {
      * 该方法不会关闭流，需要调用者自行关闭，请 <b>务必</b> 在调用该方法结束后关闭流，否则会造成 FTP 服务器行为异常。
      *
      * <p>
-     * 对于线程安全的实现，从调用开始直到用户关闭流的这段时间内，其它线程调用处理器的任何方法都应该被阻塞。
+     * 对于线程安全的实现，从调用开始直到用户关闭流的这段时间内，流所占用的连接不应该被其它线程使用。
      *
      * @param filePaths 目录路径。<br>
      *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
@@ -385,7 +391,7 @@ public interface FtpHandler extends StartableHandler {
      * 该方法不会关闭流，需要调用者自行关闭，请 <b>务必</b> 在调用该方法结束后关闭流，否则会造成 FTP 服务器行为异常。
      *
      * <p>
-     * 对于线程安全的实现，从调用开始直到用户关闭流的这段时间内，其它线程调用处理器的任何方法都应该被阻塞。
+     * 对于线程安全的实现，从调用开始直到用户关闭流的这段时间内，流所占用的连接不应该被其它线程使用。
      *
      * @param filePaths 目录路径。<br>
      *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
@@ -520,8 +526,9 @@ public interface FtpHandler extends StartableHandler {
      * 当对应的文件存在时，返回对应的文件对象；当对应的文件不存在时，返回 null。
      *
      * <p>
-     * 该功能不是 FTP 协议的标准功能，其实现需要先列出目标文件所在目录下的所有文件，再查找目标文件。
-     * 该方法的执行时间与目录下的文件数量呈正相关。尽量不要在大目录上调用该方法。
+     * 如果 FTP 服务器支持 MLST 或 SIZE 指令，该方法通过控制连接直接探测目标文件，执行时间与目录下的文件数量无关。<br>
+     * 否则，其实现需要先列出目标文件所在目录下的所有文件，再查找目标文件，
+     * 该方法的执行时间与目录下的文件数量呈正相关，此时尽量不要在大目录上调用该方法。
      *
      * @param filePaths 目录路径。<br>
      *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
@@ -539,8 +546,9 @@ public interface FtpHandler extends StartableHandler {
      * 当对应的文件存在时，返回对应的文件对象；当对应的文件不存在时，返回 null。
      *
      * <p>
-     * 该功能不是 FTP 协议的标准功能，其实现需要先列出目标文件所在目录下的所有文件，再查找目标文件。
-     * 该方法的执行时间与目录下的文件数量呈正相关。尽量不要在大目录上调用该方法。
+     * 如果 FTP 服务器支持 MLST 或 SIZE 指令，该方法通过控制连接直接探测目标文件，执行时间与目录下的文件数量无关。<br>
+     * 否则，其实现需要先列出目标文件所在目录下的所有文件，再查找目标文件，
+     * 该方法的执行时间与目录下的文件数量呈正相关，此时尽量不要在大目录上调用该方法。
      *
      * @param fileLocation 文件位置。
      * @return 指定文件对应的文件对象。
@@ -588,4 +596,230 @@ public interface FtpHandler extends StartableHandler {
             throws HandlerException {
         renameFile(oldFileLocation, neoFileLocation);
     }
+
+    /**
+     * 确保目录存在。
+     *
+     * <p>
+     * 对于列表中的每个文件位置，只使用 {@link FtpFileLocation#getFilePaths()} 方法返回的路径，
+     * 忽略 {@link FtpFileLocation#getFileName()} 方法返回的文件名。<br>
+     * 不存在的目录会被创建，包括不存在的上级目录。
+     *
+     * <p>
+     * 该方法适用于批量写入文件之前，一次性地创建整个目录树：多个文件位置共享的上级目录只会被处理一次，
+     * 已知存在的目录不会被再次创建，因此向 FTP 服务器发送的 MKD 指令数量最少。
+     *
+     * @param fileLocations 文件位置组成的列表。
+     * @throws HandlerException 处理器异常。
+     * @since 2.1.0
+     */
+    void ensureDirectories(@Nonnull List<FtpFileLocation> fileLocations) throws HandlerException;
+
+    /**
+     * 流式地访问指定路径下的所有文件。
+     *
+     * <p>
+     * 与 {@link #listFiles(String[])} 方法不同，该方法不会在内存中保存整个目录的列表，
+     * 目录下的条目在到达时被逐个解析并交付给访问器，内存占用与目录中文件的数量无关，适用于包含大量文件的目录。<br>
+     * 访问器的 {@link FtpFileVisitor#acceptFileName(String)} 方法在文件对象被创建之前调用，
+     * 被拒绝的条目不会被创建为文件对象。
+     *
+     * <p>
+     * 访问器在数据连接打开期间被调用，访问器不应执行耗时的操作，也不得在访问期间调用该处理器的任何其它方法。<br>
+     * 访问器的调用可能产生副作用，因此该方法在连接中断时不会重试。
+     *
+     * <p>
+     * 目录不存在时，访问器不会被调用。
+     *
+     * @param filePaths 目录路径。<br>
+     *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
+     * @param visitor   文件访问器。
+     * @throws HandlerException 处理器异常。
+     * @since 2.1.0
+     */
+    void visitFiles(@Nonnull String[] filePaths, @Nonnull FtpFileVisitor visitor) throws HandlerException;
+
+    /**
+     * 流式地访问指定路径下的所有文件。
+     *
+     * <p>
+     * 执行该方法时，只使用 {@link FtpFileLocation#getFilePaths()} 方法返回的路径，
+     * 忽略 {@link FtpFileLocation#getFileName()} 方法返回的文件名。
+     *
+     * @param fileLocation 文件位置。
+     * @param visitor      文件访问器。
+     * @throws HandlerException 处理器异常。
+     * @see #visitFiles(String[], FtpFileVisitor)
+     * @since 2.1.0
+     */
+    void visitFiles(@Nonnull FtpFileLocation fileLocation, @Nonnull FtpFileVisitor visitor) throws HandlerException;
+
+    /**
+     * 将本地文件存储为 FTP 文件。
+     *
+     * <p>
+     * 与 {@link #storeFileByStream(String[], String, InputStream)} 方法不同，该方法由操作系统将本地文件的内容直接发送到数据连接，
+     * 数据无需经过用户空间的缓冲区，适用于上传较大的本地文件。
+     *
+     * <p>
+     * 本地文件可以被重复读取，因此该方法在连接中断时会重新连接并重试。
+     *
+     * @param filePaths 目录路径。<br>
+     *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
+     * @param fileName  文件的名称。
+     * @param path      本地文件的路径。
+     * @throws HandlerException 处理器异常。
+     * @since 2.1.0
+     */
+    void storeFileFromPath(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull Path path
+    ) throws HandlerException;
+
+    /**
+     * 将本地文件存储为 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @throws HandlerException 处理器异常。
+     * @see #storeFileFromPath(String[], String, Path)
+     * @since 2.1.0
+     */
+    void storeFileFromPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path) throws HandlerException;
+
+    /**
+     * 将 FTP 文件获取到本地文件。
+     *
+     * <p>
+     * 与 {@link #retrieveFileByStream(String[], String, OutputStream)} 方法不同，
+     * 该方法将数据连接中的数据经由直接内存缓冲区写入本地文件，数据不经过堆内存，适用于下载较大的文件。
+     *
+     * <p>
+     * 本地文件不存在时会被创建，已存在时会被覆盖；FTP 文件不存在时，本地文件不会被创建或者覆盖。<br>
+     * 获取过程中发生异常时，本地文件中可能只有部分内容。
+     *
+     * @param filePaths 目录路径。<br>
+     *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
+     * @param fileName  文件的名称。
+     * @param path      本地文件的路径。
+     * @throws HandlerException 处理器异常。
+     * @since 2.1.0
+     */
+    void retrieveFileToPath(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull Path path
+    ) throws HandlerException;
+
+    /**
+     * 将 FTP 文件获取到本地文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @throws HandlerException 处理器异常。
+     * @see #retrieveFileToPath(String[], String, Path)
+     * @since 2.1.0
+     */
+    void retrieveFileToPath(@Nonnull FtpFileLocation fileLocation, @Nonnull Path path) throws HandlerException;
+
+    /**
+     * 获取文件，并以只读缓冲区的形式返回文件的内容。
+     *
+     * <p>
+     * 服务器支持 SIZE 指令时，缓冲区按照文件的大小一次性分配，数据从数据连接直接读入缓冲区，
+     * 整个过程中只有一份文件内容的拷贝，适用于获取较大的文件。
+     *
+     * <p>
+     * 使用直接内存缓冲区时，缓冲区占用的内存受到虚拟机最大直接内存的限制，且只有在缓冲区被垃圾回收时才会被释放。
+     *
+     * @param filePaths 目录路径。<br>
+     *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
+     * @param fileName  文件的名称。
+     * @param direct    是否使用直接内存缓冲区。
+     * @return 包含文件内容的只读缓冲区，缓冲区的位置为 0，界限为文件的大小。
+     * @throws HandlerException 处理器异常。
+     * @since 2.1.0
+     */
+    ByteBuffer retrieveFileAsByteBuffer(
+            @Nonnull String[] filePaths, @Nonnull String fileName, boolean direct
+    ) throws HandlerException;
+
+    /**
+     * 获取文件，并以只读缓冲区的形式返回文件的内容。
+     *
+     * @param fileLocation 文件位置。
+     * @param direct       是否使用直接内存缓冲区。
+     * @return 包含文件内容的只读缓冲区，缓冲区的位置为 0，界限为文件的大小。
+     * @throws HandlerException 处理器异常。
+     * @see #retrieveFileAsByteBuffer(String[], String, boolean)
+     * @since 2.1.0
+     */
+    ByteBuffer retrieveFileAsByteBuffer(@Nonnull FtpFileLocation fileLocation, boolean direct) throws HandlerException;
+
+    /**
+     * 获取文件内容。
+     *
+     * <p>
+     * 与 {@link #retrieveFile(String[], String)} 方法不同，该方法返回文件内容的句柄：
+     * 较小的文件内容保存在内存中，超过内存阈值的文件内容保存在由处理器管理的临时文件中，
+     * 因此获取任意大小的文件都不会耗尽内存。
+     *
+     * <p>
+     * 该方法不会关闭文件内容，需要调用者自行关闭，请 <b>务必</b> 在使用完毕后关闭文件内容，否则会造成内存或者临时文件的泄漏。
+     *
+     * @param filePaths 目录路径。<br>
+     *                  路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
+     * @param fileName  文件的名称。
+     * @return 文件内容。
+     * @throws HandlerException 处理器异常。
+     * @see FtpConfig#getRetrieveContentMemoryThreshold()
+     * @since 2.1.0
+     */
+    FtpFileContent retrieveFileContent(@Nonnull String[] filePaths, @Nonnull String fileName) throws HandlerException;
+
+    /**
+     * 获取文件内容。
+     *
+     * @param fileLocation 文件位置。
+     * @return 文件内容。
+     * @throws HandlerException 处理器异常。
+     * @see #retrieveFileContent(String[], String)
+     * @since 2.1.0
+     */
+    FtpFileContent retrieveFileContent(@Nonnull FtpFileLocation fileLocation) throws HandlerException;
+
+    /**
+     * 将文件通道中的数据存储为 FTP 文件。
+     *
+     * <p>
+     * 存储文件通道从当前位置开始，直到通道末尾的数据，由操作系统将数据直接发送到数据连接，
+     * 数据无需经过用户空间的缓冲区。<br>
+     * 与 {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} 一致，
+     * 该方法通过绝对位置读取文件通道，存储完成后文件通道的位置保持不变，调用者需要时应自行设置文件通道的位置；
+     * 该方法也不会关闭文件通道。<br>
+     * 文件通道在存储期间被截断时，存储以 {@link java.io.EOFException} 为原因失败。
+     *
+     * <p>
+     * 文件通道可以被重复读取，因此该方法在连接中断时会重新连接并重试。
+     *
+     * @param filePaths   目录路径。<br>
+     *                    路径从根文件出发，一直到达最后一个目录，所有目录按照顺序组成数组。
+     * @param fileName    文件的名称。
+     * @param fileChannel 文件通道。
+     * @throws HandlerException 处理器异常。
+     * @see FtpConfig#getUploadResumeMaxAttempts()
+     * @since 2.1.0
+     */
+    void storeFileFromChannel(
+            @Nonnull String[] filePaths, @Nonnull String fileName, @Nonnull FileChannel fileChannel
+    ) throws HandlerException;
+
+    /**
+     * 将文件通道中的数据存储为 FTP 文件。
+     *
+     * @param fileLocation 文件位置。
+     * @param fileChannel  文件通道。
+     * @throws HandlerException 处理器异常。
+     * @see #storeFileFromChannel(String[], String, FileChannel)
+     * @since 2.1.0
+     */
+    void storeFileFromChannel(@Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel)
+            throws HandlerException;
 }
@@ -0,0 +1,363 @@
+package com.dwarfeng.ftp.stack.service;
+
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步 FTP QoS 服务。
+ *
+ * <p>
+ * 该服务以 {@link CompletableFuture} 的形式返回 {@link FtpQosService} 每个操作的结果，操作在有界的线程池中执行。<br>
+ * 操作失败时，{@link CompletableFuture} 以 {@link FtpQosService} 抛出的服务异常失败；线程池的线程以及队列全部被占用时，
+ * {@link CompletableFuture} 立即以 {@link java.util.concurrent.RejectedExecutionException} 失败。
+ *
+ * <p>
+ * 操作在超时时间内没有结束时，{@link CompletableFuture} 以 {@link java.util.concurrent.TimeoutException} 失败。<br>
+ * 取消返回的 {@link CompletableFuture}，或者操作超时时，正在进行的传输会被中止。
+ *
+ * <p>
+ * 参数 <code>handlerName</code> 的含义与 {@link FtpQosService} 一致。
+ *
+ * @author DwArFeng
+ * @see FtpQosService
+ * @since 2.1.0
+ */
+public interface AsyncFtpQosService {
+
+    /**
+     * 获取操作的超时时间。
+     *
+     * @return 操作的超时时间，单位为毫秒，为 0 表示不超时。
+     */
+    long getTimeout();
+
+    /**
+     * 返回使用指定超时时间的异步 FTP QoS 服务。
+     *
+     * <p>
+     * 返回的服务与该服务共用同一个 {@link FtpQosService} 以及线程池，只有操作的超时时间不同。
+     *
+     * @param timeout 超时时间，单位为毫秒，从提交操作时开始计算，为 0 表示不超时。
+     * @return 使用指定超时时间的异步 FTP QoS 服务。
+     */
+    AsyncFtpQosService withTimeout(long timeout);
+
+    /**
+     * 异步地列出所有 FTP 处理器名称。
+     *
+     * @return 操作结果的 CompletableFuture，操作成功时以所有处理器的名称组成的列表完成。
+     * @see FtpQosService#listHandlerNames()
+     */
+    CompletableFuture<List<String>> listHandlerNames();
+
+    /**
+     * 异步地查询 FTP 处理器是否已启动。
+     *
+     * @param handlerName 处理器名称。
+     * @return 操作结果的 CompletableFuture，操作成功时以目标处理器是否已启动的布尔值完成。
+     * @see FtpQosService#isStarted(String)
+     */
+    CompletableFuture<Boolean> isStarted(@Nullable String handlerName);
+
+    /**
+     * 异步地启动 FTP 处理器。
+     *
+     * @param handlerName 处理器名称。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#start(String)
+     */
+    CompletableFuture<Void> start(@Nullable String handlerName);
+
+    /**
+     * 异步地停止 FTP 处理器。
+     *
+     * @param handlerName 处理器名称。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#stop(String)
+     */
+    CompletableFuture<Void> stop(@Nullable String handlerName);
+
+    /**
+     * 异步地检查 FTP 文件是否存在。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件是否存在的布尔值完成。
+     * @see FtpQosService#existsFile(String, FtpFileLocation)
+     */
+    CompletableFuture<Boolean> existsFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地存储 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param content      文件的内容。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#storeFile(String, FtpFileLocation, byte[])
+     */
+    CompletableFuture<Void> storeFile(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull byte[] content
+    );
+
+    /**
+     * 异步地获取 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件的内容完成。
+     * @see FtpQosService#retrieveFile(String, FtpFileLocation)
+     */
+    CompletableFuture<byte[]> retrieveFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地通过流存储 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param in           文件内容的输入流。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#storeFileByStream(String, FtpFileLocation, InputStream)
+     */
+    CompletableFuture<Void> storeFileByStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull InputStream in
+    );
+
+    /**
+     * 异步地通过流获取 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param out          文件内容的输出流。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#retrieveFileByStream(String, FtpFileLocation, OutputStream)
+     */
+    CompletableFuture<Void> retrieveFileByStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull OutputStream out
+    );
+
+    /**
+     * 异步地删除 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#deleteFile(String, FtpFileLocation)
+     */
+    CompletableFuture<Void> deleteFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地删除 FTP 目录。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#removeDirectory(String, FtpFileLocation)
+     */
+    CompletableFuture<Void> removeDirectory(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地列出 FTP 目录下的所有文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以目录下的所有文件完成。
+     * @see FtpQosService#listFiles(String, FtpFileLocation)
+     */
+    CompletableFuture<FtpFile[]> listFiles(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地列出 FTP 目录下的所有文件的名称。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以目录下的所有文件的名称完成。
+     * @see FtpQosService#listFileNames(String, FtpFileLocation)
+     */
+    CompletableFuture<String[]> listFileNames(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地打开 FTP 文件的输入流。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件的输入流完成。
+     * @see FtpQosService#openInputStream(String, FtpFileLocation)
+     */
+    CompletableFuture<InputStream> openInputStream(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地打开 FTP 文件的输出流。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件的输出流完成。
+     * @see FtpQosService#openOutputStream(String, FtpFileLocation)
+     */
+    CompletableFuture<OutputStream> openOutputStream(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    );
+
+    /**
+     * 异步地重命名 FTP 文件。
+     *
+     * @param handlerName     处理器名称。
+     * @param oldFileLocation 旧的文件位置。
+     * @param neoFileLocation 新的文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#renameFile(String, FtpFileLocation, FtpFileLocation)
+     */
+    CompletableFuture<Void> renameFile(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    );
+
+    /**
+     * 异步地清空 FTP 目录。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#clearDirectory(String, FtpFileLocation)
+     */
+    CompletableFuture<Void> clearDirectory(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地复制 FTP 文件。
+     *
+     * @param handlerName     处理器名称。
+     * @param oldFileLocation 旧的文件位置。
+     * @param neoFileLocation 新的文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#copyFile(String, FtpFileLocation, FtpFileLocation)
+     */
+    CompletableFuture<Void> copyFile(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    );
+
+    /**
+     * 异步地描述 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件对象完成，文件不存在时以 null 完成。
+     * @see FtpQosService#descFile(String, FtpFileLocation)
+     */
+    CompletableFuture<FtpFile> descFile(@Nullable String handlerName, @Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 异步地移动 FTP 文件。
+     *
+     * @param handlerName     处理器名称。
+     * @param oldFileLocation 旧的文件位置。
+     * @param neoFileLocation 新的文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#moveFile(String, FtpFileLocation, FtpFileLocation)
+     */
+    CompletableFuture<Void> moveFile(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation oldFileLocation, @Nonnull FtpFileLocation neoFileLocation
+    );
+
+    /**
+     * 异步地确保 FTP 目录存在。
+     *
+     * @param handlerName   处理器名称。
+     * @param fileLocations 文件位置组成的列表。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#ensureDirectories(String, List)
+     */
+    CompletableFuture<Void> ensureDirectories(
+            @Nullable String handlerName, @Nonnull List<FtpFileLocation> fileLocations
+    );
+
+    /**
+     * 异步地流式地访问 FTP 目录下的所有文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param visitor      文件访问器。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#visitFiles(String, FtpFileLocation, FtpFileVisitor)
+     */
+    CompletableFuture<Void> visitFiles(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull FtpFileVisitor visitor
+    );
+
+    /**
+     * 异步地将本地文件存储为 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#storeFileFromPath(String, FtpFileLocation, Path)
+     */
+    CompletableFuture<Void> storeFileFromPath(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    );
+
+    /**
+     * 异步地将 FTP 文件获取到本地文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#retrieveFileToPath(String, FtpFileLocation, Path)
+     */
+    CompletableFuture<Void> retrieveFileToPath(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    );
+
+    /**
+     * 异步地获取 FTP 文件，并以只读缓冲区的形式返回文件的内容。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param direct       是否使用直接内存缓冲区。
+     * @return 操作结果的 CompletableFuture，操作成功时以包含文件内容的只读缓冲区完成。
+     * @see FtpQosService#retrieveFileAsByteBuffer(String, FtpFileLocation, boolean)
+     */
+    CompletableFuture<ByteBuffer> retrieveFileAsByteBuffer(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, boolean direct
+    );
+
+    /**
+     * 异步地获取 FTP 文件内容。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 操作结果的 CompletableFuture，操作成功时以文件内容完成。
+     * @see FtpQosService#retrieveFileContent(String, FtpFileLocation)
+     */
+    CompletableFuture<FtpFileContent> retrieveFileContent(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    );
+
+    /**
+     * 异步地将文件通道中的数据存储为 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param fileChannel  文件通道。
+     * @return 操作结果的 CompletableFuture，操作成功时以 null 完成。
+     * @see FtpQosService#storeFileFromChannel(String, FtpFileLocation, FileChannel)
+     */
+    CompletableFuture<Void> storeFileFromChannel(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    );
+}
@@ -1,7 +1,9 @@
 package com.dwarfeng.ftp.stack.service;
 
 import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import com.dwarfeng.ftp.stack.handler.FtpFileVisitor;
 import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileContent;
 import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
 import com.dwarfeng.subgrade.stack.exception.ServiceException;
 
@@ -9,6 +11,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -425,4 +430,108 @@ public interface FtpQosService {
     ) throws ServiceException {
         renameFile(handlerName, oldFileLocation, neoFileLocation);
     }
+
+    /**
+     * 确保 FTP 目录存在。
+     *
+     * @param handlerName   处理器名称。
+     * @param fileLocations 文件位置组成的列表。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#ensureDirectories(List)
+     * @since 2.1.0
+     */
+    void ensureDirectories(
+            @Nullable String handlerName,
+            @Nonnull List<FtpFileLocation> fileLocations
+    ) throws ServiceException;
+
+    /**
+     * 流式地访问 FTP 目录下的所有文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param visitor      文件访问器。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#visitFiles(FtpFileLocation, FtpFileVisitor)
+     * @since 2.1.0
+     */
+    void visitFiles(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation,
+            @Nonnull FtpFileVisitor visitor
+    ) throws ServiceException;
+
+    /**
+     * 将本地文件存储为 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#storeFileFromPath(FtpFileLocation, Path)
+     * @since 2.1.0
+     */
+    void storeFileFromPath(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) throws ServiceException;
+
+    /**
+     * 将 FTP 文件获取到本地文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param path         本地文件的路径。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#retrieveFileToPath(FtpFileLocation, Path)
+     * @since 2.1.0
+     */
+    void retrieveFileToPath(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Path path
+    ) throws ServiceException;
+
+    /**
+     * 获取文件，并以只读缓冲区的形式返回文件的内容。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param direct       是否使用直接内存缓冲区。
+     * @return 包含文件内容的只读缓冲区，缓冲区的位置为 0，界限为文件的大小。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#retrieveFileAsByteBuffer(FtpFileLocation, boolean)
+     * @since 2.1.0
+     */
+    ByteBuffer retrieveFileAsByteBuffer(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation, boolean direct
+    ) throws ServiceException;
+
+    /**
+     * 获取文件内容。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @return 文件内容。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#retrieveFileContent(FtpFileLocation)
+     * @since 2.1.0
+     */
+    FtpFileContent retrieveFileContent(
+            @Nullable String handlerName, @Nonnull FtpFileLocation fileLocation
+    ) throws ServiceException;
+
+    /**
+     * 将文件通道中的数据存储为 FTP 文件。
+     *
+     * @param handlerName  处理器名称。
+     * @param fileLocation 文件位置。
+     * @param fileChannel  文件通道。
+     * @throws ServiceException 服务异常。
+     * @see FtpHandler#storeFileFromChannel(FtpFileLocation, FileChannel)
+     * @since 2.1.0
+     */
+    void storeFileFromChannel(
+            @Nullable String handlerName,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull FileChannel fileChannel
+    ) throws ServiceException;
 }
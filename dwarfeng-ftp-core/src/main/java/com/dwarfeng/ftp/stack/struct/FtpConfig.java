@@ -109,6 +109,372 @@ public final class FtpConfig {
      */
     private final int activeRemoteDataConnectionModeServerPort;
 
+    /**
+     * 会话池的最大会话数。
+     *
+     * <p>
+     * 会话池中同时存在的（包括空闲的与被借出的）会话的最大数量，每个会话对应一条已登录的控制连接。<br>
+     * 当该值为 1 时，处理器的所有操作串行执行，行为与旧版本的单连接处理器一致；
+     * 当该值大于 1 时，处理器进入池化模式，相互独立的操作可以借出不同的会话并行执行。
+     *
+     * @since 2.1.0
+     */
+    private final int sessionPoolMaxTotal;
+
+    /**
+     * 会话池的最大空闲会话数。
+     *
+     * <p>
+     * 会话归还时，如果空闲会话数已经达到该值，则归还的会话会被断开并销毁。
+     *
+     * @since 2.1.0
+     */
+    private final int sessionPoolMaxIdle;
+
+    /**
+     * 会话池的最小空闲会话数。
+     *
+     * <p>
+     * 处理器启动时，以及每次发送 NOOP 指令时，会话池会补足空闲会话至该数量，并尝试将其连接到 FTP 服务器。
+     *
+     * @since 2.1.0
+     */
+    private final int sessionPoolMinIdle;
+
+    /**
+     * 会话池借出会话的最大等待时间。
+     *
+     * <p>
+     * 该值的单位是毫秒，小于 0 表示无限等待，等于 0 表示会话池耗尽时立即失败。
+     *
+     * @since 2.1.0
+     */
+    private final long sessionPoolMaxWait;
+
+    /**
+     * 会话信任期。
+     *
+     * <p>
+     * 该值的单位是毫秒。<br>
+     * 最近一次收到服务器应答的时间在信任期之内的会话被认为是可用的，执行操作之前不再发送 NOOP 指令检查连接。<br>
+     * 连接失效的会话会在指令执行失败时被发现，处理器会重新连接，并对可以安全重放的操作重试一次。<br>
+     * 该值为 0 时，每次执行操作之前都会发送 NOOP 指令检查连接，与旧版本的行为一致。
+     *
+     * @since 2.1.0
+     */
+    private final long sessionTrustPeriod;
+
+    /**
+     * 是否使用绝对路径寻址文件。
+     *
+     * <p>
+     * 启用后，RETR、STOR、DELE 等文件指令直接使用文件的绝对路径，不再切换工作目录，
+     * 读取、删除单个文件的控制连接往返次数与目录深度无关。<br>
+     * 该功能需要 FTP 服务器支持在文件指令中使用绝对路径，绝大多数 FTP 服务器都支持。
+     *
+     * @since 2.1.0
+     */
+    private final boolean absolutePathAddressing;
+
+    /**
+     * 已知目录缓存的最大容量。
+     *
+     * <p>
+     * 处理器会缓存确认存在的目录，创建目录时跳过已知存在的目录。<br>
+     * 超出容量时，最久未被访问的目录会被淘汰；为 0 时不缓存目录。
+     *
+     * @since 2.1.0
+     */
+    private final int knownDirectoryCacheSize;
+
+    /**
+     * 目录列表缓存的存活时间，单位为毫秒。
+     *
+     * <p>
+     * 处理器缓存目录的列表结果，超过存活时间的列表会被重新获取。<br>
+     * 为 0 时不缓存目录列表。
+     *
+     * @since 2.1.0
+     */
+    private final long listingCacheTimeToLive;
+
+    /**
+     * 目录列表缓存的最大目录数量。
+     *
+     * <p>
+     * 超出数量时，最久未被访问的目录会被淘汰；为 0 时不缓存目录列表。
+     *
+     * @since 2.1.0
+     */
+    private final int listingCacheMaxEntries;
+
+    /**
+     * 目录列表缓存估算的最大内存占用，单位为字节。
+     *
+     * <p>
+     * 超出限制时，最久未被访问的目录会被淘汰，单个目录超出限制时不会被缓存；为 0 时不缓存目录列表。
+     *
+     * @since 2.1.0
+     */
+    private final long listingCacheMaxMemory;
+
+    /**
+     * 复制文件时是否尝试服务器端的复制方式。
+     *
+     * <p>
+     * 服务器端的复制方式包括 SITE CPFR/CPTO 指令，以及同一服务器上两个会话之间的 FXP 传输，
+     * 文件内容无需经过客户端；服务器不支持时，自动回退到经由客户端中转的复制方式。<br>
+     * FXP 传输等待服务器应答的时间以 {@link #getDataTimeout()} 为上限，未指定数据超时时间时，上限为 10 分钟。
+     *
+     * @since 2.1.0
+     */
+    private final boolean serverSideCopyEnabled;
+
+    /**
+     * 复制文件时是否尝试使用两个会话以管道的方式复制。
+     *
+     * <p>
+     * 服务器端的复制方式不可用时，一个会话读取源文件，另一个会话同时写入目标文件，
+     * 数据在两条数据连接之间直接搬运，内存占用固定，且不占用临时存储。<br>
+     * 会话池中没有可用的第二个会话时，回退到经由临时存储中转的复制方式。
+     *
+     * @since 2.1.0
+     */
+    private final boolean pipedCopyEnabled;
+
+    /**
+     * 临时文件池中空闲的临时文件的最大数量。
+     *
+     * <p>
+     * 临时文件在使用完毕后被截断并放回池中，供后续的复制复用，超出数量的临时文件在使用完毕后被删除。<br>
+     * 为 0 时临时文件不被复用。
+     *
+     * @since 2.1.0
+     */
+    private final int temporarySpoolMaxIdle;
+
+    /**
+     * 清理遗留的临时文件的间隔，单位为毫秒。
+     *
+     * <p>
+     * 处理器在启动时以及每隔该间隔清理已经终止的进程遗留的临时文件；
+     * 只有名称中包含临时文件池标识、且对应的锁文件没有被锁定的临时文件才会被删除。
+     *
+     * @since 2.1.0
+     */
+    private final long temporarySpoolCleanInterval;
+
+    /**
+     * 文件复制内存缓冲区的类型。
+     *
+     * <p>
+     * int 枚举，可能的状态为：
+     * <ul>
+     *     <li>堆内存</li>
+     *     <li>直接内存</li>
+     * </ul>
+     * 详细值参考 {@link Builder} 类的常量字段。
+     *
+     * @see Builder#FILE_COPY_MEMORY_BUFFER_TYPE_HEAP
+     * @see Builder#FILE_COPY_MEMORY_BUFFER_TYPE_DIRECT
+     * @since 2.1.0
+     */
+    private final int fileCopyMemoryBufferType;
+
+    /**
+     * 文件复制文件缓冲区的类型。
+     *
+     * <p>
+     * int 枚举，可能的状态为：
+     * <ul>
+     *     <li>流</li>
+     *     <li>通道</li>
+     *     <li>内存映射</li>
+     * </ul>
+     * 详细值参考 {@link Builder} 类的常量字段。
+     *
+     * @see Builder#FILE_COPY_FILE_BUFFER_TYPE_STREAM
+     * @see Builder#FILE_COPY_FILE_BUFFER_TYPE_CHANNEL
+     * @see Builder#FILE_COPY_FILE_BUFFER_TYPE_MAPPED
+     * @since 2.1.0
+     */
+    private final int fileCopyFileBufferType;
+
+    /**
+     * 获取文件内容时，保存在内存中的文件内容的最大大小，单位为字节。
+     *
+     * <p>
+     * 超过该大小的文件内容保存在由临时文件池管理的临时文件中。<br>
+     * 为 0 时文件内容总是保存在临时文件中。
+     *
+     * @since 2.1.0
+     */
+    private final int retrieveContentMemoryThreshold;
+
+    /**
+     * 处理器的内存预算。
+     *
+     * <p>
+     * 该值的单位是字节，为 0 表示不限制。<br>
+     * 处理器中同时进行的以字节数组的形式存储或获取文件的操作占用的内存之和不超过该值。
+     *
+     * @since 2.1.0
+     */
+    private final long memoryBudget;
+
+    /**
+     * 进程内所有处理器共享的内存预算。
+     *
+     * <p>
+     * 该值的单位是字节，为 0 表示不限制。<br>
+     * 多个处理器配置了不同的值时，以处理器启动时配置的最小正值为准。
+     *
+     * @since 2.1.0
+     */
+    private final long globalMemoryBudget;
+
+    /**
+     * 从内存预算中预留内存的最大等待时间。
+     *
+     * <p>
+     * 该值的单位是毫秒，小于 0 表示无限等待，等于 0 表示内存预算耗尽时立即失败。
+     *
+     * @since 2.1.0
+     */
+    private final long memoryBudgetMaxWait;
+
+    /**
+     * 分段下载时同时下载的最大分段数量。
+     *
+     * <p>
+     * 为 1 表示不使用分段下载。<br>
+     * 实际同时下载的分段数量还受到会话池中可用的会话数量的限制。
+     *
+     * @since 2.1.0
+     */
+    private final int segmentedDownloadSegmentCount;
+
+    /**
+     * 分段下载时每个分段的大小。
+     *
+     * <p>
+     * 该值的单位是字节。<br>
+     * 文件按照该大小切分为多个分段，不超过该大小的文件不使用分段下载。
+     *
+     * @since 2.1.0
+     */
+    private final long segmentedDownloadSegmentSize;
+
+    /**
+     * 分段下载时每个分段失败后的最大重试次数。
+     *
+     * <p>
+     * 分段失败时只重新下载该分段，重试次数耗尽时，整个下载失败。
+     *
+     * @since 2.1.0
+     */
+    private final int segmentedDownloadSegmentMaxRetries;
+
+    /**
+     * 上传中断后断点续传的最大次数。
+     *
+     * <p>
+     * 为 0 表示不使用断点续传。<br>
+     * 断点续传需要服务器支持 SIZE 指令，且只适用于可以重复读取的数据源：本地文件、字节数组以及文件通道。
+     *
+     * @since 2.1.0
+     */
+    private final int uploadResumeMaxAttempts;
+
+    /**
+     * 下载中断后断点续传的最大次数。
+     *
+     * <p>
+     * 为 0 表示不使用断点续传。<br>
+     * 断点续传只适用于以流的方式获取文件的方法，从中间位置继续下载需要服务器支持 REST STREAM 特性。
+     *
+     * @since 2.1.0
+     */
+    private final int downloadResumeMaxAttempts;
+
+    /**
+     * 下载断点续传时是否确认文件在下载期间没有发生变化。
+     *
+     * <p>
+     * 启用时，下载开始时以及每次断点续传时通过 SIZE 以及 MDTM 指令获取文件的大小以及修改时间，
+     * 两者不一致时，下载失败。<br>
+     * 服务器不支持 SIZE 或者 MDTM 指令时，只比较支持的指令的结果。
+     *
+     * @since 2.1.0
+     */
+    private final boolean downloadResumeVerifyEnabled;
+
+    /**
+     * 异步操作线程池的最大线程数。
+     *
+     * <p>
+     * 即同时执行的异步操作的最大数量，每个执行中的操作占用一个会话，因此该值通常不需要超过会话池的最大会话数。
+     *
+     * @since 2.1.0
+     */
+    private final int asyncExecutorPoolSize;
+
+    /**
+     * 异步操作线程池的队列容量。
+     *
+     * <p>
+     * 即等待执行的异步操作的最大数量，为 0 表示不排队。<br>
+     * 线程以及队列全部被占用时，新提交的操作立即被拒绝。
+     *
+     * @since 2.1.0
+     */
+    private final int asyncExecutorQueueCapacity;
+
+    /**
+     * 异步操作的默认超时时间。
+     *
+     * <p>
+     * 单位为毫秒，从提交操作时开始计算，为 0 表示不超时。<br>
+     * 操作超时后，正在进行的传输被中止。
+     *
+     * @since 2.1.0
+     */
+    private final long asyncOperationTimeout;
+
+    /**
+     * 是否启用 NIO 传输引擎。
+     *
+     * <p>
+     * 启用时，异步处理器的本地文件传输由 NIO 传输引擎执行，数据连接在少量的选择器线程上多路复用。
+     *
+     * @since 2.1.0
+     */
+    private final boolean nioTransferEnabled;
+
+    /**
+     * NIO 传输引擎的选择器线程数。
+     *
+     * <p>
+     * 每个线程通过一个选择器驱动分配给它的所有数据连接。
+     *
+     * @since 2.1.0
+     */
+    private final int nioTransferSelectorCount;
+
+    /**
+     * NIO 传输引擎执行控制连接指令的线程数。
+     *
+     * <p>
+     * 借出会话、打开数据连接以及等待传输完成的应答等阻塞的步骤在这些线程中执行。
+     *
+     * @since 2.1.0
+     */
+    private final int nioTransferControlThreadCount;
+
+    /**
+     * @deprecated 该构造器已经过时，请使用包含全部参数的构造器或者 {@link Builder}。
+     */
+    @Deprecated
     public FtpConfig(
             String host, int port, String username, String password, String serverCharset, int connectTimeout,
             long noopInterval, int bufferSize, String temporaryFileDirectoryPath, String temporaryFilePrefix,
@@ -119,7 +485,59 @@ public final class FtpConfig {
                 host, port, username, password, serverCharset, connectTimeout, noopInterval, bufferSize,
                 temporaryFileDirectoryPath, temporaryFilePrefix, temporaryFileSuffix, fileCopyMemoryBufferSize,
                 dataConnectionMode, dataTimeout, activeRemoteDataConnectionModeServerHost,
-                activeRemoteDataConnectionModeServerPort, false
+                activeRemoteDataConnectionModeServerPort, Builder.DEFAULT_SESSION_POOL_MAX_TOTAL,
+                Builder.DEFAULT_SESSION_POOL_MAX_IDLE, Builder.DEFAULT_SESSION_POOL_MIN_IDLE,
+                Builder.DEFAULT_SESSION_POOL_MAX_WAIT, Builder.DEFAULT_SESSION_TRUST_PERIOD,
+                Builder.DEFAULT_ABSOLUTE_PATH_ADDRESSING, Builder.DEFAULT_KNOWN_DIRECTORY_CACHE_SIZE,
+                Builder.DEFAULT_LISTING_CACHE_TIME_TO_LIVE, Builder.DEFAULT_LISTING_CACHE_MAX_ENTRIES,
+                Builder.DEFAULT_LISTING_CACHE_MAX_MEMORY, Builder.DEFAULT_SERVER_SIDE_COPY_ENABLED,
+                Builder.DEFAULT_PIPED_COPY_ENABLED, Builder.DEFAULT_TEMPORARY_SPOOL_MAX_IDLE,
+                Builder.DEFAULT_TEMPORARY_SPOOL_CLEAN_INTERVAL, Builder.DEFAULT_FILE_COPY_MEMORY_BUFFER_TYPE,
+                Builder.DEFAULT_FILE_COPY_FILE_BUFFER_TYPE, Builder.DEFAULT_RETRIEVE_CONTENT_MEMORY_THRESHOLD,
+                Builder.DEFAULT_MEMORY_BUDGET, Builder.DEFAULT_GLOBAL_MEMORY_BUDGET,
+                Builder.DEFAULT_MEMORY_BUDGET_MAX_WAIT, Builder.DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_COUNT,
+                Builder.DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_SIZE, Builder.DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_MAX_RETRIES,
+                Builder.DEFAULT_UPLOAD_RESUME_MAX_ATTEMPTS, Builder.DEFAULT_DOWNLOAD_RESUME_MAX_ATTEMPTS,
+                Builder.DEFAULT_DOWNLOAD_RESUME_VERIFY_ENABLED, Builder.DEFAULT_ASYNC_EXECUTOR_POOL_SIZE,
+                Builder.DEFAULT_ASYNC_EXECUTOR_QUEUE_CAPACITY, Builder.DEFAULT_ASYNC_OPERATION_TIMEOUT,
+                Builder.DEFAULT_NIO_TRANSFER_ENABLED, Builder.DEFAULT_NIO_TRANSFER_SELECTOR_COUNT,
+                Builder.DEFAULT_NIO_TRANSFER_CONTROL_THREAD_COUNT, false
+        );
+    }
+
+    /**
+     * @since 2.1.0
+     */
+    public FtpConfig(
+            String host, int port, String username, String password, String serverCharset, int connectTimeout,
+            long noopInterval, int bufferSize, String temporaryFileDirectoryPath, String temporaryFilePrefix,
+            String temporaryFileSuffix, int fileCopyMemoryBufferSize, int dataConnectionMode, int dataTimeout,
+            String activeRemoteDataConnectionModeServerHost, int activeRemoteDataConnectionModeServerPort,
+            int sessionPoolMaxTotal, int sessionPoolMaxIdle, int sessionPoolMinIdle, long sessionPoolMaxWait,
+            long sessionTrustPeriod, boolean absolutePathAddressing, int knownDirectoryCacheSize,
+            long listingCacheTimeToLive, int listingCacheMaxEntries, long listingCacheMaxMemory,
+            boolean serverSideCopyEnabled, boolean pipedCopyEnabled, int temporarySpoolMaxIdle,
+            long temporarySpoolCleanInterval, int fileCopyMemoryBufferType, int fileCopyFileBufferType,
+            int retrieveContentMemoryThreshold, long memoryBudget, long globalMemoryBudget, long memoryBudgetMaxWait,
+            int segmentedDownloadSegmentCount, long segmentedDownloadSegmentSize,
+            int segmentedDownloadSegmentMaxRetries, int uploadResumeMaxAttempts, int downloadResumeMaxAttempts,
+            boolean downloadResumeVerifyEnabled, int asyncExecutorPoolSize, int asyncExecutorQueueCapacity,
+            long asyncOperationTimeout, boolean nioTransferEnabled, int nioTransferSelectorCount,
+            int nioTransferControlThreadCount
+    ) {
+        this(
+                host, port, username, password, serverCharset, connectTimeout, noopInterval, bufferSize,
+                temporaryFileDirectoryPath, temporaryFilePrefix, temporaryFileSuffix, fileCopyMemoryBufferSize,
+                dataConnectionMode, dataTimeout, activeRemoteDataConnectionModeServerHost,
+                activeRemoteDataConnectionModeServerPort, sessionPoolMaxTotal, sessionPoolMaxIdle, sessionPoolMinIdle,
+                sessionPoolMaxWait, sessionTrustPeriod, absolutePathAddressing, knownDirectoryCacheSize,
+                listingCacheTimeToLive, listingCacheMaxEntries, listingCacheMaxMemory, serverSideCopyEnabled,
+                pipedCopyEnabled, temporarySpoolMaxIdle, temporarySpoolCleanInterval, fileCopyMemoryBufferType,
+                fileCopyFileBufferType, retrieveContentMemoryThreshold, memoryBudget, globalMemoryBudget,
+                memoryBudgetMaxWait, segmentedDownloadSegmentCount, segmentedDownloadSegmentSize,
+                segmentedDownloadSegmentMaxRetries, uploadResumeMaxAttempts, downloadResumeMaxAttempts,
+                downloadResumeVerifyEnabled, asyncExecutorPoolSize, asyncExecutorQueueCapacity, asyncOperationTimeout,
+                nioTransferEnabled, nioTransferSelectorCount, nioTransferControlThreadCount, false
         );
     }
 
@@ -128,7 +546,17 @@ public final class FtpConfig {
             long noopInterval, int bufferSize, String temporaryFileDirectoryPath, String temporaryFilePrefix,
             String temporaryFileSuffix, int fileCopyMemoryBufferSize, int dataConnectionMode, int dataTimeout,
             String activeRemoteDataConnectionModeServerHost, int activeRemoteDataConnectionModeServerPort,
-            boolean paramReliable
+            int sessionPoolMaxTotal, int sessionPoolMaxIdle, int sessionPoolMinIdle, long sessionPoolMaxWait,
+            long sessionTrustPeriod, boolean absolutePathAddressing, int knownDirectoryCacheSize,
+            long listingCacheTimeToLive, int listingCacheMaxEntries, long listingCacheMaxMemory,
+            boolean serverSideCopyEnabled, boolean pipedCopyEnabled, int temporarySpoolMaxIdle,
+            long temporarySpoolCleanInterval, int fileCopyMemoryBufferType, int fileCopyFileBufferType,
+            int retrieveContentMemoryThreshold, long memoryBudget, long globalMemoryBudget, long memoryBudgetMaxWait,
+            int segmentedDownloadSegmentCount, long segmentedDownloadSegmentSize,
+            int segmentedDownloadSegmentMaxRetries, int uploadResumeMaxAttempts, int downloadResumeMaxAttempts,
+            boolean downloadResumeVerifyEnabled, int asyncExecutorPoolSize, int asyncExecutorQueueCapacity,
+            long asyncOperationTimeout, boolean nioTransferEnabled, int nioTransferSelectorCount,
+            int nioTransferControlThreadCount, boolean paramReliable
     ) {
         // 如果参数不可靠，则检查参数。
         if (!paramReliable) {
@@ -152,6 +580,34 @@ public final class FtpConfig {
             FtpConfigUtil.checkActiveRemoteDataConnectionModeServerPort(
                     activeRemoteDataConnectionModeServerPort, dataConnectionMode
             );
+            FtpConfigUtil.checkSessionPoolMaxTotal(sessionPoolMaxTotal);
+            FtpConfigUtil.checkSessionPoolMaxIdle(sessionPoolMaxIdle, sessionPoolMaxTotal);
+            FtpConfigUtil.checkSessionPoolMinIdle(sessionPoolMinIdle, sessionPoolMaxIdle);
+            FtpConfigUtil.checkSessionPoolMaxWait(sessionPoolMaxWait);
+            FtpConfigUtil.checkSessionTrustPeriod(sessionTrustPeriod);
+            FtpConfigUtil.checkAbsolutePathAddressing(absolutePathAddressing);
+            FtpConfigUtil.checkKnownDirectoryCacheSize(knownDirectoryCacheSize);
+            FtpConfigUtil.checkListingCacheTimeToLive(listingCacheTimeToLive);
+            FtpConfigUtil.checkListingCacheMaxEntries(listingCacheMaxEntries);
+            FtpConfigUtil.checkListingCacheMaxMemory(listingCacheMaxMemory);
+            FtpConfigUtil.checkTemporarySpoolMaxIdle(temporarySpoolMaxIdle);
+            FtpConfigUtil.checkTemporarySpoolCleanInterval(temporarySpoolCleanInterval);
+            FtpConfigUtil.checkFileCopyMemoryBufferType(fileCopyMemoryBufferType);
+            FtpConfigUtil.checkFileCopyFileBufferType(fileCopyFileBufferType);
+            FtpConfigUtil.checkRetrieveContentMemoryThreshold(retrieveContentMemoryThreshold);
+            FtpConfigUtil.checkMemoryBudget(memoryBudget);
+            FtpConfigUtil.checkGlobalMemoryBudget(globalMemoryBudget);
+            FtpConfigUtil.checkMemoryBudgetMaxWait(memoryBudgetMaxWait);
+            FtpConfigUtil.checkSegmentedDownloadSegmentCount(segmentedDownloadSegmentCount);
+            FtpConfigUtil.checkSegmentedDownloadSegmentSize(segmentedDownloadSegmentSize);
+            FtpConfigUtil.checkSegmentedDownloadSegmentMaxRetries(segmentedDownloadSegmentMaxRetries);
+            FtpConfigUtil.checkUploadResumeMaxAttempts(uploadResumeMaxAttempts);
+            FtpConfigUtil.checkDownloadResumeMaxAttempts(downloadResumeMaxAttempts);
+            FtpConfigUtil.checkAsyncExecutorPoolSize(asyncExecutorPoolSize);
+            FtpConfigUtil.checkAsyncExecutorQueueCapacity(asyncExecutorQueueCapacity);
+            FtpConfigUtil.checkAsyncOperationTimeout(asyncOperationTimeout);
+            FtpConfigUtil.checkNioTransferSelectorCount(nioTransferSelectorCount);
+            FtpConfigUtil.checkNioTransferControlThreadCount(nioTransferControlThreadCount);
         }
         // 设置值。
         this.host = host;
@@ -170,6 +626,38 @@ public final class FtpConfig {
         this.dataTimeout = dataTimeout;
         this.activeRemoteDataConnectionModeServerHost = activeRemoteDataConnectionModeServerHost;
         this.activeRemoteDataConnectionModeServerPort = activeRemoteDataConnectionModeServerPort;
+        this.sessionPoolMaxTotal = sessionPoolMaxTotal;
+        this.sessionPoolMaxIdle = sessionPoolMaxIdle;
+        this.sessionPoolMinIdle = sessionPoolMinIdle;
+        this.sessionPoolMaxWait = sessionPoolMaxWait;
+        this.sessionTrustPeriod = sessionTrustPeriod;
+        this.absolutePathAddressing = absolutePathAddressing;
+        this.knownDirectoryCacheSize = knownDirectoryCacheSize;
+        this.listingCacheTimeToLive = listingCacheTimeToLive;
+        this.listingCacheMaxEntries = listingCacheMaxEntries;
+        this.listingCacheMaxMemory = listingCacheMaxMemory;
+        this.serverSideCopyEnabled = serverSideCopyEnabled;
+        this.pipedCopyEnabled = pipedCopyEnabled;
+        this.temporarySpoolMaxIdle = temporarySpoolMaxIdle;
+        this.temporarySpoolCleanInterval = temporarySpoolCleanInterval;
+        this.fileCopyMemoryBufferType = fileCopyMemoryBufferType;
+        this.fileCopyFileBufferType = fileCopyFileBufferType;
+        this.retrieveContentMemoryThreshold = retrieveContentMemoryThreshold;
+        this.memoryBudget = memoryBudget;
+        this.globalMemoryBudget = globalMemoryBudget;
+        this.memoryBudgetMaxWait = memoryBudgetMaxWait;
+        this.segmentedDownloadSegmentCount = segmentedDownloadSegmentCount;
+        this.segmentedDownloadSegmentSize = segmentedDownloadSegmentSize;
+        this.segmentedDownloadSegmentMaxRetries = segmentedDownloadSegmentMaxRetries;
+        this.uploadResumeMaxAttempts = uploadResumeMaxAttempts;
+        this.downloadResumeMaxAttempts = downloadResumeMaxAttempts;
+        this.downloadResumeVerifyEnabled = downloadResumeVerifyEnabled;
+        this.asyncExecutorPoolSize = asyncExecutorPoolSize;
+        this.asyncExecutorQueueCapacity = asyncExecutorQueueCapacity;
+        this.asyncOperationTimeout = asyncOperationTimeout;
+        this.nioTransferEnabled = nioTransferEnabled;
+        this.nioTransferSelectorCount = nioTransferSelectorCount;
+        this.nioTransferControlThreadCount = nioTransferControlThreadCount;
     }
 
     public String getHost() {
@@ -236,6 +724,134 @@ public final class FtpConfig {
         return activeRemoteDataConnectionModeServerPort;
     }
 
+    public int getSessionPoolMaxTotal() {
+        return sessionPoolMaxTotal;
+    }
+
+    public int getSessionPoolMaxIdle() {
+        return sessionPoolMaxIdle;
+    }
+
+    public int getSessionPoolMinIdle() {
+        return sessionPoolMinIdle;
+    }
+
+    public long getSessionPoolMaxWait() {
+        return sessionPoolMaxWait;
+    }
+
+    public long getSessionTrustPeriod() {
+        return sessionTrustPeriod;
+    }
+
+    public boolean isAbsolutePathAddressing() {
+        return absolutePathAddressing;
+    }
+
+    public int getKnownDirectoryCacheSize() {
+        return knownDirectoryCacheSize;
+    }
+
+    public long getListingCacheTimeToLive() {
+        return listingCacheTimeToLive;
+    }
+
+    public int getListingCacheMaxEntries() {
+        return listingCacheMaxEntries;
+    }
+
+    public long getListingCacheMaxMemory() {
+        return listingCacheMaxMemory;
+    }
+
+    public boolean isServerSideCopyEnabled() {
+        return serverSideCopyEnabled;
+    }
+
+    public boolean isPipedCopyEnabled() {
+        return pipedCopyEnabled;
+    }
+
+    public int getTemporarySpoolMaxIdle() {
+        return temporarySpoolMaxIdle;
+    }
+
+    public long getTemporarySpoolCleanInterval() {
+        return temporarySpoolCleanInterval;
+    }
+
+    public int getFileCopyMemoryBufferType() {
+        return fileCopyMemoryBufferType;
+    }
+
+    public int getFileCopyFileBufferType() {
+        return fileCopyFileBufferType;
+    }
+
+    public int getRetrieveContentMemoryThreshold() {
+        return retrieveContentMemoryThreshold;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public long getGlobalMemoryBudget() {
+        return globalMemoryBudget;
+    }
+
+    public long getMemoryBudgetMaxWait() {
+        return memoryBudgetMaxWait;
+    }
+
+    public int getSegmentedDownloadSegmentCount() {
+        return segmentedDownloadSegmentCount;
+    }
+
+    public long getSegmentedDownloadSegmentSize() {
+        return segmentedDownloadSegmentSize;
+    }
+
+    public int getSegmentedDownloadSegmentMaxRetries() {
+        return segmentedDownloadSegmentMaxRetries;
+    }
+
+    public int getUploadResumeMaxAttempts() {
+        return uploadResumeMaxAttempts;
+    }
+
+    public int getDownloadResumeMaxAttempts() {
+        return downloadResumeMaxAttempts;
+    }
+
+    public boolean isDownloadResumeVerifyEnabled() {
+        return downloadResumeVerifyEnabled;
+    }
+
+    public int getAsyncExecutorPoolSize() {
+        return asyncExecutorPoolSize;
+    }
+
+    public int getAsyncExecutorQueueCapacity() {
+        return asyncExecutorQueueCapacity;
+    }
+
+    public long getAsyncOperationTimeout() {
+        return asyncOperationTimeout;
+    }
+
+    public boolean isNioTransferEnabled() {
+        return nioTransferEnabled;
+    }
+
+    public int getNioTransferSelectorCount() {
+        return nioTransferSelectorCount;
+    }
+
+    public int getNioTransferControlThreadCount() {
+        return nioTransferControlThreadCount;
+    }
+
     @Override
     public String toString() {
         return "FtpConfig{" +
@@ -255,114 +871,519 @@ public final class FtpConfig {
                 ", dataTimeout=" + dataTimeout +
                 ", activeRemoteDataConnectionModeServerHost='" + activeRemoteDataConnectionModeServerHost + '\'' +
                 ", activeRemoteDataConnectionModeServerPort=" + activeRemoteDataConnectionModeServerPort +
+                ", sessionPoolMaxTotal=" + sessionPoolMaxTotal +
+                ", sessionPoolMaxIdle=" + sessionPoolMaxIdle +
+                ", sessionPoolMinIdle=" + sessionPoolMinIdle +
+                ", sessionPoolMaxWait=" + sessionPoolMaxWait +
+                ", sessionTrustPeriod=" + sessionTrustPeriod +
+                ", absolutePathAddressing=" + absolutePathAddressing +
+                ", knownDirectoryCacheSize=" + knownDirectoryCacheSize +
+                ", listingCacheTimeToLive=" + listingCacheTimeToLive +
+                ", listingCacheMaxEntries=" + listingCacheMaxEntries +
+                ", listingCacheMaxMemory=" + listingCacheMaxMemory +
+                ", serverSideCopyEnabled=" + serverSideCopyEnabled +
+                ", pipedCopyEnabled=" + pipedCopyEnabled +
+                ", temporarySpoolMaxIdle=" + temporarySpoolMaxIdle +
+                ", temporarySpoolCleanInterval=" + temporarySpoolCleanInterval +
+                ", fileCopyMemoryBufferType=" + fileCopyMemoryBufferType +
+                ", fileCopyFileBufferType=" + fileCopyFileBufferType +
+                ", retrieveContentMemoryThreshold=" + retrieveContentMemoryThreshold +
+                ", memoryBudget=" + memoryBudget +
+                ", globalMemoryBudget=" + globalMemoryBudget +
+                ", memoryBudgetMaxWait=" + memoryBudgetMaxWait +
+                ", segmentedDownloadSegmentCount=" + segmentedDownloadSegmentCount +
+                ", segmentedDownloadSegmentSize=" + segmentedDownloadSegmentSize +
+                ", segmentedDownloadSegmentMaxRetries=" + segmentedDownloadSegmentMaxRetries +
+                ", uploadResumeMaxAttempts=" + uploadResumeMaxAttempts +
+                ", downloadResumeMaxAttempts=" + downloadResumeMaxAttempts +
+                ", downloadResumeVerifyEnabled=" + downloadResumeVerifyEnabled +
+                ", asyncExecutorPoolSize=" + asyncExecutorPoolSize +
+                ", asyncExecutorQueueCapacity=" + asyncExecutorQueueCapacity +
+                ", asyncOperationTimeout=" + asyncOperationTimeout +
+                ", nioTransferEnabled=" + nioTransferEnabled +
+                ", nioTransferSelectorCount=" + nioTransferSelectorCount +
+                ", nioTransferControlThreadCount=" + nioTransferControlThreadCount +
                 '}';
     }
 
-    /**
-     * FTP 配置构造器。
-     *
-     * @author DwArFeng
-     * @since 1.1.9
-     */
-    public static final class Builder implements Buildable<FtpConfig> {
+    /**
+     * FTP 配置构造器。
+     *
+     * @author DwArFeng
+     * @since 1.1.9
+     */
+    public static final class Builder implements Buildable<FtpConfig> {
+
+        /**
+         * 数据连接模式：本地主动模式（传统主动模式 / PORT 模式）。
+         *
+         * @since 1.3.0
+         */
+        public static final int DATA_CONNECTION_MODE_ACTIVE_LOCAL = 0;
+
+        /**
+         * 数据连接模式：远程主动模式（反向主动模式）。
+         *
+         * @since 1.3.0
+         */
+        public static final int DATA_CONNECTION_MODE_ACTIVE_REMOTE = 1;
+
+        /**
+         * 数据连接模式：本地被动模式（传统被动模式 / PASV 模式）。
+         */
+        public static final int DATA_CONNECTION_MODE_PASSIVE_LOCALE = 2;
+
+        /**
+         * 数据连接模式：远程被动模式（反向被动模式）。
+         */
+        public static final int DATA_CONNECTION_MODE_PASSIVE_REMOTE = 3;
+
+        /**
+         * 文件复制内存缓冲区的类型：堆内存。
+         *
+         * <p>
+         * 内存缓冲区由固定大小的堆内存分段组成，分段按需从处理器内的缓冲区池中借出，复制结束后归还。
+         *
+         * @since 2.1.0
+         */
+        public static final int FILE_COPY_MEMORY_BUFFER_TYPE_HEAP = 0;
+
+        /**
+         * 文件复制内存缓冲区的类型：直接内存。
+         *
+         * <p>
+         * 内存缓冲区由固定大小的直接内存分段组成，分段按需从处理器内的缓冲区池中借出，复制结束后归还。
+         *
+         * @since 2.1.0
+         */
+        public static final int FILE_COPY_MEMORY_BUFFER_TYPE_DIRECT = 1;
+
+        /**
+         * 文件复制文件缓冲区的类型：流。
+         *
+         * <p>
+         * 直接使用文件流读写临时文件。
+         *
+         * @since 2.1.0
+         */
+        public static final int FILE_COPY_FILE_BUFFER_TYPE_STREAM = 0;
+
+        /**
+         * 文件复制文件缓冲区的类型：通道。
+         *
+         * <p>
+         * 经由直接内存暂存区批量读写临时文件的文件通道。
+         *
+         * @since 2.1.0
+         */
+        public static final int FILE_COPY_FILE_BUFFER_TYPE_CHANNEL = 1;
+
+        /**
+         * 文件复制文件缓冲区的类型：内存映射。
+         *
+         * <p>
+         * 经由直接内存暂存区批量写入临时文件的文件通道，以内存映射的方式读取临时文件。
+         *
+         * @since 2.1.0
+         */
+        public static final int FILE_COPY_FILE_BUFFER_TYPE_MAPPED = 2;
+
+        public static final int DEFAULT_PORT = 21;
+        public static final String DEFAULT_SERVER_CHARSET = "UTF-8";
+        public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+        public static final long DEFAULT_NOOP_INTERVAL = 4000;
+        public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+        /**
+         * @since 1.2.0
+         */
+        public static final String DEFAULT_TEMPORARY_FILE_DIRECTORY_PATH = System.getProperty("java.io.tmpdir");
+
+        /**
+         * @since 1.2.0
+         */
+        public static final String DEFAULT_TEMPORARY_FILE_PREFIX = "ftp-";
+        /**
+         * @since 1.2.0
+         */
+        public static final String DEFAULT_TEMPORARY_FILE_SUFFIX = ".tmp";
+
+        /**
+         * 默认的文件复制内存缓冲区大小。
+         *
+         * <p>
+         * 1048576 bytes = 1 MiB。
+         *
+         * @since 1.2.0
+         */
+        public static final int DEFAULT_FILE_COPY_MEMORY_BUFFER_SIZE = 1048576;
+
+        /**
+         * 默认的数据连接模式。
+         *
+         * <p>
+         * 默认值：本地主动模式（传统主动模式 / PORT 模式）。
+         *
+         * @since 1.3.0
+         */
+        public static final int DEFAULT_DATA_CONNECTION_MODE = DATA_CONNECTION_MODE_ACTIVE_LOCAL;
+
+        /**
+         * 默认的数据超时时间。
+         *
+         * <p>
+         * 默认值：-1（永不超时）。
+         *
+         * @since 1.3.0
+         */
+        public static final int DEFAULT_DATA_TIMEOUT = -1;
+
+        /**
+         * 默认的远程主动数据连接模式下的服务主机地址。
+         *
+         * <p>
+         * 默认值：null。
+         *
+         * <p>
+         * 当 <code>dataConnectionMode</code> 取值为 <code>1（远程主动模式）</code> 时，默认值将无法通过检查，
+         * 在此条件下，请勿使用默认值。
+         */
+        public static final String DEFAULT_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_HOST = null;
+
+        /**
+         * 默认的远程主动数据连接模式下的服务主机端口。
+         *
+         * <p>
+         * 默认值：-1。
+         *
+         * <p>
+         * 当 <code>dataConnectionMode</code> 取值为 <code>1（远程主动模式）</code> 时，默认值将无法通过检查，
+         * 在此条件下，请勿使用默认值。
+         */
+        public static final int DEFAULT_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_PORT = -1;
+
+        /**
+         * 默认的会话池最大会话数。
+         *
+         * <p>
+         * 默认值：1（单会话，与旧版本的行为一致）。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_SESSION_POOL_MAX_TOTAL = 1;
+
+        /**
+         * 默认的会话池最大空闲会话数。
+         *
+         * <p>
+         * 默认值：1。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_SESSION_POOL_MAX_IDLE = 1;
+
+        /**
+         * 默认的会话池最小空闲会话数。
+         *
+         * <p>
+         * 默认值：1。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_SESSION_POOL_MIN_IDLE = 1;
+
+        /**
+         * 默认的会话池借出会话的最大等待时间。
+         *
+         * <p>
+         * 默认值：-1（无限等待）。
+         *
+         * @since 2.1.0
+         */
+        public static final long DEFAULT_SESSION_POOL_MAX_WAIT = -1;
+
+        /**
+         * 默认的会话信任期。
+         *
+         * <p>
+         * 默认值：5000（5 秒）。
+         *
+         * @since 2.1.0
+         */
+        public static final long DEFAULT_SESSION_TRUST_PERIOD = 5000;
+
+        /**
+         * 默认的是否使用绝对路径寻址文件。
+         *
+         * <p>
+         * 默认值：false。
+         *
+         * @since 2.1.0
+         */
+        public static final boolean DEFAULT_ABSOLUTE_PATH_ADDRESSING = false;
+
+        /**
+         * 默认的已知目录缓存的最大容量。
+         *
+         * <p>
+         * 默认值：1000。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_KNOWN_DIRECTORY_CACHE_SIZE = 1000;
+
+        /**
+         * 默认的目录列表缓存的存活时间。
+         *
+         * <p>
+         * 默认值：0，即不缓存目录列表。
+         *
+         * @since 2.1.0
+         */
+        public static final long DEFAULT_LISTING_CACHE_TIME_TO_LIVE = 0;
+
+        /**
+         * 默认的目录列表缓存的最大目录数量。
+         *
+         * <p>
+         * 默认值：100。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_LISTING_CACHE_MAX_ENTRIES = 100;
+
+        /**
+         * 默认的目录列表缓存估算的最大内存占用。
+         *
+         * <p>
+         * 默认值：16777216，即 16 MiB。
+         *
+         * @since 2.1.0
+         */
+        public static final long DEFAULT_LISTING_CACHE_MAX_MEMORY = 16777216L;
+
+        /**
+         * 默认的复制文件时是否尝试服务器端的复制方式。
+         *
+         * <p>
+         * 默认值：false。
+         *
+         * @since 2.1.0
+         */
+        public static final boolean DEFAULT_SERVER_SIDE_COPY_ENABLED = false;
+
+        /**
+         * 默认的复制文件时是否尝试使用两个会话以管道的方式复制。
+         *
+         * <p>
+         * 管道复制需要同时借出两个会话，而会话池的最大会话数默认为 1，因此默认不启用。
+         *
+         * <p>
+         * 默认值：false。
+         *
+         * @since 2.1.0
+         */
+        public static final boolean DEFAULT_PIPED_COPY_ENABLED = false;
+
+        /**
+         * 默认的临时文件池中空闲的临时文件的最大数量。
+         *
+         * <p>
+         * 默认值：4。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_TEMPORARY_SPOOL_MAX_IDLE = 4;
+
+        /**
+         * 默认的清理遗留的临时文件的间隔。
+         *
+         * <p>
+         * 默认值：3600000，即 1 小时。
+         *
+         * @since 2.1.0
+         */
+        public static final long DEFAULT_TEMPORARY_SPOOL_CLEAN_INTERVAL = 3600000L;
+
+        /**
+         * 默认的文件复制内存缓冲区的类型。
+         *
+         * <p>
+         * 默认值：{@link #FILE_COPY_MEMORY_BUFFER_TYPE_HEAP}。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_FILE_COPY_MEMORY_BUFFER_TYPE = FILE_COPY_MEMORY_BUFFER_TYPE_HEAP;
+
+        /**
+         * 默认的文件复制文件缓冲区的类型。
+         *
+         * <p>
+         * 默认值：{@link #FILE_COPY_FILE_BUFFER_TYPE_STREAM}。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_FILE_COPY_FILE_BUFFER_TYPE = FILE_COPY_FILE_BUFFER_TYPE_STREAM;
 
         /**
-         * 数据连接模式：本地主动模式（传统主动模式 / PORT 模式）。
+         * 默认的获取文件内容时，保存在内存中的文件内容的最大大小。
          *
-         * @since 1.3.0
+         * <p>
+         * 默认值：1048576，即 1 MiB。
+         *
+         * @since 2.1.0
          */
-        public static final int DATA_CONNECTION_MODE_ACTIVE_LOCAL = 0;
+        public static final int DEFAULT_RETRIEVE_CONTENT_MEMORY_THRESHOLD = 1048576;
 
         /**
-         * 数据连接模式：远程主动模式（反向主动模式）。
+         * 默认的处理器的内存预算。
          *
-         * @since 1.3.0
+         * <p>
+         * 默认值：0，即不限制。
+         *
+         * @since 2.1.0
          */
-        public static final int DATA_CONNECTION_MODE_ACTIVE_REMOTE = 1;
+        public static final long DEFAULT_MEMORY_BUDGET = 0;
 
         /**
-         * 数据连接模式：本地被动模式（传统被动模式 / PASV 模式）。
+         * 默认的进程内所有处理器共享的内存预算。
+         *
+         * <p>
+         * 默认值：0，即不限制。
+         *
+         * @since 2.1.0
          */
-        public static final int DATA_CONNECTION_MODE_PASSIVE_LOCALE = 2;
+        public static final long DEFAULT_GLOBAL_MEMORY_BUDGET = 0;
 
         /**
-         * 数据连接模式：远程被动模式（反向被动模式）。
+         * 默认的从内存预算中预留内存的最大等待时间。
+         *
+         * <p>
+         * 默认值：-1，即无限等待。
+         *
+         * @since 2.1.0
          */
-        public static final int DATA_CONNECTION_MODE_PASSIVE_REMOTE = 3;
+        public static final long DEFAULT_MEMORY_BUDGET_MAX_WAIT = -1;
 
-        public static final int DEFAULT_PORT = 21;
-        public static final String DEFAULT_SERVER_CHARSET = "UTF-8";
-        public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
-        public static final long DEFAULT_NOOP_INTERVAL = 4000;
-        public static final int DEFAULT_BUFFER_SIZE = 4096;
+        /**
+         * 默认的分段下载时同时下载的最大分段数量。
+         *
+         * <p>
+         * 默认值：1，即不使用分段下载。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_COUNT = 1;
 
         /**
-         * @since 1.2.0
+         * 默认的分段下载时每个分段的大小。
+         *
+         * <p>
+         * 默认值：67108864，即 64 MiB。
+         *
+         * @since 2.1.0
          */
-        public static final String DEFAULT_TEMPORARY_FILE_DIRECTORY_PATH = System.getProperty("java.io.tmpdir");
+        public static final long DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_SIZE = 67108864L;
 
         /**
-         * @since 1.2.0
+         * 默认的分段下载时每个分段失败后的最大重试次数。
+         *
+         * <p>
+         * 默认值：3。
+         *
+         * @since 2.1.0
          */
-        public static final String DEFAULT_TEMPORARY_FILE_PREFIX = "ftp-";
+        public static final int DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_MAX_RETRIES = 3;
+
         /**
-         * @since 1.2.0
+         * 默认的上传中断后断点续传的最大次数。
+         *
+         * <p>
+         * 默认值：0，即不使用断点续传。
+         *
+         * @since 2.1.0
          */
-        public static final String DEFAULT_TEMPORARY_FILE_SUFFIX = ".tmp";
+        public static final int DEFAULT_UPLOAD_RESUME_MAX_ATTEMPTS = 0;
 
         /**
-         * 默认的文件复制内存缓冲区大小。
+         * 默认的下载中断后断点续传的最大次数。
          *
          * <p>
-         * 1048576 bytes = 1 MiB。
+         * 默认值：0，即不使用断点续传。
          *
-         * @since 1.2.0
+         * @since 2.1.0
          */
-        public static final int DEFAULT_FILE_COPY_MEMORY_BUFFER_SIZE = 1048576;
+        public static final int DEFAULT_DOWNLOAD_RESUME_MAX_ATTEMPTS = 0;
 
         /**
-         * 默认的数据连接模式。
+         * 默认的下载断点续传时是否确认文件在下载期间没有发生变化。
          *
          * <p>
-         * 默认值：本地主动模式（传统主动模式 / PORT 模式）。
+         * 默认值：true。
          *
-         * @since 1.3.0
+         * @since 2.1.0
          */
-        public static final int DEFAULT_DATA_CONNECTION_MODE = DATA_CONNECTION_MODE_ACTIVE_LOCAL;
+        public static final boolean DEFAULT_DOWNLOAD_RESUME_VERIFY_ENABLED = true;
 
         /**
-         * 默认的数据超时时间。
+         * 默认的异步操作线程池的最大线程数。
          *
          * <p>
-         * 默认值：-1（永不超时）。
+         * 默认值：4。
          *
-         * @since 1.3.0
+         * @since 2.1.0
          */
-        public static final int DEFAULT_DATA_TIMEOUT = -1;
+        public static final int DEFAULT_ASYNC_EXECUTOR_POOL_SIZE = 4;
 
         /**
-         * 默认的远程主动数据连接模式下的服务主机地址。
+         * 默认的异步操作线程池的队列容量。
          *
          * <p>
-         * 默认值：null。
+         * 默认值：256。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_ASYNC_EXECUTOR_QUEUE_CAPACITY = 256;
+
+        /**
+         * 默认的异步操作的默认超时时间。
          *
          * <p>
-         * 当 <code>dataConnectionMode</code> 取值为 <code>1（远程主动模式）</code> 时，默认值将无法通过检查，
-         * 在此条件下，请勿使用默认值。
+         * 默认值：0，即不超时。
+         *
+         * @since 2.1.0
          */
-        public static final String DEFAULT_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_HOST = null;
+        public static final long DEFAULT_ASYNC_OPERATION_TIMEOUT = 0L;
 
         /**
-         * 默认的远程主动数据连接模式下的服务主机端口。
+         * 默认的是否启用 NIO 传输引擎。
          *
          * <p>
-         * 默认值：-1。
+         * 默认值：false。
+         *
+         * @since 2.1.0
+         */
+        public static final boolean DEFAULT_NIO_TRANSFER_ENABLED = false;
+
+        /**
+         * 默认的 NIO 传输引擎的选择器线程数。
          *
          * <p>
-         * 当 <code>dataConnectionMode</code> 取值为 <code>1（远程主动模式）</code> 时，默认值将无法通过检查，
-         * 在此条件下，请勿使用默认值。
+         * 默认值：2。
+         *
+         * @since 2.1.0
          */
-        public static final int DEFAULT_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_PORT = -1;
+        public static final int DEFAULT_NIO_TRANSFER_SELECTOR_COUNT = 2;
+
+        /**
+         * 默认的 NIO 传输引擎执行控制连接指令的线程数。
+         *
+         * <p>
+         * 默认值：4。
+         *
+         * @since 2.1.0
+         */
+        public static final int DEFAULT_NIO_TRANSFER_CONTROL_THREAD_COUNT = 4;
 
         private final String host;
         private final String username;
@@ -382,6 +1403,38 @@ public final class FtpConfig {
         private String activeRemoteDataConnectionModeServerHost
                 = DEFAULT_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_HOST;
         private int activeRemoteDataConnectionModeServerPort = DEFAULT_ACTIVE_REMOTE_DATA_CONNECTION_MODE_SERVER_PORT;
+        private int sessionPoolMaxTotal = DEFAULT_SESSION_POOL_MAX_TOTAL;
+        private int sessionPoolMaxIdle = DEFAULT_SESSION_POOL_MAX_IDLE;
+        private int sessionPoolMinIdle = DEFAULT_SESSION_POOL_MIN_IDLE;
+        private long sessionPoolMaxWait = DEFAULT_SESSION_POOL_MAX_WAIT;
+        private long sessionTrustPeriod = DEFAULT_SESSION_TRUST_PERIOD;
+        private boolean absolutePathAddressing = DEFAULT_ABSOLUTE_PATH_ADDRESSING;
+        private int knownDirectoryCacheSize = DEFAULT_KNOWN_DIRECTORY_CACHE_SIZE;
+        private long listingCacheTimeToLive = DEFAULT_LISTING_CACHE_TIME_TO_LIVE;
+        private int listingCacheMaxEntries = DEFAULT_LISTING_CACHE_MAX_ENTRIES;
+        private long listingCacheMaxMemory = DEFAULT_LISTING_CACHE_MAX_MEMORY;
+        private boolean serverSideCopyEnabled = DEFAULT_SERVER_SIDE_COPY_ENABLED;
+        private boolean pipedCopyEnabled = DEFAULT_PIPED_COPY_ENABLED;
+        private int temporarySpoolMaxIdle = DEFAULT_TEMPORARY_SPOOL_MAX_IDLE;
+        private long temporarySpoolCleanInterval = DEFAULT_TEMPORARY_SPOOL_CLEAN_INTERVAL;
+        private int fileCopyMemoryBufferType = DEFAULT_FILE_COPY_MEMORY_BUFFER_TYPE;
+        private int fileCopyFileBufferType = DEFAULT_FILE_COPY_FILE_BUFFER_TYPE;
+        private int retrieveContentMemoryThreshold = DEFAULT_RETRIEVE_CONTENT_MEMORY_THRESHOLD;
+        private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+        private long globalMemoryBudget = DEFAULT_GLOBAL_MEMORY_BUDGET;
+        private long memoryBudgetMaxWait = DEFAULT_MEMORY_BUDGET_MAX_WAIT;
+        private int segmentedDownloadSegmentCount = DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_COUNT;
+        private long segmentedDownloadSegmentSize = DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_SIZE;
+        private int segmentedDownloadSegmentMaxRetries = DEFAULT_SEGMENTED_DOWNLOAD_SEGMENT_MAX_RETRIES;
+        private int uploadResumeMaxAttempts = DEFAULT_UPLOAD_RESUME_MAX_ATTEMPTS;
+        private int downloadResumeMaxAttempts = DEFAULT_DOWNLOAD_RESUME_MAX_ATTEMPTS;
+        private boolean downloadResumeVerifyEnabled = DEFAULT_DOWNLOAD_RESUME_VERIFY_ENABLED;
+        private int asyncExecutorPoolSize = DEFAULT_ASYNC_EXECUTOR_POOL_SIZE;
+        private int asyncExecutorQueueCapacity = DEFAULT_ASYNC_EXECUTOR_QUEUE_CAPACITY;
+        private long asyncOperationTimeout = DEFAULT_ASYNC_OPERATION_TIMEOUT;
+        private boolean nioTransferEnabled = DEFAULT_NIO_TRANSFER_ENABLED;
+        private int nioTransferSelectorCount = DEFAULT_NIO_TRANSFER_SELECTOR_COUNT;
+        private int nioTransferControlThreadCount = DEFAULT_NIO_TRANSFER_CONTROL_THREAD_COUNT;
 
         public Builder(String host, String username, String password) {
             // 检查参数。
@@ -460,6 +1513,262 @@ public final class FtpConfig {
             return this;
         }
 
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSessionPoolMaxTotal(int sessionPoolMaxTotal) {
+            this.sessionPoolMaxTotal = sessionPoolMaxTotal;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSessionPoolMaxIdle(int sessionPoolMaxIdle) {
+            this.sessionPoolMaxIdle = sessionPoolMaxIdle;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSessionPoolMinIdle(int sessionPoolMinIdle) {
+            this.sessionPoolMinIdle = sessionPoolMinIdle;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSessionPoolMaxWait(long sessionPoolMaxWait) {
+            this.sessionPoolMaxWait = sessionPoolMaxWait;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSessionTrustPeriod(long sessionTrustPeriod) {
+            this.sessionTrustPeriod = sessionTrustPeriod;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setAbsolutePathAddressing(boolean absolutePathAddressing) {
+            this.absolutePathAddressing = absolutePathAddressing;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setKnownDirectoryCacheSize(int knownDirectoryCacheSize) {
+            this.knownDirectoryCacheSize = knownDirectoryCacheSize;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setListingCacheTimeToLive(long listingCacheTimeToLive) {
+            this.listingCacheTimeToLive = listingCacheTimeToLive;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setListingCacheMaxEntries(int listingCacheMaxEntries) {
+            this.listingCacheMaxEntries = listingCacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setListingCacheMaxMemory(long listingCacheMaxMemory) {
+            this.listingCacheMaxMemory = listingCacheMaxMemory;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setServerSideCopyEnabled(boolean serverSideCopyEnabled) {
+            this.serverSideCopyEnabled = serverSideCopyEnabled;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setPipedCopyEnabled(boolean pipedCopyEnabled) {
+            this.pipedCopyEnabled = pipedCopyEnabled;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setTemporarySpoolMaxIdle(int temporarySpoolMaxIdle) {
+            this.temporarySpoolMaxIdle = temporarySpoolMaxIdle;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setTemporarySpoolCleanInterval(long temporarySpoolCleanInterval) {
+            this.temporarySpoolCleanInterval = temporarySpoolCleanInterval;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setFileCopyMemoryBufferType(int fileCopyMemoryBufferType) {
+            this.fileCopyMemoryBufferType = fileCopyMemoryBufferType;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setFileCopyFileBufferType(int fileCopyFileBufferType) {
+            this.fileCopyFileBufferType = fileCopyFileBufferType;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setRetrieveContentMemoryThreshold(int retrieveContentMemoryThreshold) {
+            this.retrieveContentMemoryThreshold = retrieveContentMemoryThreshold;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setMemoryBudget(long memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setGlobalMemoryBudget(long globalMemoryBudget) {
+            this.globalMemoryBudget = globalMemoryBudget;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setMemoryBudgetMaxWait(long memoryBudgetMaxWait) {
+            this.memoryBudgetMaxWait = memoryBudgetMaxWait;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSegmentedDownloadSegmentCount(int segmentedDownloadSegmentCount) {
+            this.segmentedDownloadSegmentCount = segmentedDownloadSegmentCount;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSegmentedDownloadSegmentSize(long segmentedDownloadSegmentSize) {
+            this.segmentedDownloadSegmentSize = segmentedDownloadSegmentSize;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setSegmentedDownloadSegmentMaxRetries(int segmentedDownloadSegmentMaxRetries) {
+            this.segmentedDownloadSegmentMaxRetries = segmentedDownloadSegmentMaxRetries;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setUploadResumeMaxAttempts(int uploadResumeMaxAttempts) {
+            this.uploadResumeMaxAttempts = uploadResumeMaxAttempts;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setDownloadResumeMaxAttempts(int downloadResumeMaxAttempts) {
+            this.downloadResumeMaxAttempts = downloadResumeMaxAttempts;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setDownloadResumeVerifyEnabled(boolean downloadResumeVerifyEnabled) {
+            this.downloadResumeVerifyEnabled = downloadResumeVerifyEnabled;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setAsyncExecutorPoolSize(int asyncExecutorPoolSize) {
+            this.asyncExecutorPoolSize = asyncExecutorPoolSize;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setAsyncExecutorQueueCapacity(int asyncExecutorQueueCapacity) {
+            this.asyncExecutorQueueCapacity = asyncExecutorQueueCapacity;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setAsyncOperationTimeout(long asyncOperationTimeout) {
+            this.asyncOperationTimeout = asyncOperationTimeout;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setNioTransferEnabled(boolean nioTransferEnabled) {
+            this.nioTransferEnabled = nioTransferEnabled;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setNioTransferSelectorCount(int nioTransferSelectorCount) {
+            this.nioTransferSelectorCount = nioTransferSelectorCount;
+            return this;
+        }
+
+        /**
+         * @since 2.1.0
+         */
+        public Builder setNioTransferControlThreadCount(int nioTransferControlThreadCount) {
+            this.nioTransferControlThreadCount = nioTransferControlThreadCount;
+            return this;
+        }
+
         @Override
         public FtpConfig build() {
             // 检查参数。
@@ -483,13 +1792,50 @@ public final class FtpConfig {
             FtpConfigUtil.checkActiveRemoteDataConnectionModeServerPort(
                     activeRemoteDataConnectionModeServerPort, dataConnectionMode
             );
+            FtpConfigUtil.checkSessionPoolMaxTotal(sessionPoolMaxTotal);
+            FtpConfigUtil.checkSessionPoolMaxIdle(sessionPoolMaxIdle, sessionPoolMaxTotal);
+            FtpConfigUtil.checkSessionPoolMinIdle(sessionPoolMinIdle, sessionPoolMaxIdle);
+            FtpConfigUtil.checkSessionPoolMaxWait(sessionPoolMaxWait);
+            FtpConfigUtil.checkSessionTrustPeriod(sessionTrustPeriod);
+            FtpConfigUtil.checkAbsolutePathAddressing(absolutePathAddressing);
+            FtpConfigUtil.checkKnownDirectoryCacheSize(knownDirectoryCacheSize);
+            FtpConfigUtil.checkListingCacheTimeToLive(listingCacheTimeToLive);
+            FtpConfigUtil.checkListingCacheMaxEntries(listingCacheMaxEntries);
+            FtpConfigUtil.checkListingCacheMaxMemory(listingCacheMaxMemory);
+            FtpConfigUtil.checkTemporarySpoolMaxIdle(temporarySpoolMaxIdle);
+            FtpConfigUtil.checkTemporarySpoolCleanInterval(temporarySpoolCleanInterval);
+            FtpConfigUtil.checkFileCopyMemoryBufferType(fileCopyMemoryBufferType);
+            FtpConfigUtil.checkFileCopyFileBufferType(fileCopyFileBufferType);
+            FtpConfigUtil.checkRetrieveContentMemoryThreshold(retrieveContentMemoryThreshold);
+            FtpConfigUtil.checkMemoryBudget(memoryBudget);
+            FtpConfigUtil.checkGlobalMemoryBudget(globalMemoryBudget);
+            FtpConfigUtil.checkMemoryBudgetMaxWait(memoryBudgetMaxWait);
+            FtpConfigUtil.checkSegmentedDownloadSegmentCount(segmentedDownloadSegmentCount);
+            FtpConfigUtil.checkSegmentedDownloadSegmentSize(segmentedDownloadSegmentSize);
+            FtpConfigUtil.checkSegmentedDownloadSegmentMaxRetries(segmentedDownloadSegmentMaxRetries);
+            FtpConfigUtil.checkUploadResumeMaxAttempts(uploadResumeMaxAttempts);
+            FtpConfigUtil.checkDownloadResumeMaxAttempts(downloadResumeMaxAttempts);
+            FtpConfigUtil.checkAsyncExecutorPoolSize(asyncExecutorPoolSize);
+            FtpConfigUtil.checkAsyncExecutorQueueCapacity(asyncExecutorQueueCapacity);
+            FtpConfigUtil.checkAsyncOperationTimeout(asyncOperationTimeout);
+            FtpConfigUtil.checkNioTransferSelectorCount(nioTransferSelectorCount);
+            FtpConfigUtil.checkNioTransferControlThreadCount(nioTransferControlThreadCount);
 
             // 构造并返回配置。
             return new FtpConfig(
                     host, port, username, password, serverCharset, connectTimeout, noopInterval, bufferSize,
                     temporaryFileDirectoryPath, temporaryFilePrefix, temporaryFileSuffix, fileCopyMemoryBufferSize,
                     dataConnectionMode, dataTimeout, activeRemoteDataConnectionModeServerHost,
-                    activeRemoteDataConnectionModeServerPort, true
+                    activeRemoteDataConnectionModeServerPort, sessionPoolMaxTotal, sessionPoolMaxIdle,
+                    sessionPoolMinIdle, sessionPoolMaxWait, sessionTrustPeriod, absolutePathAddressing,
+                    knownDirectoryCacheSize, listingCacheTimeToLive, listingCacheMaxEntries, listingCacheMaxMemory,
+                    serverSideCopyEnabled, pipedCopyEnabled, temporarySpoolMaxIdle, temporarySpoolCleanInterval,
+                    fileCopyMemoryBufferType, fileCopyFileBufferType, retrieveContentMemoryThreshold, memoryBudget,
+                    globalMemoryBudget, memoryBudgetMaxWait, segmentedDownloadSegmentCount,
+                    segmentedDownloadSegmentSize, segmentedDownloadSegmentMaxRetries, uploadResumeMaxAttempts,
+                    downloadResumeMaxAttempts, downloadResumeVerifyEnabled, asyncExecutorPoolSize,
+                    asyncExecutorQueueCapacity, asyncOperationTimeout, nioTransferEnabled, nioTransferSelectorCount,
+                    nioTransferControlThreadCount, true
             );
         }
 
@@ -512,6 +1858,38 @@ public final class FtpConfig {
                     ", dataTimeout=" + dataTimeout +
                     ", activeRemoteDataConnectionModeServerHost='" + activeRemoteDataConnectionModeServerHost + '\'' +
                     ", activeRemoteDataConnectionModeServerPort=" + activeRemoteDataConnectionModeServerPort +
+                    ", sessionPoolMaxTotal=" + sessionPoolMaxTotal +
+                    ", sessionPoolMaxIdle=" + sessionPoolMaxIdle +
+                    ", sessionPoolMinIdle=" + sessionPoolMinIdle +
+                    ", sessionPoolMaxWait=" + sessionPoolMaxWait +
+                    ", sessionTrustPeriod=" + sessionTrustPeriod +
+                    ", absolutePathAddressing=" + absolutePathAddressing +
+                    ", knownDirectoryCacheSize=" + knownDirectoryCacheSize +
+                    ", listingCacheTimeToLive=" + listingCacheTimeToLive +
+                    ", listingCacheMaxEntries=" + listingCacheMaxEntries +
+                    ", listingCacheMaxMemory=" + listingCacheMaxMemory +
+                    ", serverSideCopyEnabled=" + serverSideCopyEnabled +
+                    ", pipedCopyEnabled=" + pipedCopyEnabled +
+                    ", temporarySpoolMaxIdle=" + temporarySpoolMaxIdle +
+                    ", temporarySpoolCleanInterval=" + temporarySpoolCleanInterval +
+                    ", fileCopyMemoryBufferType=" + fileCopyMemoryBufferType +
+                    ", fileCopyFileBufferType=" + fileCopyFileBufferType +
+                    ", retrieveContentMemoryThreshold=" + retrieveContentMemoryThreshold +
+                    ", memoryBudget=" + memoryBudget +
+                    ", globalMemoryBudget=" + globalMemoryBudget +
+                    ", memoryBudgetMaxWait=" + memoryBudgetMaxWait +
+                    ", segmentedDownloadSegmentCount=" + segmentedDownloadSegmentCount +
+                    ", segmentedDownloadSegmentSize=" + segmentedDownloadSegmentSize +
+                    ", segmentedDownloadSegmentMaxRetries=" + segmentedDownloadSegmentMaxRetries +
+                    ", uploadResumeMaxAttempts=" + uploadResumeMaxAttempts +
+                    ", downloadResumeMaxAttempts=" + downloadResumeMaxAttempts +
+                    ", downloadResumeVerifyEnabled=" + downloadResumeVerifyEnabled +
+                    ", asyncExecutorPoolSize=" + asyncExecutorPoolSize +
+                    ", asyncExecutorQueueCapacity=" + asyncExecutorQueueCapacity +
+                    ", asyncOperationTimeout=" + asyncOperationTimeout +
+                    ", nioTransferEnabled=" + nioTransferEnabled +
+                    ", nioTransferSelectorCount=" + nioTransferSelectorCount +
+                    ", nioTransferControlThreadCount=" + nioTransferControlThreadCount +
                     '}';
         }
     }
@@ -0,0 +1,74 @@
+package com.dwarfeng.ftp.stack.struct;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * FTP 文件内容。
+ *
+ * <p>
+ * 文件内容是获取到客户端的 FTP 文件的内容的句柄。<br>
+ * 较小的文件内容保存在内存中，较大的文件内容保存在临时文件中，因此获取任意大小的文件都不会耗尽内存。
+ *
+ * <p>
+ * 文件内容占用的内存或者临时文件在调用 {@link #close()} 时被释放，请 <b>务必</b> 在使用完毕后关闭文件内容。<br>
+ * 文件内容关闭后，通过 {@link #openInputStream()} 打开的输入流会被一并关闭，
+ * 通过 {@link #getByteBuffer()} 获取的缓冲区不得再被使用。
+ *
+ * <p>
+ * 该接口的实现是线程安全的，但是通过 {@link #openInputStream()} 打开的每个输入流只能在一个线程中使用。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public interface FtpFileContent extends Closeable {
+
+    /**
+     * 获取文件内容的长度。
+     *
+     * @return 文件内容的长度，单位为字节。
+     */
+    long getLength();
+
+    /**
+     * 返回文件内容是否保存在临时文件中。
+     *
+     * @return 文件内容是否保存在临时文件中。
+     */
+    boolean isSpilled();
+
+    /**
+     * 打开文件内容的输入流。
+     *
+     * <p>
+     * 该方法可以被多次调用，每次调用返回从头读取文件内容的新输入流。
+     *
+     * @return 文件内容的输入流。
+     * @throws IOException 文件内容已经关闭，或者打开临时文件失败时抛出的异常。
+     */
+    InputStream openInputStream() throws IOException;
+
+    /**
+     * 获取包含文件内容的只读缓冲区。
+     *
+     * <p>
+     * 文件内容保存在内存中时，返回包装内存中的数据的缓冲区；
+     * 文件内容保存在临时文件中时，返回以内存映射的方式映射临时文件的缓冲区。<br>
+     * 缓冲区的位置为 0，界限为文件内容的长度。
+     *
+     * @return 包含文件内容的只读缓冲区。
+     * @throws IOException 文件内容已经关闭，文件内容的长度超过缓冲区的最大容量，或者映射临时文件失败时抛出的异常。
+     */
+    ByteBuffer getByteBuffer() throws IOException;
+
+    /**
+     * 关闭文件内容，释放文件内容占用的内存或者临时文件。
+     *
+     * <p>
+     * 该方法是幂等的。
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,144 @@
+package com.dwarfeng.ftp.example;
+
+import com.dwarfeng.ftp.impl.handler.FtpHandlerImpl;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * 文件复制临时存储的性能对比示例。
+ *
+ * <p>
+ * 示例关闭服务器端的复制方式以及管道复制，使复制经由客户端的临时存储中转，
+ * 并分别以内存层与文件层的各种实现方式的组合复制相同的文件，对比复制的耗时。<br>
+ * 文件大小超过内存缓冲区的大小时，超出的部分写入文件层。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FileCopyStorageBenchmarkExample {
+
+    private static final int[] MEMORY_BUFFER_TYPES = new int[]{
+            FtpConfig.Builder.FILE_COPY_MEMORY_BUFFER_TYPE_HEAP,
+            FtpConfig.Builder.FILE_COPY_MEMORY_BUFFER_TYPE_DIRECT
+    };
+    private static final String[] MEMORY_BUFFER_TYPE_NAMES = new String[]{"heap", "direct"};
+
+    private static final int[] FILE_BUFFER_TYPES = new int[]{
+            FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_STREAM,
+            FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_CHANNEL,
+            FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_MAPPED
+    };
+    private static final String[] FILE_BUFFER_TYPE_NAMES = new String[]{"stream", "channel", "mapped"};
+
+    public static void main(String[] args) throws Exception {
+        ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(
+                "classpath:spring/application-context*.xml"
+        );
+        ctx.registerShutdownHook();
+        ctx.start();
+
+        FtpConfig config = ctx.getBean(FtpConfig.class);
+        ThreadPoolTaskScheduler scheduler = ctx.getBean(ThreadPoolTaskScheduler.class);
+
+        Scanner scanner = new Scanner(System.in);
+
+        // 显示欢迎信息并获取展示功能用的根文件夹。
+        System.out.println("开发者您好!");
+        System.out.println("这是一个示例, 用于对比文件复制临时存储的内存层与文件层的各种实现方式的复制耗时");
+        System.out.println("该示例将会在你配置的 ftp 目录下新建名为 foobar 的文件夹, 如果您的 ftp 已经有这个文件夹了, " +
+                "请指定一个不存在的文件夹");
+        System.out.print("请指定一个文件夹用于演示功能, 不填默认为 foobar...");
+        String rootPath = scanner.nextLine();
+        if (StringUtils.isEmpty(rootPath)) {
+            rootPath = "foobar";
+        }
+        System.out.print("请指定复制的文件的大小, 单位为 KB, 不填默认为 65536...");
+        String fileSizeString = scanner.nextLine();
+        int fileSize = (StringUtils.isEmpty(fileSizeString) ? 65536 : Integer.parseInt(fileSizeString)) * 1024;
+        System.out.print("请指定每种组合的复制次数, 不填默认为 3...");
+        String iterationString = scanner.nextLine();
+        int iteration = StringUtils.isEmpty(iterationString) ? 3 : Integer.parseInt(iterationString);
+
+        // 1. 准备文件。
+        System.out.println();
+        System.out.println("1. 准备文件...");
+        FtpHandler ftpHandler = ctx.getBean(FtpHandler.class);
+        String[] filePaths = new String[]{rootPath};
+        byte[] content = new byte[fileSize];
+        new Random().nextBytes(content);
+        ftpHandler.storeFile(filePaths, "source.bin", content);
+        System.out.print("请按回车键继续...");
+        scanner.nextLine();
+
+        // 2. 对比各种组合的复制耗时。
+        System.out.println();
+        System.out.println("2. 对比各种组合的复制耗时, 内存缓冲区的大小为 " + config.getFileCopyMemoryBufferSize() + " 字节...");
+        for (int i = 0; i < MEMORY_BUFFER_TYPES.length; i++) {
+            for (int j = 0; j < FILE_BUFFER_TYPES.length; j++) {
+                benchmark(
+                        scheduler, config, MEMORY_BUFFER_TYPES[i], FILE_BUFFER_TYPES[j],
+                        MEMORY_BUFFER_TYPE_NAMES[i] + "/" + FILE_BUFFER_TYPE_NAMES[j], filePaths, iteration
+                );
+            }
+        }
+        System.out.print("请按回车键继续...");
+        scanner.nextLine();
+
+        // 3. 清理文件。
+        System.out.println();
+        System.out.println("3. 清理文件...");
+        ftpHandler.clearDirectory(filePaths);
+        ftpHandler.removeDirectory(filePaths);
+        System.out.println("示例演示完毕, 感谢您测试与使用!");
+
+        ctx.stop();
+        ctx.close();
+        System.exit(0);
+    }
+
+    private static void benchmark(
+            ThreadPoolTaskScheduler scheduler, FtpConfig config, int memoryBufferType, int fileBufferType,
+            String label, String[] filePaths, int iteration
+    ) throws Exception {
+        FtpConfig benchmarkConfig = new FtpConfig.Builder(config.getHost(), config.getUsername(), config.getPassword())
+                .setPort(config.getPort())
+                .setServerCharset(config.getServerCharset())
+                .setConnectTimeout(config.getConnectTimeout())
+                .setDataConnectionMode(config.getDataConnectionMode())
+                .setDataTimeout(config.getDataTimeout())
+                .setBufferSize(config.getBufferSize())
+                .setTemporaryFileDirectoryPath(config.getTemporaryFileDirectoryPath())
+                .setFileCopyMemoryBufferSize(config.getFileCopyMemoryBufferSize())
+                .setFileCopyMemoryBufferType(memoryBufferType)
+                .setFileCopyFileBufferType(fileBufferType)
+                // 关闭服务器端的复制方式以及管道复制，使复制经由临时存储中转。
+                .setServerSideCopyEnabled(false)
+                .setPipedCopyEnabled(false)
+                .build();
+        FtpHandlerImpl ftpHandler = new FtpHandlerImpl(scheduler, benchmarkConfig);
+        ftpHandler.start();
+        try {
+            long totalElapsedTime = 0;
+            long minElapsedTime = Long.MAX_VALUE;
+            for (int i = 0; i < iteration; i++) {
+                long startTime = System.nanoTime();
+                ftpHandler.copyFile(filePaths, "source.bin", filePaths, "target.bin");
+                long elapsedTime = System.nanoTime() - startTime;
+                totalElapsedTime += elapsedTime;
+                minElapsedTime = Math.min(minElapsedTime, elapsedTime);
+            }
+            System.out.printf(
+                    "%-15s 复制 %d 次, 平均耗时 %.2f 毫秒, 最短耗时 %.2f 毫秒%n",
+                    label, iteration, totalElapsedTime / 1000000.0 / iteration, minElapsedTime / 1000000.0
+            );
+        } finally {
+            ftpHandler.stop();
+        }
+    }
+}
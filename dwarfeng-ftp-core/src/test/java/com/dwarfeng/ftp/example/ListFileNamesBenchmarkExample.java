@@ -0,0 +1,127 @@
+package com.dwarfeng.ftp.example;
+
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.util.Scanner;
+
+/**
+ * 列出文件名时 NLST 指令与 LIST 指令的性能对比示例。
+ *
+ * <p>
+ * 示例在一个包含大量文件的目录下，分别通过 NLST 指令以及 LIST 指令列出文件名，
+ * 对比两者经过数据连接的数据量与耗时，其中 LIST 指令的耗时包括解析每个条目的时间。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class ListFileNamesBenchmarkExample {
+
+    public static void main(String[] args) throws Exception {
+        ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(
+                "classpath:spring/application-context*.xml"
+        );
+        ctx.registerShutdownHook();
+        ctx.start();
+
+        FtpHandler ftpHandler = ctx.getBean(FtpHandler.class);
+        FtpConfig config = ctx.getBean(FtpConfig.class);
+
+        Scanner scanner = new Scanner(System.in);
+
+        // 显示欢迎信息并获取展示功能用的根文件夹。
+        System.out.println("开发者您好!");
+        System.out.println("这是一个示例, 用于对比列出文件名时 NLST 指令与 LIST 指令的数据量以及耗时");
+        System.out.println("该示例将会在你配置的 ftp 目录下新建名为 foobar 的文件夹, 如果您的 ftp 已经有这个文件夹了, " +
+                "请指定一个不存在的文件夹");
+        System.out.print("请指定一个文件夹用于演示功能, 不填默认为 foobar...");
+        String rootPath = scanner.nextLine();
+        if (StringUtils.isEmpty(rootPath)) {
+            rootPath = "foobar";
+        }
+        System.out.print("请指定文件夹下的文件数量, 不填默认为 100000...");
+        String fileCountString = scanner.nextLine();
+        int fileCount = StringUtils.isEmpty(fileCountString) ? 100000 : Integer.parseInt(fileCountString);
+        System.out.print("请指定每种指令的重复次数, 不填默认为 5...");
+        String iterationString = scanner.nextLine();
+        int iteration = StringUtils.isEmpty(iterationString) ? 5 : Integer.parseInt(iterationString);
+
+        // 1. 准备文件。
+        System.out.println();
+        System.out.println("1. 准备文件, 文件数量较多时需要一定的时间...");
+        String[] filePaths = new String[]{rootPath};
+        byte[] content = new byte[0];
+        for (int i = 0; i < fileCount; i++) {
+            ftpHandler.storeFile(filePaths, String.format("benchmark-file-%08d.bin", i), content);
+            if ((i + 1) % 10000 == 0) {
+                System.out.println("已准备 " + (i + 1) + " 个文件");
+            }
+        }
+        System.out.print("请按回车键继续...");
+        scanner.nextLine();
+
+        // 2. 对比 NLST 指令与 LIST 指令。
+        System.out.println();
+        System.out.println("2. 对比 NLST 指令与 LIST 指令...");
+        FTPClient ftpClient = new FTPClient();
+        ftpClient.setControlEncoding(config.getServerCharset());
+        ftpClient.setConnectTimeout(config.getConnectTimeout());
+        ftpClient.connect(config.getHost(), config.getPort());
+        try {
+            ftpClient.login(config.getUsername(), config.getPassword());
+            if (config.getDataConnectionMode() == FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_LOCALE) {
+                ftpClient.enterLocalPassiveMode();
+            }
+            ftpClient.changeWorkingDirectory(rootPath);
+            for (int i = 0; i < iteration; i++) {
+                long nlstStartTime = System.nanoTime();
+                String[] fileNames = ftpClient.listNames();
+                long nlstElapsedTime = System.nanoTime() - nlstStartTime;
+                long nlstBytes = 0;
+                for (String fileName : fileNames) {
+                    // 每行以 CRLF 结尾。
+                    nlstBytes += fileName.length() + 2;
+                }
+
+                long listStartTime = System.nanoTime();
+                FTPFile[] ftpFiles = ftpClient.listFiles();
+                String[] listedNames = new String[ftpFiles.length];
+                for (int j = 0; j < ftpFiles.length; j++) {
+                    listedNames[j] = ftpFiles[j].getName();
+                }
+                long listElapsedTime = System.nanoTime() - listStartTime;
+                long listBytes = 0;
+                for (FTPFile ftpFile : ftpFiles) {
+                    listBytes += ftpFile.getRawListing().length() + 2;
+                }
+
+                System.out.printf(
+                        "第 %d 轮: NLST 列出 %d 个文件名, 数据量 %d 字节, 耗时 %d 毫秒; " +
+                                "LIST 列出 %d 个文件名, 数据量 %d 字节, 耗时 %d 毫秒%n",
+                        i + 1, fileNames.length, nlstBytes, nlstElapsedTime / 1000000,
+                        listedNames.length, listBytes, listElapsedTime / 1000000
+                );
+            }
+            ftpClient.logout();
+        } finally {
+            ftpClient.disconnect();
+        }
+        System.out.print("请按回车键继续...");
+        scanner.nextLine();
+
+        // 3. 清理文件。
+        System.out.println();
+        System.out.println("3. 清理文件...");
+        ftpHandler.clearDirectory(filePaths);
+        ftpHandler.removeDirectory(filePaths);
+        System.out.println("示例演示完毕, 感谢您测试与使用!");
+
+        ctx.stop();
+        ctx.close();
+        System.exit(0);
+    }
+}
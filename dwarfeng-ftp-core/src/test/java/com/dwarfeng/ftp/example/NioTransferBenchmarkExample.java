@@ -0,0 +1,169 @@
+package com.dwarfeng.ftp.example;
+
+import com.dwarfeng.ftp.impl.handler.AsyncFtpHandlerImpl;
+import com.dwarfeng.ftp.impl.handler.FtpAsyncExecutor;
+import com.dwarfeng.ftp.impl.handler.NioTransferEngine;
+import com.dwarfeng.ftp.stack.handler.AsyncFtpHandler;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * NIO 传输引擎与阻塞传输的性能对比示例。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class NioTransferBenchmarkExample {
+
+    public static void main(String[] args) throws Exception {
+        ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(
+                "classpath:spring/application-context*.xml"
+        );
+        ctx.registerShutdownHook();
+        ctx.start();
+
+        FtpHandler ftpHandler = ctx.getBean(FtpHandler.class);
+        ThreadPoolTaskScheduler scheduler = ctx.getBean(ThreadPoolTaskScheduler.class);
+
+        Scanner scanner = new Scanner(System.in);
+
+        // 显示欢迎信息并获取展示功能用的根文件夹。
+        System.out.println("开发者您好!");
+        System.out.println("这是一个示例, 用于对比 NIO 传输引擎与阻塞传输的吞吐量以及线程占用");
+        System.out.println("每个并发的传输都占用会话池中的一个会话, 请将 ftp.session_pool_max_total 设置为不小于并发数的值, " +
+                "否则传输将在借出会话时排队");
+        System.out.println("该示例将会在你配置的 ftp 目录下新建名为 foobar 的文件夹, 如果您的 ftp 已经有这个文件夹了, " +
+                "请指定一个不存在的文件夹");
+        System.out.print("请指定一个文件夹用于演示功能, 不填默认为 foobar...");
+        String rootPath = scanner.nextLine();
+        if (StringUtils.isEmpty(rootPath)) {
+            rootPath = "foobar";
+        }
+        System.out.print("请指定并发的传输数量, 不填默认为 100...");
+        String concurrencyString = scanner.nextLine();
+        int concurrency = StringUtils.isEmpty(concurrencyString) ? 100 : Integer.parseInt(concurrencyString);
+        System.out.print("请指定每个文件的大小, 单位为 KB, 不填默认为 1024...");
+        String fileSizeString = scanner.nextLine();
+        int fileSize = (StringUtils.isEmpty(fileSizeString) ? 1024 : Integer.parseInt(fileSizeString)) * 1024;
+
+        // 准备本地文件。
+        Path tempDirectory = Files.createTempDirectory("dwarfeng-ftp-benchmark");
+        Path sourcePath = tempDirectory.resolve("source.bin");
+        byte[] content = new byte[fileSize];
+        new Random().nextBytes(content);
+        Files.write(sourcePath, content);
+
+        // 1. 阻塞传输。
+        System.out.println();
+        System.out.println("1. 阻塞传输...");
+        FtpAsyncExecutor blockingExecutor = new FtpAsyncExecutor(scheduler, concurrency, 0, 0);
+        AsyncFtpHandler blockingHandler = new AsyncFtpHandlerImpl(ftpHandler, blockingExecutor);
+        try {
+            benchmark(blockingHandler, rootPath, "blocking", sourcePath, tempDirectory, concurrency, fileSize);
+        } finally {
+            blockingExecutor.shutdown();
+        }
+        System.out.print("请按回车键继续...");
+        scanner.nextLine();
+
+        // 2. NIO 传输引擎。
+        System.out.println();
+        System.out.println("2. NIO 传输引擎...");
+        NioTransferEngine engine = new NioTransferEngine(
+                scheduler, ftpHandler, true, FtpConfig.Builder.DEFAULT_NIO_TRANSFER_SELECTOR_COUNT,
+                FtpConfig.Builder.DEFAULT_NIO_TRANSFER_CONTROL_THREAD_COUNT, FtpConfig.Builder.DEFAULT_DATA_TIMEOUT
+        );
+        FtpAsyncExecutor nioExecutor = new FtpAsyncExecutor(scheduler, 1, 0, 0);
+        AsyncFtpHandler nioHandler = new AsyncFtpHandlerImpl(ftpHandler, nioExecutor, engine);
+        try {
+            benchmark(nioHandler, rootPath, "nio", sourcePath, tempDirectory, concurrency, fileSize);
+        } finally {
+            engine.shutdown();
+            nioExecutor.shutdown();
+        }
+        System.out.println("NIO 传输引擎的线程数量只与选择器以及控制线程的数量有关, 不随并发的传输数量增长");
+        System.out.print("请按回车键继续...");
+        scanner.nextLine();
+
+        // 3. 清理文件。
+        System.out.println();
+        System.out.println("3. 清理文件...");
+        ftpHandler.clearDirectory(new String[]{rootPath});
+        ftpHandler.removeDirectory(new String[]{rootPath});
+        try (Stream<Path> stream = Files.list(tempDirectory)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(tempDirectory);
+        System.out.println("示例演示完毕, 感谢您测试与使用!");
+
+        ctx.stop();
+        ctx.close();
+        System.exit(0);
+    }
+
+    private static void benchmark(
+            AsyncFtpHandler asyncFtpHandler, String rootPath, String prefix, Path sourcePath, Path tempDirectory,
+            int concurrency, int fileSize
+    ) throws Exception {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        // 存储文件。
+        int baseThreadCount = threadMXBean.getThreadCount();
+        threadMXBean.resetPeakThreadCount();
+        long storeStartTime = System.currentTimeMillis();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(asyncFtpHandler.storeFileFromPath(
+                    new FtpFileLocation(new String[]{rootPath}, prefix + "-" + i + ".bin"), sourcePath
+            ));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        long storeElapsedTime = Math.max(System.currentTimeMillis() - storeStartTime, 1);
+        int storePeakThreadCount = threadMXBean.getPeakThreadCount();
+        printResult("存储", concurrency, fileSize, storeElapsedTime, baseThreadCount, storePeakThreadCount);
+
+        // 获取文件。
+        baseThreadCount = threadMXBean.getThreadCount();
+        threadMXBean.resetPeakThreadCount();
+        long retrieveStartTime = System.currentTimeMillis();
+        futures.clear();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(asyncFtpHandler.retrieveFileToPath(
+                    new FtpFileLocation(new String[]{rootPath}, prefix + "-" + i + ".bin"),
+                    tempDirectory.resolve(prefix + "-" + i + ".bin")
+            ));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        long retrieveElapsedTime = Math.max(System.currentTimeMillis() - retrieveStartTime, 1);
+        int retrievePeakThreadCount = threadMXBean.getPeakThreadCount();
+        printResult("获取", concurrency, fileSize, retrieveElapsedTime, baseThreadCount, retrievePeakThreadCount);
+    }
+
+    private static void printResult(
+            String operation, int concurrency, int fileSize, long elapsedTime, int baseThreadCount,
+            int peakThreadCount
+    ) {
+        double throughput = (double) concurrency * fileSize / 1024 / 1024 / elapsedTime * 1000;
+        System.out.printf(
+                "%s %d 个文件, 耗时 %d 毫秒, 吞吐量 %.2f MB/s, 开始时线程数 %d, 峰值线程数 %d%n",
+                operation, concurrency, elapsedTime, throughput, baseThreadCount, peakThreadCount
+        );
+    }
+}
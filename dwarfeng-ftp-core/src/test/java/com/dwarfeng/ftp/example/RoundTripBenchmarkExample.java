@@ -0,0 +1,236 @@
+package com.dwarfeng.ftp.example;
+
+import com.dwarfeng.ftp.impl.handler.FtpHandlerImpl;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 控制连接往返次数的性能对比示例。
+ *
+ * <p>
+ * 示例在本地启动一个控制连接的转发代理，代理统计客户端发出的指令数（每条指令对应一次控制连接往返），
+ * 并为每条指令附加指定的延迟，以模拟高延迟的网络。<br>
+ * 示例分别以会话信任期为 0（每次操作前都发送 NOOP 指令）以及配置的会话信任期执行相同的操作，
+ * 并对比每次操作的指令数与耗时。
+ *
+ * <p>
+ * 数据连接不经过代理，请使用被动模式，且不要对 FTP 服务器使用 EPSV。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class RoundTripBenchmarkExample {
+
+    public static void main(String[] args) throws Exception {
+        ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(
+                "classpath:spring/application-context*.xml"
+        );
+        ctx.registerShutdownHook();
+        ctx.start();
+
+        FtpConfig config = ctx.getBean(FtpConfig.class);
+        ThreadPoolTaskScheduler scheduler = ctx.getBean(ThreadPoolTaskScheduler.class);
+
+        Scanner scanner = new Scanner(System.in);
+
+        // 显示欢迎信息并获取展示功能用的根文件夹。
+        System.out.println("开发者您好!");
+        System.out.println("这是一个示例, 用于对比每次操作前发送 NOOP 指令与信任近期活跃的会话时, 每次操作的控制连接往返次数");
+        System.out.println("该示例将会在你配置的 ftp 目录下新建名为 foobar 的文件夹, 如果您的 ftp 已经有这个文件夹了, " +
+                "请指定一个不存在的文件夹");
+        System.out.print("请指定一个文件夹用于演示功能, 不填默认为 foobar...");
+        String rootPath = scanner.nextLine();
+        if (StringUtils.isEmpty(rootPath)) {
+            rootPath = "foobar";
+        }
+        System.out.print("请指定每次操作的重复次数, 不填默认为 100...");
+        String iterationString = scanner.nextLine();
+        int iteration = StringUtils.isEmpty(iterationString) ? 100 : Integer.parseInt(iterationString);
+        System.out.print("请指定代理为每条指令附加的延迟, 单位为毫秒, 不填默认为 20...");
+        String latencyString = scanner.nextLine();
+        long latency = StringUtils.isEmpty(latencyString) ? 20 : Long.parseLong(latencyString);
+
+        try (CommandCountingProxy proxy = new CommandCountingProxy(config.getHost(), config.getPort(), latency)) {
+            proxy.start();
+
+            // 1. 每次操作前发送 NOOP 指令。
+            System.out.println();
+            System.out.println("1. 每次操作前发送 NOOP 指令 (会话信任期为 0)...");
+            benchmark(scheduler, config, proxy, 0L, rootPath, iteration);
+            System.out.print("请按回车键继续...");
+            scanner.nextLine();
+
+            // 2. 信任近期活跃的会话。
+            System.out.println();
+            System.out.println("2. 信任近期活跃的会话 (会话信任期为 " + config.getSessionTrustPeriod() + " 毫秒)...");
+            benchmark(scheduler, config, proxy, config.getSessionTrustPeriod(), rootPath, iteration);
+            System.out.print("请按回车键继续...");
+            scanner.nextLine();
+        }
+
+        // 3. 清理文件。
+        System.out.println();
+        System.out.println("3. 清理文件...");
+        FtpHandler ftpHandler = ctx.getBean(FtpHandler.class);
+        ftpHandler.clearDirectory(new String[]{rootPath});
+        ftpHandler.removeDirectory(new String[]{rootPath});
+        System.out.println("示例演示完毕, 感谢您测试与使用!");
+
+        ctx.stop();
+        ctx.close();
+        System.exit(0);
+    }
+
+    private static void benchmark(
+            ThreadPoolTaskScheduler scheduler, FtpConfig config, CommandCountingProxy proxy, long sessionTrustPeriod,
+            String rootPath, int iteration
+    ) throws Exception {
+        FtpConfig benchmarkConfig = new FtpConfig.Builder(config.getHost(), config.getUsername(), config.getPassword())
+                .setPort(proxy.getLocalPort())
+                .setServerCharset(config.getServerCharset())
+                .setConnectTimeout(config.getConnectTimeout())
+                .setDataConnectionMode(config.getDataConnectionMode())
+                .setDataTimeout(config.getDataTimeout())
+                .setSessionTrustPeriod(sessionTrustPeriod)
+                // 关闭列表缓存，以便每次操作都访问服务器。
+                .setListingCacheTimeToLive(0L)
+                .build();
+        FtpHandlerImpl ftpHandler = new FtpHandlerImpl(scheduler, benchmarkConfig);
+        ftpHandler.start();
+        try {
+            String[] filePaths = new String[]{rootPath};
+            byte[] content = new byte[1024];
+            new Random().nextBytes(content);
+            // 预热：建立连接并创建文件夹。
+            ftpHandler.storeFile(filePaths, "round-trip.bin", content);
+
+            measure(proxy, "existsFile", iteration, () -> ftpHandler.existsFile(filePaths, "round-trip.bin"));
+            measure(proxy, "listFiles", iteration, () -> ftpHandler.listFiles(filePaths));
+            measure(proxy, "storeFile", iteration, () -> ftpHandler.storeFile(filePaths, "round-trip.bin", content));
+            measure(proxy, "retrieveFile", iteration, () -> ftpHandler.retrieveFile(filePaths, "round-trip.bin"));
+        } finally {
+            ftpHandler.stop();
+        }
+    }
+
+    private static void measure(CommandCountingProxy proxy, String operation, int iteration, Operation op)
+            throws Exception {
+        long baseCommandCount = proxy.getCommandCount();
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < iteration; i++) {
+            op.execute();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        long commandCount = proxy.getCommandCount() - baseCommandCount;
+        System.out.printf(
+                "%-12s 执行 %d 次, 每次 %.2f 条指令, 平均耗时 %.2f 毫秒%n",
+                operation, iteration, (double) commandCount / iteration, (double) elapsedTime / iteration
+        );
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+
+        void execute() throws Exception;
+    }
+
+    /**
+     * 统计指令数，并为每条指令附加延迟的控制连接转发代理。
+     */
+    private static final class CommandCountingProxy implements AutoCloseable {
+
+        private final String host;
+        private final int port;
+        private final long latency;
+        private final ServerSocket serverSocket;
+        private final AtomicLong commandCount = new AtomicLong(0);
+
+        CommandCountingProxy(String host, int port, long latency) throws IOException {
+            this.host = host;
+            this.port = port;
+            this.latency = latency;
+            this.serverSocket = new ServerSocket(0);
+        }
+
+        void start() {
+            Thread acceptThread = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket client = serverSocket.accept();
+                        Socket server = new Socket(host, port);
+                        startPump(client, server, true);
+                        startPump(server, client, false);
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            }, "command-counting-proxy");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        private void startPump(Socket source, Socket target, boolean upstream) {
+            Thread pumpThread = new Thread(() -> {
+                try (
+                        InputStream in = new BufferedInputStream(source.getInputStream());
+                        OutputStream out = new BufferedOutputStream(target.getOutputStream())
+                ) {
+                    int b;
+                    while ((b = in.read()) >= 0) {
+                        out.write(b);
+                        // 每条指令以换行结尾，统计指令数并在转发前附加延迟。
+                        if (upstream && b == '\n') {
+                            commandCount.incrementAndGet();
+                            Thread.sleep(latency);
+                        }
+                        if (in.available() == 0) {
+                            out.flush();
+                        }
+                    }
+                } catch (Exception ignored) {
+                    // 连接断开，结束转发。
+                } finally {
+                    closeQuietly(source);
+                    closeQuietly(target);
+                }
+            }, "command-counting-proxy-pump");
+            pumpThread.setDaemon(true);
+            pumpThread.start();
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 忽略关闭时的异常。
+            }
+        }
+
+        int getLocalPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        long getCommandCount() {
+            return commandCount.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.BufferPoolMetrics;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BufferPool} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testAllocationCapacity() {
+        assertEquals(BufferPool.MIN_CLASS_SIZE, BufferPool.allocationCapacityOf(1));
+        assertEquals(BufferPool.MIN_CLASS_SIZE, BufferPool.allocationCapacityOf(BufferPool.MIN_CLASS_SIZE));
+        assertEquals(8 * 1024, BufferPool.allocationCapacityOf(BufferPool.MIN_CLASS_SIZE + 1));
+        assertEquals(BufferPool.SEGMENT_SIZE, BufferPool.allocationCapacityOf(BufferPool.SEGMENT_SIZE));
+        assertEquals(BufferPool.MAX_CLASS_SIZE, BufferPool.allocationCapacityOf(BufferPool.MAX_CLASS_SIZE));
+        // 超过最大级别的容量时，按照请求的容量直接分配。
+        assertEquals(BufferPool.MAX_CLASS_SIZE + 1, BufferPool.allocationCapacityOf(BufferPool.MAX_CLASS_SIZE + 1));
+    }
+
+    @Test
+    public void testAcquiredBufferIsCleared() {
+        BufferPool pool = new BufferPool(0, false);
+
+        ByteBuffer buffer = pool.acquire(100, false);
+        assertEquals(BufferPool.MIN_CLASS_SIZE, buffer.capacity());
+        assertEquals(0, buffer.arrayOffset());
+        buffer.put((byte) 1).flip();
+        pool.release(buffer);
+
+        ByteBuffer reused = pool.acquire(100, false);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(reused.capacity(), reused.limit());
+    }
+
+    @Test
+    public void testThreadLocalCacheHit() {
+        BufferPool pool = new BufferPool(0, false);
+
+        ByteBuffer heapSegment = pool.acquireSegment(false);
+        ByteBuffer directSegment = pool.acquireSegment(true);
+        assertTrue(directSegment.isDirect());
+        pool.release(heapSegment);
+        pool.release(directSegment);
+
+        // 堆内存缓冲区与直接内存缓冲区分别缓存。
+        assertSame(directSegment, pool.acquireSegment(true));
+        assertSame(heapSegment, pool.acquireSegment(false));
+        BufferPoolMetrics metrics = pool.getMetrics();
+        assertEquals(2, metrics.getHitCount());
+        assertEquals(2, metrics.getThreadLocalHitCount());
+        assertEquals(2, metrics.getMissCount());
+        assertEquals(0, metrics.getIdleCount());
+    }
+
+    @Test
+    public void testGlobalIdleBuffersRespectMaxIdleBytes() {
+        BufferPool pool = new BufferPool(BufferPool.SEGMENT_SIZE, false);
+
+        ByteBuffer buffer1 = pool.acquireSegment(false);
+        ByteBuffer buffer2 = pool.acquireSegment(false);
+        ByteBuffer buffer3 = pool.acquireSegment(false);
+        // 第一个缓冲区进入线程本地缓存，第二个缓冲区进入全局空闲列表，第三个缓冲区超出上限被丢弃。
+        pool.release(buffer1);
+        pool.release(buffer2);
+        pool.release(buffer3);
+        BufferPoolMetrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.getIdleCount());
+        assertEquals(BufferPool.SEGMENT_SIZE, metrics.getIdleBytes());
+
+        assertSame(buffer1, pool.acquireSegment(false));
+        assertSame(buffer2, pool.acquireSegment(false));
+        assertNotSame(buffer3, pool.acquireSegment(false));
+        assertEquals(0, pool.getMetrics().getIdleBytes());
+    }
+
+    @Test
+    public void testLargeBuffersBypassThreadLocalCache() {
+        BufferPool pool = new BufferPool(BufferPool.MAX_CLASS_SIZE, false);
+
+        ByteBuffer buffer = pool.acquire(BufferPool.SEGMENT_SIZE + 1, false);
+        assertEquals(2 * BufferPool.SEGMENT_SIZE, buffer.capacity());
+        pool.release(buffer);
+        assertEquals(1, pool.getMetrics().getIdleCount());
+
+        assertSame(buffer, pool.acquire(BufferPool.SEGMENT_SIZE + 1, false));
+        assertEquals(0, pool.getMetrics().getThreadLocalHitCount());
+        assertEquals(1, pool.getMetrics().getHitCount());
+    }
+
+    @Test
+    public void testOversizedAndForeignBuffersAreDiscarded() {
+        BufferPool pool = new BufferPool(Long.MAX_VALUE, false);
+
+        ByteBuffer oversized = pool.acquire(BufferPool.MAX_CLASS_SIZE + 1, false);
+        assertEquals(BufferPool.MAX_CLASS_SIZE + 1, oversized.capacity());
+        pool.release(oversized);
+        pool.release(ByteBuffer.allocate(1000));
+        pool.release(ByteBuffer.allocate(BufferPool.MAX_CLASS_SIZE * 2));
+
+        assertEquals(0, pool.getMetrics().getIdleCount());
+        assertNotSame(oversized, pool.acquire(BufferPool.MAX_CLASS_SIZE + 1, false));
+    }
+
+    @Test
+    public void testIdleBuffersSharedAcrossThreads() throws Exception {
+        BufferPool pool = new BufferPool(BufferPool.MAX_CLASS_SIZE, false);
+
+        // 占满当前线程的线程本地缓存，使归还的缓冲区进入全局空闲列表。
+        ByteBuffer cached = pool.acquireSegment(false);
+        ByteBuffer shared = pool.acquireSegment(false);
+        pool.release(cached);
+        pool.release(shared);
+
+        ByteBuffer acquired = CompletableFuture.supplyAsync(() -> pool.acquireSegment(false))
+                .get(5, TimeUnit.SECONDS);
+        assertSame(shared, acquired);
+    }
+
+    @Test
+    public void testClearDiscardsIdleBuffers() {
+        BufferPool pool = new BufferPool(BufferPool.MAX_CLASS_SIZE, false);
+
+        ByteBuffer cached = pool.acquireSegment(false);
+        ByteBuffer shared = pool.acquireSegment(false);
+        pool.release(cached);
+        pool.release(shared);
+        pool.clear();
+
+        assertEquals(0, pool.getMetrics().getIdleCount());
+        assertEquals(0, pool.getMetrics().getIdleBytes());
+        ByteBuffer acquired = pool.acquireSegment(false);
+        assertNotSame(cached, acquired);
+        assertNotSame(shared, acquired);
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        BufferPool pool = new BufferPool(0, true);
+
+        // 归还的缓冲区即使随后被丢弃并被垃圾回收，也不被视为泄漏。
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            buffers.add(pool.acquire(BufferPool.MIN_CLASS_SIZE << (i % 3), false));
+        }
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        buffers.clear();
+        // 未归还的缓冲区被垃圾回收时被视为泄漏。
+        pool.acquire(100, false);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getMetrics().getLeakCount() == 0 && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+            pool.clear();
+        }
+        assertEquals(1, pool.getMetrics().getLeakCount());
+    }
+}
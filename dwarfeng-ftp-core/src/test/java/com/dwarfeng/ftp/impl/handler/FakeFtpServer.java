@@ -0,0 +1,223 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用于测试的 FTP 服务器。
+ *
+ * <p>
+ * 服务器只支持被动模式，以及测试所需的最少指令；文件只以文件名区分，保存在内存中，所有的目录均视为存在。<br>
+ * 服务器不声明 SIZE 等扩展特性，因此处理器使用最基本的指令与之通信。
+ *
+ * <p>
+ * 可以通过 {@link #pauseRetrieve(int, CountDownLatch)} 让 RETR 指令在发送指定的字节数之后暂停，
+ * 以便测试控制传输期间其它线程的行为。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class FakeFtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    private volatile int retrievePauseBytes = -1;
+    private volatile CountDownLatch retrievePauseLatch;
+    private final AtomicInteger retrievePausedCount = new AtomicInteger();
+
+    FakeFtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptLoop, "fake-ftp-server");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    void putFile(String fileName, byte[] content) {
+        files.put(fileName, content);
+    }
+
+    byte[] getFile(String fileName) {
+        return files.get(fileName);
+    }
+
+    /**
+     * 让之后的 RETR 指令在发送指定的字节数之后暂停，直到指定的门闩被打开。
+     *
+     * @param bytes 暂停之前发送的字节数。
+     * @param latch 门闩。
+     */
+    void pauseRetrieve(int bytes, CountDownLatch latch) {
+        retrievePauseLatch = latch;
+        retrievePauseBytes = bytes;
+    }
+
+    /**
+     * 获取已经暂停过的 RETR 指令的数量。
+     *
+     * @return 已经暂停过的 RETR 指令的数量。
+     */
+    int getRetrievePausedCount() {
+        return retrievePausedCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return;
+            }
+            Thread sessionThread = new Thread(() -> serve(socket), "fake-ftp-session");
+            sessionThread.setDaemon(true);
+            sessionThread.start();
+        }
+    }
+
+    private void serve(Socket socket) {
+        ServerSocket passiveSocket = null;
+        try (
+                Socket ignored = socket;
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+                );
+                Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)
+        ) {
+            reply(writer, "220 ready");
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                int index = line.indexOf(' ');
+                String command = (index < 0 ? line : line.substring(0, index)).toUpperCase();
+                String argument = index < 0 ? "" : line.substring(index + 1);
+                String fileName = argument.substring(argument.lastIndexOf('/') + 1);
+                switch (command) {
+                    case "USER":
+                        reply(writer, "331 password required");
+                        break;
+                    case "PASS":
+                        reply(writer, "230 logged in");
+                        break;
+                    case "TYPE":
+                    case "MODE":
+                    case "STRU":
+                    case "NOOP":
+                        reply(writer, "200 ok");
+                        break;
+                    case "FEAT":
+                        reply(writer, "211-Features:\r\n211 End");
+                        break;
+                    case "PWD":
+                        reply(writer, "257 \"/\"");
+                        break;
+                    case "CWD":
+                        reply(writer, "250 ok");
+                        break;
+                    case "MKD":
+                        reply(writer, "257 \"" + argument + "\"");
+                        break;
+                    case "PASV":
+                        passiveSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+                        int port = passiveSocket.getLocalPort();
+                        String address = "127,0,0,1," + (port >> 8) + "," + (port & 0xff);
+                        reply(writer, "227 Entering Passive Mode (" + address + ")");
+                        break;
+                    case "RETR":
+                        byte[] content = files.get(fileName);
+                        if (Objects.isNull(content) || Objects.isNull(passiveSocket)) {
+                            reply(writer, "550 not found");
+                            break;
+                        }
+                        reply(writer, "150 opening data connection");
+                        try (ServerSocket ignoredPassive = passiveSocket; Socket data = passiveSocket.accept()) {
+                            sendContent(data.getOutputStream(), content);
+                        }
+                        passiveSocket = null;
+                        reply(writer, "226 transfer complete");
+                        break;
+                    case "STOR":
+                        if (Objects.isNull(passiveSocket)) {
+                            reply(writer, "425 use PASV first");
+                            break;
+                        }
+                        reply(writer, "150 opening data connection");
+                        try (ServerSocket ignoredPassive = passiveSocket; Socket data = passiveSocket.accept()) {
+                            files.put(fileName, readContent(data.getInputStream()));
+                        }
+                        passiveSocket = null;
+                        reply(writer, "226 transfer complete");
+                        break;
+                    case "QUIT":
+                        reply(writer, "221 bye");
+                        return;
+                    default:
+                        reply(writer, "502 not implemented");
+                        break;
+                }
+            }
+        } catch (Exception ignored) {
+            // 连接断开，结束会话。
+        } finally {
+            if (Objects.nonNull(passiveSocket)) {
+                try {
+                    passiveSocket.close();
+                } catch (IOException ignored) {
+                    // 忽略关闭时的异常。
+                }
+            }
+        }
+    }
+
+    private void sendContent(OutputStream out, byte[] content) throws Exception {
+        int pauseBytes = retrievePauseBytes;
+        CountDownLatch pauseLatch = retrievePauseLatch;
+        if (pauseBytes < 0 || pauseBytes >= content.length) {
+            out.write(content);
+            return;
+        }
+        out.write(content, 0, pauseBytes);
+        out.flush();
+        retrievePausedCount.incrementAndGet();
+        pauseLatch.await();
+        out.write(content, pauseBytes, content.length - pauseBytes);
+    }
+
+    private byte[] readContent(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int length;
+        while ((length = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    private void reply(Writer writer, String reply) throws IOException {
+        writer.write(reply + "\r\n");
+        writer.flush();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FileCopyTemporaryStorage} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FileCopyTemporaryStorageTest {
+
+    private static final String PREFIX = "ftp-";
+    private static final String SUFFIX = ".tmp";
+    private static final int MEMORY_BUFFER_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BufferPool bufferPool;
+    private TemporarySpool temporarySpool;
+
+    @Before
+    public void setUp() {
+        bufferPool = new BufferPool(0L, false);
+        temporarySpool = new TemporarySpool(folder.getRoot().getAbsolutePath(), PREFIX, SUFFIX, 1);
+    }
+
+    @After
+    public void tearDown() {
+        temporarySpool.close();
+        bufferPool.clear();
+    }
+
+    @Test
+    public void testChannelFileTierReusesTemporaryFile() throws Exception {
+        copy(FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_CHANNEL);
+
+        // 临时文件被截断后放回池中复用。
+        assertEquals(1, countSpoolFiles());
+    }
+
+    @Test
+    public void testMappedFileTierDiscardsTemporaryFile() throws Exception {
+        copy(FtpConfig.Builder.FILE_COPY_FILE_BUFFER_TYPE_MAPPED);
+
+        // 被映射过的临时文件不能被截断，因此被直接删除，而不是放回池中。
+        assertEquals(0, countSpoolFiles());
+    }
+
+    private void copy(int fileBufferType) throws Exception {
+        byte[] content = new byte[MEMORY_BUFFER_SIZE * 10];
+        new Random(0).nextBytes(content);
+        FileCopyTemporaryStorage storage = new FileCopyTemporaryStorage(
+                MEMORY_BUFFER_SIZE, FtpConfig.Builder.FILE_COPY_MEMORY_BUFFER_TYPE_HEAP, fileBufferType, bufferPool,
+                temporarySpool
+        );
+        try {
+            try (OutputStream out = storage.openOutputStream()) {
+                out.write(content);
+            }
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            try (InputStream in = storage.openInputStream()) {
+                byte[] buffer = new byte[100];
+                int length;
+                while ((length = in.read(buffer)) >= 0) {
+                    result.write(buffer, 0, length);
+                }
+            }
+            assertArrayEquals(content, result.toByteArray());
+        } finally {
+            storage.dispose();
+        }
+    }
+
+    private int countSpoolFiles() {
+        File[] files = folder.getRoot().listFiles((dir, name) -> name.endsWith(SUFFIX));
+        return Objects.isNull(files) ? 0 : files.length;
+    }
+}
@@ -0,0 +1,122 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpMemoryBudgetExhaustedException;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FtpHandlerImpl} 的内存预算与会话池交互的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpHandlerImplMemoryBudgetTest {
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final long MEMORY_BUDGET = 64 * 1024;
+
+    private static final String[] FILE_PATHS = new String[]{"foobar"};
+
+    private FakeFtpServer server;
+    private ThreadPoolTaskScheduler scheduler;
+    private FtpHandlerImpl ftpHandler;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeFtpServer();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        FtpConfig config = new FtpConfig.Builder("127.0.0.1", "u", "p")
+                .setPort(server.getPort())
+                .setDataConnectionMode(FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_LOCALE)
+                .setBufferSize(BUFFER_SIZE)
+                .setSessionPoolMaxTotal(1)
+                .setMemoryBudget(MEMORY_BUDGET)
+                // 无限等待内存预算，死锁时测试超时失败。
+                .setMemoryBudgetMaxWait(-1L)
+                .build();
+        ftpHandler = new FtpHandlerImpl(scheduler, config);
+        ftpHandler.start();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        ftpHandler.stop();
+        scheduler.shutdown();
+        server.close();
+    }
+
+    /**
+     * 测试获取文件的线程在传输期间扩容缓冲区，而存储文件的线程持有内存预算并等待会话的情形。
+     *
+     * <p>
+     * 获取文件的线程持有唯一的会话，存储文件的线程预留了几乎所有的内存预算后等待会话；
+     * 此时获取文件的线程扩容缓冲区不能等待内存预算，否则两者互相等待。
+     */
+    @Test(timeout = 30000)
+    public void testExpandBufferWhileStorerWaitsForSession() throws Exception {
+        byte[] retrievingContent = new byte[BUFFER_SIZE * 8];
+        new Random(0).nextBytes(retrievingContent);
+        server.putFile("retrieving.bin", retrievingContent);
+        CountDownLatch retrieveLatch = new CountDownLatch(1);
+        // 服务器不支持 SIZE 指令，缓冲区从缓冲区大小开始扩容，暂停时缓冲区的容量为 BUFFER_SIZE * 2。
+        server.pauseRetrieve(BUFFER_SIZE * 2, retrieveLatch);
+
+        Future<byte[]> retrieveFuture = executor.submit(() -> ftpHandler.retrieveFile(FILE_PATHS, "retrieving.bin"));
+        awaitUsedBytes(BUFFER_SIZE * 2);
+
+        // 存储文件的线程预留内存预算后等待会话，剩余的内存预算不足以再次扩容获取文件的缓冲区。
+        byte[] storingContent = new byte[(int) MEMORY_BUDGET - BUFFER_SIZE * 4];
+        new Random(1).nextBytes(storingContent);
+        Future<?> storeFuture = executor.submit(() -> {
+            ftpHandler.storeFile(FILE_PATHS, "storing.bin", storingContent);
+            return null;
+        });
+        awaitUsedBytes(BUFFER_SIZE * 2 + storingContent.length);
+
+        retrieveLatch.countDown();
+
+        // 获取文件的线程无法扩容缓冲区，操作失败并归还会话。
+        try {
+            retrieveFuture.get(20, TimeUnit.SECONDS);
+            fail("内存预算不足时, 获取文件应该失败");
+        } catch (ExecutionException e) {
+            assertTrue(hasCause(e, FtpMemoryBudgetExhaustedException.class));
+        }
+        // 存储文件的线程借出会话，操作成功。
+        storeFuture.get(20, TimeUnit.SECONDS);
+        assertArrayEquals(storingContent, server.getFile("storing.bin"));
+        assertEquals(0L, ftpHandler.getMemoryBudgetMetrics().getUsedBytes());
+    }
+
+    private void awaitUsedBytes(long usedBytes) throws InterruptedException {
+        while (ftpHandler.getMemoryBudgetMetrics().getUsedBytes() < usedBytes) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean hasCause(Throwable throwable, Class<? extends Throwable> causeClass) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (causeClass.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
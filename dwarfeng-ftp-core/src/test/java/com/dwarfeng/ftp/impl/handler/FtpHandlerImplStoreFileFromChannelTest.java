@@ -0,0 +1,195 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpException;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FtpHandlerImpl#storeFileFromChannel(String[], String, FileChannel)} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpHandlerImplStoreFileFromChannelTest {
+
+    private static final String[] FILE_PATHS = new String[]{"foobar"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeFtpServer server;
+    private ThreadPoolTaskScheduler scheduler;
+    private FtpHandlerImpl ftpHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeFtpServer();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        FtpConfig config = new FtpConfig.Builder("127.0.0.1", "u", "p")
+                .setPort(server.getPort())
+                .setDataConnectionMode(FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_LOCALE)
+                .build();
+        ftpHandler = new FtpHandlerImpl(scheduler, config);
+        ftpHandler.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ftpHandler.stop();
+        scheduler.shutdown();
+        server.close();
+    }
+
+    @Test(timeout = 30000)
+    public void testChannelPositionUnchanged() throws Exception {
+        byte[] content = new byte[100000];
+        new Random(0).nextBytes(content);
+        Path path = folder.newFile().toPath();
+        Files.write(path, content);
+
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            fileChannel.position(1000);
+            ftpHandler.storeFileFromChannel(FILE_PATHS, "channel.bin", fileChannel);
+            // 存储从当前位置开始的数据，且不改变文件通道的位置。
+            assertEquals(1000, fileChannel.position());
+        }
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, content.length), server.getFile("channel.bin"));
+    }
+
+    @Test(timeout = 30000)
+    public void testTruncatedChannelFails() throws Exception {
+        byte[] content = new byte[100000];
+        new Random(0).nextBytes(content);
+        Path path = folder.newFile().toPath();
+        Files.write(path, content);
+
+        // 文件通道报告的大小超过实际可以读取的数据，模拟文件在存储期间被截断。
+        try (FileChannel fileChannel = new OversizedFileChannel(FileChannel.open(path, StandardOpenOption.READ))) {
+            ftpHandler.storeFileFromChannel(FILE_PATHS, "truncated.bin", fileChannel);
+            fail("文件通道被截断时, 存储文件应该失败");
+        } catch (FtpException e) {
+            assertTrue(e.getCause() instanceof EOFException);
+        }
+    }
+
+    /**
+     * 报告的大小比实际的大小多 1024 字节的文件通道。
+     */
+    private static final class OversizedFileChannel extends FileChannel {
+
+        private final FileChannel delegate;
+
+        private OversizedFileChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size() + 1024;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.sdk.util.Constants;
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.parser.MLSxEntryParser;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FtpHandlerImpl} 中不依赖 FTP 服务器的逻辑的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpHandlerImplTest {
+
+    @Test
+    public void testParseMlsxFact() {
+        String entry = "Type=file;Size=1024;Modify=20240102030405;Perm=rwadf;Unique=801U5AE; foo bar.txt";
+
+        // 事实的名称不区分大小写。
+        assertEquals("file", FtpHandlerImpl.parseMlsxFact(entry, "type"));
+        assertEquals("rwadf", FtpHandlerImpl.parseMlsxFact(entry, "perm"));
+        assertEquals("801U5AE", FtpHandlerImpl.parseMlsxFact(entry, "unique"));
+        assertNull(FtpHandlerImpl.parseMlsxFact(entry, "charset"));
+        assertNull(FtpHandlerImpl.parseMlsxFact(null, "type"));
+    }
+
+    @Test
+    public void testParseMlsxFactIgnoresFileName() {
+        // 文件名中包含的分号以及等号不被视为事实。
+        String entry = "type=file; perm=evil;name.txt";
+
+        assertEquals("file", FtpHandlerImpl.parseMlsxFact(entry, "type"));
+        assertNull(FtpHandlerImpl.parseMlsxFact(entry, "perm"));
+    }
+
+    @Test
+    public void testParseMlsxFactSkipsMalformedFacts() {
+        String entry = "broken;=value;type=dir;perm=; name";
+
+        assertEquals("dir", FtpHandlerImpl.parseMlsxFact(entry, "type"));
+        assertEquals("", FtpHandlerImpl.parseMlsxFact(entry, "perm"));
+    }
+
+    @Test
+    public void testIsSingleFileListing() {
+        assertTrue(FtpHandlerImpl.isSingleFileListing(new FTPFile[]{ftpFile("foo.txt", FTPFile.FILE_TYPE)}, "foo.txt"));
+        // 部分服务器返回完整的路径。
+        assertTrue(FtpHandlerImpl.isSingleFileListing(
+                new FTPFile[]{ftpFile("/bar/foo.txt", FTPFile.FILE_TYPE)}, "foo.txt"
+        ));
+        assertFalse(FtpHandlerImpl.isSingleFileListing(null, "foo.txt"));
+        assertFalse(FtpHandlerImpl.isSingleFileListing(new FTPFile[0], "foo.txt"));
+    }
+
+    @Test
+    public void testIsSingleFileListingRejectsDirectory() {
+        // 对非空目录执行 LIST 指令时，返回的是目录下的条目。
+        assertFalse(FtpHandlerImpl.isSingleFileListing(new FTPFile[]{ftpFile("a.txt", FTPFile.FILE_TYPE)}, "foo"));
+        assertFalse(FtpHandlerImpl.isSingleFileListing(
+                new FTPFile[]{ftpFile("a.txt", FTPFile.FILE_TYPE), ftpFile("foo", FTPFile.FILE_TYPE)}, "foo"
+        ));
+        assertFalse(FtpHandlerImpl.isSingleFileListing(
+                new FTPFile[]{ftpFile("foo", FTPFile.DIRECTORY_TYPE)}, "foo"
+        ));
+        assertFalse(FtpHandlerImpl.isSingleFileListing(
+                new FTPFile[]{ftpFile("/bar/xfoo", FTPFile.FILE_TYPE)}, "foo"
+        ));
+    }
+
+    @Test
+    public void testNlstNamesToFileNames() {
+        String[] fileNames = FtpHandlerImpl.nlstNamesToFileNames(
+                new String[]{".", "..", "foo.txt", "/bar/baz.txt", "bar/.", "bar/.."}
+        );
+
+        // 去除路径前缀，并过滤代表当前目录以及上级目录的条目。
+        assertArrayEquals(new String[]{"foo.txt", "baz.txt"}, fileNames);
+    }
+
+    @Test
+    public void testListFilesToFileNames() {
+        String[] fileNames = FtpHandlerImpl.listFilesToFileNames(new FTPFile[]{
+                ftpFile(".", FTPFile.DIRECTORY_TYPE),
+                ftpFile("..", FTPFile.DIRECTORY_TYPE),
+                ftpFile("foo.txt", FTPFile.FILE_TYPE),
+                null,
+                ftpFile("bar", FTPFile.DIRECTORY_TYPE)
+        });
+
+        // 与 NLST 指令的结果一致，不包含代表当前目录以及上级目录的条目。
+        assertArrayEquals(new String[]{"foo.txt", "bar"}, fileNames);
+    }
+
+    @Test
+    public void testMlsxEntryToFtpFile() {
+        FTPFile ftpFile = MLSxEntryParser.parseEntry(
+                "type=file;size=1024;modify=20240102030405;perm=rwadf;unique=801U5AE; foo.txt"
+        );
+        FtpFile result = FtpHandlerImpl.apacheFtpFileToDwarfengFtpFile(ftpFile, true);
+
+        assertEquals("foo.txt", result.getName());
+        assertEquals(Constants.FTP_FILE_TYPE_FILE, result.getType());
+        assertEquals(1024, result.getSize());
+        assertEquals("rwadf", result.getPermission());
+        assertEquals("801U5AE", result.getUniqueId());
+
+        // MLSx 应答中的时间戳为 UTC 时间。
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTime(result.getModifiedTime());
+        assertEquals(2024, calendar.get(Calendar.YEAR));
+        assertEquals(Calendar.JANUARY, calendar.get(Calendar.MONTH));
+        assertEquals(2, calendar.get(Calendar.DAY_OF_MONTH));
+        assertEquals(3, calendar.get(Calendar.HOUR_OF_DAY));
+        assertEquals(4, calendar.get(Calendar.MINUTE));
+        assertEquals(5, calendar.get(Calendar.SECOND));
+    }
+
+    @Test
+    public void testMlsxDirectoryEntryToFtpFile() {
+        FTPFile ftpFile = MLSxEntryParser.parseEntry("type=dir;perm=flcdmpe; sub");
+        FtpFile result = FtpHandlerImpl.apacheFtpFileToDwarfengFtpFile(ftpFile, true);
+
+        assertEquals("sub", result.getName());
+        assertEquals(Constants.FTP_FILE_TYPE_DIRECTORY, result.getType());
+        assertEquals("flcdmpe", result.getPermission());
+        assertNull(result.getUniqueId());
+    }
+
+    @Test
+    public void testListEntryToFtpFileHasNoMlsxFacts() {
+        FTPFile ftpFile = new FTPFile();
+        ftpFile.setName("foo.txt");
+        ftpFile.setType(FTPFile.FILE_TYPE);
+        ftpFile.setSize(10);
+        ftpFile.setRawListing("-rw-r--r--   1 owner group   10 Jan 02 03:04 foo.txt");
+        FtpFile result = FtpHandlerImpl.apacheFtpFileToDwarfengFtpFile(ftpFile, false);
+
+        assertEquals("foo.txt", result.getName());
+        assertEquals(Constants.FTP_FILE_TYPE_FILE, result.getType());
+        assertEquals(10, result.getSize());
+        assertNull(result.getModifiedTime());
+        assertNull(result.getPermission());
+        assertNull(result.getUniqueId());
+        assertNull(FtpHandlerImpl.apacheFtpFileToDwarfengFtpFile(null, false));
+    }
+
+    @Test
+    public void testSegmentedDownloadSplitsWithRemainder() {
+        FtpHandlerImpl.SegmentedDownload download = new FtpHandlerImpl.SegmentedDownload(250, 100);
+
+        assertEquals(3, download.getSegmentCount());
+        assertEquals(0, download.nextSegment());
+        assertEquals(1, download.nextSegment());
+        assertEquals(2, download.nextSegment());
+        assertEquals(-1, download.nextSegment());
+
+        assertEquals(0, download.getOffset(0));
+        assertEquals(100, download.getLength(0));
+        assertEquals(200, download.getOffset(2));
+        assertEquals(50, download.getLength(2));
+        assertFalse(download.isLast(1));
+        assertTrue(download.isLast(2));
+    }
+
+    @Test
+    public void testSegmentedDownloadSplitsExactly() {
+        FtpHandlerImpl.SegmentedDownload download = new FtpHandlerImpl.SegmentedDownload(300, 100);
+
+        assertEquals(3, download.getSegmentCount());
+        assertEquals(100, download.getLength(2));
+        assertTrue(download.isLast(2));
+
+        // 文件小于分段的大小时，只有一个分段。
+        download = new FtpHandlerImpl.SegmentedDownload(1, 100);
+        assertEquals(1, download.getSegmentCount());
+        assertEquals(1, download.getLength(0));
+        assertTrue(download.isLast(0));
+
+        // 分段的总长度等于文件的大小，且超过 int 的范围时不会溢出。
+        long size = 5L * Integer.MAX_VALUE + 7;
+        download = new FtpHandlerImpl.SegmentedDownload(size, Integer.MAX_VALUE);
+        long total = 0;
+        for (long i = 0; i < download.getSegmentCount(); i++) {
+            total += download.getLength(i);
+        }
+        assertEquals(6, download.getSegmentCount());
+        assertEquals(size, total);
+    }
+
+    @Test
+    public void testSegmentedDownloadStopsAfterFailure() {
+        FtpHandlerImpl.SegmentedDownload download = new FtpHandlerImpl.SegmentedDownload(1000, 100);
+        assertEquals(0, download.nextSegment());
+
+        Exception failure = new IllegalStateException("first");
+        Exception another = new IllegalStateException("second");
+        download.fail(failure);
+        download.fail(another);
+        download.fail(failure);
+
+        assertTrue(download.isFailed());
+        assertSame(failure, download.getFailure());
+        assertArrayEquals(new Throwable[]{another}, failure.getSuppressed());
+        assertEquals(-1, download.nextSegment());
+    }
+
+    private static FTPFile ftpFile(String name, int type) {
+        FTPFile ftpFile = new FTPFile();
+        ftpFile.setName(name);
+        ftpFile.setType(type);
+        return ftpFile;
+    }
+}
@@ -0,0 +1,235 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpHandlerStoppedException;
+import com.dwarfeng.ftp.stack.exception.FtpSessionPoolExhaustedException;
+import com.dwarfeng.ftp.stack.exception.FtpTransferAbortedException;
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FtpSessionPool} 的测试。
+ *
+ * <p>
+ * 会话池新建的会话处于未连接的状态，因此该测试不需要 FTP 服务器。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpSessionPoolTest {
+
+    private static FtpConfig config(int maxTotal, int maxIdle, int minIdle, long maxWait) {
+        return new FtpConfig.Builder("127.0.0.1", "username", "password")
+                .setSessionPoolMaxTotal(maxTotal)
+                .setSessionPoolMaxIdle(maxIdle)
+                .setSessionPoolMinIdle(minIdle)
+                .setSessionPoolMaxWait(maxWait)
+                .build();
+    }
+
+    @Test
+    public void testBorrowUpToMaxTotal() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(2, 2, 0, 0));
+
+        FtpSession session1 = pool.borrowSession();
+        FtpSession session2 = pool.borrowSession();
+        assertNotSame(session1, session2);
+        assertEquals(2, pool.getTotalCount());
+        assertEquals(0, pool.getIdleCount());
+        assertNull(pool.tryBorrowSession());
+    }
+
+    @Test
+    public void testReturnedSessionIsReused() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(2, 2, 0, 0));
+
+        FtpSession session1 = pool.borrowSession();
+        FtpSession session2 = pool.borrowSession();
+        pool.returnSession(session1);
+        pool.returnSession(session2);
+        assertEquals(2, pool.getIdleCount());
+
+        // 最近归还的会话优先被借出。
+        assertSame(session2, pool.borrowSession());
+        assertSame(session1, pool.tryBorrowSession());
+        assertEquals(2, pool.getTotalCount());
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenExhausted() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(1, 1, 0, 100));
+        pool.borrowSession();
+
+        long startTime = System.nanoTime();
+        try {
+            pool.borrowSession();
+            fail("会话池耗尽时, 借出会话应当超时");
+        } catch (FtpSessionPoolExhaustedException e) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            assertTrue("等待时间过短: " + elapsedMillis, elapsedMillis >= 90);
+        }
+    }
+
+    @Test
+    public void testBorrowFailsImmediatelyWhenMaxWaitIsZero() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(1, 1, 0, 0));
+        pool.borrowSession();
+
+        try {
+            pool.borrowSession();
+            fail("会话池耗尽时, 借出会话应当立即失败");
+        } catch (FtpSessionPoolExhaustedException e) {
+            // 预期的异常。
+        }
+    }
+
+    @Test
+    public void testWaitingBorrowerReceivesReturnedSession() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(1, 1, 0, -1));
+        FtpSession session = pool.borrowSession();
+
+        CompletableFuture<FtpSession> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrowSession();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            future.get(100, TimeUnit.MILLISECONDS);
+            fail("会话被归还之前, 借出会话应当等待");
+        } catch (TimeoutException e) {
+            // 预期的异常。
+        }
+
+        pool.returnSession(session);
+        assertSame(session, future.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.getTotalCount());
+    }
+
+    @Test
+    public void testTokenAbortWakesWaitingBorrower() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(1, 1, 0, -1));
+        FtpSession session = pool.borrowSession();
+        TransferAbortToken token = new TransferAbortToken();
+
+        CompletableFuture<FtpSession> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrowSession(token);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // 等待借出会话的线程进入等待状态。
+        Thread.sleep(100);
+
+        assertTrue(token.abort());
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("令牌被中止后, 等待借出会话的线程应当收到异常");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof FtpTransferAbortedException);
+        }
+
+        // 被中止的线程没有借出会话，归还的会话仍然可以被其它线程借出。
+        pool.returnSession(session);
+        assertSame(session, pool.tryBorrowSession());
+        assertEquals(1, pool.getTotalCount());
+    }
+
+    @Test
+    public void testReturnBeyondMaxIdleDestroysSession() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(3, 1, 0, 0));
+
+        FtpSession session1 = pool.borrowSession();
+        FtpSession session2 = pool.borrowSession();
+        pool.returnSession(session1);
+        pool.returnSession(session2);
+
+        assertEquals(1, pool.getTotalCount());
+        assertEquals(1, pool.getIdleCount());
+        assertSame(session1, pool.borrowSession());
+    }
+
+    @Test
+    public void testFillIdleSessions() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(3, 3, 2, 0));
+
+        pool.fillIdleSessions();
+        assertEquals(2, pool.getTotalCount());
+        assertEquals(2, pool.getIdleCount());
+
+        // 空闲会话已经满足最小空闲会话数时，不再新建会话。
+        pool.fillIdleSessions();
+        assertEquals(2, pool.getTotalCount());
+    }
+
+    @Test
+    public void testPollIdleSessionForMaintenanceOneAtATime() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(3, 3, 2, 0));
+        pool.fillIdleSessions();
+        Set<FtpSession> visitedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        FtpSession session1 = pool.pollIdleSessionForMaintenance(1000L, visitedSessions);
+        assertNotNull(session1);
+        // 维护期间，其余的空闲会话仍然可以被借出。
+        assertEquals(1, pool.getIdleCount());
+        pool.returnSession(session1);
+
+        FtpSession session2 = pool.pollIdleSessionForMaintenance(1000L, visitedSessions);
+        assertNotNull(session2);
+        assertNotSame(session1, session2);
+        pool.returnSession(session2);
+
+        // 同一轮维护中，每个会话只被借出一次。
+        assertNull(pool.pollIdleSessionForMaintenance(1000L, visitedSessions));
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(2, visitedSessions.size());
+    }
+
+    @Test
+    public void testCloseRejectsBorrowAndWakesWaiters() throws Exception {
+        FtpSessionPool pool = new FtpSessionPool(config(1, 1, 0, -1));
+        FtpSession session = pool.borrowSession();
+
+        CompletableFuture<FtpSession> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrowSession();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // 等待借出会话的线程进入等待状态。
+        Thread.sleep(100);
+
+        pool.close();
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("会话池关闭后, 等待借出会话的线程应当收到异常");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof FtpHandlerStoppedException);
+        }
+        try {
+            pool.tryBorrowSession();
+            fail("会话池关闭后, 借出会话应当失败");
+        } catch (FtpHandlerStoppedException e) {
+            // 预期的异常。
+        }
+
+        // 关闭后归还的会话被销毁。
+        pool.returnSession(session);
+        assertEquals(0, pool.getTotalCount());
+        assertEquals(0, pool.getIdleCount());
+        assertNull(pool.pollIdleSessionForMaintenance(1000L, new HashSet<>()));
+    }
+}
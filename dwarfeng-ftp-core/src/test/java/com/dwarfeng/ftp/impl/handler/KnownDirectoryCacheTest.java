@@ -0,0 +1,72 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link KnownDirectoryCache} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class KnownDirectoryCacheTest {
+
+    @Test
+    public void testAddAndContains() {
+        KnownDirectoryCache cache = new KnownDirectoryCache(16);
+
+        assertFalse(cache.contains("/foo/"));
+        cache.add("/foo/");
+        assertTrue(cache.contains("/foo/"));
+        assertFalse(cache.contains("/foo/bar/"));
+
+        cache.clear();
+        assertFalse(cache.contains("/foo/"));
+    }
+
+    @Test
+    public void testZeroSizeDisablesCache() {
+        KnownDirectoryCache cache = new KnownDirectoryCache(0);
+
+        cache.add("/foo/");
+        assertFalse(cache.contains("/foo/"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyAccessed() {
+        KnownDirectoryCache cache = new KnownDirectoryCache(2);
+
+        cache.add("/a/");
+        cache.add("/b/");
+        // 访问 /a/，使 /b/ 成为最久未被访问的目录。
+        assertTrue(cache.contains("/a/"));
+        cache.add("/c/");
+
+        assertTrue(cache.contains("/a/"));
+        assertFalse(cache.contains("/b/"));
+        assertTrue(cache.contains("/c/"));
+    }
+
+    @Test
+    public void testRemoveTreeRemovesDescendantsOnly() {
+        KnownDirectoryCache cache = new KnownDirectoryCache(16);
+        cache.add("/foo/");
+        cache.add("/foo/bar/");
+        cache.add("/foo/bar/baz/");
+        cache.add("/foobar/");
+        cache.add("/qux/");
+
+        cache.removeTree("/foo/bar/");
+        assertTrue(cache.contains("/foo/"));
+        assertFalse(cache.contains("/foo/bar/"));
+        assertFalse(cache.contains("/foo/bar/baz/"));
+
+        // 目录以 / 结尾，因此名称以相同字符开头的兄弟目录不受影响。
+        cache.removeTree("/foo/");
+        assertFalse(cache.contains("/foo/"));
+        assertTrue(cache.contains("/foobar/"));
+        assertTrue(cache.contains("/qux/"));
+    }
+}
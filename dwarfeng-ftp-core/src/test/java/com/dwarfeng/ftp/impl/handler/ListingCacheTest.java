@@ -0,0 +1,160 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.sdk.util.Constants;
+import com.dwarfeng.ftp.stack.bean.dto.FtpFile;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ListingCache} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class ListingCacheTest {
+
+    private static FtpFile[] files(String... names) {
+        FtpFile[] result = new FtpFile[names.length];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = new FtpFile(names[i], Constants.FTP_FILE_TYPE_FILE, 0, null, null, null);
+        }
+        return result;
+    }
+
+    @Test
+    public void testPutAndGet() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+
+        assertNull(cache.get("/foo/"));
+        cache.put("/foo/", files("a.txt", "b.txt"), cache.getInvalidationCount());
+        ListingCache.Listing listing = cache.get("/foo/");
+        assertNotNull(listing);
+        assertEquals(2, listing.getFtpFiles().length);
+        assertEquals("a.txt", listing.getFtpFile("a.txt").getName());
+        assertNull(listing.getFtpFile("c.txt"));
+    }
+
+    @Test
+    public void testDisabledCacheIgnoresPut() {
+        ListingCache cache = new ListingCache(0, 16, 1024 * 1024);
+
+        assertFalse(cache.isEnabled());
+        cache.put("/foo/", files("a.txt"), cache.getInvalidationCount());
+        assertNull(cache.get("/foo/"));
+    }
+
+    @Test
+    public void testExpiredListingIsRemoved() throws Exception {
+        ListingCache cache = new ListingCache(50, 16, 1024 * 1024);
+
+        cache.put("/foo/", files("a.txt"), cache.getInvalidationCount());
+        assertNotNull(cache.get("/foo/"));
+        Thread.sleep(100);
+        assertNull(cache.get("/foo/"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyAccessed() {
+        ListingCache cache = new ListingCache(60000, 2, 1024 * 1024);
+
+        cache.put("/a/", files("a.txt"), cache.getInvalidationCount());
+        cache.put("/b/", files("b.txt"), cache.getInvalidationCount());
+        // 访问 /a/，使 /b/ 成为最久未被访问的目录。
+        assertNotNull(cache.get("/a/"));
+        cache.put("/c/", files("c.txt"), cache.getInvalidationCount());
+
+        assertNotNull(cache.get("/a/"));
+        assertNull(cache.get("/b/"));
+        assertNotNull(cache.get("/c/"));
+    }
+
+    @Test
+    public void testListingBeyondMaxMemoryIsNotCached() {
+        ListingCache cache = new ListingCache(60000, 16, 256);
+
+        cache.put("/foo/", files("a.txt", "b.txt", "c.txt"), cache.getInvalidationCount());
+        assertNull(cache.get("/foo/"));
+    }
+
+    @Test
+    public void testRemoveTreeRemovesDescendantsOnly() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+        cache.put("/foo/", files("a.txt"), cache.getInvalidationCount());
+        cache.put("/foo/bar/", files("a.txt"), cache.getInvalidationCount());
+        cache.put("/foobar/", files("a.txt"), cache.getInvalidationCount());
+
+        cache.removeTree("/foo/");
+        assertNull(cache.get("/foo/"));
+        assertNull(cache.get("/foo/bar/"));
+        assertNotNull(cache.get("/foobar/"));
+    }
+
+    @Test
+    public void testPutRejectedWhenDirectoryInvalidatedDuringListing() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+
+        long invalidationCount = cache.getInvalidationCount();
+        cache.remove("/foo/");
+        cache.put("/foo/", files("a.txt"), invalidationCount);
+        assertNull(cache.get("/foo/"));
+
+        // 失效之后开始的列表可以放入缓存。
+        cache.put("/foo/", files("a.txt"), cache.getInvalidationCount());
+        assertNotNull(cache.get("/foo/"));
+    }
+
+    @Test
+    public void testPutRejectedWhenAncestorTreeInvalidatedDuringListing() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+
+        long invalidationCount = cache.getInvalidationCount();
+        cache.removeTree("/foo/");
+        cache.put("/foo/bar/", files("a.txt"), invalidationCount);
+        assertNull(cache.get("/foo/bar/"));
+
+        invalidationCount = cache.getInvalidationCount();
+        cache.removeTree("/");
+        cache.put("/qux/", files("a.txt"), invalidationCount);
+        assertNull(cache.get("/qux/"));
+    }
+
+    @Test
+    public void testPutAcceptedWhenOtherDirectoryInvalidatedDuringListing() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+
+        long invalidationCount = cache.getInvalidationCount();
+        cache.remove("/bar/");
+        cache.remove("/foo/bar/");
+        cache.removeTree("/foo/baz/");
+        cache.removeTree("/foobar/");
+        cache.put("/foo/", files("a.txt"), invalidationCount);
+        assertNotNull(cache.get("/foo/"));
+    }
+
+    @Test
+    public void testPutRejectedWhenClearedDuringListing() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+
+        long invalidationCount = cache.getInvalidationCount();
+        cache.clear();
+        cache.put("/foo/", files("a.txt"), invalidationCount);
+        assertNull(cache.get("/foo/"));
+    }
+
+    @Test
+    public void testPutRejectedWhenInvalidationRecordsMerged() {
+        ListingCache cache = new ListingCache(60000, 16, 1024 * 1024);
+
+        // 失效记录超出限制后被合并，此前开始的列表均不放入缓存。
+        long invalidationCount = cache.getInvalidationCount();
+        for (int i = 0; i < 2048; i++) {
+            cache.remove("/dir" + i + "/");
+        }
+        cache.put("/foo/", files("a.txt"), invalidationCount);
+        assertNull(cache.get("/foo/"));
+
+        cache.put("/foo/", files("a.txt"), cache.getInvalidationCount());
+        assertNotNull(cache.get("/foo/"));
+    }
+}
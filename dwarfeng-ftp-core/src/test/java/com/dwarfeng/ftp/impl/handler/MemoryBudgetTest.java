@@ -0,0 +1,125 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.bean.dto.MemoryBudgetMetrics;
+import com.dwarfeng.ftp.stack.exception.FtpMemoryBudgetExhaustedException;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link MemoryBudget} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class MemoryBudgetTest {
+
+    @Test
+    public void testReserveAndRelease() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+
+        budget.reserve(60, 0, System.nanoTime());
+        budget.reserve(40, 0, System.nanoTime());
+        assertEquals(100, budget.getMetrics().getUsedBytes());
+        assertEquals(2, budget.getMetrics().getReservedCount());
+
+        budget.release(60);
+        budget.release(40);
+        assertEquals(0, budget.getMetrics().getUsedBytes());
+    }
+
+    @Test
+    public void testUnlimitedBudgetStillRecordsUsage() throws Exception {
+        MemoryBudget budget = new MemoryBudget(0);
+
+        budget.reserve(Long.MAX_VALUE / 2, 0, System.nanoTime());
+        assertTrue(budget.tryReserve(1024));
+        assertEquals(Long.MAX_VALUE / 2 + 1024, budget.getMetrics().getUsedBytes());
+    }
+
+    @Test
+    public void testReserveBeyondCapacityFailsImmediately() {
+        MemoryBudget budget = new MemoryBudget(100);
+
+        try {
+            budget.reserve(101, -1, System.nanoTime());
+            fail("预留的内存超过上限时, 预留应当立即失败");
+        } catch (Exception e) {
+            assertTrue(e instanceof FtpMemoryBudgetExhaustedException);
+        }
+        assertEquals(1, budget.getMetrics().getRejectedCount());
+        assertEquals(0, budget.getMetrics().getUsedBytes());
+    }
+
+    @Test
+    public void testReserveTimesOutWhenExhausted() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        budget.reserve(80, 0, System.nanoTime());
+
+        long startTime = System.nanoTime();
+        try {
+            budget.reserve(40, 100, startTime);
+            fail("内存预算耗尽时, 预留应当超时");
+        } catch (FtpMemoryBudgetExhaustedException e) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            assertTrue("等待时间过短: " + elapsedMillis, elapsedMillis >= 90);
+        }
+        MemoryBudgetMetrics metrics = budget.getMetrics();
+        assertEquals(80, metrics.getUsedBytes());
+        assertEquals(1, metrics.getRejectedCount());
+        assertEquals(0, metrics.getWaitingCount());
+    }
+
+    @Test
+    public void testWaitingReserveSucceedsAfterRelease() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        budget.reserve(80, 0, System.nanoTime());
+
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                budget.reserve(40, -1, System.nanoTime());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            future.get(100, TimeUnit.MILLISECONDS);
+            fail("内存被释放之前, 预留应当等待");
+        } catch (TimeoutException e) {
+            // 预期的异常。
+        }
+        assertEquals(1, budget.getMetrics().getWaitingCount());
+
+        budget.release(80);
+        future.get(5, TimeUnit.SECONDS);
+        assertEquals(40, budget.getMetrics().getUsedBytes());
+        assertEquals(0, budget.getMetrics().getWaitingCount());
+    }
+
+    @Test
+    public void testTryReserveDoesNotWaitOrCountRejection() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+
+        assertTrue(budget.tryReserve(80));
+        assertFalse(budget.tryReserve(40));
+        assertFalse(budget.tryReserve(101));
+        MemoryBudgetMetrics metrics = budget.getMetrics();
+        assertEquals(80, metrics.getUsedBytes());
+        assertEquals(1, metrics.getReservedCount());
+        assertEquals(0, metrics.getRejectedCount());
+    }
+
+    @Test
+    public void testLimitCapacityKeepsSmallestPositiveValue() {
+        MemoryBudget budget = new MemoryBudget(0);
+
+        assertEquals(0, budget.limitCapacity(0));
+        assertEquals(200, budget.limitCapacity(200));
+        assertEquals(100, budget.limitCapacity(100));
+        assertEquals(100, budget.limitCapacity(300));
+    }
+}
@@ -0,0 +1,169 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import com.dwarfeng.ftp.stack.struct.FtpConfig;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link NioTransferEngine} 的测试。
+ *
+ * <p>
+ * 会话池的最大会话数为 1，小于控制线程的数量，以验证超出会话池容量的传输不会占用控制线程，
+ * 也不会阻塞归还会话的步骤。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class NioTransferEngineTest {
+
+    private static final String[] FILE_PATHS = new String[]{"foobar"};
+    private static final int CONTROL_THREAD_COUNT = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FakeFtpServer server;
+    private ThreadPoolTaskScheduler scheduler;
+    private FtpHandlerImpl ftpHandler;
+    private NioTransferEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeFtpServer();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        FtpConfig config = new FtpConfig.Builder("127.0.0.1", "u", "p")
+                .setPort(server.getPort())
+                .setDataConnectionMode(FtpConfig.Builder.DATA_CONNECTION_MODE_PASSIVE_LOCALE)
+                .setSessionPoolMaxTotal(1)
+                // 无限等待会话，死锁时测试超时失败。
+                .setSessionPoolMaxWait(-1L)
+                .build();
+        ftpHandler = new FtpHandlerImpl(scheduler, config);
+        ftpHandler.start();
+        engine = new NioTransferEngine(scheduler, ftpHandler, true, 1, CONTROL_THREAD_COUNT, 0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        engine.shutdown();
+        ftpHandler.stop();
+        scheduler.shutdown();
+        server.close();
+    }
+
+    @Test(timeout = 30000)
+    public void testTransfersBeyondSessionPool() throws Exception {
+        int transferCount = CONTROL_THREAD_COUNT * 2;
+        Random random = new Random(0);
+        List<byte[]> contents = new ArrayList<>();
+        List<Path> retrievePaths = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < transferCount; i++) {
+            byte[] content = new byte[100000 + i];
+            random.nextBytes(content);
+            contents.add(content);
+            server.putFile("retrieve-" + i + ".bin", content);
+            Path storePath = folder.newFile().toPath();
+            Files.write(storePath, content);
+            Path retrievePath = folder.getRoot().toPath().resolve("retrieve-" + i + ".bin");
+            retrievePaths.add(retrievePath);
+
+            futures.add(engine.storeFileFromPath(fileLocation("store-" + i + ".bin"), storePath, 0));
+            futures.add(engine.retrieveFileToPath(fileLocation("retrieve-" + i + ".bin"), retrievePath, 0));
+        }
+
+        // 传输的数量远超会话池的容量，全部传输仍然依次完成。
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        for (int i = 0; i < transferCount; i++) {
+            assertArrayEquals(contents.get(i), server.getFile("store-" + i + ".bin"));
+            assertArrayEquals(contents.get(i), Files.readAllBytes(retrievePaths.get(i)));
+        }
+        assertEquals(0, engine.getActiveTransferCount());
+    }
+
+    @Test(timeout = 30000)
+    public void testCancelPendingTransfer() throws Exception {
+        byte[] content = new byte[100000];
+        new Random(0).nextBytes(content);
+        server.putFile("file.bin", content);
+        CountDownLatch latch = new CountDownLatch(1);
+        server.pauseRetrieve(1000, latch);
+
+        // 第一个传输在数据阶段暂停，占用会话池中唯一的会话。
+        Path path1 = folder.getRoot().toPath().resolve("file-1.bin");
+        CompletableFuture<Void> future1 = engine.retrieveFileToPath(fileLocation("file.bin"), path1, 0);
+        // 第二个传输在引擎中等待会话，取消后立即结束。
+        Path path2 = folder.getRoot().toPath().resolve("file-2.bin");
+        CompletableFuture<Void> future2 = engine.retrieveFileToPath(fileLocation("file.bin"), path2, 0);
+        assertTrue(future2.cancel(true));
+        // 第三个传输在第一个传输归还会话后执行。
+        Path path3 = folder.getRoot().toPath().resolve("file-3.bin");
+        CompletableFuture<Void> future3 = engine.retrieveFileToPath(fileLocation("file.bin"), path3, 0);
+
+        latch.countDown();
+        future1.get();
+        future3.get();
+        assertArrayEquals(content, Files.readAllBytes(path1));
+        assertArrayEquals(content, Files.readAllBytes(path3));
+        // 被取消的传输没有打开数据连接，也没有创建本地文件。
+        assertFalse(Files.exists(path2));
+    }
+
+    @Test(timeout = 30000)
+    public void testTransferWaitsForSessionHeldByOtherOperation() throws Exception {
+        byte[] content = new byte[100000];
+        new Random(0).nextBytes(content);
+        server.putFile("file.bin", content);
+        CountDownLatch latch = new CountDownLatch(1);
+        server.pauseRetrieve(1000, latch);
+
+        // 处理器的阻塞操作在 RETR 指令期间暂停，占用会话池中唯一的会话。
+        CompletableFuture<byte[]> blockingFuture = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ftpHandler.retrieveFile(FILE_PATHS, "file.bin");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (server.getRetrievePausedCount() == 0) {
+            Thread.sleep(10);
+        }
+
+        Path path = folder.getRoot().toPath().resolve("file.bin");
+        CompletableFuture<Void> future = engine.retrieveFileToPath(fileLocation("file.bin"), path, 0);
+        try {
+            future.get(500, TimeUnit.MILLISECONDS);
+            fail("会话被归还之前, 传输应当等待");
+        } catch (TimeoutException e) {
+            // 预期的异常。
+        }
+
+        // 会话被其它操作归还后，等待中的传输被重新尝试。
+        latch.countDown();
+        assertArrayEquals(content, blockingFuture.get());
+        future.get();
+        assertArrayEquals(content, Files.readAllBytes(path));
+    }
+
+    private static FtpFileLocation fileLocation(String fileName) {
+        return new FtpFileLocation(FILE_PATHS, fileName);
+    }
+}
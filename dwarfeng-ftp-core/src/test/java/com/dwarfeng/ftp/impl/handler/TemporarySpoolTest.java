@@ -0,0 +1,137 @@
+package com.dwarfeng.ftp.impl.handler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TemporarySpool} 的测试。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class TemporarySpoolTest {
+
+    private static final String PREFIX = "ftp-";
+    private static final String SUFFIX = ".tmp";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TemporarySpool spool(int maxIdle) {
+        return new TemporarySpool(folder.getRoot().getAbsolutePath(), PREFIX, SUFFIX, maxIdle);
+    }
+
+    private File createFile(String name) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        assertTrue(file.createNewFile());
+        return file;
+    }
+
+    @Test
+    public void testReleasedFileIsReused() throws Exception {
+        TemporarySpool spool = spool(1);
+        try {
+            TemporarySpool.SpoolFile spoolFile1 = spool.lease();
+            TemporarySpool.SpoolFile spoolFile2 = spool.lease();
+            File file1 = spoolFile1.getFile();
+            File file2 = spoolFile2.getFile();
+            assertNotEquals(file1, file2);
+
+            spool.release(spoolFile1);
+            // 空闲的临时文件已经达到上限，归还的临时文件被删除。
+            spool.release(spoolFile2);
+            assertTrue(file1.exists());
+            assertFalse(file2.exists());
+
+            assertEquals(file1, spool.lease().getFile());
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void testCloseDeletesIdleFilesAndLockFile() throws Exception {
+        TemporarySpool spool = spool(4);
+        spool.release(spool.lease());
+        assertEquals(2, folder.getRoot().listFiles().length);
+
+        spool.close();
+        assertEquals(0, folder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void testCleanDeletesFilesOfTerminatedSpool() throws Exception {
+        String ownerId = UUID.randomUUID().toString();
+        File lockFile = createFile(PREFIX + ownerId + ".lock");
+        File file1 = createFile(PREFIX + ownerId + ".0" + SUFFIX);
+        File file2 = createFile(PREFIX + ownerId + ".12" + SUFFIX);
+
+        TemporarySpool spool = spool(4);
+        try {
+            spool.open();
+            assertEquals(2, spool.clean());
+            assertFalse(file1.exists());
+            assertFalse(file2.exists());
+            assertFalse(lockFile.exists());
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void testCleanKeepsFilesOfAliveSpool() throws Exception {
+        TemporarySpool aliveSpool = spool(4);
+        TemporarySpool spool = spool(4);
+        try {
+            TemporarySpool.SpoolFile spoolFile = aliveSpool.lease();
+            spool.open();
+            assertEquals(0, spool.clean());
+            assertTrue(spoolFile.getFile().exists());
+        } finally {
+            spool.close();
+            aliveSpool.close();
+        }
+    }
+
+    @Test
+    public void testCleanKeepsFilesNotOwnedBySpool() throws Exception {
+        String ownerId = UUID.randomUUID().toString();
+        createFile(PREFIX + ownerId + ".lock");
+        File[] files = {
+                // 旧版本的命名格式，不包含临时文件池标识。
+                createFile(PREFIX + "123456789" + SUFFIX),
+                // 临时文件池标识不是 UUID。
+                createFile(PREFIX + "foo.bar" + SUFFIX),
+                createFile(PREFIX + ownerId.toUpperCase() + ".0" + SUFFIX),
+                // 序号不是数字。
+                createFile(PREFIX + ownerId + ".abc" + SUFFIX),
+                createFile(PREFIX + ownerId + "." + SUFFIX),
+                // 没有对应的锁文件。
+                createFile(PREFIX + UUID.randomUUID() + ".0" + SUFFIX),
+                // 前缀或后缀不同。
+                createFile("other-" + ownerId + ".0" + SUFFIX),
+                createFile(PREFIX + ownerId + ".0.bak")
+        };
+        for (File file : files) {
+            assertTrue(file.setLastModified(0));
+        }
+
+        TemporarySpool spool = spool(4);
+        try {
+            spool.open();
+            assertEquals(0, spool.clean());
+            for (File file : files) {
+                assertTrue(file.getName(), file.exists());
+            }
+        } finally {
+            spool.close();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.dwarfeng.ftp.reactive.impl.handler;
+
+import com.dwarfeng.ftp.impl.handler.BufferPool;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 获取 FTP 文件的 {@link Publisher}。
+ *
+ * <p>
+ * 每次订阅都会打开一个独立的输入流，输入流在订阅者第一次请求数据时打开。<br>
+ * 读取只在订阅者有未满足的需求时进行，每次读取至多一个块，并立即交付给订阅者；
+ * 订阅者没有需求时，数据连接不被读取，服务器的发送被 TCP 流量控制阻塞，
+ * 内存中至多只有操作系统的接收缓冲区以及输入流的缓冲区中的数据。
+ *
+ * <p>
+ * 每个订阅从缓冲区池中借出一个块大小的缓冲区，每次读取都复用该缓冲区，订阅结束时归还，
+ * 因此交付给订阅者的 {@link ByteBuffer} 是该缓冲区的只读视图，只在 <code>onNext</code> 返回之前有效。
+ *
+ * <p>
+ * 读取在指定的 {@link Executor} 中进行，同一个订阅的读取任务由工作计数串行化。
+ * 输入流的读取是阻塞的，订阅者有需求而服务器的数据尚未到达时，读取任务占用 {@link Executor} 的一个线程；
+ * 只有订阅者没有需求时，订阅才不占用 {@link Executor} 的线程。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+class FtpRetrievePublisher implements Publisher<ByteBuffer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtpRetrievePublisher.class);
+
+    private final FtpHandler handler;
+    private final Executor executor;
+    private final BufferPool bufferPool;
+    private final FtpFileLocation fileLocation;
+    private final int chunkSize;
+
+    FtpRetrievePublisher(
+            @Nonnull FtpHandler handler, @Nonnull Executor executor, @Nonnull BufferPool bufferPool,
+            @Nonnull FtpFileLocation fileLocation, int chunkSize
+    ) {
+        this.handler = handler;
+        this.executor = executor;
+        this.bufferPool = bufferPool;
+        this.fileLocation = fileLocation;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber 不能为 null");
+        subscriber.onSubscribe(new RetrieveSubscription(subscriber));
+    }
+
+    @Override
+    public String toString() {
+        return "FtpRetrievePublisher{" +
+                "fileLocation=" + fileLocation +
+                ", chunkSize=" + chunkSize +
+                '}';
+    }
+
+    private class RetrieveSubscription implements Subscription {
+
+        private final Subscriber<? super ByteBuffer> subscriber;
+
+        /**
+         * 订阅者累计请求且尚未满足的数量，达到 {@link Long#MAX_VALUE} 时视为无限。
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * 工作计数，不为 0 时有且只有一个读取任务正在运行或者已经提交。
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled = false;
+
+        /**
+         * 非法请求的数量，没有非法请求时为 null。
+         *
+         * <p>
+         * 根据 Reactive Streams 规范 3.9，请求的数量不为正数时，需要以 {@link IllegalArgumentException} 结束订阅，
+         * 该信号由读取任务发出，以保证信号的串行。
+         */
+        private volatile Long illegalRequest = null;
+
+        // 以下字段只在读取任务中访问，工作计数保证读取任务之间的可见性。
+        private InputStream in = null;
+        private ByteBuffer buffer = null;
+        private boolean terminated = false;
+
+        RetrieveSubscription(Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                illegalRequest = n;
+            } else {
+                addRequested(n);
+            }
+            schedule();
+        }
+
+        private void addRequested(long n) {
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+                next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+            } while (!requested.compareAndSet(current, next));
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (Throwable e) {
+                // 读取任务无法提交时，当前线程持有工作计数，可以安全地结束订阅。
+                LOGGER.warn("提交读取任务时发生异常, 将结束订阅, 异常信息如下: ", e);
+                cancelled = true;
+                terminate(e);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                drainOnce();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            if (terminated) {
+                return;
+            }
+            if (cancelled) {
+                terminated = true;
+                closeQuietly();
+                return;
+            }
+            if (Objects.nonNull(illegalRequest)) {
+                cancelled = true;
+                terminate(new IllegalArgumentException(
+                        "根据 Reactive Streams 规范 3.9, 请求的数量必须为正数: " + illegalRequest
+                ));
+                return;
+            }
+            try {
+                while (requested.get() > 0 && !cancelled) {
+                    if (Objects.isNull(in)) {
+                        in = handler.openInputStream(fileLocation);
+                    }
+                    if (Objects.isNull(buffer)) {
+                        buffer = bufferPool.acquire(chunkSize, false);
+                    }
+                    // 缓冲区池借出的堆内存缓冲区的数组偏移量为 0，可以直接读入数组。
+                    int length = in.read(buffer.array(), 0, chunkSize);
+                    if (length < 0) {
+                        // 关闭输入流以完成传输，传输失败时，close 方法抛出异常。
+                        InputStream finishedIn = in;
+                        in = null;
+                        releaseBuffer();
+                        finishedIn.close();
+                        terminated = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (length == 0) {
+                        continue;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    buffer.clear();
+                    buffer.limit(length);
+                    subscriber.onNext(buffer.asReadOnlyBuffer());
+                }
+                if (cancelled) {
+                    terminated = true;
+                    closeQuietly();
+                }
+            } catch (Throwable e) {
+                cancelled = true;
+                terminate(e);
+            }
+        }
+
+        private void terminate(Throwable cause) {
+            terminated = true;
+            closeQuietly();
+            subscriber.onError(cause);
+        }
+
+        private void closeQuietly() {
+            releaseBuffer();
+            if (Objects.isNull(in)) {
+                return;
+            }
+            try {
+                in.close();
+            } catch (Exception e) {
+                LOGGER.debug("关闭输入流时发生异常, 异常信息如下: ", e);
+            } finally {
+                in = null;
+            }
+        }
+
+        private void releaseBuffer() {
+            if (Objects.isNull(buffer)) {
+                return;
+            }
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.dwarfeng.ftp.reactive.impl.handler;
+
+import com.dwarfeng.ftp.impl.handler.BufferPool;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 存储 FTP 文件的 {@link Subscriber}。
+ *
+ * <p>
+ * 订阅成功后，订阅者在指定的 {@link Executor} 中打开输出流，随后请求一个 {@link ByteBuffer}；
+ * 每个 {@link ByteBuffer} 的内容被写入输出流之后，才请求下一个。
+ * 因此上游的发布速度被数据连接的写入速度限制，内存中至多只有一个尚未写入的 {@link ByteBuffer}。
+ *
+ * <p>
+ * 内容首先被写入同一目录下的临时文件，上游完成后，临时文件被重命名为目标文件；
+ * 传输中止时，只有临时文件被删除，目标文件原有的内容不受影响。<br>
+ * 没有底层数组的 {@link ByteBuffer} 经由从缓冲区池中借出的缓冲区写入输出流，该缓冲区在传输结束时归还。
+ *
+ * <p>
+ * 所有的信号都被转换为任务，按照到达的顺序在 {@link Executor} 中串行执行。
+ * 输出流的写入是阻塞的，服务器接收较慢时，写入任务占用 {@link Executor} 的一个线程；
+ * 只有没有待执行的任务，即等待上游的数据时，订阅者才不占用 {@link Executor} 的线程。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+class FtpStoreSubscriber implements Subscriber<ByteBuffer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FtpStoreSubscriber.class);
+
+    /**
+     * 临时文件的后缀，临时文件的名称为 <code>目标文件名 + . + UUID + 后缀</code>。
+     */
+    private static final String TEMPORARY_FILE_SUFFIX = ".uploading";
+
+    private final FtpHandler handler;
+    private final Executor executor;
+    private final BufferPool bufferPool;
+    private final int chunkSize;
+    private final FtpFileLocation fileLocation;
+    private final FtpFileLocation temporaryFileLocation;
+    private final CompletableFuture<Void> future;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile Subscription subscription = null;
+
+    // 以下字段只在任务中访问，工作计数保证任务之间的可见性。
+    private OutputStream out = null;
+    private ByteBuffer buffer = null;
+    private boolean terminated = false;
+
+    FtpStoreSubscriber(
+            @Nonnull FtpHandler handler, @Nonnull Executor executor, @Nonnull BufferPool bufferPool, int chunkSize,
+            @Nonnull FtpFileLocation fileLocation, @Nonnull CompletableFuture<Void> future
+    ) {
+        this.handler = handler;
+        this.executor = executor;
+        this.bufferPool = bufferPool;
+        this.chunkSize = chunkSize;
+        this.fileLocation = fileLocation;
+        String temporaryFileName = fileLocation.getFileName() + "." + UUID.randomUUID() + TEMPORARY_FILE_SUFFIX;
+        this.temporaryFileLocation = new FtpFileLocation(fileLocation.getFilePaths(), temporaryFileName);
+        this.future = future;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription 不能为 null");
+        // 根据 Reactive Streams 规范 2.5，已经存在有效的订阅时，取消新的订阅。
+        if (Objects.nonNull(this.subscription)) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+
+        // 调用者取消 CompletableFuture 时，取消订阅并中止传输。
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                subscription.cancel();
+                schedule(this::abortTransfer);
+            }
+        });
+        schedule(this::openTransfer);
+    }
+
+    @Override
+    public void onNext(ByteBuffer byteBuffer) {
+        Objects.requireNonNull(byteBuffer, "byteBuffer 不能为 null");
+        schedule(() -> writeTransfer(byteBuffer));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable 不能为 null");
+        schedule(() -> failTransfer(throwable, false));
+    }
+
+    @Override
+    public void onComplete() {
+        schedule(this::completeTransfer);
+    }
+
+    private void openTransfer() {
+        try {
+            out = handler.openOutputStream(temporaryFileLocation);
+        } catch (Throwable e) {
+            failTransfer(e, true);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    private void writeTransfer(ByteBuffer byteBuffer) {
+        try {
+            ByteBuffer source = byteBuffer.duplicate();
+            if (source.hasArray()) {
+                out.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            } else {
+                // 没有底层数组的缓冲区，经由借出的缓冲区分块写入，缓冲区池借出的堆内存缓冲区的数组偏移量为 0。
+                if (Objects.isNull(buffer)) {
+                    buffer = bufferPool.acquire(chunkSize, false);
+                }
+                while (source.hasRemaining()) {
+                    int length = Math.min(source.remaining(), buffer.capacity());
+                    source.get(buffer.array(), 0, length);
+                    out.write(buffer.array(), 0, length);
+                }
+            }
+        } catch (Throwable e) {
+            failTransfer(e, true);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    private void completeTransfer() {
+        terminated = true;
+        releaseBuffer();
+        try {
+            // 关闭输出流以完成传输，传输失败时，close 方法抛出异常。
+            OutputStream finishedOut = out;
+            out = null;
+            finishedOut.close();
+            // 临时文件完整之后，才将其重命名为目标文件。
+            handler.renameFile(temporaryFileLocation, fileLocation);
+        } catch (Throwable e) {
+            deleteTemporaryFile();
+            future.completeExceptionally(e);
+            return;
+        }
+        future.complete(null);
+    }
+
+    private void failTransfer(Throwable cause, boolean cancelUpstream) {
+        if (cancelUpstream) {
+            subscription.cancel();
+        }
+        abortTransfer();
+        future.completeExceptionally(cause);
+    }
+
+    private void abortTransfer() {
+        terminated = true;
+        releaseBuffer();
+        if (Objects.isNull(out)) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (Exception e) {
+            LOGGER.debug("关闭输出流时发生异常, 异常信息如下: ", e);
+        } finally {
+            out = null;
+        }
+
+        // 输出流关闭后，服务器上保留的是不完整的临时文件，目标文件不受影响，尽力将临时文件删除。
+        deleteTemporaryFile();
+    }
+
+    private void deleteTemporaryFile() {
+        try {
+            if (handler.existsFile(temporaryFileLocation)) {
+                handler.deleteFile(temporaryFileLocation);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("删除不完整的临时文件 {} 时发生异常, 异常信息如下: ", temporaryFileLocation, e);
+        }
+    }
+
+    private void releaseBuffer() {
+        if (Objects.isNull(buffer)) {
+            return;
+        }
+        bufferPool.release(buffer);
+        buffer = null;
+    }
+
+    private void schedule(Runnable task) {
+        tasks.offer(task);
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (Throwable e) {
+            // 任务无法提交时，当前线程持有工作计数，可以安全地结束传输。
+            LOGGER.warn("提交存储任务时发生异常, 将中止传输, 异常信息如下: ", e);
+            tasks.clear();
+            subscription.cancel();
+            abortTransfer();
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            Runnable task;
+            while (Objects.nonNull(task = tasks.poll())) {
+                // 传输结束之后，忽略剩余的信号。
+                if (!terminated) {
+                    task.run();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @Override
+    public String toString() {
+        return "FtpStoreSubscriber{" +
+                "fileLocation=" + fileLocation +
+                ", future=" + future +
+                '}';
+    }
+}
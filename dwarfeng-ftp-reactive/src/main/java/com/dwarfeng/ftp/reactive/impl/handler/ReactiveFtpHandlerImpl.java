@@ -0,0 +1,107 @@
+package com.dwarfeng.ftp.reactive.impl.handler;
+
+import com.dwarfeng.ftp.impl.handler.BufferPool;
+import com.dwarfeng.ftp.reactive.stack.handler.ReactiveFtpHandler;
+import com.dwarfeng.ftp.stack.bean.dto.BufferPoolMetrics;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.reactivestreams.Publisher;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 响应式 FTP 处理器实现。
+ *
+ * <p>
+ * 该实现基于 {@link FtpHandler#openInputStream(FtpFileLocation)} 以及
+ * {@link FtpHandler#openOutputStream(FtpFileLocation)}，每个传输占用会话池中的一个会话，
+ * 不同的传输之间互不阻塞。<br>
+ * 数据连接的读写在指定的 {@link Executor} 中进行，每次读写至多一个块。
+ * 数据连接的读写是阻塞的，等待服务器的数据或者等待服务器接收数据时，传输占用 {@link Executor} 的一个线程；
+ * 只有等待下游的需求或者上游的数据时，传输才不占用 {@link Executor} 的线程。
+ * 因此 {@link Executor} 的线程数决定了同时进行数据读写的传输数量。
+ *
+ * <p>
+ * 传输使用的块缓冲区从缓冲区池中借出，传输结束时归还，传输过程中不会为每个块分配新的缓冲区。<br>
+ * 缓冲区池可以在构造时指定，以便与其它组件共享；未指定时，处理器创建自己的缓冲区池。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class ReactiveFtpHandlerImpl implements ReactiveFtpHandler {
+
+    /**
+     * 默认的块大小，单位为字节。
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 65536;
+
+    /**
+     * 处理器自己创建的缓冲区池中，空闲的缓冲区的最大总容量相当于的块的数量。
+     */
+    public static final int DEFAULT_BUFFER_POOL_MAX_IDLE_CHUNKS = 16;
+
+    private final FtpHandler handler;
+    private final Executor executor;
+    private final int chunkSize;
+    private final BufferPool bufferPool;
+
+    public ReactiveFtpHandlerImpl(@Nonnull FtpHandler handler, @Nonnull Executor executor) {
+        this(handler, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ReactiveFtpHandlerImpl(@Nonnull FtpHandler handler, @Nonnull Executor executor, int chunkSize) {
+        this(handler, executor, chunkSize, new BufferPool((long) DEFAULT_BUFFER_POOL_MAX_IDLE_CHUNKS * chunkSize));
+    }
+
+    public ReactiveFtpHandlerImpl(
+            @Nonnull FtpHandler handler, @Nonnull Executor executor, int chunkSize, @Nonnull BufferPool bufferPool
+    ) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数: " + chunkSize);
+        }
+        this.handler = handler;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public Publisher<ByteBuffer> retrieveFile(@Nonnull FtpFileLocation fileLocation) {
+        return new FtpRetrievePublisher(handler, executor, bufferPool, fileLocation, chunkSize);
+    }
+
+    @Override
+    public CompletableFuture<Void> storeFile(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Publisher<? extends ByteBuffer> publisher
+    ) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        publisher.subscribe(new FtpStoreSubscriber(handler, executor, bufferPool, chunkSize, fileLocation, future));
+        return future;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 获取缓冲区池的指标。
+     *
+     * @return 缓冲区池的指标。
+     */
+    public BufferPoolMetrics getBufferPoolMetrics() {
+        return bufferPool.getMetrics();
+    }
+
+    @Override
+    public String toString() {
+        return "ReactiveFtpHandlerImpl{" +
+                "handler=" + handler +
+                ", executor=" + executor +
+                ", chunkSize=" + chunkSize +
+                ", bufferPool=" + bufferPool +
+                '}';
+    }
+}
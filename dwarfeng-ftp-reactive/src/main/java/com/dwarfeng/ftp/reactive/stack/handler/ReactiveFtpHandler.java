@@ -0,0 +1,67 @@
+package com.dwarfeng.ftp.reactive.stack.handler;
+
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.reactivestreams.Publisher;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 响应式 FTP 处理器。
+ *
+ * <p>
+ * 该处理器以 Reactive Streams 的形式传输 FTP 文件的内容，并遵循订阅者的需求：
+ * 处理器只在下游请求数据时才从数据连接中读取数据，只在上游交付数据后才向数据连接中写入数据，
+ * 因此较慢的一方会通过 TCP 流量控制限制传输的速度，而不会使数据堆积在内存中。
+ *
+ * <p>
+ * 数据连接的读写是阻塞的：等待服务器的数据或者等待服务器接收数据时，传输占用一个线程；
+ * 只有等待下游的需求或者上游的数据时，传输才不占用线程。
+ *
+ * @author DwArFeng
+ * @see FtpHandler
+ * @since 2.1.0
+ */
+public interface ReactiveFtpHandler {
+
+    /**
+     * 以 {@link Publisher} 的形式获取 FTP 文件。
+     *
+     * <p>
+     * 返回的 {@link Publisher} 是冷的：每次订阅都会打开一个独立的传输，传输在订阅者第一次请求数据时开始。<br>
+     * 每个 {@link ByteBuffer} 都是处理器复用的缓冲区的只读视图，只在 <code>onNext</code> 返回之前有效，
+     * 订阅者需要在 <code>onNext</code> 返回之后继续使用其内容时，应当自行复制。<br>
+     * 文件传输完成后，订阅者收到 <code>onComplete</code> 信号；传输失败时，订阅者收到 <code>onError</code> 信号，
+     * 异常为 {@link FtpHandler#openInputStream(FtpFileLocation)} 或者输入流抛出的异常。<br>
+     * 订阅者取消订阅时，处理器关闭输入流，以结束传输并归还其占用的会话。
+     *
+     * @param fileLocation 文件位置。
+     * @return 文件内容的 {@link Publisher}。
+     * @see FtpHandler#openInputStream(FtpFileLocation)
+     */
+    Publisher<ByteBuffer> retrieveFile(@Nonnull FtpFileLocation fileLocation);
+
+    /**
+     * 存储 {@link Publisher} 发布的内容到 FTP 文件。
+     *
+     * <p>
+     * 处理器订阅指定的 {@link Publisher}，每次只请求一个 {@link ByteBuffer}，
+     * 在其内容被写入数据连接后才请求下一个。{@link ByteBuffer} 的位置不会被修改。<br>
+     * 内容首先被写入同一目录下名为 <code>文件名 + . + UUID + .uploading</code> 的临时文件。<br>
+     * 上游发出 <code>onComplete</code> 信号后，处理器关闭输出流以完成传输，将临时文件重命名为目标文件，
+     * 并以 null 完成返回的 {@link CompletableFuture}；目标文件已经存在时，其在重命名时被替换。<br>
+     * 上游发出 <code>onError</code> 信号，或者写入失败时，处理器中止传输，尽力删除不完整的临时文件，
+     * 目标文件原有的内容不受影响，并以对应的异常失败返回的 {@link CompletableFuture}。<br>
+     * 取消返回的 {@link CompletableFuture} 时，处理器取消对上游的订阅，并以相同的方式中止传输。
+     *
+     * @param fileLocation 文件位置。
+     * @param publisher    文件内容的 {@link Publisher}。
+     * @return 操作结果的 {@link CompletableFuture}，操作成功时以 null 完成。
+     * @see FtpHandler#openOutputStream(FtpFileLocation)
+     */
+    CompletableFuture<Void> storeFile(
+            @Nonnull FtpFileLocation fileLocation, @Nonnull Publisher<? extends ByteBuffer> publisher
+    );
+}
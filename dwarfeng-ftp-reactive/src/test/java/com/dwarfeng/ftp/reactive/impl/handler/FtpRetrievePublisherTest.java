@@ -0,0 +1,156 @@
+package com.dwarfeng.ftp.reactive.impl.handler;
+
+import com.dwarfeng.ftp.impl.handler.BufferPool;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FtpRetrievePublisher} 的测试。
+ *
+ * <p>
+ * 测试使用在调用线程中直接执行任务的 {@link java.util.concurrent.Executor}，使信号的顺序确定。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpRetrievePublisherTest {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final FtpFileLocation FILE_LOCATION = new FtpFileLocation(new String[]{"foobar"}, "file.bin");
+
+    private InMemoryFtpHandler ftpHandler;
+    private BufferPool bufferPool;
+    private byte[] content;
+
+    @Before
+    public void setUp() {
+        ftpHandler = new InMemoryFtpHandler();
+        bufferPool = new BufferPool(CHUNK_SIZE * 16L);
+        content = new byte[CHUNK_SIZE * 10 + 100];
+        new Random(0).nextBytes(content);
+        ftpHandler.putFile(FILE_LOCATION.getFileName(), content);
+    }
+
+    @Test
+    public void testReadOnlyOnDemand() {
+        RecordingSubscriber subscriber = subscribe();
+
+        // 订阅者请求数据之前，不打开输入流。
+        assertTrue(ftpHandler.getInvocations().isEmpty());
+        assertEquals(0, ftpHandler.getReadBytes());
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.chunkCount);
+        assertEquals(CHUNK_SIZE, ftpHandler.getReadBytes());
+
+        subscriber.subscription.request(2);
+        assertEquals(3, subscriber.chunkCount);
+        assertEquals(CHUNK_SIZE * 3, ftpHandler.getReadBytes());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        assertArrayEquals(content, subscriber.received.toByteArray());
+        assertTrue(ftpHandler.isInputStreamClosed());
+    }
+
+    @Test
+    public void testBuffersAreReused() {
+        RecordingSubscriber subscriber = subscribe();
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(subscriber.completed);
+
+        // 每个块都是同一个缓冲区的只读视图。
+        for (ByteBuffer buffer : subscriber.buffers) {
+            assertTrue(buffer.isReadOnly());
+        }
+        // 订阅结束时，缓冲区被归还，下一个订阅复用该缓冲区。
+        long missCount = bufferPool.getMetrics().getMissCount();
+        RecordingSubscriber another = subscribe();
+        another.subscription.request(Long.MAX_VALUE);
+        assertTrue(another.completed);
+        assertEquals(missCount, bufferPool.getMetrics().getMissCount());
+        assertArrayEquals(content, another.received.toByteArray());
+    }
+
+    @Test
+    public void testCancelClosesInputStream() {
+        RecordingSubscriber subscriber = subscribe();
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        assertTrue(ftpHandler.isInputStreamClosed());
+        // 取消之后，不再读取数据，也不再发出信号。
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.chunkCount);
+        assertEquals(CHUNK_SIZE, ftpHandler.getReadBytes());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testIllegalRequest() {
+        RecordingSubscriber subscriber = subscribe();
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, ftpHandler.getReadBytes());
+    }
+
+    private RecordingSubscriber subscribe() {
+        FtpRetrievePublisher publisher = new FtpRetrievePublisher(
+                ftpHandler.getHandler(), Runnable::run, bufferPool, FILE_LOCATION, CHUNK_SIZE
+        );
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        return subscriber;
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<ByteBuffer> {
+
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+
+        private Subscription subscription;
+        private int chunkCount = 0;
+        private boolean completed = false;
+        private Throwable error = null;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer byteBuffer) {
+            chunkCount++;
+            buffers.add(byteBuffer);
+            // 缓冲区只在 onNext 返回之前有效，因此立即复制其内容。
+            byte[] chunk = new byte[byteBuffer.remaining()];
+            byteBuffer.get(chunk);
+            received.write(chunk, 0, chunk.length);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.dwarfeng.ftp.reactive.impl.handler;
+
+import com.dwarfeng.ftp.impl.handler.BufferPool;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FtpStoreSubscriber} 的测试。
+ *
+ * <p>
+ * 测试使用在调用线程中直接执行任务的 {@link java.util.concurrent.Executor}，使信号的顺序确定。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+public class FtpStoreSubscriberTest {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final FtpFileLocation FILE_LOCATION = new FtpFileLocation(new String[]{"foobar"}, "file.bin");
+
+    private InMemoryFtpHandler ftpHandler;
+    private BufferPool bufferPool;
+    private byte[] original;
+
+    @Before
+    public void setUp() {
+        ftpHandler = new InMemoryFtpHandler();
+        bufferPool = new BufferPool(CHUNK_SIZE * 16L);
+        original = new byte[]{1, 2, 3};
+        ftpHandler.putFile(FILE_LOCATION.getFileName(), original);
+    }
+
+    @Test
+    public void testRequestsOneChunkAtATime() throws Exception {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        FtpStoreSubscriber subscriber = newSubscriber(future);
+        subscriber.onSubscribe(subscription);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Random random = new Random(0);
+        for (int i = 0; i < 10; i++) {
+            // 上一个块被写入之后，才请求下一个块。
+            assertEquals(1, subscription.outstanding);
+            byte[] chunk = new byte[CHUNK_SIZE + i];
+            random.nextBytes(chunk);
+            expected.write(chunk, 0, chunk.length);
+            // 交替使用堆内存缓冲区与直接内存缓冲区。
+            ByteBuffer byteBuffer = i % 2 == 0 ? ByteBuffer.wrap(chunk) : ByteBuffer.allocateDirect(chunk.length);
+            if (byteBuffer.isDirect()) {
+                byteBuffer.put(chunk).flip();
+            }
+            subscription.outstanding--;
+            subscriber.onNext(byteBuffer);
+            // 缓冲区的位置不被修改。
+            assertEquals(0, byteBuffer.position());
+        }
+        // 上游完成之前，目标文件保持原有的内容。
+        assertArrayEquals(original, ftpHandler.getFile(FILE_LOCATION.getFileName()));
+        subscriber.onComplete();
+
+        future.get();
+        assertArrayEquals(expected.toByteArray(), ftpHandler.getFile(FILE_LOCATION.getFileName()));
+        // 临时文件已经被重命名为目标文件。
+        assertEquals(1, ftpHandler.getFiles().size());
+        assertFalse(subscription.cancelled);
+    }
+
+    @Test
+    public void testUpstreamErrorKeepsOriginalFile() throws Exception {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        FtpStoreSubscriber subscriber = newSubscriber(future);
+        subscriber.onSubscribe(subscription);
+
+        subscriber.onNext(ByteBuffer.wrap(new byte[CHUNK_SIZE]));
+        IllegalStateException cause = new IllegalStateException("上游失败");
+        subscriber.onError(cause);
+
+        try {
+            future.get();
+            fail("上游失败时, 存储应该失败");
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+        // 不完整的临时文件被删除，目标文件保持原有的内容。
+        assertEquals(1, ftpHandler.getFiles().size());
+        assertArrayEquals(original, ftpHandler.getFile(FILE_LOCATION.getFileName()));
+        assertFalse(ftpHandler.getInvocations().contains("renameFile"));
+    }
+
+    @Test
+    public void testCancelFutureKeepsOriginalFile() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        FtpStoreSubscriber subscriber = newSubscriber(future);
+        subscriber.onSubscribe(subscription);
+
+        subscriber.onNext(ByteBuffer.wrap(new byte[CHUNK_SIZE]));
+        future.cancel(true);
+
+        assertTrue(subscription.cancelled);
+        assertEquals(1, ftpHandler.getFiles().size());
+        assertArrayEquals(original, ftpHandler.getFile(FILE_LOCATION.getFileName()));
+        // 取消之后，剩余的信号被忽略。
+        subscriber.onNext(ByteBuffer.wrap(new byte[CHUNK_SIZE]));
+        subscriber.onComplete();
+        assertEquals(1, ftpHandler.getFiles().size());
+        assertArrayEquals(original, ftpHandler.getFile(FILE_LOCATION.getFileName()));
+    }
+
+    private FtpStoreSubscriber newSubscriber(CompletableFuture<Void> future) {
+        return new FtpStoreSubscriber(
+                ftpHandler.getHandler(), Runnable::run, bufferPool, CHUNK_SIZE, FILE_LOCATION, future
+        );
+    }
+
+    private static final class RecordingSubscription implements Subscription {
+
+        private long outstanding = 0;
+        private boolean cancelled = false;
+
+        @Override
+        public void request(long n) {
+            outstanding += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.dwarfeng.ftp.reactive.impl.handler;
+
+import com.dwarfeng.ftp.stack.exception.FtpException;
+import com.dwarfeng.ftp.stack.handler.FtpHandler;
+import com.dwarfeng.ftp.stack.struct.FtpFileLocation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用于测试的内存 FTP 处理器。
+ *
+ * <p>
+ * 文件只以文件名区分，保存在内存中；只支持响应式处理器使用的方法，调用其它方法时抛出 {@link UnsupportedOperationException}。
+ * <br>
+ * 处理器记录输入流被读取的字节数，以及被调用的方法，以便测试验证背压以及中止的行为。
+ *
+ * @author DwArFeng
+ * @since 2.1.0
+ */
+final class InMemoryFtpHandler {
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final List<String> invocations = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong readBytes = new AtomicLong();
+
+    private volatile boolean inputStreamClosed = false;
+
+    private final FtpHandler handler = (FtpHandler) Proxy.newProxyInstance(
+            FtpHandler.class.getClassLoader(), new Class<?>[]{FtpHandler.class}, (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return method.invoke(this, args);
+                }
+                invocations.add(method.getName());
+                switch (method.getName()) {
+                    case "openInputStream":
+                        return openInputStream((FtpFileLocation) args[0]);
+                    case "openOutputStream":
+                        return openOutputStream((FtpFileLocation) args[0]);
+                    case "existsFile":
+                        return files.containsKey(((FtpFileLocation) args[0]).getFileName());
+                    case "deleteFile":
+                        files.remove(((FtpFileLocation) args[0]).getFileName());
+                        return null;
+                    case "renameFile":
+                        byte[] content = files.remove(((FtpFileLocation) args[0]).getFileName());
+                        files.put(((FtpFileLocation) args[1]).getFileName(), content);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+    );
+
+    FtpHandler getHandler() {
+        return handler;
+    }
+
+    void putFile(String fileName, byte[] content) {
+        files.put(fileName, content);
+    }
+
+    byte[] getFile(String fileName) {
+        return files.get(fileName);
+    }
+
+    Map<String, byte[]> getFiles() {
+        return files;
+    }
+
+    List<String> getInvocations() {
+        return invocations;
+    }
+
+    long getReadBytes() {
+        return readBytes.get();
+    }
+
+    boolean isInputStreamClosed() {
+        return inputStreamClosed;
+    }
+
+    private InputStream openInputStream(FtpFileLocation fileLocation) throws FtpException {
+        byte[] content = files.get(fileLocation.getFileName());
+        if (Objects.isNull(content)) {
+            throw new FtpException("文件不存在: " + fileLocation);
+        }
+        return new ByteArrayInputStream(content) {
+
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int length = super.read(b, off, len);
+                if (length > 0) {
+                    readBytes.addAndGet(length);
+                }
+                return length;
+            }
+
+            @Override
+            public void close() throws IOException {
+                inputStreamClosed = true;
+                super.close();
+            }
+        };
+    }
+
+    private OutputStream openOutputStream(FtpFileLocation fileLocation) {
+        // 与 FTP 的 STOR 指令一致，关闭输出流时，已经写入的内容被保存。
+        return new ByteArrayOutputStream() {
+
+            @Override
+            public void close() throws IOException {
+                files.put(fileLocation.getFileName(), toByteArray());
+                super.close();
+            }
+        };
+    }
+}